@@ -0,0 +1,176 @@
+package org.jfrog.build.api.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.jfrog.build.api.util.FileChecksumCalculator.MD5_ALGORITHM;
+import static org.jfrog.build.api.util.FileChecksumCalculator.SHA1_ALGORITHM;
+import static org.jfrog.build.api.util.FileChecksumCalculator.SHA256_ALGORITHM;
+
+/**
+ * Calculates the MD5, SHA1 and SHA-256 checksums of many files concurrently, on a thread pool shared by all the callers
+ * of the instance.<br>
+ * The checksums are memoized by the file path, size and modification time, so a file which didn't change since its
+ * checksums were calculated, for example by another task of the same build, is not read again. The memoized checksums
+ * live as long as the instance, which should be owned by a single build and closed when it finishes.
+ */
+public class ParallelChecksumCalculator implements Closeable {
+    private final Map<FileKey, Map<String, String>> memoizedChecksums = new ConcurrentHashMap<>();
+    private final int threads;
+    private ExecutorService executor;
+
+    /**
+     * @param threads The max number of threads to calculate the checksums with
+     */
+    public ParallelChecksumCalculator(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Calculates the checksums of the given files, or returns the memoized checksums of files which didn't change.
+     *
+     * @param files The files to calculate
+     * @return Map of each file to a map with algorithm keys and checksum values
+     * @throws IOException Thrown if the checksums of any of the files couldn't be calculated
+     */
+    public Map<File, Map<String, String>> calculateChecksums(Collection<File> files) throws IOException {
+        Map<File, Map<String, String>> checksums = new LinkedHashMap<>();
+        List<File> filesToCalculate = new ArrayList<>();
+        for (File file : new LinkedHashSet<>(files)) {
+            Map<String, String> fileChecksums = memoizedChecksums.get(new FileKey(file));
+            if (fileChecksums != null) {
+                checksums.put(file, fileChecksums);
+            } else {
+                filesToCalculate.add(file);
+            }
+        }
+        if (filesToCalculate.isEmpty()) {
+            return checksums;
+        }
+
+        if (threads <= 1 || filesToCalculate.size() == 1) {
+            for (File file : filesToCalculate) {
+                checksums.put(file, calculate(file));
+            }
+            return checksums;
+        }
+        List<Future<Map<String, String>>> futures = new ArrayList<>();
+        try {
+            ExecutorService executor = getExecutor();
+            for (File file : filesToCalculate) {
+                futures.add(executor.submit(() -> calculate(file)));
+            }
+            for (int i = 0; i < filesToCalculate.size(); i++) {
+                checksums.put(filesToCalculate.get(i), futures.get(i).get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while calculating checksums", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        } finally {
+            // Don't keep the shared threads busy with the files of a failed call
+            for (Future<Map<String, String>> future : futures) {
+                future.cancel(true);
+            }
+        }
+        return checksums;
+    }
+
+    /**
+     * Calculates the checksums of a file, or returns the memoized checksums if the file didn't change.
+     *
+     * @param file The file to calculate
+     * @return Map with algorithm keys and checksum values
+     * @throws IOException Thrown if the checksums of the file couldn't be calculated
+     */
+    public Map<String, String> calculateChecksums(File file) throws IOException {
+        return calculateChecksums(Collections.singletonList(file)).get(file);
+    }
+
+    /**
+     * Stops the threads and removes all the memoized checksums.
+     */
+    @Override
+    public synchronized void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        memoizedChecksums.clear();
+    }
+
+    private synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            AtomicInteger threadCount = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "checksum-calculator-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    private Map<String, String> calculate(File file) throws IOException {
+        // Take the key before reading the file, so a modification during the calculation invalidates the result
+        FileKey key = new FileKey(file);
+        Map<String, String> checksums;
+        try {
+            checksums = Collections.unmodifiableMap(FileChecksumCalculator.calculateChecksums(file,
+                    MD5_ALGORITHM, SHA1_ALGORITHM, SHA256_ALGORITHM));
+        } catch (Exception e) {
+            throw new IOException("Failed to calculate checksums for artifact: " + file.getAbsolutePath(), e);
+        }
+        memoizedChecksums.put(key, checksums);
+        return checksums;
+    }
+
+    private static class FileKey {
+        private final String path;
+        private final long length;
+        private final long lastModified;
+
+        private FileKey(File file) {
+            this.path = file.getAbsolutePath();
+            this.length = file.length();
+            this.lastModified = file.lastModified();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            FileKey that = (FileKey) o;
+            return length == that.length && lastModified == that.lastModified && path.equals(that.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, length, lastModified);
+        }
+    }
+}
@@ -3,17 +3,26 @@ package org.jfrog.build.api.util;
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveInputStream;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
 import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.*;
-import java.util.Date;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Set;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.zip.ZipEntry;
 
 /**
  * A utility class to perform different archive related actions
@@ -21,6 +30,7 @@ import java.util.Set;
 public abstract class ZipUtils {
 
     private static final Set<String> SUPPORTED_EXTENSIONS = CommonUtils.newHashSet("zip", "tar", "tar.gz", "gz", "tgz");
+    private static final int BUFFER_SIZE = 64 * 1024;
 
     /**
      * Extracts the given archive file into the given directory
@@ -37,9 +47,158 @@ public abstract class ZipUtils {
         if (!sourceArchive.isFile()) {
             throw new IllegalArgumentException("Supplied source archive must be an existing file.");
         }
+        String extension = PathUtils.getExtension(sourceArchive.getName());
+        verifySupportedExtension(extension);
+        if (isZipFamilyArchive(extension)) {
+            try {
+                extractZip(sourceArchive, destinationDirectory, null, 0, Runtime.getRuntime().availableProcessors());
+            } catch (IOException ioe) {
+                throw new RuntimeException("Error while extracting " + sourceArchive.getPath(), ioe);
+            }
+            return;
+        }
         extractFiles(sourceArchive, destinationDirectory.getCanonicalFile());
     }
 
+    /**
+     * Extracts the entries of the given zip archive into the given directory in parallel.
+     * The entries are read using the central directory of the archive, so each thread can read its entries
+     * independently. Stored (uncompressed) entries are copied from the archive to the file by the file system.
+     *
+     * @param sourceArchive        Zip archive to extract
+     * @param destinationDirectory Directory to extract archive to
+     * @param includeFilter        Accepts the names of the entries to extract, after removing leading slashes and
+     *                             relative path segments. Null to extract all the entries
+     * @param maxTotalSize         Max total size in bytes of the extracted files, to protect from zip bombs.
+     *                             Zero or negative for no limit
+     * @param threads              Number of threads to extract with
+     * @throws IllegalArgumentException Thrown when given invalid destinations
+     * @throws IOException              Thrown when any error occurs while extracting, when an entry resolves to a path
+     *                                  outside the destination directory, or when the max total size is exceeded
+     */
+    public static void extractZip(File sourceArchive, File destinationDirectory, Predicate<String> includeFilter,
+                                  long maxTotalSize, int threads) throws IOException {
+        if ((sourceArchive == null) || (destinationDirectory == null)) {
+            throw new IllegalArgumentException("Supplied destinations cannot be null.");
+        }
+        if (!sourceArchive.isFile()) {
+            throw new IllegalArgumentException("Supplied source archive must be an existing file.");
+        }
+        File destination = destinationDirectory.getCanonicalFile();
+        try (ZipFile zipFile = new ZipFile(sourceArchive);
+             FileChannel sourceChannel = FileChannel.open(sourceArchive.toPath(), StandardOpenOption.READ)) {
+            // If an entry appears more than once, the last one is extracted
+            Map<File, ZipArchiveEntry> fileEntries = new LinkedHashMap<>();
+            Map<File, Date> directories = new LinkedHashMap<>();
+            for (ZipArchiveEntry entry : Collections.list(zipFile.getEntries())) {
+                String validatedEntryName = validateEntryName(entry.getName());
+                if (StringUtils.isBlank(validatedEntryName) || (includeFilter != null && !includeFilter.test(validatedEntryName))) {
+                    continue;
+                }
+                File entryFile = resolveEntryFile(destination, validatedEntryName);
+                if (entry.isDirectory()) {
+                    directories.put(entryFile, entry.getLastModifiedDate());
+                } else {
+                    fileEntries.remove(entryFile);
+                    fileEntries.put(entryFile, entry);
+                }
+            }
+            for (File directory : directories.keySet()) {
+                Files.createDirectories(directory.toPath());
+            }
+            extractZipFiles(zipFile, sourceChannel, fileEntries, maxTotalSize > 0 ? new AtomicLong(maxTotalSize) : null, threads);
+            // Preserve the last modified dates of the directories after their files were created
+            for (Map.Entry<File, Date> directory : directories.entrySet()) {
+                directory.getKey().setLastModified(directory.getValue().getTime());
+            }
+        }
+    }
+
+    private static void extractZipFiles(ZipFile zipFile, FileChannel sourceChannel, Map<File, ZipArchiveEntry> fileEntries,
+                                        AtomicLong remainingSize, int threads) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            List<Future<Void>> futures = new ArrayList<>(fileEntries.size());
+            for (Map.Entry<File, ZipArchiveEntry> fileEntry : fileEntries.entrySet()) {
+                futures.add(executor.submit(() -> {
+                    extractZipEntry(zipFile, sourceChannel, fileEntry.getValue(), fileEntry.getKey(), remainingSize);
+                    return null;
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while extracting " + zipFile, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void extractZipEntry(ZipFile zipFile, FileChannel sourceChannel, ZipArchiveEntry entry, File entryFile,
+                                        AtomicLong remainingSize) throws IOException {
+        if (!zipFile.canReadEntryData(entry)) {
+            throw new IOException("Unsupported compression method or encryption of zip entry: " + entry.getName());
+        }
+        Files.createDirectories(entryFile.getParentFile().toPath());
+        long dataOffset = entry.getDataOffset();
+        if (entry.getMethod() == ZipEntry.STORED && dataOffset >= 0 && entry.getSize() >= 0) {
+            long size = entry.getSize();
+            reserveSize(remainingSize, size, entry);
+            try (FileChannel targetChannel = FileChannel.open(entryFile.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                long transferred = 0;
+                while (transferred < size) {
+                    long count = sourceChannel.transferTo(dataOffset + transferred, size - transferred, targetChannel);
+                    if (count <= 0) {
+                        throw new IOException("Unexpected end of zip entry: " + entry.getName());
+                    }
+                    transferred += count;
+                }
+            }
+        } else {
+            try (InputStream inputStream = zipFile.getInputStream(entry);
+                 OutputStream outputStream = Files.newOutputStream(entryFile.toPath())) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int length;
+                while ((length = inputStream.read(buffer)) >= 0) {
+                    reserveSize(remainingSize, length, entry);
+                    outputStream.write(buffer, 0, length);
+                }
+            }
+        }
+        //Preserve last modified date
+        entryFile.setLastModified(entry.getLastModifiedDate().getTime());
+    }
+
+    private static void reserveSize(AtomicLong remainingSize, long size, ZipArchiveEntry entry) throws IOException {
+        if (remainingSize != null && remainingSize.addAndGet(-size) < 0) {
+            throw new IOException("Extracting " + entry.getName() + " exceeds the max total size of the extracted files");
+        }
+    }
+
+    /**
+     * Resolves the file of an entry, and verifies it is inside the destination directory
+     *
+     * @param destinationDirectory Canonical destination directory
+     * @param entryName            Validated entry name
+     * @return the file of the entry
+     * @throws IOException if the entry resolves to a path outside the destination directory
+     */
+    private static File resolveEntryFile(File destinationDirectory, String entryName) throws IOException {
+        File entryFile = new File(destinationDirectory, entryName);
+        if (!entryFile.getCanonicalPath().startsWith(destinationDirectory.getPath() + File.separator)) {
+            throw new IOException("Zip entry is outside of the destination directory: " + entryName);
+        }
+        return entryFile;
+    }
+
     /**
      * Extracts the given archive file into the given directory
      *
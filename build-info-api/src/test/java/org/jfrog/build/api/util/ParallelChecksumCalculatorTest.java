@@ -0,0 +1,105 @@
+package org.jfrog.build.api.util;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.jfrog.build.api.util.FileChecksumCalculator.MD5_ALGORITHM;
+import static org.jfrog.build.api.util.FileChecksumCalculator.SHA1_ALGORITHM;
+import static org.jfrog.build.api.util.FileChecksumCalculator.SHA256_ALGORITHM;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests the concurrent and memoized checksums calculation of {@link ParallelChecksumCalculator}.
+ */
+@Test
+public class ParallelChecksumCalculatorTest {
+    private File workspace;
+
+    @BeforeClass
+    public void setUp() throws IOException {
+        workspace = Files.createTempDirectory("parallel-checksums").toFile();
+    }
+
+    @AfterClass
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(workspace);
+    }
+
+    public void testCalculateChecksums() throws Exception {
+        List<File> files = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            files.add(createFile("file" + i + ".txt", "content " + i));
+        }
+        try (ParallelChecksumCalculator calculator = new ParallelChecksumCalculator(4)) {
+            Map<File, Map<String, String>> checksums = calculator.calculateChecksums(files);
+            assertEquals(checksums.size(), 10);
+            assertEquals(new ArrayList<>(checksums.keySet()), files);
+            for (File file : files) {
+                Map<String, String> expected = FileChecksumCalculator.calculateChecksums(file, MD5_ALGORITHM, SHA1_ALGORITHM, SHA256_ALGORITHM);
+                assertEquals(checksums.get(file), expected);
+            }
+            // The thread pool is reused by later calls
+            assertEquals(calculator.calculateChecksums(files.subList(0, 5)).size(), 5);
+        }
+    }
+
+    public void testMemoizedChecksums() throws Exception {
+        File file = createFile("memoized.txt", "content");
+        try (ParallelChecksumCalculator calculator = new ParallelChecksumCalculator(2)) {
+            Map<File, Map<String, String>> checksums = calculator.calculateChecksums(Arrays.asList(file, file));
+            assertEquals(checksums.keySet(), Collections.singleton(file));
+            Map<String, String> first = checksums.get(file);
+            assertSame(calculator.calculateChecksums(file), first);
+
+            // Another instance doesn't share the memoized checksums
+            try (ParallelChecksumCalculator otherCalculator = new ParallelChecksumCalculator(2)) {
+                assertNotSame(otherCalculator.calculateChecksums(file), first);
+            }
+
+            // A modified file is calculated again
+            Files.write(file.toPath(), "modified content".getBytes(StandardCharsets.UTF_8));
+            assertTrue(file.setLastModified(file.lastModified() + 2000));
+            Map<String, String> modified = calculator.calculateChecksums(file);
+            assertEquals(modified, FileChecksumCalculator.calculateChecksums(file, MD5_ALGORITHM, SHA1_ALGORITHM, SHA256_ALGORITHM));
+
+            // Closing the calculator removes the memoized checksums
+            calculator.close();
+            assertNotSame(calculator.calculateChecksums(file), modified);
+        }
+    }
+
+    public void testMissingFile() throws IOException {
+        File missing = new File(workspace, "missing.txt");
+        try (ParallelChecksumCalculator calculator = new ParallelChecksumCalculator(2)) {
+            try {
+                calculator.calculateChecksums(Arrays.asList(createFile("exists.txt", "content"), missing));
+                fail("Expected a missing file error");
+            } catch (IOException e) {
+                assertTrue(e.getMessage().contains(missing.getAbsolutePath()), e.getMessage());
+            }
+            assertTrue(calculator.calculateChecksums(Collections.emptyList()).isEmpty());
+        }
+    }
+
+    private File createFile(String name, String content) throws IOException {
+        File file = new File(workspace, name);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
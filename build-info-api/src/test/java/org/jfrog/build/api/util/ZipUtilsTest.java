@@ -0,0 +1,107 @@
+package org.jfrog.build.api.util;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests the parallel zip extraction of {@link ZipUtils}.
+ */
+@Test
+public class ZipUtilsTest {
+    private static final String STORED_CONTENT = "stored content";
+    private File workspace;
+    private File zip;
+
+    @BeforeClass
+    public void setUp() throws IOException {
+        workspace = Files.createTempDirectory("zip-utils").toFile();
+        zip = new File(workspace, "archive.zip");
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(new FileOutputStream(zip))) {
+            zipOutputStream.putNextEntry(new ZipEntry("dir/"));
+            zipOutputStream.closeEntry();
+            for (int i = 0; i < 20; i++) {
+                addDeflatedEntry(zipOutputStream, "dir/file" + i + ".txt", "content " + i);
+            }
+            addStoredEntry(zipOutputStream, "dir/sub/stored.txt", STORED_CONTENT);
+            addDeflatedEntry(zipOutputStream, "../../escaped.txt", "escaped");
+            addDeflatedEntry(zipOutputStream, "/absolute.txt", "absolute");
+        }
+    }
+
+    @AfterClass
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(workspace);
+    }
+
+    public void testExtractAll() throws IOException {
+        File destination = new File(workspace, "all");
+        ZipUtils.extract(zip, destination);
+        for (int i = 0; i < 20; i++) {
+            assertEquals(readFile(new File(destination, "dir/file" + i + ".txt")), "content " + i);
+        }
+        assertEquals(readFile(new File(destination, "dir/sub/stored.txt")), STORED_CONTENT);
+        // Relative path segments and leading slashes are removed from the entry names
+        assertEquals(readFile(new File(destination, "escaped.txt")), "escaped");
+        assertEquals(readFile(new File(destination, "absolute.txt")), "absolute");
+        assertFalse(new File(workspace, "escaped.txt").exists());
+    }
+
+    public void testIncludeFilter() throws IOException {
+        File destination = new File(workspace, "filtered");
+        ZipUtils.extractZip(zip, destination, name -> name.startsWith("dir/sub/"), 0, 4);
+        assertEquals(readFile(new File(destination, "dir/sub/stored.txt")), STORED_CONTENT);
+        assertFalse(new File(destination, "dir/file0.txt").exists());
+        assertFalse(new File(destination, "escaped.txt").exists());
+    }
+
+    public void testMaxTotalSize() throws IOException {
+        File destination = new File(workspace, "limited");
+        try {
+            ZipUtils.extractZip(zip, destination, null, 20, 4);
+            fail("Expected the extraction to exceed the max total size");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("exceeds the max total size"), e.getMessage());
+        }
+        // Within the limit
+        ZipUtils.extractZip(zip, new File(workspace, "unlimited"), name -> name.endsWith("stored.txt"), STORED_CONTENT.length(), 4);
+    }
+
+    private static void addDeflatedEntry(ZipOutputStream zipOutputStream, String name, String content) throws IOException {
+        zipOutputStream.putNextEntry(new ZipEntry(name));
+        zipOutputStream.write(content.getBytes(StandardCharsets.UTF_8));
+        zipOutputStream.closeEntry();
+    }
+
+    private static void addStoredEntry(ZipOutputStream zipOutputStream, String name, String content) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        ZipEntry entry = new ZipEntry(name);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(bytes.length);
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        entry.setCrc(crc.getValue());
+        zipOutputStream.putNextEntry(entry);
+        zipOutputStream.write(bytes);
+        zipOutputStream.closeEntry();
+    }
+
+    private static String readFile(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+}
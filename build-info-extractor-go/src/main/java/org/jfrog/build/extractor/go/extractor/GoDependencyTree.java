@@ -81,27 +81,50 @@ public class GoDependencyTree {
     }
 
     /**
-     * Recursively populate the dependency tree.
+     * Populate the dependency tree depth-first, using an explicit stack to support deep dependency graphs.
+     * Nodes which create a loop are added to the tree, but their dependencies are not.
      *
-     * @param currNode              - The current node
-     * @param currNameVersionString - Current dependency in form of <name>@v<version>
-     * @param allDependencies       - Dependency to children map
-     * @param logger                - The logger
+     * @param rootNode        - The root node
+     * @param rootNameVersion - The root dependency in form of <name>@v<version>
+     * @param allDependencies - Dependency to children map
+     * @param logger          - The logger
      */
-    private static void populateDependencyTree(DependencyTree currNode, String currNameVersionString,
+    private static void populateDependencyTree(DependencyTree rootNode, String rootNameVersion,
                                                Map<String, List<String>> allDependencies, Log logger) {
-        if (currNode.hasLoop(logger)) {
-            return;
-        }
-        List<String> currDependencies = allDependencies.get(currNameVersionString);
-        if (currDependencies == null) {
-            return;
-        }
-        for (String dependency : currDependencies) {
+        // The user objects of the nodes in the current path
+        Set<Object> path = new HashSet<>();
+        Deque<PathEntry> stack = new ArrayDeque<>();
+        stack.push(new PathEntry(rootNode, allDependencies.get(rootNameVersion)));
+        path.add(rootNode.getUserObject());
+        while (!stack.isEmpty()) {
+            PathEntry entry = stack.peek();
+            if (!entry.dependencies.hasNext()) {
+                stack.pop();
+                path.remove(entry.node.getUserObject());
+                continue;
+            }
+            String dependency = entry.dependencies.next();
             String[] dependencyNameVersion = dependency.split("@v");
-            DependencyTree DependencyTree = new DependencyTree(dependencyNameVersion[0] + ":" + dependencyNameVersion[1]);
-            currNode.add(DependencyTree);
-            populateDependencyTree(DependencyTree, dependency, allDependencies, logger);
+            DependencyTree dependencyTree = new DependencyTree(dependencyNameVersion[0] + ":" + dependencyNameVersion[1]);
+            entry.node.add(dependencyTree);
+            if (dependencyTree.hasLoop(path, logger)) {
+                continue;
+            }
+            List<String> dependencies = allDependencies.get(dependency);
+            if (dependencies != null) {
+                stack.push(new PathEntry(dependencyTree, dependencies));
+                path.add(dependencyTree.getUserObject());
+            }
+        }
+    }
+
+    private static class PathEntry {
+        private final DependencyTree node;
+        private final Iterator<String> dependencies;
+
+        private PathEntry(DependencyTree node, List<String> dependencies) {
+            this.node = node;
+            this.dependencies = dependencies != null ? dependencies.iterator() : Collections.emptyIterator();
         }
     }
 }
@@ -131,6 +131,10 @@ public class GoZipBallStreamer implements Closeable {
                 try {
                     if (!excludeEntry(zipEntry.getName())) {
                         ZipArchiveEntry correctedEntry = getCorrectedEntryName(zipEntry.getName(), zipEntry.getSize());
+                        // Keep the original time, so that packing the same module produces identical zips
+                        if (zipEntry.getTime() != -1) {
+                            correctedEntry.setTime(zipEntry.getTime());
+                        }
                         writeEntry(zipEntry, correctedEntry);
                     }
                 } catch (IOException e) {
@@ -140,7 +144,20 @@ public class GoZipBallStreamer implements Closeable {
         }
     }
 
+    /**
+     * Write the entry with its corrected name. If possible, the compressed data is copied as is, and only the headers are
+     * written with the new name. Otherwise, the data is decompressed and compressed again.
+     */
     private void writeEntry(ZipArchiveEntry originalEntry, ZipArchiveEntry correctedEntry) throws IOException {
+        if (archiveOutputStream instanceof ZipArchiveOutputStream && isRawCopySupported(originalEntry)) {
+            correctedEntry.setMethod(originalEntry.getMethod());
+            correctedEntry.setCrc(originalEntry.getCrc());
+            correctedEntry.setCompressedSize(originalEntry.getCompressedSize());
+            try (InputStream rawInputStream = zipFile.getRawInputStream(originalEntry)) {
+                ((ZipArchiveOutputStream) archiveOutputStream).addRawArchiveEntry(correctedEntry, rawInputStream);
+            }
+            return;
+        }
         try {
             archiveOutputStream.putArchiveEntry(correctedEntry);
             IOUtils.copy(zipFile.getInputStream(originalEntry), archiveOutputStream);
@@ -149,6 +166,17 @@ public class GoZipBallStreamer implements Closeable {
         }
     }
 
+    /**
+     * The compressed data of an entry can be copied as is, if the Go client can read its compression method, and the
+     * sizes and CRC are known from the central directory.
+     */
+    private static boolean isRawCopySupported(ZipArchiveEntry entry) {
+        int method = entry.getMethod();
+        return (method == ZipEntry.STORED || method == ZipEntry.DEFLATED) &&
+                !entry.getGeneralPurposeBit().usesEncryption() &&
+                entry.getSize() >= 0 && entry.getCompressedSize() >= 0 && entry.getCrc() >= 0;
+    }
+
     /**
      * The structure of the zip is modified to be projectName/@v{version}/{path},
      *
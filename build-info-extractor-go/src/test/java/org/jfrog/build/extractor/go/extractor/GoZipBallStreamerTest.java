@@ -1,9 +1,27 @@
 package org.jfrog.build.extractor.go.extractor;
 
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.jfrog.build.api.util.NullLog;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 public class GoZipBallStreamerTest {
     @Test(dataProvider = "testIsSubModuleProvider")
@@ -25,4 +43,64 @@ public class GoZipBallStreamerTest {
         };
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testWriteDeployableZip() throws IOException {
+        File workspace = Files.createTempDirectory("go-zip-ball").toFile();
+        try {
+            File sourceZip = new File(workspace, "source.zip");
+            try (ZipOutputStream zipOutputStream = new ZipOutputStream(new FileOutputStream(sourceZip))) {
+                addEntry(zipOutputStream, "repo-1.0.0/go.mod", "module github.com/owner/repo", ZipEntry.DEFLATED);
+                addEntry(zipOutputStream, "repo-1.0.0/main.go", "package main", ZipEntry.DEFLATED);
+                addEntry(zipOutputStream, "repo-1.0.0/LICENSE", "license", ZipEntry.STORED);
+                addEntry(zipOutputStream, "repo-1.0.0/vendor/dep/dep.go", "package dep", ZipEntry.DEFLATED);
+            }
+            File firstZip = writeDeployableZip(sourceZip, new File(workspace, "first.zip"));
+            File secondZip = writeDeployableZip(sourceZip, new File(workspace, "second.zip"));
+            Assert.assertTrue(FileUtils.contentEquals(firstZip, secondZip), "Expecting identical zips");
+
+            try (ZipFile source = new ZipFile(sourceZip); ZipFile deployable = new ZipFile(firstZip)) {
+                List<String> names = new ArrayList<>();
+                for (ZipArchiveEntry entry : Collections.list(deployable.getEntries())) {
+                    names.add(entry.getName());
+                }
+                Assert.assertEquals(names, Arrays.asList("github.com/owner/repo@v1.0.0/go.mod",
+                        "github.com/owner/repo@v1.0.0/main.go", "github.com/owner/repo@v1.0.0/LICENSE"));
+
+                ZipArchiveEntry mainEntry = deployable.getEntry("github.com/owner/repo@v1.0.0/main.go");
+                try (InputStream inputStream = deployable.getInputStream(mainEntry)) {
+                    Assert.assertEquals(IOUtils.toString(inputStream, StandardCharsets.UTF_8), "package main");
+                }
+                // The compressed data is copied as is
+                try (InputStream originalRaw = source.getRawInputStream(source.getEntry("repo-1.0.0/main.go"));
+                     InputStream copiedRaw = deployable.getRawInputStream(mainEntry)) {
+                    Assert.assertEquals(IOUtils.toByteArray(copiedRaw), IOUtils.toByteArray(originalRaw));
+                }
+                Assert.assertEquals(deployable.getEntry("github.com/owner/repo@v1.0.0/LICENSE").getMethod(), ZipEntry.STORED);
+            }
+        } finally {
+            FileUtils.deleteDirectory(workspace);
+        }
+    }
+
+    private static File writeDeployableZip(File sourceZip, File deployableZip) throws IOException {
+        try (GoZipBallStreamer goZipBallStreamer = new GoZipBallStreamer(new ZipFile(sourceZip), "github.com/owner/repo", "v1.0.0", new NullLog())) {
+            goZipBallStreamer.writeDeployableZip(deployableZip);
+        }
+        return deployableZip;
+    }
+
+    private static void addEntry(ZipOutputStream zipOutputStream, String name, String content, int method) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        ZipEntry entry = new ZipEntry(name);
+        entry.setMethod(method);
+        if (method == ZipEntry.STORED) {
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+            entry.setSize(bytes.length);
+            entry.setCrc(crc.getValue());
+        }
+        zipOutputStream.putNextEntry(entry);
+        zipOutputStream.write(bytes);
+        zipOutputStream.closeEntry();
+    }
+}
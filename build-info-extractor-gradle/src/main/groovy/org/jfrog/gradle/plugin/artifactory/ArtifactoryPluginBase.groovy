@@ -3,6 +3,7 @@ package org.jfrog.gradle.plugin.artifactory
 import org.gradle.api.Plugin
 import org.gradle.api.Project
 import org.gradle.api.file.FileCollection
+import org.jfrog.build.api.util.ParallelChecksumCalculator
 import org.jfrog.gradle.plugin.artifactory.dsl.ArtifactoryPluginConvention
 import org.jfrog.gradle.plugin.artifactory.extractor.ModuleInfoFileProducer
 import org.jfrog.gradle.plugin.artifactory.extractor.listener.ArtifactoryDependencyResolutionListener
@@ -40,6 +41,11 @@ abstract class ArtifactoryPluginBase implements Plugin<Project> {
 
             // Add a DependencyResolutionListener, to populate the dependency hierarchy map.
             project.getGradle().addListener(artifactoryDependencyResolutionListener)
+
+            // Share the memoized checksums and the threads calculating them between the tasks of this build only
+            ParallelChecksumCalculator checksumCalculator = new ParallelChecksumCalculator(project.gradle.startParameter.maxWorkerCount)
+            conv.checksumCalculator = checksumCalculator
+            project.gradle.buildFinished { checksumCalculator.close() }
         } else {
             // Makes sure the plugin is applied in the root project
             project.rootProject.getPluginManager().apply(ArtifactoryPlugin.class)
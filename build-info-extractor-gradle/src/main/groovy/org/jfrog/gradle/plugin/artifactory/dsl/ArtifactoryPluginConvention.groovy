@@ -3,6 +3,7 @@ package org.jfrog.gradle.plugin.artifactory.dsl
 import org.gradle.api.Action
 import org.gradle.api.Project
 import org.gradle.util.ConfigureUtil
+import org.jfrog.build.api.util.ParallelChecksumCalculator
 import org.jfrog.build.extractor.clientConfiguration.ArtifactoryClientConfiguration
 import org.jfrog.gradle.plugin.artifactory.extractor.GradleClientLogger
 
@@ -15,6 +16,8 @@ class ArtifactoryPluginConvention {
     def PublisherConfig publisherConfig
     def DistributerConfig distributerConfig
     def boolean conventionSet = false
+    // Calculates the checksums of the artifacts of all the tasks in the build. Set in the root project only
+    ParallelChecksumCalculator checksumCalculator
 
     ArtifactoryPluginConvention(Project project) {
         this.project = project
@@ -20,8 +20,8 @@ import org.jfrog.build.extractor.ci.Artifact;
 import org.jfrog.build.extractor.ci.Dependency;
 import org.jfrog.build.extractor.ci.Module;
 import org.jfrog.build.extractor.clientConfiguration.ArtifactoryClientConfiguration;
+import org.jfrog.build.extractor.clientConfiguration.IncludeExcludePatternMatcher;
 import org.jfrog.build.extractor.clientConfiguration.IncludeExcludePatterns;
-import org.jfrog.build.extractor.clientConfiguration.PatternMatcher;
 import org.jfrog.build.extractor.clientConfiguration.deploy.DeployDetails;
 import org.jfrog.gradle.plugin.artifactory.ArtifactoryPlugin;
 import org.jfrog.gradle.plugin.artifactory.ArtifactoryPluginUtil;
@@ -75,14 +75,14 @@ public class GradleModuleExtractor implements ModuleExtractor<Project> {
             ArtifactoryClientConfiguration.PublisherHandler publisher = ArtifactoryPluginUtil.getPublisherHandler(project);
             if (publisher != null) {
                 boolean excludeArtifactsFromBuild = publisher.isFilterExcludedArtifactsFromBuild();
-                IncludeExcludePatterns patterns = new IncludeExcludePatterns(
+                IncludeExcludePatternMatcher patternMatcher = new IncludeExcludePatternMatcher(new IncludeExcludePatterns(
                         publisher.getIncludePatterns(),
-                        publisher.getExcludePatterns());
+                        publisher.getExcludePatterns()));
                 Iterable<GradleDeployDetails> deployExcludeDetails;
                 Iterable<GradleDeployDetails> deployIncludeDetails;
                 if (excludeArtifactsFromBuild) {
-                    deployIncludeDetails = Iterables.filter(gradleDeployDetails, new IncludeExcludePredicate(project, patterns, true));
-                    deployExcludeDetails = Iterables.filter(gradleDeployDetails, new IncludeExcludePredicate(project, patterns, false));
+                    deployIncludeDetails = Iterables.filter(gradleDeployDetails, new IncludeExcludePredicate(project, patternMatcher, true));
+                    deployExcludeDetails = Iterables.filter(gradleDeployDetails, new IncludeExcludePredicate(project, patternMatcher, false));
                 } else {
                     deployIncludeDetails = Iterables.filter(gradleDeployDetails, new ProjectPredicate(project));
                     deployExcludeDetails = new ArrayList<>();
@@ -181,12 +181,12 @@ public class GradleModuleExtractor implements ModuleExtractor<Project> {
 
     private static class IncludeExcludePredicate implements Predicate<GradleDeployDetails> {
         private final Project project;
-        private final IncludeExcludePatterns patterns;
+        private final IncludeExcludePatternMatcher patternMatcher;
         private final boolean include;
 
-        public IncludeExcludePredicate(Project project, IncludeExcludePatterns patterns, boolean isInclude) {
+        public IncludeExcludePredicate(Project project, IncludeExcludePatternMatcher patternMatcher, boolean isInclude) {
             this.project = project;
-            this.patterns = patterns;
+            this.patternMatcher = patternMatcher;
             include = isInclude;
         }
 
@@ -195,9 +195,9 @@ public class GradleModuleExtractor implements ModuleExtractor<Project> {
                 return false;
             }
             if (include) {
-                return input.getProject().equals(project) && !PatternMatcher.pathConflicts(input.getDeployDetails().getArtifactPath(), patterns);
+                return input.getProject().equals(project) && !patternMatcher.pathConflicts(input.getDeployDetails().getArtifactPath());
             } else {
-                return input.getProject().equals(project) && PatternMatcher.pathConflicts(input.getDeployDetails().getArtifactPath(), patterns);
+                return input.getProject().equals(project) && patternMatcher.pathConflicts(input.getDeployDetails().getArtifactPath());
             }
         }
     }
@@ -17,12 +17,12 @@ import org.jfrog.build.extractor.BuildInfoExtractorUtils;
 import org.jfrog.build.extractor.ci.BuildInfo;
 import org.jfrog.build.extractor.ci.BuildInfoConfigProperties;
 import org.jfrog.build.extractor.clientConfiguration.ArtifactoryClientConfiguration;
+import org.jfrog.build.extractor.clientConfiguration.IncludeExcludePatternMatcher;
 import org.jfrog.build.extractor.clientConfiguration.IncludeExcludePatterns;
-import org.jfrog.build.extractor.clientConfiguration.PatternMatcher;
 import org.jfrog.build.extractor.clientConfiguration.client.artifactory.ArtifactoryManager;
 import org.jfrog.build.extractor.clientConfiguration.deploy.DeployDetails;
 import org.jfrog.build.extractor.clientConfiguration.deploy.DeployableArtifactsUtils;
-import org.jfrog.build.extractor.retention.Utils;
+import org.jfrog.build.extractor.retention.BuildPublishPipeline;
 import org.jfrog.gradle.plugin.artifactory.ArtifactoryPluginUtil;
 import org.jfrog.gradle.plugin.artifactory.extractor.*;
 
@@ -128,7 +128,8 @@ public class DeployTask extends DefaultTask {
                     accRoot.publisher.getContextUrl(),
                     accRoot.publisher.getUsername(),
                     accRoot.publisher.getPassword(),
-                    new GradleClientLogger(log))) {
+                    new GradleClientLogger(log));
+                 BuildPublishPipeline publishPipeline = new BuildPublishPipeline(artifactoryManager)) {
 
                 configureProxy(accRoot, artifactoryManager);
                 if (isPublishBuildInfo(accRoot)) {
@@ -136,12 +137,13 @@ public class DeployTask extends DefaultTask {
                     exportBuildInfo(buildInfo, getExportFile(accRoot));
                     if (accRoot.info.isIncremental()) {
                         log.debug("Publishing build info modules to artifactory at: '{}'", contextUrl);
-                        artifactoryManager.sendModuleInfo(buildInfo);
+                        publishPipeline.sendModuleInfo(buildInfo);
                     } else {
                         log.debug("Publishing build info to artifactory at: '{}'", contextUrl);
-                        Utils.sendBuildAndBuildRetention(artifactoryManager, buildInfo, accRoot);
+                        publishPipeline.publishBuildInfo(buildInfo, accRoot, null);
                     }
                 }
+                // The deployable artifacts file is written while the build info is published
                 if (isGenerateDeployableArtifactsToFile(accRoot)) {
                     try {
                         exportDeployableArtifacts(allDeployDetails, new File(accRoot.info.getDeployableArtifactsFilePath()), accRoot.info.isBackwardCompatibleDeployableArtifacts());
@@ -150,6 +152,7 @@ public class DeployTask extends DefaultTask {
                         throw new RuntimeException("Failed writing deployable artifacts to file", e);
                     }
                 }
+                publishPipeline.awaitCompletion();
             }
         }
     }
@@ -179,14 +182,13 @@ public class DeployTask extends DefaultTask {
                         try (ArtifactoryManager artifactoryManager = new ArtifactoryManager(contextUrl, username, password,
                                 new GradleClientLogger(log))) {
                             log.debug("Uploading artifacts to Artifactory at '{}'", contextUrl);
-                            IncludeExcludePatterns patterns = new IncludeExcludePatterns(
-                                    publisher.getIncludePatterns(),
-                                    publisher.getExcludePatterns());
+                            IncludeExcludePatternMatcher patternMatcher = new IncludeExcludePatternMatcher(
+                                    new IncludeExcludePatterns(publisher.getIncludePatterns(), publisher.getExcludePatterns()));
                             configureProxy(accRoot, artifactoryManager);
                             configConnectionTimeout(accRoot, artifactoryManager);
                             configRetriesParams(accRoot, artifactoryManager);
                             configInsecureTls(accRoot, artifactoryManager);
-                            deployArtifacts(artifactoryTask.deployDetails, artifactoryManager, patterns, logPrefix, publisher.getMinChecksumDeploySizeKb());
+                            deployArtifacts(artifactoryTask.deployDetails, artifactoryManager, patternMatcher, logPrefix, publisher.getMinChecksumDeploySizeKb());
                         }
                     }
 
@@ -278,12 +280,12 @@ public class DeployTask extends DefaultTask {
     }
 
     private void deployArtifacts(Set<GradleDeployDetails> allDeployDetails, ArtifactoryManager artifactoryManager,
-                                 IncludeExcludePatterns patterns, String logPrefix, int minChecksumDeploySizeKb)
+                                 IncludeExcludePatternMatcher patternMatcher, String logPrefix, int minChecksumDeploySizeKb)
             throws IOException {
         for (GradleDeployDetails detail : allDeployDetails) {
             DeployDetails deployDetails = detail.getDeployDetails();
             String artifactPath = deployDetails.getArtifactPath();
-            if (PatternMatcher.pathConflicts(artifactPath, patterns)) {
+            if (patternMatcher.pathConflicts(artifactPath)) {
                 log.log(LogLevel.LIFECYCLE, "Skipping the deployment of '" + artifactPath +
                         "' due to the defined include-exclude patterns.");
                 continue;
@@ -2,19 +2,32 @@ package org.jfrog.gradle.plugin.artifactory.task.helper;
 
 import com.google.common.collect.Multimap;
 import org.apache.commons.lang3.StringUtils;
+import org.gradle.api.GradleException;
 import org.gradle.api.Project;
 import org.gradle.api.Task;
 import org.gradle.api.logging.Logger;
 import org.gradle.api.logging.Logging;
 import org.jfrog.build.extractor.clientConfiguration.ArtifactSpec;
 import org.jfrog.build.extractor.clientConfiguration.ArtifactoryClientConfiguration;
+import org.jfrog.build.extractor.clientConfiguration.deploy.DeployDetails;
 import org.jfrog.gradle.plugin.artifactory.ArtifactoryPluginUtil;
+import org.jfrog.gradle.plugin.artifactory.extractor.GradleDeployDetails;
 import org.jfrog.gradle.plugin.artifactory.extractor.PublishArtifactInfo;
 import org.jfrog.gradle.plugin.artifactory.task.ArtifactoryTask;
 
 import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+
+import static org.jfrog.build.api.util.FileChecksumCalculator.MD5_ALGORITHM;
+import static org.jfrog.build.api.util.FileChecksumCalculator.SHA1_ALGORITHM;
+import static org.jfrog.build.api.util.FileChecksumCalculator.SHA256_ALGORITHM;
 
 /**
  * @author Lior Hasson
@@ -140,5 +153,51 @@ public abstract class TaskHelper {
         }
         return publisher.getRepoKey();
     }
+
+    /**
+     * Calculates the checksums of the collected artifacts concurrently, with the checksum calculator shared by the tasks
+     * of the build, and builds their deploy details.
+     *
+     * @param pendingDeployDetails - The collected artifacts, without checksums.
+     * @return the deploy details of the artifacts, in the order of collection.
+     */
+    protected Set<GradleDeployDetails> buildDeployDetails(List<PendingDeployDetails> pendingDeployDetails) {
+        List<File> files = new ArrayList<>(pendingDeployDetails.size());
+        for (PendingDeployDetails pending : pendingDeployDetails) {
+            files.add(pending.file);
+        }
+        Map<File, Map<String, String>> checksums;
+        try {
+            checksums = ArtifactoryPluginUtil.getArtifactoryConvention(getProject()).getChecksumCalculator()
+                    .calculateChecksums(files);
+        } catch (IOException e) {
+            throw new GradleException(e.getMessage(), e);
+        }
+
+        Set<GradleDeployDetails> deployDetails = new LinkedHashSet<>();
+        for (PendingDeployDetails pending : pendingDeployDetails) {
+            Map<String, String> fileChecksums = checksums.get(pending.file);
+            pending.builder.md5(fileChecksums.get(MD5_ALGORITHM))
+                    .sha1(fileChecksums.get(SHA1_ALGORITHM))
+                    .sha256(fileChecksums.get(SHA256_ALGORITHM));
+            deployDetails.add(new GradleDeployDetails(pending.artifactInfo, pending.builder.build(), getProject()));
+        }
+        return deployDetails;
+    }
+
+    /**
+     * An artifact collected for deployment, whose checksums are not calculated yet.
+     */
+    protected static class PendingDeployDetails {
+        private final PublishArtifactInfo artifactInfo;
+        private final DeployDetails.Builder builder;
+        private final File file;
+
+        public PendingDeployDetails(PublishArtifactInfo artifactInfo, DeployDetails.Builder builder, File file) {
+            this.artifactInfo = artifactInfo;
+            this.builder = builder;
+            this.file = file;
+        }
+    }
 }
 
@@ -17,7 +17,6 @@ import org.gradle.api.logging.Logging;
 import org.gradle.api.plugins.MavenPluginConvention;
 import org.gradle.api.tasks.TaskContainer;
 import org.gradle.api.tasks.Upload;
-import org.jfrog.build.api.util.FileChecksumCalculator;
 import org.jfrog.build.extractor.clientConfiguration.ArtifactoryClientConfiguration;
 import org.jfrog.build.extractor.clientConfiguration.LayoutPatterns;
 import org.jfrog.build.extractor.clientConfiguration.deploy.DeployDetails;
@@ -31,8 +30,6 @@ import java.io.File;
 import java.io.IOException;
 import java.util.*;
 
-import static org.jfrog.build.api.util.FileChecksumCalculator.*;
-
 /**
  * @author Fred Simon
  */
@@ -88,20 +85,20 @@ public class TaskHelperConfigurations extends TaskHelper {
     }
 
     public void collectDescriptorsAndArtifactsForUpload() throws IOException {
-        Set<GradleDeployDetails> deployDetailsFromProject = getArtifactDeployDetails();
-        artifactoryTask.deployDetails.addAll(deployDetailsFromProject);
+        List<PendingDeployDetails> deployDetailsFromProject = collectArtifacts();
 
         // In case the build is configured to do so, add the ivy and maven descriptors if they exist
         if (isPublishIvy()) {
             if (artifactoryTask.ivyDescriptor != null && artifactoryTask.ivyDescriptor.exists()) {
-                artifactoryTask.deployDetails.add(getIvyDescriptorDeployDetails());
+                deployDetailsFromProject.add(getIvyDescriptorDeployDetails());
             }
         }
         if (isPublishMaven()) {
             if (artifactoryTask.mavenDescriptor != null && artifactoryTask.mavenDescriptor.exists()) {
-                artifactoryTask.deployDetails.add(getMavenDeployDetails());
+                deployDetailsFromProject.add(getMavenDeployDetails());
             }
         }
+        artifactoryTask.deployDetails.addAll(buildDeployDetails(deployDetailsFromProject));
     }
 
     /**
@@ -199,8 +196,14 @@ public class TaskHelperConfigurations extends TaskHelper {
     }
 
     protected Set<GradleDeployDetails> getArtifactDeployDetails() {
+        return buildDeployDetails(collectArtifacts());
+    }
 
-        Set<GradleDeployDetails> deployDetails = new LinkedHashSet<>();
+    /**
+     * Collects the artifacts of the configurations to publish, without calculating their checksums.
+     */
+    private List<PendingDeployDetails> collectArtifacts() {
+        List<PendingDeployDetails> deployDetails = new ArrayList<>();
         if (!hasConfigurations()) {
             log.info("No configurations to publish for project '{}'.", getProject().getPath());
             return deployDetails;
@@ -210,9 +213,9 @@ public class TaskHelperConfigurations extends TaskHelper {
         for (Configuration configuration : publishConfigurations) {
             PublishArtifactSet artifacts = configuration.getAllArtifacts();
             for (PublishArtifact artifact : artifacts) {
-                GradleDeployDetails gdd = gradleDeployDetails(artifact, configuration.getName(), processedFiles);
-                if (gdd != null) {
-                    deployDetails.add(gdd);
+                PendingDeployDetails pending = pendingDeployDetails(artifact, configuration.getName(), null, processedFiles);
+                if (pending != null) {
+                    deployDetails.add(pending);
                 }
             }
         }
@@ -239,20 +242,12 @@ public class TaskHelperConfigurations extends TaskHelper {
         }
     }
 
-    private GradleDeployDetails getIvyDescriptorDeployDetails() {
+    private PendingDeployDetails getIvyDescriptorDeployDetails() {
         ArtifactoryClientConfiguration.PublisherHandler publisher =
                 ArtifactoryPluginUtil.getPublisherHandler(getProject());
         DeployDetails.Builder artifactBuilder = new DeployDetails.Builder()
                 .file(artifactoryTask.ivyDescriptor)
                 .packageType(DeployDetails.PackageType.GRADLE);
-        try {
-            Map<String, String> checksums =
-                    FileChecksumCalculator.calculateChecksums(artifactoryTask.ivyDescriptor, MD5_ALGORITHM, SHA1_ALGORITHM, SHA256_ALGORITHM);
-            artifactBuilder.md5(checksums.get(MD5_ALGORITHM)).sha1(checksums.get(SHA1_ALGORITHM)).sha256(SHA256_ALGORITHM);
-        } catch (Exception e) {
-            throw new GradleException(
-                    "Failed to calculate checksums for artifact: " + artifactoryTask.ivyDescriptor.getAbsolutePath(), e);
-        }
         String gid = getProject().getGroup().toString();
         if (publisher.isM2Compatible()) {
             gid = gid.replace(".", "/");
@@ -268,23 +263,15 @@ public class TaskHelperConfigurations extends TaskHelper {
                         artifactoryTask.ivyDescriptor);
         Map<String, String> propsToAdd = getPropsToAdd(artifactInfo, null);
         artifactBuilder.addProperties(propsToAdd);
-        return new GradleDeployDetails(artifactInfo, artifactBuilder.build(), getProject());
+        return new PendingDeployDetails(artifactInfo, artifactBuilder, artifactoryTask.ivyDescriptor);
     }
 
-    private GradleDeployDetails getMavenDeployDetails() {
+    private PendingDeployDetails getMavenDeployDetails() {
         ArtifactoryClientConfiguration.PublisherHandler publisher =
                 ArtifactoryPluginUtil.getPublisherHandler(getProject());
         DeployDetails.Builder artifactBuilder = new DeployDetails.Builder()
                 .file(artifactoryTask.mavenDescriptor)
                 .packageType(DeployDetails.PackageType.GRADLE);
-        try {
-            Map<String, String> checksums =
-                    FileChecksumCalculator.calculateChecksums(artifactoryTask.mavenDescriptor, MD5_ALGORITHM, SHA1_ALGORITHM, SHA256_ALGORITHM);
-            artifactBuilder.md5(checksums.get(MD5_ALGORITHM)).sha1(checksums.get(SHA1_ALGORITHM)).sha256(SHA256_ALGORITHM);
-        } catch (Exception e) {
-            throw new GradleException(
-                    "Failed to calculate checksums for artifact: " + artifactoryTask.mavenDescriptor.getAbsolutePath(), e);
-        }
         // for pom files always enforce the M2 pattern
         String artifactPath = IvyPatternHelper.substitute(LayoutPatterns.M2_PATTERN,
                 getProject().getGroup().toString().replace(".", "/"), getModuleName(),
@@ -296,7 +283,7 @@ public class TaskHelperConfigurations extends TaskHelper {
                 new PublishArtifactInfo(artifactoryTask.mavenDescriptor.getName(), "pom", "pom", null, artifactoryTask.mavenDescriptor);
         Map<String, String> propsToAdd = getPropsToAdd(artifactInfo, null);
         artifactBuilder.addProperties(propsToAdd);
-        return new GradleDeployDetails(artifactInfo, artifactBuilder.build(), getProject());
+        return new PendingDeployDetails(artifactInfo, artifactBuilder, artifactoryTask.mavenDescriptor);
     }
 
     public GradleDeployDetails gradleDeployDetails(
@@ -356,12 +343,17 @@ public class TaskHelperConfigurations extends TaskHelper {
         return project.getName();
     }
 
-    private GradleDeployDetails gradleDeployDetails(PublishArtifact artifact, String configuration, Set<String> files) {
-        return gradleDeployDetails(artifact, configuration, null, files);
-    }
-
     private GradleDeployDetails gradleDeployDetails(PublishArtifact artifact, String configuration,
                                                     @Nullable String artifactPath, @Nullable Set<String> processedFiles) {
+        PendingDeployDetails pending = pendingDeployDetails(artifact, configuration, artifactPath, processedFiles);
+        if (pending == null) {
+            return null;
+        }
+        return buildDeployDetails(Collections.singletonList(pending)).iterator().next();
+    }
+
+    private PendingDeployDetails pendingDeployDetails(PublishArtifact artifact, String configuration,
+                                                      @Nullable String artifactPath, @Nullable Set<String> processedFiles) {
 
         ArtifactoryClientConfiguration.PublisherHandler publisher =
                 ArtifactoryPluginUtil.getPublisherHandler(getProject());
@@ -395,12 +387,6 @@ public class TaskHelperConfigurations extends TaskHelper {
         DeployDetails.Builder deployDetailsBuilder = new DeployDetails.Builder()
                 .file(file)
                 .packageType(DeployDetails.PackageType.GRADLE);
-        try {
-            Map<String, String> checksums = FileChecksumCalculator.calculateChecksums(file, MD5_ALGORITHM, SHA1_ALGORITHM, SHA256_ALGORITHM);
-            deployDetailsBuilder.md5(checksums.get(MD5_ALGORITHM)).sha1(checksums.get(SHA1_ALGORITHM)).sha256(SHA256_ALGORITHM);
-        } catch (Exception e) {
-            throw new GradleException("Failed to calculate checksums for artifact: " + file.getAbsolutePath(), e);
-        }
 
         if (artifactPath == null) {
             artifactPath = IvyPatternHelper.substitute(pattern, gid, getModuleName(),
@@ -414,7 +400,6 @@ public class TaskHelperConfigurations extends TaskHelper {
         PublishArtifactInfo artifactInfo = new PublishArtifactInfo(artifact);
         Map<String, String> propsToAdd = getPropsToAdd(artifactInfo, configuration);
         deployDetailsBuilder.addProperties(propsToAdd);
-        DeployDetails details = deployDetailsBuilder.build();
-        return new GradleDeployDetails(artifactInfo, details, getProject());
+        return new PendingDeployDetails(artifactInfo, deployDetailsBuilder, file);
     }
 }
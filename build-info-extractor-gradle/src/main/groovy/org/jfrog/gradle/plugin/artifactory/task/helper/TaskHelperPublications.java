@@ -22,7 +22,6 @@ import org.gradle.api.publish.maven.MavenArtifact;
 import org.gradle.api.publish.maven.MavenPublication;
 import org.gradle.api.publish.maven.internal.publication.MavenPublicationInternal;
 import org.gradle.api.publish.maven.internal.publisher.MavenNormalizedPublication;
-import org.jfrog.build.api.util.FileChecksumCalculator;
 import org.jfrog.build.extractor.clientConfiguration.ArtifactoryClientConfiguration;
 import org.jfrog.build.extractor.clientConfiguration.LayoutPatterns;
 import org.jfrog.build.extractor.clientConfiguration.deploy.DeployDetails;
@@ -37,8 +36,6 @@ import java.lang.reflect.Method;
 import java.util.*;
 import java.util.concurrent.Callable;
 
-import static org.jfrog.build.api.util.FileChecksumCalculator.*;
-
 
 /**
  * @author Fred Simon
@@ -175,12 +172,14 @@ public class TaskHelperPublications extends TaskHelper {
     }
 
     public Set<GradleDeployDetails> getArtifactDeployDetails() {
-        Set<GradleDeployDetails> deployDetails = new LinkedHashSet<>();
         if (!hasPublications()) {
             log.info("No publications to publish for project '{}'.", getProject().getPath());
-            return deployDetails;
+            return new LinkedHashSet<>();
         }
 
+        // Collect the artifacts first, their checksums are calculated concurrently when building the deploy details
+        List<PendingDeployDetails> deployDetails = new ArrayList<>();
+
         for (IvyPublication ivyPublication : ivyPublications) {
             String publicationName = ivyPublication.getName();
             if (!(ivyPublication instanceof IvyPublicationInternal)) {
@@ -270,7 +269,7 @@ public class TaskHelperPublications extends TaskHelper {
                 createPublishArtifactInfoAndAddToDeployDetails(artifact, deployDetails, mavenPublication, publicationName);
             }
         }
-        return deployDetails;
+        return buildDeployDetails(deployDetails);
     }
 
     public void addDefaultPublications() {
@@ -308,7 +307,7 @@ public class TaskHelperPublications extends TaskHelper {
         }
     }
 
-    private void createPublishArtifactInfoAndAddToDeployDetails(MavenArtifact artifact, Set<GradleDeployDetails> deployDetails, MavenPublication mavenPublication, String publicationName) {
+    private void createPublishArtifactInfoAndAddToDeployDetails(MavenArtifact artifact, List<PendingDeployDetails> deployDetails, MavenPublication mavenPublication, String publicationName) {
         File file = artifact.getFile();
         DeployDetails.Builder builder = createBuilder(file, publicationName);
         if (builder == null) return;
@@ -350,18 +349,9 @@ public class TaskHelperPublications extends TaskHelper {
                     " does not exist, and need to be published from publication " + publicationName);
         }
 
-        DeployDetails.Builder artifactBuilder = new DeployDetails.Builder()
+        return new DeployDetails.Builder()
                 .file(file)
                 .packageType(DeployDetails.PackageType.GRADLE);
-        try {
-            Map<String, String> checksums =
-                    FileChecksumCalculator.calculateChecksums(file, MD5_ALGORITHM, SHA1_ALGORITHM, SHA256_ALGORITHM);
-            artifactBuilder.md5(checksums.get(MD5_ALGORITHM)).sha1(checksums.get(SHA1_ALGORITHM)).sha256(checksums.get(SHA256_ALGORITHM));
-        } catch (Exception e) {
-            throw new GradleException(
-                    "Failed to calculate checksums for artifact: " + file.getAbsolutePath(), e);
-        }
-        return artifactBuilder;
     }
 
     private Map<String, String> getExtraTokens(PublishArtifactInfo artifactInfo) {
@@ -382,7 +372,7 @@ public class TaskHelperPublications extends TaskHelper {
         return extraTokens;
     }
 
-    private void addIvyArtifactToDeployDetails(Set<GradleDeployDetails> deployDetails, String publicationName,
+    private void addIvyArtifactToDeployDetails(List<PendingDeployDetails> deployDetails, String publicationName,
                                                IvyPublicationIdentity projectIdentity, DeployDetails.Builder builder,
                                                PublishArtifactInfo artifactInfo) {
         ArtifactoryClientConfiguration.PublisherHandler publisher =
@@ -413,7 +403,7 @@ public class TaskHelperPublications extends TaskHelper {
         addArtifactInfoToDeployDetails(deployDetails, publicationName, builder, artifactInfo, artifactPath);
     }
 
-    private void addMavenArtifactToDeployDetails(Set<GradleDeployDetails> deployDetails, String publicationName,
+    private void addMavenArtifactToDeployDetails(List<PendingDeployDetails> deployDetails, String publicationName,
                                                  DeployDetails.Builder builder,
                                                  PublishArtifactInfo artifactInfo, MavenPublication mavenPublication) {
         Map<String, String> extraTokens = getExtraTokens(artifactInfo);
@@ -428,7 +418,7 @@ public class TaskHelperPublications extends TaskHelper {
         addArtifactInfoToDeployDetails(deployDetails, publicationName, builder, artifactInfo, artifactPath);
     }
 
-    private void addArtifactInfoToDeployDetails(Set<GradleDeployDetails> deployDetails, String publicationName,
+    private void addArtifactInfoToDeployDetails(List<PendingDeployDetails> deployDetails, String publicationName,
                                                 DeployDetails.Builder builder, PublishArtifactInfo artifactInfo, String artifactPath) {
         ArtifactoryClientConfiguration.PublisherHandler publisher =
                 ArtifactoryPluginUtil.getPublisherHandler(getProject());
@@ -436,8 +426,7 @@ public class TaskHelperPublications extends TaskHelper {
             builder.targetRepository(getTargetRepository(artifactPath, publisher));
             Map<String, String> propsToAdd = getPropsToAdd(artifactInfo, publicationName);
             builder.addProperties(propsToAdd);
-            DeployDetails details = builder.build();
-            deployDetails.add(new GradleDeployDetails(artifactInfo, details, getProject()));
+            deployDetails.add(new PendingDeployDetails(artifactInfo, builder, artifactInfo.getFile()));
         }
     }
 }
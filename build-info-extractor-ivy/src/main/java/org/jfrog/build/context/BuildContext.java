@@ -7,9 +7,12 @@ import org.jfrog.build.extractor.clientConfiguration.deploy.DeployDetails;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.function.BiConsumer;
 
 
 /**
@@ -21,6 +24,10 @@ import java.util.TreeSet;
 public class BuildContext {
 
     private final Set<DeployDetails> deployDetails;
+    // The deploy details of each module, by module instance since module IDs may change during the build
+    private final Map<Module, Set<DeployDetails>> deployDetailsByModule;
+    // The modules of the deploy details, in the order they were added to keep a consistent publish order
+    private final List<Module> deployModules;
     private final List<Module> modules;
     private final List<Dependency> dependencies;
     private final ArtifactoryClientConfiguration clientConf;
@@ -28,19 +35,38 @@ public class BuildContext {
 
     public BuildContext(ArtifactoryClientConfiguration clientConf) {
         this.clientConf = clientConf;
+        deployDetails = createDeployDetailsSet();
+        deployDetailsByModule = new IdentityHashMap<>();
+        deployModules = new ArrayList<>();
+        modules = new ArrayList<Module>();
+        dependencies = new ArrayList<Dependency>();
+        buildStartTime = System.currentTimeMillis();
+    }
+
+    private static Set<DeployDetails> createDeployDetailsSet() {
         //Sort the deploy details by file name to ensure consistent publish order
-        deployDetails = new TreeSet(new Comparator<DeployDetails>() {
+        return new TreeSet<>(new Comparator<DeployDetails>() {
             public int compare(DeployDetails details, DeployDetails otherDetails) {
                 return details.getFile().compareTo(otherDetails.getFile());
             }
         });
-        modules = new ArrayList<Module>();
-        dependencies = new ArrayList<Dependency>();
-        buildStartTime = System.currentTimeMillis();
     }
 
     public void addDeployDetailsForModule(DeployDetails deployDetails) {
-        this.deployDetails.add(deployDetails);
+        addDeployDetailsForModule(null, deployDetails);
+    }
+
+    /**
+     * @param module        the module of the artifact, or null if unknown
+     * @param deployDetails the artifact to deploy
+     */
+    public void addDeployDetailsForModule(Module module, DeployDetails deployDetails) {
+        if (this.deployDetails.add(deployDetails)) {
+            deployDetailsByModule.computeIfAbsent(module, key -> {
+                deployModules.add(key);
+                return createDeployDetailsSet();
+            }).add(deployDetails);
+        }
     }
 
     public void addModule(Module module) {
@@ -55,6 +81,16 @@ public class BuildContext {
         return deployDetails;
     }
 
+    /**
+     * Performs the action for the deploy details of each module, in the order the modules were added. Deploy details
+     * added without a module are given with a null module.
+     */
+    public void forEachModuleDeployDetails(BiConsumer<Module, Set<DeployDetails>> action) {
+        for (Module module : deployModules) {
+            action.accept(module, deployDetailsByModule.get(module));
+        }
+    }
+
     public void addDependency(Dependency dependency) {
         this.dependencies.add(dependency);
     }
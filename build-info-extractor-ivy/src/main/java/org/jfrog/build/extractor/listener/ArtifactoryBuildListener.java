@@ -27,9 +27,10 @@ import org.jfrog.build.extractor.ci.MatrixParameter;
 import org.jfrog.build.extractor.ci.Vcs;
 import org.jfrog.build.context.BuildContext;
 import org.jfrog.build.extractor.BuildInfoExtractorUtils;
+import org.jfrog.build.extractor.ModuleParallelDeployHelper;
 import org.jfrog.build.extractor.clientConfiguration.ArtifactoryClientConfiguration;
+import org.jfrog.build.extractor.clientConfiguration.IncludeExcludePatternMatcher;
 import org.jfrog.build.extractor.clientConfiguration.IncludeExcludePatterns;
-import org.jfrog.build.extractor.clientConfiguration.PatternMatcher;
 import org.jfrog.build.extractor.clientConfiguration.client.artifactory.ArtifactoryManager;
 import org.jfrog.build.extractor.clientConfiguration.deploy.DeployDetails;
 import org.jfrog.build.extractor.packageManager.PackageManagerUtils;
@@ -43,6 +44,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -269,7 +272,6 @@ public class ArtifactoryBuildListener implements BuildListener {
         IvyBuildInfoLog log = getBuildInfoLog(event);
         log.info("[buildinfo:ant] Starting deployment");
         Project project = event.getProject();
-        Set<DeployDetails> deployDetails = ctx.getDeployDetails();
         BuildInfoBuilder builder = new BuildInfoBuilder(project.getName()).modules(ctx.getModules())
                 .number("0").durationMillis(System.currentTimeMillis() - ctx.getBuildStartTime())
                 .startedDate(new Date(ctx.getBuildStartTime()))
@@ -358,10 +360,10 @@ public class ArtifactoryBuildListener implements BuildListener {
             configConnectionTimeout(clientConf, artifactoryManager);
             configRetriesParams(clientConf, artifactoryManager);
             if (clientConf.publisher.isPublishArtifacts()) {
-                IncludeExcludePatterns patterns = new IncludeExcludePatterns(
-                        clientConf.publisher.getIncludePatterns(), clientConf.publisher.getExcludePatterns());
+                IncludeExcludePatternMatcher patternMatcher = new IncludeExcludePatternMatcher(new IncludeExcludePatterns(
+                        clientConf.publisher.getIncludePatterns(), clientConf.publisher.getExcludePatterns()));
 
-                deployArtifacts(project, artifactoryManager, deployDetails, patterns);
+                deployArtifacts(project, artifactoryManager, patternMatcher, clientConf.publisher.getPublishForkCount());
             }
             if (clientConf.publisher.isPublishBuildInfo()) {
                 Utils.sendBuildAndBuildRetention(artifactoryManager, buildInfo, clientConf);
@@ -372,17 +374,26 @@ public class ArtifactoryBuildListener implements BuildListener {
         }
     }
 
-    private void deployArtifacts(Project project, ArtifactoryManager artifactoryManager, Set<DeployDetails> deployDetails,
-                                 IncludeExcludePatterns patterns) throws IOException {
-        for (DeployDetails deployDetail : deployDetails) {
-            String artifactPath = deployDetail.getArtifactPath();
-            if (PatternMatcher.pathConflicts(artifactPath, patterns)) {
-                project.log("[buildinfo:deploy] Skipping the deployment of '" + artifactPath +
-                        "' due to the defined include-exclude patterns.", Project.MSG_INFO);
-                continue;
+    /**
+     * Deploy the artifacts of the modules in parallel, using the publisher's fork count. The artifacts of each module are
+     * deployed serially. If any module fails, the build info isn't published.
+     */
+    private void deployArtifacts(Project project, ArtifactoryManager artifactoryManager,
+                                 IncludeExcludePatternMatcher patternMatcher, int publishForkCount) {
+        Map<String, Set<DeployDetails>> deployableArtifactsByModule = new LinkedHashMap<>();
+        ctx.forEachModuleDeployDetails((module, moduleDeployDetails) -> {
+            String moduleId = module == null ? "" : module.getId();
+            for (DeployDetails deployDetail : moduleDeployDetails) {
+                String artifactPath = deployDetail.getArtifactPath();
+                if (patternMatcher.pathConflicts(artifactPath)) {
+                    project.log("[buildinfo:deploy] Skipping the deployment of '" + artifactPath +
+                            "' due to the defined include-exclude patterns.", Project.MSG_INFO);
+                    continue;
+                }
+                deployableArtifactsByModule.computeIfAbsent(moduleId, key -> new LinkedHashSet<>()).add(deployDetail);
             }
-            artifactoryManager.upload(deployDetail);
-        }
+        });
+        new ModuleParallelDeployHelper().deployArtifacts(artifactoryManager, deployableArtifactsByModule, publishForkCount);
     }
 
     protected void configureProxy(ArtifactoryClientConfiguration clientConf, ArtifactoryManager artifactoryManager) {
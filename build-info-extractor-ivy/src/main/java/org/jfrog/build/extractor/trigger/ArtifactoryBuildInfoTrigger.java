@@ -28,15 +28,20 @@ import org.jfrog.build.extractor.ci.BuildInfoFields;
 import org.jfrog.build.extractor.ci.Dependency;
 import org.jfrog.build.extractor.ci.Module;
 import org.jfrog.build.extractor.clientConfiguration.ArtifactoryClientConfiguration;
+import org.jfrog.build.extractor.clientConfiguration.IncludeExcludePatternMatcher;
 import org.jfrog.build.extractor.clientConfiguration.IncludeExcludePatterns;
-import org.jfrog.build.extractor.clientConfiguration.PatternMatcher;
 import org.jfrog.build.extractor.clientConfiguration.deploy.DeployDetails;
 import org.jfrog.build.util.IvyResolverHelper;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.jfrog.build.api.util.FileChecksumCalculator.*;
 import static org.jfrog.build.extractor.BuildInfoExtractorUtils.getModuleIdString;
@@ -53,6 +58,15 @@ public class ArtifactoryBuildInfoTrigger implements Trigger {
     private final Filter filter;
     private BuildContext ctx;
     private String eventName;
+    // The publisher's include/exclude patterns, compiled once for all the published artifacts.
+    private IncludeExcludePatternMatcher patternMatcher;
+    // The context's modules by their "organisation:module:" key, and the number of context modules indexed.
+    private final Map<String, Module> modulesByKey = new HashMap<>();
+    private int indexedModulesCount;
+    // The names of the artifacts and excluded artifacts of each module.
+    private final Map<Module, Set<String>> artifactNamesByModule = new IdentityHashMap<>();
+    // The checksums of the resolved files. Files may be resolved by many modules, so each file is hashed once.
+    private final Map<File, Map<String, String>> checksumsByFile = new ConcurrentHashMap<>();
 
     public ArtifactoryBuildInfoTrigger(String eventName) {
         this.eventName = eventName;
@@ -61,6 +75,11 @@ public class ArtifactoryBuildInfoTrigger implements Trigger {
 
     public void setIvyBuildContext(BuildContext ctx) {
         this.ctx = ctx;
+        this.patternMatcher = null;
+        modulesByKey.clear();
+        indexedModulesCount = 0;
+        artifactNamesByModule.clear();
+        checksumsByFile.clear();
     }
 
     @Override
@@ -100,6 +119,9 @@ public class ArtifactoryBuildInfoTrigger implements Trigger {
         if (module.getDependencies() == null || module.getDependencies().isEmpty()) {
             String[] configurations = report.getConfigurations();
             List<Dependency> moduleDependencies = new ArrayList<>();
+            // The dependencies by their "organisation:module:" key and type
+            Map<String, Dependency> dependenciesByKey = new HashMap<>();
+            Map<Dependency, File> dependencyFiles = new IdentityHashMap<>();
             for (String configuration : configurations) {
                 project.log("[buildinfo:collect] Configuration: " + configuration + " Dependencies", Project.MSG_DEBUG);
                 ConfigurationResolveReport configurationReport = report.getConfigurationReport(configuration);
@@ -110,25 +132,18 @@ public class ArtifactoryBuildInfoTrigger implements Trigger {
                             Project.MSG_DEBUG);
                     ModuleRevisionId id = artifactsReport.getArtifact().getModuleRevisionId();
                     String type = getType(artifactsReport.getArtifact());
-                    Dependency dependency = findDependencyInList(id, type, moduleDependencies);
+                    String dependencyKey = getModuleIdString(id.getOrganisation(), id.getName(), "") + type;
+                    Dependency dependency = dependenciesByKey.get(dependencyKey);
                     if (dependency == null) {
                         DependencyBuilder dependencyBuilder = new DependencyBuilder();
                         dependencyBuilder.type(type).scopes(CommonUtils.newHashSet(configuration));
                         String idString = getModuleIdString(id.getOrganisation(),
                                 id.getName(), id.getRevision());
                         dependencyBuilder.id(idString);
-                        File file = artifactsReport.getLocalFile();
-                        Map<String, String> checksums;
-                        try {
-                            checksums = FileChecksumCalculator.calculateChecksums(file, MD5_ALGORITHM, SHA1_ALGORITHM, SHA256_ALGORITHM);
-                        } catch (Exception e) {
-                            throw new RuntimeException(e);
-                        }
-                        String md5 = checksums.get(MD5_ALGORITHM);
-                        String sha1 = checksums.get(SHA1_ALGORITHM);
-                        String sha256 = checksums.get(SHA256_ALGORITHM);
-                        dependencyBuilder.md5(md5).sha1(sha1).sha256(sha256);
                         dependency = dependencyBuilder.build();
+                        // The checksums are set after all the configurations are collected
+                        dependencyFiles.put(dependency, artifactsReport.getLocalFile());
+                        dependenciesByKey.put(dependencyKey, dependency);
                         moduleDependencies.add(dependency);
                         project.log(
                                 "[buildinfo:collect] Added dependency '" + dependency.getId() + "'", Project.MSG_DEBUG);
@@ -146,10 +161,39 @@ public class ArtifactoryBuildInfoTrigger implements Trigger {
                     }
                 }
             }
+            setDependenciesChecksums(dependencyFiles);
             module.setDependencies(moduleDependencies);
         }
     }
 
+    /**
+     * Set the checksums of the dependencies. Files which weren't hashed before are hashed in parallel.
+     *
+     * @param dependencyFiles the dependencies and their local files
+     * @throws RuntimeException if a dependency has no local file, or its checksums couldn't be calculated
+     */
+    void setDependenciesChecksums(Map<Dependency, File> dependencyFiles) {
+        Set<File> filesToHash = new HashSet<>();
+        for (Map.Entry<Dependency, File> dependencyFile : dependencyFiles.entrySet()) {
+            File file = dependencyFile.getValue();
+            if (file == null) {
+                throw new RuntimeException(new IllegalArgumentException("Cannot read checksums of null file of dependency: " +
+                        dependencyFile.getKey().getId()));
+            }
+            if (!checksumsByFile.containsKey(file)) {
+                filesToHash.add(file);
+            }
+        }
+        filesToHash.parallelStream().forEach(file -> checksumsByFile.put(file, calculateFileChecksum(file)));
+        for (Map.Entry<Dependency, File> dependencyFile : dependencyFiles.entrySet()) {
+            Dependency dependency = dependencyFile.getKey();
+            Map<String, String> checksums = checksumsByFile.get(dependencyFile.getValue());
+            dependency.setMd5(checksums.get(MD5_ALGORITHM));
+            dependency.setSha1(checksums.get(SHA1_ALGORITHM));
+            dependency.setSha256(checksums.get(SHA256_ALGORITHM));
+        }
+    }
+
     /**
      * Collect module information for each module.
      *
@@ -157,8 +201,10 @@ public class ArtifactoryBuildInfoTrigger implements Trigger {
      */
     private void collectModuleInformation(IvyEvent event) {
         ArtifactoryClientConfiguration.PublisherHandler publisher = ctx.getClientConf().publisher;
-        IncludeExcludePatterns patterns = new IncludeExcludePatterns(
-                publisher.getIncludePatterns(), publisher.getExcludePatterns());
+        if (patternMatcher == null) {
+            patternMatcher = new IncludeExcludePatternMatcher(new IncludeExcludePatterns(
+                    publisher.getIncludePatterns(), publisher.getExcludePatterns()));
+        }
         boolean excludeArtifactsFromBuild = publisher.isFilterExcludedArtifactsFromBuild();
         Project project = (Project) IvyContext.peekInContextStack(IvyTask.ANT_PROJECT_CONTEXT_KEY);
 
@@ -195,7 +241,7 @@ public class ArtifactoryBuildInfoTrigger implements Trigger {
         project.log("[buildinfo:collect] Collecting artifact " + name + " for module " + moduleName +
                 " using file " + file, Project.MSG_INFO);
 
-        if (isArtifactExist(module.getArtifacts(), name) || isArtifactExist(module.getExcludedArtifacts(), name)) {
+        if (!getArtifactNames(module).add(name)) {
             return;
         }
         ArtifactBuilder artifactBuilder = new ArtifactBuilder(name);
@@ -208,18 +254,14 @@ public class ArtifactoryBuildInfoTrigger implements Trigger {
         String sha256 = checksums.get(SHA256_ALGORITHM);
         artifactBuilder.md5(md5).sha1(sha1).sha256(sha256);
         Artifact artifact = artifactBuilder.build();
-        if (excludeArtifactsFromBuild && PatternMatcher.pathConflicts(fullPath, patterns)) {
+        if (excludeArtifactsFromBuild && patternMatcher.pathConflicts(fullPath)) {
             module.getExcludedArtifacts().add(artifact);
         } else {
             module.getArtifacts().add(artifact);
         }
         @SuppressWarnings("unchecked") DeployDetails deployDetails =
                 buildDeployDetails(artifactFile, artifact, ctx, map, extraAttributes);
-        ctx.addDeployDetailsForModule(deployDetails);
-        List<Module> contextModules = ctx.getModules();
-        if (contextModules.indexOf(module) == -1) {
-            ctx.addModule(module);
-        }
+        ctx.addDeployDetailsForModule(module, deployDetails);
     }
 
     private String getType(org.apache.ivy.core.module.descriptor.Artifact ivyArtifact) {
@@ -280,22 +322,16 @@ public class ArtifactoryBuildInfoTrigger implements Trigger {
         return checksums;
     }
 
-    private Dependency findDependencyInList(final ModuleRevisionId id, final String type, List<Dependency> moduleDependencies) {
-        final String idToFind = getModuleIdString(id.getOrganisation(), id.getName(), "");
-        return CommonUtils.getFirstSatisfying(moduleDependencies, input -> input.getId().startsWith(idToFind) && input.getType().equals(type), null);
-    }
-
-    private Module findModule(List<Module> modules, final String moduleKey) {
-        return CommonUtils.getFirstSatisfying(modules, input -> input.getId().startsWith(moduleKey), null);
-    }
-
     private Module getOrCreateModule(Map<String, String> attributes) {
         List<Module> modules = ctx.getModules();
         final String org = attributes.get("organisation");
         final String moduleName = attributes.get("module");
         String moduleKey = getModuleIdString(org, moduleName, "");
         String moduleId = getModuleIdString(org, moduleName, attributes.get("revision"));
-        Module module = findModule(modules, moduleKey);
+        if (indexedModulesCount != modules.size()) {
+            indexModules(modules);
+        }
+        Module module = modulesByKey.get(moduleKey);
         if (module == null) {
             ModuleBuilder moduleBuilder = new ModuleBuilder()
                     .type(ModuleType.IVY)
@@ -303,14 +339,35 @@ public class ArtifactoryBuildInfoTrigger implements Trigger {
                     .repository(ctx.getClientConf().publisher.getRepoKey());
             module = moduleBuilder.build();
             modules.add(module);
+            modulesByKey.put(moduleKey, module);
+            indexedModulesCount++;
         } else {
             module.setId(moduleId);
         }
         return module;
     }
 
-    private boolean isArtifactExist(List<Artifact> artifacts, final String artifactName) {
-        return CommonUtils.isAnySatisfying(artifacts, input -> input.getName().equals(artifactName));
+    /**
+     * Index the context modules by their key, keeping the first module of each key.
+     */
+    private void indexModules(List<Module> modules) {
+        modulesByKey.clear();
+        for (Module module : modules) {
+            modulesByKey.putIfAbsent(StringUtils.substringBeforeLast(module.getId(), ":") + ":", module);
+        }
+        indexedModulesCount = modules.size();
+    }
+
+    /**
+     * Returns the names of the artifacts and excluded artifacts of the module.
+     * The artifact lists of the module must be initialized.
+     */
+    private Set<String> getArtifactNames(Module module) {
+        return artifactNamesByModule.computeIfAbsent(module, key -> {
+            Set<String> names = new HashSet<>();
+            key.getArtifacts().forEach(artifact -> names.add(artifact.getName()));
+            key.getExcludedArtifacts().forEach(artifact -> names.add(artifact.getName()));
+            return names;
+        });
     }
 }
-
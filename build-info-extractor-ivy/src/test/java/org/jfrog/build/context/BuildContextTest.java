@@ -0,0 +1,76 @@
+package org.jfrog.build.context;
+
+import org.apache.commons.io.FileUtils;
+import org.jfrog.build.extractor.builder.ModuleBuilder;
+import org.jfrog.build.extractor.ci.Module;
+import org.jfrog.build.extractor.clientConfiguration.ArtifactoryClientConfiguration;
+import org.jfrog.build.extractor.clientConfiguration.deploy.DeployDetails;
+import org.jfrog.build.extractor.util.TestingLog;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Tests the grouping of the deploy details by module in {@link BuildContext}.
+ */
+@Test
+public class BuildContextTest {
+    private File workspace;
+
+    @BeforeClass
+    public void setUp() throws IOException {
+        workspace = Files.createTempDirectory("build-context").toFile();
+    }
+
+    @AfterClass
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(workspace);
+    }
+
+    public void testModulesInAddedOrder() throws IOException {
+        BuildContext ctx = new BuildContext(new ArtifactoryClientConfiguration(new TestingLog()));
+        List<Module> modules = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            modules.add(new ModuleBuilder().id("org:module-" + i + ":1.0").build());
+        }
+        for (int i = modules.size() - 1; i >= 0; i--) {
+            ctx.addDeployDetailsForModule(modules.get(i), createDeployDetails("module-" + i + "/a.jar"));
+        }
+        ctx.addDeployDetailsForModule(createDeployDetails("unknown/a.jar"));
+        ctx.addDeployDetailsForModule(modules.get(5), createDeployDetails("module-5/b.jar"));
+
+        List<String> actual = new ArrayList<>();
+        ctx.forEachModuleDeployDetails((module, deployDetails) -> {
+            for (DeployDetails details : deployDetails) {
+                actual.add((module == null ? "" : module.getId()) + ":" + details.getArtifactPath());
+            }
+        });
+        List<String> expected = new ArrayList<>();
+        for (int i = modules.size() - 1; i >= 0; i--) {
+            expected.add("org:module-" + i + ":1.0:module-" + i + "/a.jar");
+            if (i == 5) {
+                expected.add("org:module-5:1.0:module-5/b.jar");
+            }
+        }
+        expected.add(":unknown/a.jar");
+        assertEquals(actual, expected);
+    }
+
+    /**
+     * The deploy details are unique by their file, so each artifact has its own file.
+     */
+    private DeployDetails createDeployDetails(String artifactPath) throws IOException {
+        File file = new File(workspace, artifactPath);
+        FileUtils.writeStringToFile(file, artifactPath, StandardCharsets.UTF_8);
+        return new DeployDetails.Builder().file(file).targetRepository("repo").artifactPath(artifactPath).build();
+    }
+}
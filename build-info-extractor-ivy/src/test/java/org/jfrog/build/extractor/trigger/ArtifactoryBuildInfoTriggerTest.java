@@ -0,0 +1,113 @@
+package org.jfrog.build.extractor.trigger;
+
+import org.apache.commons.io.FileUtils;
+import org.jfrog.build.api.util.FileChecksumCalculator;
+import org.jfrog.build.extractor.builder.DependencyBuilder;
+import org.jfrog.build.extractor.ci.Dependency;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.jfrog.build.api.util.FileChecksumCalculator.MD5_ALGORITHM;
+import static org.jfrog.build.api.util.FileChecksumCalculator.SHA1_ALGORITHM;
+import static org.jfrog.build.api.util.FileChecksumCalculator.SHA256_ALGORITHM;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Tests the parallel calculation of the dependencies checksums in {@link ArtifactoryBuildInfoTrigger}.
+ */
+@Test
+public class ArtifactoryBuildInfoTriggerTest {
+    private File workspace;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        workspace = Files.createTempDirectory("ivy-trigger").toFile();
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(workspace);
+    }
+
+    public void testSetDependenciesChecksums() throws Exception {
+        ArtifactoryBuildInfoTrigger trigger = new ArtifactoryBuildInfoTrigger("post-resolve");
+        List<File> files = new ArrayList<>();
+        Map<Dependency, File> dependencyFiles = new IdentityHashMap<>();
+        for (int i = 0; i < 20; i++) {
+            File file = new File(workspace, "dependency-" + i + ".jar");
+            FileUtils.writeStringToFile(file, "content " + i, StandardCharsets.UTF_8);
+            files.add(file);
+            dependencyFiles.put(createDependency("dependency-" + i), file);
+        }
+        // Dependencies may share the same local file
+        Dependency sharedFileDependency = createDependency("shared");
+        dependencyFiles.put(sharedFileDependency, files.get(0));
+
+        trigger.setDependenciesChecksums(dependencyFiles);
+
+        for (Map.Entry<Dependency, File> dependencyFile : dependencyFiles.entrySet()) {
+            assertChecksums(dependencyFile.getKey(), dependencyFile.getValue());
+        }
+        assertChecksums(sharedFileDependency, files.get(0));
+    }
+
+    public void testDependencyWithoutFile() throws Exception {
+        ArtifactoryBuildInfoTrigger trigger = new ArtifactoryBuildInfoTrigger("post-resolve");
+        File file = new File(workspace, "dependency.jar");
+        FileUtils.writeStringToFile(file, "content", StandardCharsets.UTF_8);
+        Dependency withFile = createDependency("with-file");
+        Map<Dependency, File> dependencyFiles = new IdentityHashMap<>();
+        dependencyFiles.put(withFile, file);
+        dependencyFiles.put(createDependency("no-file"), null);
+
+        RuntimeException e = expectThrows(RuntimeException.class, () -> trigger.setDependenciesChecksums(dependencyFiles));
+        assertTrue(e.getMessage().contains("org:no-file:1.0"), e.getMessage());
+        // The build fails before any of the files is hashed
+        assertNull(withFile.getSha1());
+    }
+
+    public void testChecksumsReusedForTheSameFile() throws Exception {
+        ArtifactoryBuildInfoTrigger trigger = new ArtifactoryBuildInfoTrigger("post-resolve");
+        File file = new File(workspace, "dependency.jar");
+        FileUtils.writeStringToFile(file, "content", StandardCharsets.UTF_8);
+        Dependency first = createDependency("first");
+        Map<Dependency, File> dependencyFiles = new IdentityHashMap<>();
+        dependencyFiles.put(first, file);
+        trigger.setDependenciesChecksums(dependencyFiles);
+
+        // Another module resolving the same file reuses the checksums, without reading the file again
+        assertChecksums(first, file);
+        String sha1 = first.getSha1();
+        Files.delete(file.toPath());
+        Dependency second = createDependency("second");
+        dependencyFiles = new IdentityHashMap<>();
+        dependencyFiles.put(second, file);
+        trigger.setDependenciesChecksums(dependencyFiles);
+
+        assertEquals(second.getSha1(), sha1);
+    }
+
+    private static Dependency createDependency(String name) {
+        return new DependencyBuilder().id("org:" + name + ":1.0").type("jar").build();
+    }
+
+    private static void assertChecksums(Dependency dependency, File file) throws Exception {
+        Map<String, String> checksums = FileChecksumCalculator.calculateChecksums(file, MD5_ALGORITHM, SHA1_ALGORITHM, SHA256_ALGORITHM);
+        assertEquals(dependency.getMd5(), checksums.get(MD5_ALGORITHM), dependency.getId());
+        assertEquals(dependency.getSha1(), checksums.get(SHA1_ALGORITHM), dependency.getId());
+        assertEquals(dependency.getSha256(), checksums.get(SHA256_ALGORITHM), dependency.getId());
+    }
+}
@@ -12,10 +12,11 @@ import org.jfrog.build.extractor.ci.BuildInfo;
 import org.jfrog.build.extractor.ci.BuildInfoConfigProperties;
 import org.jfrog.build.extractor.ci.Module;
 import org.jfrog.build.extractor.clientConfiguration.ArtifactoryClientConfiguration;
+import org.jfrog.build.extractor.clientConfiguration.ClientConfigurationSnapshot;
 import org.jfrog.build.extractor.clientConfiguration.client.artifactory.ArtifactoryManager;
 import org.jfrog.build.extractor.clientConfiguration.deploy.DeployDetails;
 import org.jfrog.build.extractor.clientConfiguration.deploy.DeployableArtifactsUtils;
-import org.jfrog.build.extractor.retention.Utils;
+import org.jfrog.build.extractor.retention.BuildPublishPipeline;
 
 import java.io.File;
 import java.io.IOException;
@@ -37,9 +38,10 @@ public class BuildDeploymentHelper {
     public void deploy(BuildInfo buildInfo, ArtifactoryClientConfiguration clientConf, Map<String, DeployDetails> deployableArtifactBuilders, boolean wereThereTestFailures, File basedir) {
         Map<String, Set<DeployDetails>> deployableArtifactsByModule = prepareDeployableArtifacts(buildInfo, deployableArtifactBuilders);
 
-        logger.debug("Build Info Recorder: deploy artifacts: " + clientConf.publisher.isPublishArtifacts());
-        logger.debug("Build Info Recorder: publication fork count: " + clientConf.publisher.getPublishForkCount());
-        logger.debug("Build Info Recorder: publish build info: " + clientConf.publisher.isPublishBuildInfo());
+        ClientConfigurationSnapshot.Publisher publisher = clientConf.snapshot().getPublisher();
+        logger.debug("Build Info Recorder: deploy artifacts: " + publisher.isPublishArtifacts());
+        logger.debug("Build Info Recorder: publication fork count: " + publisher.getPublishForkCount());
+        logger.debug("Build Info Recorder: publish build info: " + publisher.isPublishBuildInfo());
 
         if (!StringUtils.isEmpty(clientConf.info.getGeneratedBuildInfoFilePath())) {
             try {
@@ -50,12 +52,29 @@ public class BuildDeploymentHelper {
             }
         }
 
-        if (isDeployArtifacts(clientConf, wereThereTestFailures, deployableArtifactsByModule)) {
+        if (isDeployArtifacts(publisher, wereThereTestFailures, deployableArtifactsByModule)) {
             try (ArtifactoryManager artifactoryManager = artifactoryManagerBuilder.resolveProperties(clientConf)) {
-                new ModuleParallelDeployHelper().deployArtifacts(artifactoryManager, deployableArtifactsByModule, clientConf.publisher.getPublishForkCount());
+                new ModuleParallelDeployHelper().deployArtifacts(artifactoryManager, deployableArtifactsByModule, publisher.getPublishForkCount());
             }
         }
 
+        if (!isPublishBuildInfo(publisher, wereThereTestFailures)) {
+            saveDeployableArtifactsToFile(clientConf, deployableArtifactsByModule);
+            return;
+        }
+        // The deployable artifacts file is written while the build info is published
+        try (ArtifactoryManager artifactoryManager = artifactoryManagerBuilder.resolveProperties(clientConf);
+             BuildPublishPipeline publishPipeline = new BuildPublishPipeline(artifactoryManager)) {
+            logger.info("Artifactory Build Info Recorder: Deploying build info ...");
+            publishPipeline.publishBuildInfo(buildInfo, clientConf, null);
+            saveDeployableArtifactsToFile(clientConf, deployableArtifactsByModule);
+            publishPipeline.awaitCompletion();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void saveDeployableArtifactsToFile(ArtifactoryClientConfiguration clientConf, Map<String, Set<DeployDetails>> deployableArtifactsByModule) {
         if (!StringUtils.isEmpty(clientConf.info.getDeployableArtifactsFilePath())) {
             try {
                 DeployableArtifactsUtils.saveDeployableArtifactsToFile(deployableArtifactsByModule, new File(clientConf.info.getDeployableArtifactsFilePath()), false);
@@ -64,23 +83,10 @@ public class BuildDeploymentHelper {
                 throw new RuntimeException("Failed writing deployable artifacts to file", e);
             }
         }
-
-        if (isPublishBuildInfo(clientConf, wereThereTestFailures)) {
-            publishBuildInfo(clientConf, buildInfo);
-        }
-    }
-
-    private void publishBuildInfo(ArtifactoryClientConfiguration clientConf, BuildInfo buildInfo) {
-        try (ArtifactoryManager artifactoryManager = artifactoryManagerBuilder.resolveProperties(clientConf)) {
-            logger.info("Artifactory Build Info Recorder: Deploying build info ...");
-            Utils.sendBuildAndBuildRetention(artifactoryManager, buildInfo, clientConf);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
     }
 
-    private boolean isDeployArtifacts(ArtifactoryClientConfiguration clientConf, boolean wereThereTestFailures, Map<String, Set<DeployDetails>> deployableArtifacts) {
-        if (!clientConf.publisher.isPublishArtifacts()) {
+    private boolean isDeployArtifacts(ClientConfigurationSnapshot.Publisher publisher, boolean wereThereTestFailures, Map<String, Set<DeployDetails>> deployableArtifacts) {
+        if (!publisher.isPublishArtifacts()) {
             logger.info("Artifactory Build Info Recorder: deploy artifacts set to false, artifacts will not be deployed...");
             return false;
         }
@@ -88,19 +94,19 @@ public class BuildDeploymentHelper {
             logger.info("Artifactory Build Info Recorder: no artifacts to deploy...");
             return false;
         }
-        if (wereThereTestFailures && !clientConf.publisher.isEvenUnstable()) {
+        if (wereThereTestFailures && !publisher.isEvenUnstable()) {
             logger.warn("Artifactory Build Info Recorder: unstable build, artifacts will not be deployed...");
             return false;
         }
         return true;
     }
 
-    private boolean isPublishBuildInfo(ArtifactoryClientConfiguration clientConf, boolean wereThereTestFailures) {
-        if (!clientConf.publisher.isPublishBuildInfo()) {
+    private boolean isPublishBuildInfo(ClientConfigurationSnapshot.Publisher publisher, boolean wereThereTestFailures) {
+        if (!publisher.isPublishBuildInfo()) {
             logger.info("Artifactory Build Info Recorder: publish build info set to false, build info will not be published...");
             return false;
         }
-        if (wereThereTestFailures && !clientConf.publisher.isEvenUnstable()) {
+        if (wereThereTestFailures && !publisher.isEvenUnstable()) {
             logger.warn("Artifactory Build Info Recorder: unstable build, build info will not be published...");
             return false;
         }
@@ -25,8 +25,8 @@ import org.jfrog.build.extractor.builder.ModuleBuilder;
 import org.jfrog.build.extractor.ci.BuildInfo;
 import org.jfrog.build.extractor.ci.BuildInfoConfigProperties;
 import org.jfrog.build.extractor.clientConfiguration.ArtifactoryClientConfiguration;
-import org.jfrog.build.extractor.clientConfiguration.IncludeExcludePatterns;
-import org.jfrog.build.extractor.clientConfiguration.PatternMatcher;
+import org.jfrog.build.extractor.clientConfiguration.ClientConfigurationSnapshot;
+import org.jfrog.build.extractor.clientConfiguration.IncludeExcludePatternMatcher;
 import org.jfrog.build.extractor.clientConfiguration.deploy.DeployDetails;
 import org.jfrog.build.extractor.maven.resolver.ResolutionHelper;
 import org.jfrog.build.extractor.packageManager.PackageManagerUtils;
@@ -75,7 +75,7 @@ public class BuildInfoRecorder extends AbstractExecutionListener implements Buil
     @Requirement
     private Logger logger;
 
-    private final Set<Artifact> resolvedArtifacts = Collections.synchronizedSet(new HashSet<>());
+    private final ResolvedArtifactsCollector resolvedArtifacts = new ResolvedArtifactsCollector();
     private final ThreadLocal<Set<Artifact>> currentModuleDependencies = new ThreadLocal<>();
     private final ThreadLocal<Set<Artifact>> currentModuleArtifacts = new ThreadLocal<>();
     private final ThreadLocal<ModuleBuilder> currentModule = new ThreadLocal<>();
@@ -88,6 +88,7 @@ public class BuildInfoRecorder extends AbstractExecutionListener implements Buil
     private volatile boolean projectHasTestFailures;
     private BuildInfoMavenBuilder buildInfoBuilder;
     private ArtifactoryClientConfiguration conf;
+    private volatile ClientConfigurationSnapshot confSnapshot;
     private ExecutionListener wrappedListener;
     private DocumentBuilder documentBuilder;
 
@@ -130,6 +131,17 @@ public class BuildInfoRecorder extends AbstractExecutionListener implements Buil
         }
     }
 
+    /**
+     * The repository listeners use this method to create the artifacts they report, so that an artifact resolved
+     * many times during the build is created once.
+     *
+     * @return the artifact with the given coordinates.
+     */
+    public Artifact internArtifact(String groupId, String artifactId, String version, String scope, String extension,
+                                   String classifier, File file) {
+        return resolvedArtifacts.intern(groupId, artifactId, version, scope, extension, classifier, file);
+    }
+
     @Override
     public void projectDiscoveryStarted(ExecutionEvent event) {
         if (wrappedListener != null) {
@@ -144,6 +156,7 @@ public class BuildInfoRecorder extends AbstractExecutionListener implements Buil
             buildInfoBuilder = buildInfoModelPropertyResolver.resolveProperties(event, conf);
             deployableArtifactBuilderMap = new ConcurrentHashMap<>();
             setDeploymentPolicy(event);
+            confSnapshot = null;
 
             if (wrappedListener != null) {
                 wrappedListener.sessionStarted(event);
@@ -164,6 +177,7 @@ public class BuildInfoRecorder extends AbstractExecutionListener implements Buil
                 buildDeploymentHelper.deploy(buildInfo, conf, deployableArtifactBuilderMap, projectHasTestFailures, basedir);
             }
             deployableArtifactBuilderMap.clear();
+            resolvedArtifacts.reset();
             if (wrappedListener != null) {
                 wrappedListener.sessionEnded(event);
             }
@@ -459,7 +473,7 @@ public class BuildInfoRecorder extends AbstractExecutionListener implements Buil
         moduleDependencies.addAll(dependecies);
         moduleDependencies.addAll(tempSet);
         if (conf.publisher.isRecordAllDependencies()) {
-            moduleDependencies.addAll(resolvedArtifacts);
+            moduleDependencies.addAll(resolvedArtifacts.getAll());
         }
     }
 
@@ -479,9 +493,8 @@ public class BuildInfoRecorder extends AbstractExecutionListener implements Buil
             return;
         }
 
-        ArtifactoryClientConfiguration.PublisherHandler publisher = conf.publisher;
-        IncludeExcludePatterns patterns = new IncludeExcludePatterns(
-                publisher.getIncludePatterns(), publisher.getExcludePatterns());
+        ClientConfigurationSnapshot.Publisher publisher = getConfSnapshot().getPublisher();
+        IncludeExcludePatternMatcher patternMatcher = publisher.getPatternMatcher();
         boolean excludeArtifactsFromBuild = publisher.isFilterExcludedArtifactsFromBuild();
 
         boolean pomFileAdded = false;
@@ -522,9 +535,9 @@ public class BuildInfoRecorder extends AbstractExecutionListener implements Buil
             org.jfrog.build.extractor.ci.Artifact artifact = artifactBuilder.build();
             String deploymentPath = getDeploymentPath(groupId, artifactId, artifactVersion, artifactClassifier, artifactExtension);
             if (artifactFile != null && artifactFile.isFile()) {
-                boolean pathConflicts = PatternMatcher.pathConflicts(deploymentPath, patterns);
+                boolean pathConflicts = patternMatcher.pathConflicts(deploymentPath);
                 addArtifactToBuildInfo(artifact, pathConflicts, excludeArtifactsFromBuild, module);
-                if (conf.publisher.shouldAddDeployableArtifacts()) {
+                if (publisher.shouldAddDeployableArtifacts()) {
                     addDeployableArtifact(artifact, artifactFile, pathConflicts, groupId, artifactId, artifactVersion, artifactClassifier, artifactExtension);
                 }
             }
@@ -539,12 +552,12 @@ public class BuildInfoRecorder extends AbstractExecutionListener implements Buil
                     nonPomArtifact.getVersion(),
                     nonPomArtifact.getClassifier(), "pom");
 
-            addPomArtifact(nonPomArtifact, module, patterns, deploymentPath, pomFileName, excludeArtifactsFromBuild);
+            addPomArtifact(nonPomArtifact, module, patternMatcher, deploymentPath, pomFileName, excludeArtifactsFromBuild);
         }
     }
 
     private void addPomArtifact(Artifact nonPomArtifact, ModuleBuilder module,
-                                IncludeExcludePatterns patterns, String deploymentPath, String pomFileName, boolean excludeArtifactsFromBuild) {
+                                IncludeExcludePatternMatcher patternMatcher, String deploymentPath, String pomFileName, boolean excludeArtifactsFromBuild) {
 
         for (ArtifactMetadata metadata : nonPomArtifact.getMetadataList()) {
             if (metadata instanceof ProjectArtifactMetadata) { // The pom metadata
@@ -555,9 +568,9 @@ public class BuildInfoRecorder extends AbstractExecutionListener implements Buil
                 org.jfrog.build.extractor.ci.Artifact pomArtifact = artifactBuilder.build();
 
                 if (pomFile != null && pomFile.isFile()) {
-                    boolean pathConflicts = PatternMatcher.pathConflicts(deploymentPath, patterns);
+                    boolean pathConflicts = patternMatcher.pathConflicts(deploymentPath);
                     addArtifactToBuildInfo(pomArtifact, pathConflicts, excludeArtifactsFromBuild, module);
-                    if (conf.publisher.shouldAddDeployableArtifacts()) {
+                    if (getConfSnapshot().getPublisher().shouldAddDeployableArtifacts()) {
                         addDeployableArtifact(pomArtifact, pomFile, pathConflicts, nonPomArtifact.getGroupId(), nonPomArtifact.getArtifactId(), nonPomArtifact.getVersion(), nonPomArtifact.getClassifier(), "pom");
                     }
                 }
@@ -598,7 +611,7 @@ public class BuildInfoRecorder extends AbstractExecutionListener implements Buil
         String targetRepository = getTargetRepository(deploymentPath);
 
         DeployDetails deployable = new DeployDetails.Builder().artifactPath(deploymentPath).file(artifactFile).
-                targetRepository(targetRepository).addProperties(conf.publisher.getMatrixParams())
+                targetRepository(targetRepository).addProperties(getConfSnapshot().getPublisher().getMatrixParams())
                 .packageType(DeployDetails.PackageType.MAVEN).build();
         String myArtifactId = BuildInfoExtractorUtils.getArtifactId(currentModule.get().build().getId(),
                 artifact.getName());
@@ -613,11 +626,25 @@ public class BuildInfoRecorder extends AbstractExecutionListener implements Buil
      * snapshot.
      */
     public String getTargetRepository(String deployPath) {
-        String snapshotsRepository = conf.publisher.getSnapshotRepoKey();
+        ClientConfigurationSnapshot.Publisher publisher = getConfSnapshot().getPublisher();
+        String snapshotsRepository = publisher.getSnapshotRepoKey();
         if (snapshotsRepository != null && deployPath.contains("-SNAPSHOT")) {
             return snapshotsRepository;
         }
-        return conf.publisher.getRepoKey();
+        return publisher.getRepoKey();
+    }
+
+    /**
+     * The snapshot of the configuration is taken when the first module adds its artifacts, after the default
+     * publisher attributes were added to the configuration.
+     */
+    private ClientConfigurationSnapshot getConfSnapshot() {
+        ClientConfigurationSnapshot snapshot = confSnapshot;
+        if (snapshot == null) {
+            snapshot = conf.snapshot();
+            confSnapshot = snapshot;
+        }
+        return snapshot;
     }
 
     private String getRemotePath(String groupId, String artifactId, String version) {
@@ -0,0 +1,130 @@
+package org.jfrog.build.extractor.maven;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Collects the artifacts resolved by Maven, as reported by the repository listeners.
+ * <p>
+ * In parallel builds, many resolution threads report artifacts at the same time. To avoid contention, each thread
+ * adds the artifacts it resolved to its own shard. The shards are merged when a module ends.
+ * The artifacts are interned by their coordinates, scope and file, so the same artifact resolved again by other
+ * modules doesn't create a new artifact instance.
+ */
+public class ResolvedArtifactsCollector {
+    private final Queue<Set<Artifact>> shards = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Set<Artifact>> threadShard = ThreadLocal.withInitial(this::createShard);
+    private final ConcurrentMap<ArtifactKey, Artifact> internedArtifacts = new ConcurrentHashMap<>();
+
+    /**
+     * Get the artifact with the given coordinates, creating it only if it wasn't created before.
+     *
+     * @return the artifact with the given coordinates.
+     */
+    public Artifact intern(String groupId, String artifactId, String version, String scope, String extension,
+                           String classifier, File file) {
+        ArtifactKey key = new ArtifactKey(groupId, artifactId, version, scope, extension, classifier == null ? "" : classifier, file);
+        return internedArtifacts.computeIfAbsent(key, ArtifactKey::createArtifact);
+    }
+
+    /**
+     * Add a resolved artifact to the shard of the current thread.
+     *
+     * @param artifact The resolved artifact
+     */
+    public void add(Artifact artifact) {
+        threadShard.get().add(artifact);
+    }
+
+    /**
+     * @return the artifacts resolved by all threads since the last clear.
+     */
+    public Set<Artifact> getAll() {
+        Set<Artifact> artifacts = new HashSet<>();
+        for (Set<Artifact> shard : shards) {
+            artifacts.addAll(shard);
+        }
+        return artifacts;
+    }
+
+    /**
+     * Remove the resolved artifacts of all threads. The interned artifacts are kept.
+     */
+    public void clear() {
+        for (Set<Artifact> shard : shards) {
+            shard.clear();
+        }
+    }
+
+    /**
+     * Remove the resolved artifacts and the interned artifacts.
+     */
+    public void reset() {
+        clear();
+        internedArtifacts.clear();
+    }
+
+    private Set<Artifact> createShard() {
+        Set<Artifact> shard = ConcurrentHashMap.newKeySet();
+        shards.add(shard);
+        return shard;
+    }
+
+    private static class ArtifactKey {
+        private final String groupId;
+        private final String artifactId;
+        private final String version;
+        private final String scope;
+        private final String extension;
+        private final String classifier;
+        private final File file;
+        private final int hashCode;
+
+        private ArtifactKey(String groupId, String artifactId, String version, String scope, String extension,
+                            String classifier, File file) {
+            this.groupId = groupId;
+            this.artifactId = artifactId;
+            this.version = version;
+            this.scope = scope;
+            this.extension = extension;
+            this.classifier = classifier;
+            this.file = file;
+            this.hashCode = Objects.hash(groupId, artifactId, version, scope, extension, classifier, file);
+        }
+
+        private Artifact createArtifact() {
+            DefaultArtifact artifact = new DefaultArtifact(groupId, artifactId, version, scope, extension, classifier, null);
+            artifact.setFile(file);
+            return artifact;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ArtifactKey that = (ArtifactKey) o;
+            return hashCode == that.hashCode && Objects.equals(groupId, that.groupId) &&
+                    Objects.equals(artifactId, that.artifactId) && Objects.equals(version, that.version) &&
+                    Objects.equals(scope, that.scope) && Objects.equals(extension, that.extension) &&
+                    Objects.equals(classifier, that.classifier) && Objects.equals(file, that.file);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -221,7 +221,9 @@ public class ArtifactoryEclipseRepositoryListener extends AbstractRepositoryList
         String scope = getBuildInfoRecorder().getResolutionHelper().getScopeByRequestContext(requestContext);
         org.apache.maven.artifact.Artifact artifact = toMavenArtifact(event.getArtifact(), scope);
         if (event.getRepository() != null) {
-            logger.debug("[buildinfo] Resolved artifact: " + artifact + " from: " + event.getRepository() + " Context is: " + requestContext);
+            if (logger.isDebugEnabled()) {
+                logger.debug("[buildinfo] Resolved artifact: " + artifact + " from: " + event.getRepository() + " Context is: " + requestContext);
+            }
             getBuildInfoRecorder().artifactResolved(artifact);
         } else {
             logger.debug("[buildinfo] Could not resolve artifact: " + artifact);
@@ -236,6 +238,11 @@ public class ArtifactoryEclipseRepositoryListener extends AbstractRepositoryList
         if (art == null) {
             return null;
         }
+        BuildInfoRecorder buildInfoRecorder = getBuildInfoRecorder();
+        if (buildInfoRecorder != null) {
+            return buildInfoRecorder.internArtifact(art.getGroupId(), art.getArtifactId(), art.getVersion(), scope,
+                    art.getExtension(), art.getClassifier(), art.getFile());
+        }
         String classifier = art.getClassifier();
         classifier = classifier == null ? "" : classifier;
         DefaultArtifact artifact = new DefaultArtifact(art.getGroupId(), art.getArtifactId(), art.getVersion(), scope, art.getExtension(), classifier, null);
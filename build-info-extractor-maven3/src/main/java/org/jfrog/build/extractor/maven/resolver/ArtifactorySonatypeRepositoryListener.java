@@ -245,7 +245,9 @@ public class ArtifactorySonatypeRepositoryListener extends AbstractRepositoryLis
         String scope = resolutionHelper.getScopeByRequestContext(requestContext);
         org.apache.maven.artifact.Artifact artifact = toMavenArtifact(event.getArtifact(), scope);
         if (event.getRepository() != null) {
-            logger.debug("[buildinfo] Resolved artifact: " + artifact + " from: " + event.getRepository() + " Context is: " + requestContext);
+            if (logger.isDebugEnabled()) {
+                logger.debug("[buildinfo] Resolved artifact: " + artifact + " from: " + event.getRepository() + " Context is: " + requestContext);
+            }
             if (getBuildInfoRecorder() != null) {
                 getBuildInfoRecorder().artifactResolved(artifact);
             }
@@ -263,6 +265,11 @@ public class ArtifactorySonatypeRepositoryListener extends AbstractRepositoryLis
         if (art == null) {
             return null;
         }
+        // The recorder is looked up when the artifact is recorded
+        if (buildInfoRecorder != null) {
+            return buildInfoRecorder.internArtifact(art.getGroupId(), art.getArtifactId(), art.getVersion(), scope,
+                    art.getExtension(), art.getClassifier(), art.getFile());
+        }
         String classifier = art.getClassifier();
         classifier = classifier == null ? "" : classifier;
         DefaultArtifact artifact = new DefaultArtifact(art.getGroupId(), art.getArtifactId(), art.getVersion(), scope, art.getExtension(), classifier, null);
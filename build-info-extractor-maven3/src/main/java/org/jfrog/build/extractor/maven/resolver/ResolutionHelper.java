@@ -6,6 +6,7 @@ import org.codehaus.plexus.component.annotations.Requirement;
 import org.codehaus.plexus.logging.Logger;
 import org.jfrog.build.extractor.BuildInfoExtractorUtils;
 import org.jfrog.build.extractor.clientConfiguration.ArtifactoryClientConfiguration;
+import org.jfrog.build.extractor.clientConfiguration.ClientConfigurationSnapshot;
 import org.jfrog.build.extractor.maven.Maven3BuildInfoLogger;
 
 import java.util.Properties;
@@ -20,6 +21,7 @@ public class ResolutionHelper {
     @Requirement
     private Logger logger;
     private ArtifactoryClientConfiguration internalConfiguration;
+    private ClientConfigurationSnapshot.Proxy proxy;
     private boolean initialized = false;
 
     public void init(Properties allMavenProps) {
@@ -31,6 +33,7 @@ public class ResolutionHelper {
         Properties allProps = BuildInfoExtractorUtils.mergePropertiesWithSystemAndPropertyFile(allMavenProps, log);
         internalConfiguration = new ArtifactoryClientConfiguration(log);
         internalConfiguration.fillFromProperties(allProps);
+        proxy = internalConfiguration.snapshot().getProxy();
         initialized = true;
     }
 
@@ -78,18 +81,18 @@ public class ResolutionHelper {
     }
 
     public String getProxyHost() {
-        return internalConfiguration.proxy.getHost();
+        return proxy.getHost();
     }
 
     public Integer getProxyPort() {
-        return internalConfiguration.proxy.getPort();
+        return proxy.getPort();
     }
 
     public String getProxyUsername() {
-        return internalConfiguration.proxy.getUsername();
+        return proxy.getUsername();
     }
 
     public String getProxyPassword() {
-        return internalConfiguration.proxy.getPassword();
+        return proxy.getPassword();
     }
 }
@@ -0,0 +1,151 @@
+package org.jfrog.build.extractor.maven.transformer;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces the text content of elements in the original text of a pom, leaving the rest of the text untouched.
+ * The elements are identified by their position among the elements of the pom, in document order, as counted by the
+ * start element events of a StAX parser.
+ */
+class PomTextEditor {
+
+    private PomTextEditor() {
+    }
+
+    /**
+     * Replace the text content of elements.
+     *
+     * @param content The text of a well-formed pom
+     * @param edits   Map of element positions to the new text of the elements
+     * @return the text of the pom with the replaced elements.
+     */
+    static String replaceElementsText(String content, Map<Integer, String> edits) throws IOException {
+        List<Replacement> replacements = new ArrayList<>();
+        // The positions and the content start offsets of the open elements
+        Deque<int[]> openElements = new ArrayDeque<>();
+        int elementIndex = 0;
+        int pos = 0;
+        while ((pos = content.indexOf('<', pos)) >= 0) {
+            if (content.startsWith("<!--", pos)) {
+                pos = skipPast(content, "-->", pos);
+            } else if (content.startsWith("<![CDATA[", pos)) {
+                pos = skipPast(content, "]]>", pos);
+            } else if (content.startsWith("<?", pos)) {
+                pos = skipPast(content, "?>", pos);
+            } else if (content.startsWith("<!", pos)) {
+                pos = findMarkupEnd(content, pos) + 1;
+            } else if (content.startsWith("</", pos)) {
+                int[] openElement = openElements.pop();
+                String text = edits.get(openElement[0]);
+                if (text != null) {
+                    replacements.add(new Replacement(openElement[1], pos, escape(text)));
+                }
+                pos = skipPast(content, ">", pos);
+            } else {
+                int tagEnd = findMarkupEnd(content, pos);
+                int index = elementIndex++;
+                String text = edits.get(index);
+                if (content.charAt(tagEnd - 1) == '/') {
+                    if (text != null) {
+                        // Expand the empty element: <version/> -> <version>text</version>
+                        replacements.add(new Replacement(tagEnd - 1, tagEnd + 1,
+                                ">" + escape(text) + "</" + getTagName(content, pos) + ">"));
+                    }
+                } else {
+                    openElements.push(new int[]{index, tagEnd + 1});
+                }
+                pos = tagEnd + 1;
+            }
+        }
+
+        StringBuilder result = new StringBuilder(content);
+        // Replace from the end, to keep the offsets of the preceding replacements valid
+        replacements.sort((first, second) -> Integer.compare(second.start, first.start));
+        for (Replacement replacement : replacements) {
+            result.replace(replacement.start, replacement.end, replacement.text);
+        }
+        return result.toString();
+    }
+
+    private static int skipPast(String content, String terminator, int pos) throws IOException {
+        int terminatorIndex = content.indexOf(terminator, pos);
+        if (terminatorIndex < 0) {
+            throw new IOException("Unexpected end of pom, expected: " + terminator);
+        }
+        return terminatorIndex + terminator.length();
+    }
+
+    /**
+     * Find the closing '>' of a tag or a DOCTYPE declaration, skipping quoted values and internal DTD subsets.
+     */
+    private static int findMarkupEnd(String content, int pos) throws IOException {
+        char quote = 0;
+        int bracketsDepth = 0;
+        for (int i = pos + 1; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '[') {
+                bracketsDepth++;
+            } else if (c == ']') {
+                bracketsDepth--;
+            } else if (c == '>' && bracketsDepth <= 0) {
+                return i;
+            }
+        }
+        throw new IOException("Unexpected end of pom, expected: >");
+    }
+
+    private static String getTagName(String content, int pos) {
+        int end = pos + 1;
+        while (end < content.length() && !Character.isWhitespace(content.charAt(end)) && "/>".indexOf(content.charAt(end)) < 0) {
+            end++;
+        }
+        return content.substring(pos + 1, end);
+    }
+
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&':
+                    escaped.append("&amp;");
+                    break;
+                case '<':
+                    escaped.append("&lt;");
+                    break;
+                case '>':
+                    escaped.append("&gt;");
+                    break;
+                case '\r':
+                    escaped.append("&#xD;");
+                    break;
+                default:
+                    escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static class Replacement {
+        private final int start;
+        private final int end;
+        private final String text;
+
+        private Replacement(int start, int end, String text) {
+            this.start = start;
+            this.end = end;
+            this.text = text;
+        }
+    }
+}
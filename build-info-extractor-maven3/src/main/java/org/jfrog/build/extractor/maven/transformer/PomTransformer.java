@@ -1,31 +1,33 @@
 package org.jfrog.build.extractor.maven.transformer;
 
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.maven.model.Model;
 import org.apache.maven.model.Parent;
 import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
-import org.jdom.Document;
-import org.jdom.Element;
-import org.jdom.JDOMException;
-import org.jdom.Namespace;
-import org.jdom.input.SAXBuilder;
-import org.jdom.output.Format;
-import org.jdom.output.XMLOutputter;
-import org.jfrog.build.extractor.EolDetectingInputStream;
 import org.jfrog.build.extractor.maven.reader.ModuleName;
 
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Logger;
 
 /**
@@ -34,6 +36,9 @@ import java.util.logging.Logger;
  * @author Yossi Shaul
  */
 public class PomTransformer {
+    private static final String BYTE_ORDER_MARK = "\uFEFF";
+    // XMLInputFactory implementations are not guaranteed to be thread safe
+    private static final ThreadLocal<XMLInputFactory> XML_INPUT_FACTORY = ThreadLocal.withInitial(PomTransformer::createXmlInputFactory);
 
     private final String UNIX_DEFAULT_PARENT_POM_RELATIVE_PATH = "../pom.xml";
     private final String WINDOWS_DEFAULT_PARENT_POM_RELATIVE_PATH = "..\\pom.xml";
@@ -47,6 +52,8 @@ public class PomTransformer {
     private File pomFile;
     private Map<String, String> pomProperties = new HashMap<String, String>();
     private String nextPomToLoad = null;
+    // Map of element positions in the pom to their new text
+    private final Map<Integer, String> edits = new HashMap<>();
 
     /**
      * Transforms single pom file.
@@ -92,8 +99,66 @@ public class PomTransformer {
         this.dryRun = dryRun;
     }
 
+    /**
+     * Transforms the pom files of multiple modules in parallel, using the same module versions for all of them.
+     *
+     * @param pomsByModule     Map of module names to the pom file of the module
+     * @param versionsByModule Map of module names to module version
+     * @param scmUrl           Scm url to use if scm element exists in the pom files
+     * @param failOnSnapshot   If true, fail with SnapshotNotAllowedException if a pom contains snapshot version after
+     *                         the version changes
+     * @param dryRun           If true, changes will not take effect.
+     * @param threads          The number of pom files to transform concurrently
+     * @return Map of module names to true if the pom file of the module was modified.
+     */
+    public static Map<ModuleName, Boolean> transformAll(Map<ModuleName, File> pomsByModule, Map<ModuleName, String> versionsByModule,
+                                                        String scmUrl, boolean failOnSnapshot, boolean dryRun, int threads) throws IOException {
+        Map<ModuleName, Boolean> modifiedByModule = new LinkedHashMap<>();
+        if (pomsByModule.isEmpty()) {
+            return modifiedByModule;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, pomsByModule.size())));
+        try {
+            Map<ModuleName, Future<Boolean>> futures = new LinkedHashMap<>();
+            for (Map.Entry<ModuleName, File> entry : pomsByModule.entrySet()) {
+                // The transformer holds the state of a single pom, so each pom gets its own transformer
+                PomTransformer transformer = new PomTransformer(entry.getKey(), versionsByModule, scmUrl, failOnSnapshot, dryRun);
+                futures.put(entry.getKey(), executor.submit(() -> transformer.transform(entry.getValue())));
+            }
+            for (Map.Entry<ModuleName, Future<Boolean>> entry : futures.entrySet()) {
+                modifiedByModule.put(entry.getKey(), getTransformResult(entry.getValue()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return modifiedByModule;
+    }
+
+    private static Boolean getTransformResult(Future<Boolean> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while transforming the pom files", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
     /**
      * Performs the transformation.
+     * The pom is read with a StAX parser, and only the text of the changed elements is replaced, so the formatting
+     * of the rest of the pom is preserved.
      *
      * @return True if the file was modified.
      */
@@ -103,171 +168,148 @@ public class PomTransformer {
             throw new IllegalArgumentException("Couldn't find pom file: " + pomFile);
         }
 
-        SAXBuilder saxBuilder = createSaxBuilder();
-        Document document;
-        EolDetectingInputStream eolDetectingStream = null;
-        InputStreamReader inputStreamReader = null;
+        String content = new String(Files.readAllBytes(pomFile.toPath()), StandardCharsets.UTF_8);
+        PomElements pom;
         try {
-            eolDetectingStream = new EolDetectingInputStream(new FileInputStream(pomFile));
-            inputStreamReader = new InputStreamReader(eolDetectingStream, "UTF-8");
-            document = saxBuilder.build(inputStreamReader);
-        } catch (JDOMException e) {
+            pom = parse(StringUtils.removeStart(content, BYTE_ORDER_MARK));
+        } catch (XMLStreamException e) {
             throw new IOException("Failed to parse pom: " + pomFile.getAbsolutePath(), e);
-        } finally {
-            IOUtils.closeQuietly(inputStreamReader);
-            IOUtils.closeQuietly(eolDetectingStream);
         }
 
-        Element rootElement = document.getRootElement();
-        Namespace ns = rootElement.getNamespace();
-        getProperties(rootElement, ns);
-        changeParentVersion(rootElement, ns);
+        pom.properties.forEach(pomProperties::putIfAbsent);
+        changeParentVersion(pom.parent);
 
-        changeCurrentModuleVersion(rootElement, ns);
+        changeCurrentModuleVersion(pom.version);
 
-        //changePropertiesVersion(rootElement, ns);
+        changeDependencyVersions(pom.dependencyManagementDependencies);
 
-        changeDependencyManagementVersions(rootElement, ns);
-
-        changeDependencyVersions(rootElement, ns);
+        changeDependencyVersions(pom.dependencies);
 
         if (scmUrl != null) {
-            changeScm(rootElement, ns);
+            changeScm(pom.scm);
         }
 
         if (modified && !dryRun) {
-            FileOutputStream fileOutputStream = new FileOutputStream(pomFile);
-            OutputStreamWriter outputStreamWriter = new OutputStreamWriter(fileOutputStream, "UTF-8");
-            try {
-                XMLOutputter outputter = new XMLOutputter();
-                String eol = eolDetectingStream.getEol();
-                if (!"".equals(eol)) {
-                    Format format = outputter.getFormat();
-                    format.setLineSeparator(eol);
-                    format.setTextMode(Format.TextMode.PRESERVE);
-                    outputter.setFormat(format);
-                }
-                outputter.output(document, outputStreamWriter);
-            } finally {
-                IOUtils.closeQuietly(outputStreamWriter);
-                IOUtils.closeQuietly(fileOutputStream);
-            }
+            String transformed = PomTextEditor.replaceElementsText(content, edits);
+            Files.write(pomFile.toPath(), transformed.getBytes(StandardCharsets.UTF_8));
         }
 
         return modified;
     }
 
-    private void getProperties(Element root, Namespace ns) {
-        Element propertiesElement = root.getChild("properties", ns);
-        if (propertiesElement == null) {
-            return;
-        }
-
-        List<Element> children = propertiesElement.getChildren();
-        for (Element child : children) {
-            String key = child.getName();
-            if (pomProperties.get(key) == null) {
-                pomProperties.put(key, child.getText());
+    /**
+     * Collect the elements of the pom which may be changed, and the pom properties.
+     */
+    private static PomElements parse(String content) throws XMLStreamException {
+        PomElements pom = new PomElements();
+        XMLStreamReader reader = XML_INPUT_FACTORY.get().createXMLStreamReader(new StringReader(content));
+        try {
+            Deque<ElementFrame> frames = new ArrayDeque<>();
+            String namespace = "";
+            int elementIndex = 0;
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        String elementNamespace = StringUtils.defaultString(reader.getNamespaceURI());
+                        if (frames.isEmpty()) {
+                            namespace = elementNamespace;
+                        }
+                        ElementFrame parentFrame = frames.peek();
+                        frames.push(pom.startElement(parentFrame, elementIndex++, reader.getLocalName(), namespace.equals(elementNamespace)));
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                    case XMLStreamConstants.SPACE:
+                        ElementFrame frame = frames.peek();
+                        if (frame != null && frame.text != null) {
+                            frame.text.append(reader.getText());
+                        }
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        ElementFrame endedFrame = frames.pop();
+                        pom.endElement(frames.peek(), endedFrame);
+                        break;
+                    default:
+                        break;
+                }
             }
+        } finally {
+            reader.close();
         }
+        return pom;
     }
 
-    private void changeParentVersion(Element root, Namespace ns) {
-        Element parentElement = root.getChild("parent", ns);
+    private void changeParentVersion(ModuleElement parentElement) {
         if (parentElement == null) {
             return;
         }
         // We might need to use the parent pom for getting properties
         // If the file has parent but relativePath is not set we use the default parent location
-        Element relativePath = parentElement.getChild("relativePath", ns);
-        String relativeParentPath = relativePath == null ? ".." + java.io.File.separator + "pom.xml" : relativePath.getText();
+        TextElement relativePath = parentElement.relativePath;
+        String relativeParentPath = relativePath == null ? ".." + java.io.File.separator + "pom.xml" : relativePath.text;
         nextPomToLoad = StringUtils.substringBeforeLast(pomFile.getAbsolutePath(), java.io.File.separator) + java.io.File.separator + relativeParentPath;
-        ModuleName parentName = extractModuleName(parentElement, ns);
+        ModuleName parentName = extractModuleName(parentElement);
         if (versionsByModule.containsKey(parentName)) {
-            setVersion(parentElement, ns, versionsByModule.get(parentName));
+            setVersion(parentElement.version, versionsByModule.get(parentName));
         }
-        verifyNonSnapshotVersion(parentName, parentElement, ns);
+        verifyNonSnapshotVersion(parentName, parentElement.version);
     }
 
-    private void changeCurrentModuleVersion(Element rootElement, Namespace ns) {
-        setVersion(rootElement, ns, versionsByModule.get(currentModule));
-        verifyNonSnapshotVersion(currentModule, rootElement, ns);
+    private void changeCurrentModuleVersion(TextElement versionElement) {
+        setVersion(versionElement, versionsByModule.get(currentModule));
+        verifyNonSnapshotVersion(currentModule, versionElement);
     }
 
-    private void changeDependencyManagementVersions(Element rootElement, Namespace ns) {
-        Element dependencyManagement = rootElement.getChild("dependencyManagement", ns);
-        if (dependencyManagement == null) {
-            return;
-        }
-
-        Element dependenciesElement = dependencyManagement.getChild("dependencies", ns);
-        if (dependenciesElement == null) {
+    private void changeDependencyVersions(List<ModuleElement> dependencies) {
+        if (dependencies == null) {
             return;
         }
 
-        List<Element> dependencies = dependenciesElement.getChildren("dependency", ns);
-        for (Element dependency : dependencies) {
-            changeDependencyVersion(ns, dependency);
+        for (ModuleElement dependency : dependencies) {
+            changeDependencyVersion(dependency);
         }
     }
 
-    private void changeDependencyVersions(Element rootElement, Namespace ns) {
-        Element dependenciesElement = rootElement.getChild("dependencies", ns);
-        if (dependenciesElement == null) {
-            return;
-        }
-
-        List<Element> dependencies = dependenciesElement.getChildren("dependency", ns);
-        for (Element dependency : dependencies) {
-            changeDependencyVersion(ns, dependency);
-        }
-    }
-
-    private void changeDependencyVersion(Namespace ns, Element dependency) {
-        ModuleName moduleName = extractModuleName(dependency, ns);
+    private void changeDependencyVersion(ModuleElement dependency) {
+        ModuleName moduleName = extractModuleName(dependency);
         if (versionsByModule.containsKey(moduleName)) {
-            setVersion(dependency, ns, versionsByModule.get(moduleName));
+            setVersion(dependency.version, versionsByModule.get(moduleName));
         }
-        verifyNonSnapshotVersion(moduleName, dependency, ns);
+        verifyNonSnapshotVersion(moduleName, dependency.version);
     }
 
-    private void changeScm(Element rootElement, Namespace ns) {
-        Element scm = rootElement.getChild("scm", ns);
+    private void changeScm(Map<String, TextElement> scm) {
         if (scm == null) {
             return;
         }
-        Element connection = scm.getChild("connection", ns);
-        if (connection != null) {
-            connection.setText("scm:svn:" + scmUrl);
-        }
-        Element developerConnection = scm.getChild("developerConnection", ns);
-        if (developerConnection != null) {
-            developerConnection.setText("scm:svn:" + scmUrl);
-        }
-        Element url = scm.getChild("url", ns);
-        if (url != null) {
-            url.setText(scmUrl);
-        }
+        setText(scm.get("connection"), "scm:svn:" + scmUrl);
+        setText(scm.get("developerConnection"), "scm:svn:" + scmUrl);
+        setText(scm.get("url"), scmUrl);
     }
 
-    private void setVersion(Element element, Namespace ns, String version) {
-        Element versionElement = element.getChild("version", ns);
+    private void setVersion(TextElement versionElement, String version) {
         if (versionElement != null) {
-            String currentVersion = versionElement.getText();
+            String currentVersion = versionElement.text;
             if (!version.equals(currentVersion)) {
-                versionElement.setText(version);
+                setText(versionElement, version);
                 modified = true;
             }
         }
     }
 
-    private void verifyNonSnapshotVersion(ModuleName moduleName, Element element, Namespace ns) {
+    private void setText(TextElement element, String text) {
+        if (element != null) {
+            element.text = text;
+            edits.put(element.index, text);
+        }
+    }
+
+    private void verifyNonSnapshotVersion(ModuleName moduleName, TextElement versionElement) {
         if (!failOnSnapshot) {
             return;
         }
-        Element versionElement = element.getChild("version", ns);
         if (versionElement != null) {
-            String currentVersion = versionElement.getText();
+            String currentVersion = versionElement.text;
             if (currentVersion.endsWith("-SNAPSHOT") ||
                     (currentVersion.startsWith("${") && currentVersion.endsWith("}")) && evalExpression(currentVersion) != null && evalExpression(currentVersion).endsWith("-SNAPSHOT")) {
                 throw new SnapshotNotAllowedException(String.format("Snapshot detected in file '%s': %s:%s",
@@ -325,23 +367,215 @@ public class PomTransformer {
         return true;
     }
 
-    private ModuleName extractModuleName(Element element, Namespace ns) {
-        String groupId = element.getChildText("groupId", ns);
-        String artifactId = element.getChildText("artifactId", ns);
+    private ModuleName extractModuleName(ModuleElement element) {
+        String groupId = element.getText("groupId");
+        String artifactId = element.getText("artifactId");
         if (StringUtils.isBlank(groupId) || StringUtils.isBlank(artifactId)) {
-            throw new IllegalArgumentException("Couldn't extract module key from: " + element);
+            throw new IllegalArgumentException("Couldn't extract module key from: <" + element.name + "> in " + pomFile.getAbsolutePath());
         }
         return new ModuleName(groupId, artifactId);
     }
 
-
-    static SAXBuilder createSaxBuilder() {
-        SAXBuilder sb = new SAXBuilder();
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
         // don't validate and don't load dtd
-        sb.setValidation(false);
-        sb.setFeature("http://xml.org/sax/features/validation", false);
-        sb.setFeature("http://apache.org/xml/features/nonvalidating/load-dtd-grammar", false);
-        sb.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
-        return sb;
+        factory.setProperty(XMLInputFactory.IS_VALIDATING, false);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    private enum ElementRole {
+        PROJECT, PROPERTIES, PROPERTY, PARENT, DEPENDENCY_MANAGEMENT, DEPENDENCIES, DEPENDENCY, SCM, TEXT, OTHER
+    }
+
+    /**
+     * An element which is open while parsing the pom.
+     */
+    private static class ElementFrame {
+        private final int index;
+        private final String name;
+        private final ElementRole role;
+        // The text content, collected only for the elements whose text is needed
+        private final StringBuilder text;
+        private ModuleElement module;
+        private List<ModuleElement> dependencies;
+
+        private ElementFrame(int index, String name, ElementRole role) {
+            this.index = index;
+            this.name = name;
+            this.role = role;
+            this.text = role == ElementRole.PROPERTY || role == ElementRole.TEXT ? new StringBuilder() : null;
+        }
+    }
+
+    /**
+     * The text of an element, and the position of the element among the elements of the pom.
+     */
+    private static class TextElement {
+        private final int index;
+        private String text;
+
+        private TextElement(int index, String text) {
+            this.index = index;
+            this.text = text;
+        }
+    }
+
+    /**
+     * A parent or a dependency element.
+     */
+    private static class ModuleElement {
+        private final String name;
+        private final Map<String, TextElement> children = new HashMap<>();
+        private TextElement version;
+        private TextElement relativePath;
+
+        private ModuleElement(String name) {
+            this.name = name;
+        }
+
+        private void addChild(TextElement child, String childName) {
+            if (children.containsKey(childName)) {
+                return;
+            }
+            children.put(childName, child);
+            if ("version".equals(childName)) {
+                version = child;
+            } else if ("relativePath".equals(childName)) {
+                relativePath = child;
+            }
+        }
+
+        private String getText(String childName) {
+            TextElement child = children.get(childName);
+            return child == null ? null : child.text;
+        }
+    }
+
+    /**
+     * The elements of the pom which may be changed, collected from the StAX events.
+     * As in the Maven model, only the first occurrence of each section in the project is used.
+     */
+    private static class PomElements {
+        private final Map<String, String> properties = new HashMap<>();
+        private boolean propertiesFound;
+        private ModuleElement parent;
+        private TextElement version;
+        private List<ModuleElement> dependencyManagementDependencies;
+        private boolean dependencyManagementFound;
+        private List<ModuleElement> dependencies;
+        private Map<String, TextElement> scm;
+
+        private ElementFrame startElement(ElementFrame parentFrame, int index, String name, boolean inPomNamespace) {
+            if (parentFrame == null) {
+                return new ElementFrame(index, name, ElementRole.PROJECT);
+            }
+            if (parentFrame.role == ElementRole.PROPERTIES) {
+                return new ElementFrame(index, name, ElementRole.PROPERTY);
+            }
+            if (!inPomNamespace) {
+                return new ElementFrame(index, name, ElementRole.OTHER);
+            }
+            switch (parentFrame.role) {
+                case PROJECT:
+                    return startProjectChild(index, name);
+                case DEPENDENCY_MANAGEMENT:
+                    if ("dependencies".equals(name) && dependencyManagementDependencies == null) {
+                        dependencyManagementDependencies = new ArrayList<>();
+                        return createDependenciesFrame(index, name, dependencyManagementDependencies);
+                    }
+                    break;
+                case DEPENDENCIES:
+                    if ("dependency".equals(name)) {
+                        ElementFrame frame = new ElementFrame(index, name, ElementRole.DEPENDENCY);
+                        frame.module = new ModuleElement(name);
+                        parentFrame.dependencies.add(frame.module);
+                        return frame;
+                    }
+                    break;
+                case PARENT:
+                case DEPENDENCY:
+                case SCM:
+                    return new ElementFrame(index, name, ElementRole.TEXT);
+                default:
+                    break;
+            }
+            return new ElementFrame(index, name, ElementRole.OTHER);
+        }
+
+        private ElementFrame startProjectChild(int index, String name) {
+            switch (name) {
+                case "properties":
+                    if (!propertiesFound) {
+                        propertiesFound = true;
+                        return new ElementFrame(index, name, ElementRole.PROPERTIES);
+                    }
+                    break;
+                case "parent":
+                    if (parent == null) {
+                        ElementFrame frame = new ElementFrame(index, name, ElementRole.PARENT);
+                        parent = frame.module = new ModuleElement(name);
+                        return frame;
+                    }
+                    break;
+                case "dependencyManagement":
+                    if (!dependencyManagementFound) {
+                        dependencyManagementFound = true;
+                        return new ElementFrame(index, name, ElementRole.DEPENDENCY_MANAGEMENT);
+                    }
+                    break;
+                case "dependencies":
+                    if (dependencies == null) {
+                        dependencies = new ArrayList<>();
+                        return createDependenciesFrame(index, name, dependencies);
+                    }
+                    break;
+                case "scm":
+                    if (scm == null) {
+                        scm = new HashMap<>();
+                        return new ElementFrame(index, name, ElementRole.SCM);
+                    }
+                    break;
+                case "version":
+                    return new ElementFrame(index, name, ElementRole.TEXT);
+                default:
+                    break;
+            }
+            return new ElementFrame(index, name, ElementRole.OTHER);
+        }
+
+        private static ElementFrame createDependenciesFrame(int index, String name, List<ModuleElement> dependencies) {
+            ElementFrame frame = new ElementFrame(index, name, ElementRole.DEPENDENCIES);
+            frame.dependencies = dependencies;
+            return frame;
+        }
+
+        private void endElement(ElementFrame parentFrame, ElementFrame frame) {
+            if (frame.role == ElementRole.PROPERTY) {
+                properties.putIfAbsent(frame.name, frame.text.toString());
+                return;
+            }
+            if (frame.role != ElementRole.TEXT) {
+                return;
+            }
+            TextElement textElement = new TextElement(frame.index, frame.text.toString());
+            switch (parentFrame.role) {
+                case PROJECT:
+                    if (version == null) {
+                        version = textElement;
+                    }
+                    break;
+                case PARENT:
+                case DEPENDENCY:
+                    parentFrame.module.addChild(textElement, frame.name);
+                    break;
+                case SCM:
+                    scm.putIfAbsent(frame.name, textElement);
+                    break;
+                default:
+                    break;
+            }
+        }
     }
 }
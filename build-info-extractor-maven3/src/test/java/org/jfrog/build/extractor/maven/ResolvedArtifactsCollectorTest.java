@@ -0,0 +1,67 @@
+package org.jfrog.build.extractor.maven;
+
+import org.apache.maven.artifact.Artifact;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests the capture of resolved artifacts in {@link ResolvedArtifactsCollector}.
+ */
+@Test
+public class ResolvedArtifactsCollectorTest {
+
+    public void testIntern() {
+        ResolvedArtifactsCollector collector = new ResolvedArtifactsCollector();
+        File file = new File("a.jar");
+        Artifact artifact = collector.intern("group", "a", "1.0", "project", "jar", null, file);
+        assertEquals(artifact.getClassifier(), "");
+        assertEquals(artifact.getScope(), "project");
+        assertEquals(artifact.getFile(), file);
+        assertSame(collector.intern("group", "a", "1.0", "project", "jar", "", file), artifact);
+        assertNotSame(collector.intern("group", "a", "1.0", "build", "jar", null, file), artifact);
+        assertNotSame(collector.intern("group", "a", "1.0", "project", "jar", null, null), artifact);
+
+        collector.reset();
+        assertNotSame(collector.intern("group", "a", "1.0", "project", "jar", null, file), artifact);
+    }
+
+    public void testConcurrentCapture() throws Exception {
+        ResolvedArtifactsCollector collector = new ResolvedArtifactsCollector();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        collector.add(collector.intern("group", "artifact" + i, "1.0", "project", "jar", null, null));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Set<Artifact> artifacts = collector.getAll();
+        assertEquals(artifacts.size(), 1000);
+        assertTrue(artifacts.contains(collector.intern("group", "artifact999", "1.0", "project", "jar", null, null)));
+
+        collector.clear();
+        assertTrue(collector.getAll().isEmpty());
+        collector.add(collector.intern("group", "artifact0", "1.0", "project", "jar", null, null));
+        assertEquals(collector.getAll().size(), 1);
+    }
+}
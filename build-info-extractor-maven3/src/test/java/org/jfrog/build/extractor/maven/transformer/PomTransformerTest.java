@@ -1,5 +1,6 @@
 package org.jfrog.build.extractor.maven.transformer;
 
+import org.apache.commons.io.FileUtils;
 import org.jfrog.build.api.util.CommonUtils;
 import org.jfrog.build.extractor.maven.reader.ModuleName;
 import org.testng.annotations.Test;
@@ -8,7 +9,11 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URL;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import static org.testng.Assert.*;
@@ -176,6 +181,90 @@ public class PomTransformerTest {
         assertTrue(transformedValue.contains("\n"));
     }
 
+    @Test
+    public void testFormattingPreserved() throws Exception {
+        String pom = "<?xml version='1.0' encoding='UTF-8'?>\n" +
+                "<!-- <version>1.0</version> -->\n" +
+                pomHeader + "\n" +
+                "  <modelVersion>4.0.0</modelVersion>\n" +
+                "  <groupId>group</groupId>   <artifactId>artifact</artifactId>\n" +
+                "  <version\t>1.0</version >\n" +
+                "  <properties><plugin.version>1.0</plugin.version></properties>\n" +
+                "  <dependencies>\n" +
+                "    <dependency attr=\"a > b\">\n" +
+                "      <groupId>group</groupId><artifactId>other</artifactId>\n" +
+                "      <version><![CDATA[1.0]]></version><!-- keep -->\n" +
+                "    </dependency>\n" +
+                "    <dependency><groupId>external</groupId><artifactId>lib</artifactId><version>1.0</version></dependency>\n" +
+                "    <dependency><groupId>group</groupId><artifactId>empty</artifactId><version/></dependency>\n" +
+                "  </dependencies>\n" +
+                "  <build><plugins><plugin><groupId>group</groupId><artifactId>other</artifactId><version>1.0</version></plugin></plugins></build>\n" +
+                "</project>\n";
+        File file = File.createTempFile("formatting", "pom");
+        CommonUtils.writeByCharset(pom, file, StandardCharsets.UTF_8);
+        Map<ModuleName, String> modules = new HashMap<>();
+        modules.put(new ModuleName("group", "artifact"), "2.0");
+        modules.put(new ModuleName("group", "other"), "2.0");
+        modules.put(new ModuleName("group", "empty"), "2.0");
+
+        assertTrue(new PomTransformer(new ModuleName("group", "artifact"), modules, null).transform(file));
+
+        String expected = pom.replace("<version\t>1.0</version >", "<version\t>2.0</version >")
+                .replace("<version><![CDATA[1.0]]></version>", "<version>2.0</version>")
+                .replace("<version/>", "<version>2.0</version>");
+        assertEquals(CommonUtils.readByCharset(file, StandardCharsets.UTF_8), expected);
+    }
+
+    @Test
+    public void testTransformAll() throws Exception {
+        File dir = Files.createTempDirectory("transform-all").toFile();
+        try {
+            Map<ModuleName, File> pomsByModule = new LinkedHashMap<>();
+            Map<ModuleName, String> modules = new HashMap<>();
+            for (int i = 0; i < 10; i++) {
+                ModuleName module = new ModuleName("group", "module" + i);
+                File pomFile = new File(dir, "module" + i + ".xml");
+                String dependency = i == 0 ? "" : "<dependencies><dependency><groupId>group</groupId>" +
+                        "<artifactId>module" + (i - 1) + "</artifactId><version>1.0-SNAPSHOT</version></dependency></dependencies>";
+                CommonUtils.writeByCharset(pomHeader + "<groupId>group</groupId><artifactId>module" + i + "</artifactId>" +
+                        "<version>1.0-SNAPSHOT</version>" + dependency + "</project>", pomFile, StandardCharsets.UTF_8);
+                pomsByModule.put(module, pomFile);
+                modules.put(module, "1.0");
+            }
+            // A module without changes
+            ModuleName unchanged = new ModuleName("group", "unchanged");
+            File unchangedPom = new File(dir, "unchanged.xml");
+            CommonUtils.writeByCharset(pomHeader + "<groupId>group</groupId><artifactId>unchanged</artifactId><version>1.0</version></project>",
+                    unchangedPom, StandardCharsets.UTF_8);
+            pomsByModule.put(unchanged, unchangedPom);
+            modules.put(unchanged, "1.0");
+
+            Map<ModuleName, Boolean> modified = PomTransformer.transformAll(pomsByModule, modules, null, true, false, 4);
+
+            assertEquals(modified.keySet(), pomsByModule.keySet());
+            assertFalse(modified.get(unchanged));
+            for (int i = 0; i < 10; i++) {
+                assertTrue(modified.get(new ModuleName("group", "module" + i)));
+                String pomStr = CommonUtils.readByCharset(pomsByModule.get(new ModuleName("group", "module" + i)), StandardCharsets.UTF_8);
+                assertFalse(pomStr.contains("SNAPSHOT"), pomStr);
+            }
+        } finally {
+            FileUtils.deleteDirectory(dir);
+        }
+    }
+
+    @Test
+    public void testTransformAllFailsOnSnapshot() throws Exception {
+        File pomFile = getResourceAsFile("/poms/snapshots/pom-snapshot-parent.xml");
+        try {
+            PomTransformer.transformAll(Collections.singletonMap(new ModuleName("org.jfrog.test", "one"), pomFile),
+                    new HashMap<>(), "", true, true, 2);
+            fail("Pom contains snapshot in the parent and should fail");
+        } catch (SnapshotNotAllowedException e) {
+            assertTrue(e.getMessage().contains("org.jfrog.test:parent:2.1-SNAPSHOT"), "Unexpected error message: " + e.getMessage());
+        }
+    }
+
     private String getPomContent(String eol) {
         return new StringBuilder(pomHeader).append(eol).append("<modelVersion>4.0.0</modelVersion>").append(eol)
                 .append("<groupId>group</groupId>").append(eol).append("<artifactId>artifact</artifactId>").append(eol)
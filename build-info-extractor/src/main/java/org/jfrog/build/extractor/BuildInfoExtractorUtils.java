@@ -16,11 +16,12 @@ import org.jfrog.build.extractor.ci.BuildInfo;
 import org.jfrog.build.extractor.ci.BuildInfoConfigProperties;
 import org.jfrog.build.extractor.ci.BuildInfoProperties;
 import org.jfrog.build.extractor.clientConfiguration.ClientProperties;
+import org.jfrog.build.extractor.clientConfiguration.IncludeExcludePatternMatcher;
 import org.jfrog.build.extractor.clientConfiguration.IncludeExcludePatterns;
-import org.jfrog.build.extractor.clientConfiguration.PatternMatcher;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
@@ -39,6 +40,8 @@ public abstract class BuildInfoExtractorUtils {
     public static final String BUILD_BROWSE_URL = "/webapp/builds";
     private static final String BUILD_REPO_PARAM_PATTERN = "?buildRepo=%s-build-info&projectKey=%s";
     private static final int ARTIFACT_TYPE_LENGTH_LIMIT = 64;
+    // The last filtered environment, reused while the patterns and the environment stay the same
+    private static volatile FilteredEnvironment lastFilteredEnvironment;
 
     public static final Predicate<Object> BUILD_INFO_PREDICATE =
             new PrefixPredicate(BuildInfoProperties.BUILD_INFO_PREFIX);
@@ -106,7 +109,7 @@ public abstract class BuildInfoExtractorUtils {
     }
 
     public static Properties getEnvProperties(Properties startProps, Log log) {
-        IncludeExcludePatterns patterns = new IncludeExcludePatterns(
+        FilteredEnvironment filteredEnvironment = getFilteredEnvironment(
                 startProps.getProperty(BuildInfoConfigProperties.PROP_ENV_VARS_INCLUDE_PATTERNS),
                 startProps.getProperty(BuildInfoConfigProperties.PROP_ENV_VARS_EXCLUDE_PATTERNS));
 
@@ -121,21 +124,19 @@ public abstract class BuildInfoExtractorUtils {
         }
 
         // Add all system environment that match the patterns
+        for (Map.Entry<String, String> entry : filteredEnvironment.envVars.entrySet()) {
+            props.put(BuildInfoProperties.BUILD_INFO_ENVIRONMENT_PREFIX + entry.getKey(), entry.getValue());
+        }
+
+        // Add the system properties which are not environment variables and match the patterns
         Map<String, String> envMap = System.getenv();
-        for (Map.Entry<String, String> entry : envMap.entrySet()) {
-            String varKey = entry.getKey();
-            if (PatternMatcher.pathConflicts(varKey, patterns)) {
+        Properties sysProps = (Properties) System.getProperties().clone();
+        for (Map.Entry<Object, Object> entry : sysProps.entrySet()) {
+            if (!(entry.getKey() instanceof String)) {
                 continue;
             }
-            props.put(BuildInfoProperties.BUILD_INFO_ENVIRONMENT_PREFIX + varKey, entry.getValue());
-        }
-
-        Map<String, String> sysProps = new HashMap(System.getProperties());
-        // Filter map to include entries with keys only in System Properties:
-        Map<String, String> filteredSysProps = CommonUtils.entriesOnlyOnLeftMap(sysProps, System.getenv());
-        for (Map.Entry<String, String> entry : filteredSysProps.entrySet()) {
-            String varKey = entry.getKey();
-            if (PatternMatcher.pathConflicts(varKey, patterns)) {
+            String varKey = (String) entry.getKey();
+            if (envMap.containsKey(varKey) || filteredEnvironment.patternMatcher.pathConflicts(varKey)) {
                 continue;
             }
             props.put(varKey, entry.getValue());
@@ -161,6 +162,59 @@ public abstract class BuildInfoExtractorUtils {
         return props;
     }
 
+    /**
+     * Get the environment variables which match the include and exclude patterns.
+     * The last filtered environment is reused by all the modules of the build, as long as the patterns and the
+     * environment are the same. Long-lived processes, such as the Gradle daemon, run builds with different environments.
+     *
+     * @param includePatterns Whitespace\comma-separated include patterns. Can be null
+     * @param excludePatterns Whitespace\comma-separated exclude patterns. Can be null
+     * @return unmodifiable map of the matching environment variables.
+     */
+    public static Map<String, String> getFilteredEnvVars(String includePatterns, String excludePatterns) {
+        return getFilteredEnvironment(includePatterns, excludePatterns).envVars;
+    }
+
+    private static FilteredEnvironment getFilteredEnvironment(String includePatterns, String excludePatterns) {
+        Map<String, String> environment = System.getenv();
+        FilteredEnvironment filteredEnvironment = lastFilteredEnvironment;
+        if (filteredEnvironment == null || !filteredEnvironment.matches(includePatterns, excludePatterns, environment)) {
+            filteredEnvironment = new FilteredEnvironment(includePatterns, excludePatterns, environment);
+            lastFilteredEnvironment = filteredEnvironment;
+        }
+        return filteredEnvironment;
+    }
+
+    /**
+     * The environment variables which match include and exclude patterns, and the compiled patterns.
+     */
+    private static class FilteredEnvironment {
+        private final String includePatterns;
+        private final String excludePatterns;
+        private final Map<String, String> environment;
+        private final IncludeExcludePatternMatcher patternMatcher;
+        private final Map<String, String> envVars;
+
+        private FilteredEnvironment(String includePatterns, String excludePatterns, Map<String, String> environment) {
+            this.includePatterns = includePatterns;
+            this.excludePatterns = excludePatterns;
+            this.environment = new HashMap<>(environment);
+            this.patternMatcher = new IncludeExcludePatternMatcher(new IncludeExcludePatterns(includePatterns, excludePatterns));
+            Map<String, String> envVars = new HashMap<>();
+            for (Map.Entry<String, String> entry : this.environment.entrySet()) {
+                if (!patternMatcher.pathConflicts(entry.getKey())) {
+                    envVars.put(entry.getKey(), entry.getValue());
+                }
+            }
+            this.envVars = Collections.unmodifiableMap(envVars);
+        }
+
+        private boolean matches(String includePatterns, String excludePatterns, Map<String, String> environment) {
+            return StringUtils.equals(this.includePatterns, includePatterns) &&
+                    StringUtils.equals(this.excludePatterns, excludePatterns) && this.environment.equals(environment);
+        }
+    }
+
     //TODO: [by YS] duplicates ArtifactoryBuildInfoClient. The client should depend on this module
     //TODO: [by yl] introduce a commons module for common impl and also move PropertyUtils there
 
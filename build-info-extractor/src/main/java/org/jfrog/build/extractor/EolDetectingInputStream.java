@@ -2,16 +2,16 @@ package org.jfrog.build.extractor;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
 
 /**
  * @author Noam Y. Tenne
  */
 public class EolDetectingInputStream extends InputStream {
 
-    private static final byte[] lfBytes = new byte[]{10};
-    private static final byte[] crBytes = new byte[]{13};
+    private static final byte LF = '\n';
+    private static final byte CR = '\r';
+    // The bytes are scanned in chunks with no early exit, so that the JIT can vectorize the scan
+    private static final int SCAN_CHUNK_SIZE = 64;
 
     private boolean lf;
     private boolean cr;
@@ -25,31 +25,23 @@ public class EolDetectingInputStream extends InputStream {
     @Override
     public int read() throws IOException {
         int readByte = inputStream.read();
-        if ((!lf || !cr) && readByte != -1) {
-            byte[] bytes = {
-                    (byte) (readByte >>> 24),
-                    (byte) (readByte >>> 16),
-                    (byte) (readByte >>> 8),
-                    (byte) readByte};
-            isByteEol(bytes);
+        if (readByte != -1) {
+            lf |= readByte == LF;
+            cr |= readByte == CR;
         }
         return readByte;
     }
 
     @Override
     public int read(byte[] b) throws IOException {
-        int readBytes = inputStream.read(b);
-        if ((!lf || !cr) && readBytes != -1) {
-            isByteEol(b);
-        }
-        return readBytes;
+        return read(b, 0, b.length);
     }
 
     @Override
     public int read(byte[] b, int off, int len) throws IOException {
         int readBytes = inputStream.read(b, off, len);
-        if ((!lf || !cr) && readBytes != -1) {
-            isByteEol(Arrays.copyOfRange(b, off, off + (readBytes - 1)));
+        if (readBytes > 0) {
+            detectEol(b, off, off + readBytes);
         }
         return readBytes;
     }
@@ -103,18 +95,23 @@ public class EolDetectingInputStream extends InputStream {
         return eol;
     }
 
-    private void isByteEol(byte[] bytes) {
-        if (!lf) {
-            lf = isByteEol(bytes, lfBytes);
-        }
-        if (!cr) {
-            cr = isByteEol(bytes, crBytes);
+    /**
+     * Scans the bytes read for line endings, in place. CR and LF bytes can't be a part of a multibyte UTF-8 character,
+     * so there is no need to decode the bytes.
+     * The scan stops once both line endings were found.
+     */
+    private void detectEol(byte[] bytes, int from, int to) {
+        int i = from;
+        while (i < to && !(lf && cr)) {
+            int chunkEnd = Math.min(to, i + SCAN_CHUNK_SIZE);
+            boolean chunkLf = false;
+            boolean chunkCr = false;
+            for (; i < chunkEnd; i++) {
+                chunkLf |= bytes[i] == LF;
+                chunkCr |= bytes[i] == CR;
+            }
+            lf |= chunkLf;
+            cr |= chunkCr;
         }
     }
-
-    private boolean isByteEol(byte[] bytesToCheck, byte[] eolType) {
-        String strCheck = new String(bytesToCheck, StandardCharsets.UTF_8);
-        String strEOL = new String(eolType, StandardCharsets.UTF_8);
-        return strCheck.contains(strEOL);
-    }
 }
@@ -5,9 +5,12 @@ import org.jfrog.build.extractor.clientConfiguration.client.artifactory.Artifact
 import org.jfrog.build.extractor.clientConfiguration.deploy.DeployDetails;
 
 import java.io.IOException;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -25,21 +28,47 @@ public class ModuleParallelDeployHelper {
         if (publishForkCount <= 1) {
             deployableArtifactsByModule.forEach((module, deployableArtifacts) -> deploy(artifactoryManager, deployableArtifacts, null));
         } else {
+            ExecutorService executor = Executors.newFixedThreadPool(publishForkCount);
+            // The deployment failure of each module. Deployment of other modules continues after a failure.
+            Map<String, Throwable> failedModules = new ConcurrentSkipListMap<>();
             try {
-                ExecutorService executor = Executors.newFixedThreadPool(publishForkCount);
                 CompletableFuture<Void> allDeployments = CompletableFuture.allOf(
-                        deployableArtifactsByModule.values().stream()
-                                .map(deployDetails ->
+                        deployableArtifactsByModule.entrySet().stream()
+                                .map(moduleDeployDetails ->
                                         CompletableFuture.runAsync(() ->
-                                                deploy(artifactoryManager, deployDetails, "[" + Thread.currentThread().getName() + "]"), executor))
+                                                deploy(artifactoryManager, moduleDeployDetails.getValue(), "[" + Thread.currentThread().getName() + "]"), executor)
+                                                .whenComplete((result, e) -> {
+                                                    if (e != null) {
+                                                        failedModules.put(moduleDeployDetails.getKey(), e instanceof CompletionException ? e.getCause() : e);
+                                                    }
+                                                }))
                                 .toArray(CompletableFuture[]::new));
                 allDeployments.get();
-            } catch (InterruptedException | ExecutionException e) {
+            } catch (InterruptedException e) {
                 throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                throw createDeploymentFailure(failedModules, e);
+            } finally {
+                executor.shutdown();
             }
         }
     }
 
+    /**
+     * Create an exception listing the modules whose deployment failed, caused by the failure of the first one.
+     * The failures of the other modules are added as suppressed exceptions.
+     */
+    private RuntimeException createDeploymentFailure(Map<String, Throwable> failedModules, ExecutionException e) {
+        if (failedModules.isEmpty()) {
+            return new RuntimeException(e);
+        }
+        Iterator<Throwable> failures = failedModules.values().iterator();
+        RuntimeException deploymentFailure = new RuntimeException("Failed to deploy the artifacts of " + failedModules.size() +
+                " module(s): " + String.join(", ", failedModules.keySet()), failures.next());
+        failures.forEachRemaining(deploymentFailure::addSuppressed);
+        return deploymentFailure;
+    }
+
     private void deploy(ArtifactoryManager artifactoryManager, Set<DeployDetails> deployableArtifacts, String logPrefix) {
         deployableArtifacts.forEach(artifact -> {
             try {
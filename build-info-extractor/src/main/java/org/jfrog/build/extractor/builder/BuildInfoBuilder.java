@@ -378,6 +378,15 @@ public class BuildInfoBuilder {
      * @return Builder instance
      */
     public BuildInfoBuilder addModule(Module module) {
+        initModules();
+        modules.put(module.getId(), module);
+        return this;
+    }
+
+    /**
+     * Creates the modules map if it doesn't exist yet
+     */
+    protected void initModules() {
         if (modules == null) {
             synchronized (this) {
                 if (modules == null) {
@@ -385,8 +394,6 @@ public class BuildInfoBuilder {
                 }
             }
         }
-        modules.put(module.getId(), module);
-        return this;
     }
 
     /**
@@ -2,11 +2,12 @@ package org.jfrog.build.extractor.builder;
 
 import org.apache.commons.lang3.StringUtils;
 import org.jfrog.build.api.release.PromotionStatus;
-import org.jfrog.build.api.util.CommonUtils;
 import org.jfrog.build.extractor.ci.*;
 
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -18,6 +19,7 @@ import java.util.concurrent.ConcurrentHashMap;
  * @author Noam Y. Tenne
  */
 public class BuildInfoMavenBuilder extends BuildInfoBuilder {
+    private final Map<String, ModuleIndex> moduleIndexes = new ConcurrentHashMap<>();
 
     public BuildInfoMavenBuilder(String name) {
         super(name);
@@ -281,7 +283,7 @@ public class BuildInfoMavenBuilder extends BuildInfoBuilder {
      */
     @Override
     public BuildInfoMavenBuilder addModule(Module module) {
-        super.addModule(module);
+        initModules();
         mergeModule(module);
         return this;
     }
@@ -316,14 +318,17 @@ public class BuildInfoMavenBuilder extends BuildInfoBuilder {
 
     private void mergeModule(Module moduleToMerge) {
         Module existingModule = modules.putIfAbsent(moduleToMerge.getId(), moduleToMerge);
-        if (existingModule == null) {
+        if (existingModule == null || existingModule == moduleToMerge) {
             return;
         }
-        mergeModuleArtifacts(existingModule, moduleToMerge);
-        mergeModuleDependencies(existingModule, moduleToMerge);
+        ModuleIndex moduleIndex = moduleIndexes.computeIfAbsent(existingModule.getId(), id -> new ModuleIndex());
+        synchronized (moduleIndex) {
+            mergeModuleArtifacts(existingModule, moduleToMerge, moduleIndex);
+            mergeModuleDependencies(existingModule, moduleToMerge, moduleIndex);
+        }
     }
 
-    private void mergeModuleArtifacts(Module existingModule, Module moduleToMerge) {
+    private void mergeModuleArtifacts(Module existingModule, Module moduleToMerge, ModuleIndex moduleIndex) {
         List<Artifact> existingArtifacts = existingModule.getArtifacts();
         List<Artifact> artifactsToMerge = moduleToMerge.getArtifacts();
         if (existingArtifacts == null || existingArtifacts.isEmpty()) {
@@ -335,8 +340,9 @@ public class BuildInfoMavenBuilder extends BuildInfoBuilder {
             return;
         }
 
+        Map<String, Artifact> artifactsByName = moduleIndex.getArtifactsByName(existingArtifacts);
         for (Artifact artifactToMerge : artifactsToMerge) {
-            Artifact foundArtifact = findArtifact(existingArtifacts, artifactToMerge.getName());
+            Artifact foundArtifact = artifactsByName.putIfAbsent(artifactToMerge.getName(), artifactToMerge);
             if (foundArtifact == null) {
                 existingArtifacts.add(artifactToMerge);
             } else {
@@ -350,11 +356,7 @@ public class BuildInfoMavenBuilder extends BuildInfoBuilder {
         }
     }
 
-    private Artifact findArtifact(List<Artifact> existingArtifacts, final String artifactKey) {
-        return CommonUtils.getFirstSatisfying(existingArtifacts, input -> input.getName().equals(artifactKey), null);
-    }
-
-    private void mergeModuleDependencies(Module existingModule, Module moduleToMerge) {
+    private void mergeModuleDependencies(Module existingModule, Module moduleToMerge, ModuleIndex moduleIndex) {
         List<Dependency> existingDependencies = existingModule.getDependencies();
         List<Dependency> dependenciesToMerge = moduleToMerge.getDependencies();
         if (existingDependencies == null || existingDependencies.isEmpty()) {
@@ -366,8 +368,9 @@ public class BuildInfoMavenBuilder extends BuildInfoBuilder {
             return;
         }
 
+        Map<String, Dependency> dependenciesById = moduleIndex.getDependenciesById(existingDependencies);
         for (Dependency dependencyToMerge : dependenciesToMerge) {
-            Dependency foundDependency = findDependency(existingDependencies, dependencyToMerge.getId());
+            Dependency foundDependency = dependenciesById.putIfAbsent(dependencyToMerge.getId(), dependencyToMerge);
             if (foundDependency == null) {
                 existingDependencies.add(dependencyToMerge);
             } else {
@@ -378,8 +381,37 @@ public class BuildInfoMavenBuilder extends BuildInfoBuilder {
         }
     }
 
-    private Dependency findDependency(List<Dependency> existingDependencies, final String dependencyId) {
-        return CommonUtils.getFirstSatisfying(existingDependencies, input -> input.getId().equals(dependencyId), null);
-    }
+    /**
+     * Indexes the artifacts of a module by name and the dependencies by id, so merging a module costs linear time.
+     * An index is rebuilt if the list it was built from was replaced or changed outside the builder.
+     */
+    private static class ModuleIndex {
+        private final Map<String, Artifact> artifactsByName = new HashMap<>();
+        private final Map<String, Dependency> dependenciesById = new HashMap<>();
+        private List<Artifact> indexedArtifacts;
+        private List<Dependency> indexedDependencies;
+
+        private Map<String, Artifact> getArtifactsByName(List<Artifact> artifacts) {
+            if (artifacts != indexedArtifacts || artifacts.size() != artifactsByName.size()) {
+                indexedArtifacts = artifacts;
+                artifactsByName.clear();
+                // Keep the first artifact of each name, as the first one found in the list is merged
+                for (Artifact artifact : artifacts) {
+                    artifactsByName.putIfAbsent(artifact.getName(), artifact);
+                }
+            }
+            return artifactsByName;
+        }
 
-}
\ No newline at end of file
+        private Map<String, Dependency> getDependenciesById(List<Dependency> dependencies) {
+            if (dependencies != indexedDependencies || dependencies.size() != dependenciesById.size()) {
+                indexedDependencies = dependencies;
+                dependenciesById.clear();
+                for (Dependency dependency : dependencies) {
+                    dependenciesById.putIfAbsent(dependency.getId(), dependency);
+                }
+            }
+            return dependenciesById;
+        }
+    }
+}
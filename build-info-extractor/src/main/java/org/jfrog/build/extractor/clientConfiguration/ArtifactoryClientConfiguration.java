@@ -14,6 +14,8 @@ import org.jfrog.build.extractor.clientConfiguration.util.IssuesTrackerUtils;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.text.ParseException;
@@ -142,9 +144,10 @@ public class ArtifactoryClientConfiguration {
     }
 
     public void fillFromProperties(Map<String, String> props, IncludeExcludePatterns patterns) {
+        IncludeExcludePatternMatcher patternMatcher = new IncludeExcludePatternMatcher(patterns);
         for (Map.Entry<String, String> entry : props.entrySet()) {
             String varKey = entry.getKey();
-            if (PatternMatcher.pathConflicts(varKey, patterns)) {
+            if (patternMatcher.pathConflicts(varKey)) {
                 continue;
             }
             root.setStringValue(varKey, entry.getValue());
@@ -193,9 +196,13 @@ public class ArtifactoryClientConfiguration {
         if (StringUtils.isEmpty(getPropertiesFile())) {
             return;
         }
+        // The root config shares the properties map of the root, so a single pass covers both
         Properties props = new Properties();
-        props.putAll(filterMapNullValues(root.props));
-        props.putAll(filterMapNullValues(rootConfig.props));
+        for (Map.Entry<String, String> entry : root.props.entrySet()) {
+            if (StringUtils.isNotBlank(entry.getValue())) {
+                props.put(entry.getKey(), entry.getValue());
+            }
+        }
         FileOutputStream fos = null;
         try {
             fos = new FileOutputStream(new File(getPropertiesFile()).getCanonicalFile());
@@ -207,6 +214,34 @@ public class ArtifactoryClientConfiguration {
         }
     }
 
+    /**
+     * Take an immutable snapshot of the configuration. The snapshot should be taken once the configuration is
+     * populated, and used by code which reads the configuration repeatedly.
+     *
+     * @return the snapshot of the current configuration.
+     */
+    public ClientConfigurationSnapshot snapshot() {
+        return new ClientConfigurationSnapshot(this);
+    }
+
+    /**
+     * Write the configuration in the compact form of {@link ClientConfigurationSnapshot#writeTo(OutputStream)}.
+     *
+     * @param out The stream to write to. The stream is not closed.
+     */
+    public void writeCompact(OutputStream out) throws IOException {
+        snapshot().writeTo(out);
+    }
+
+    /**
+     * Add the properties written by {@link #writeCompact(OutputStream)} to the client configuration.
+     *
+     * @param in The stream to read from. The stream is not closed.
+     */
+    public void fillFromCompact(InputStream in) throws IOException {
+        root.props.putAll(ClientConfigurationSnapshot.readProperties(in));
+    }
+
     public static Map<String, String> filterMapNullValues(Map<String, String> map) {
         Map<String, String> result = new HashMap<String, String>();
         for (Map.Entry<String, String> entry : map.entrySet()) {
@@ -1246,9 +1281,10 @@ public class ArtifactoryClientConfiguration {
         }
 
         public void addBuildVariables(Map<String, String> buildVariables, IncludeExcludePatterns patterns) {
+            IncludeExcludePatternMatcher patternMatcher = new IncludeExcludePatternMatcher(patterns);
             for (Map.Entry<String, String> entry : buildVariables.entrySet()) {
                 String varKey = entry.getKey();
-                if (PatternMatcher.pathConflicts(varKey, patterns)) {
+                if (patternMatcher.pathConflicts(varKey)) {
                     continue;
                 }
                 addEnvironmentProperty(varKey, entry.getValue());
@@ -0,0 +1,336 @@
+package org.jfrog.build.extractor.clientConfiguration;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * An immutable snapshot of an {@link ArtifactoryClientConfiguration}.<br>
+ * The getters of the client configuration look up the properties map and parse the values on every call. The snapshot
+ * resolves the values read by hot paths, such as the deploy loop, the publisher checks and the proxy settings, once.
+ * Changes made to the configuration after the snapshot was taken are not reflected in it.<br>
+ * The snapshot can also be written in a compact binary form, to pass the configuration to forked processes.
+ */
+public class ClientConfigurationSnapshot {
+    private static final int FORMAT_VERSION = 1;
+
+    private final SortedMap<String, String> properties;
+    private final Publisher publisher;
+    private final Proxy proxy;
+    private final Integer timeout;
+    private final Integer socketTimeout;
+    private final Integer connectionRetries;
+    private final boolean insecureTls;
+    private final Integer maxTotalConnection;
+    private final Integer maxConnectionPerRoute;
+
+    ClientConfigurationSnapshot(ArtifactoryClientConfiguration configuration) {
+        this.properties = Collections.unmodifiableSortedMap(new TreeMap<>(configuration.root.props));
+        this.publisher = new Publisher(configuration.publisher);
+        this.proxy = new Proxy(configuration.proxy);
+        this.timeout = configuration.getTimeout();
+        this.socketTimeout = configuration.getSocketTimeout();
+        this.connectionRetries = configuration.getConnectionRetries();
+        this.insecureTls = configuration.getInsecureTls();
+        this.maxTotalConnection = configuration.getMaxTotalConnection();
+        this.maxConnectionPerRoute = configuration.getMaxConnectionPerRoute();
+    }
+
+    /**
+     * @return all the properties of the configuration, sorted by key.
+     */
+    public SortedMap<String, String> getProperties() {
+        return properties;
+    }
+
+    public Publisher getPublisher() {
+        return publisher;
+    }
+
+    public Proxy getProxy() {
+        return proxy;
+    }
+
+    public Integer getTimeout() {
+        return timeout;
+    }
+
+    public Integer getSocketTimeout() {
+        return socketTimeout;
+    }
+
+    public Integer getConnectionRetries() {
+        return connectionRetries;
+    }
+
+    public boolean isInsecureTls() {
+        return insecureTls;
+    }
+
+    public Integer getMaxTotalConnection() {
+        return maxTotalConnection;
+    }
+
+    public Integer getMaxConnectionPerRoute() {
+        return maxConnectionPerRoute;
+    }
+
+    /**
+     * Write the properties in a compact binary form, to be read by {@link #readProperties(InputStream)}.
+     * The keys are written in sorted order, each key as the length of the prefix it shares with the previous key
+     * followed by the rest of the key. Most keys share long prefixes, such as "artifactory.publish." or
+     * "buildInfo.env.", so the written form is considerably smaller than a properties file.
+     *
+     * @param out The stream to write to. The stream is not closed.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream dataOut = new DataOutputStream(out);
+        writeVarInt(dataOut, FORMAT_VERSION);
+        writeVarInt(dataOut, properties.size());
+        String previousKey = "";
+        for (Map.Entry<String, String> entry : properties.entrySet()) {
+            String key = entry.getKey();
+            int sharedPrefixLength = getSharedPrefixLength(previousKey, key);
+            writeVarInt(dataOut, sharedPrefixLength);
+            writeString(dataOut, key.substring(sharedPrefixLength));
+            writeString(dataOut, entry.getValue());
+            previousKey = key;
+        }
+        dataOut.flush();
+    }
+
+    /**
+     * Read properties written by {@link #writeTo(OutputStream)}.
+     *
+     * @param in The stream to read from. The stream is not closed.
+     * @return the properties, sorted by key.
+     */
+    public static SortedMap<String, String> readProperties(InputStream in) throws IOException {
+        DataInputStream dataIn = new DataInputStream(in);
+        int version = readVarInt(dataIn);
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported client configuration format version: " + version);
+        }
+        int size = readVarInt(dataIn);
+        SortedMap<String, String> properties = new TreeMap<>();
+        String previousKey = "";
+        for (int i = 0; i < size; i++) {
+            int sharedPrefixLength = readVarInt(dataIn);
+            if (sharedPrefixLength > previousKey.length()) {
+                throw new IOException("Corrupted client configuration: invalid key prefix length " + sharedPrefixLength);
+            }
+            String key = previousKey.substring(0, sharedPrefixLength) + readString(dataIn);
+            properties.put(key, readString(dataIn));
+            previousKey = key;
+        }
+        return properties;
+    }
+
+    private static int getSharedPrefixLength(String previousKey, String key) {
+        int maxLength = Math.min(previousKey.length(), key.length());
+        int length = 0;
+        while (length < maxLength && previousKey.charAt(length) == key.charAt(length)) {
+            length++;
+        }
+        // Don't split a surrogate pair, the rest of the key must be encodable on its own
+        if (length > 0 && Character.isHighSurrogate(key.charAt(length - 1))) {
+            length--;
+        }
+        return length;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[readVarInt(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) {
+                    break;
+                }
+                return value;
+            }
+        }
+        throw new IOException("Corrupted client configuration: invalid length");
+    }
+
+    /**
+     * The resolved values of {@link ArtifactoryClientConfiguration.PublisherHandler}.
+     */
+    public static class Publisher {
+        private final String contextUrl;
+        private final String repoKey;
+        private final String snapshotRepoKey;
+        private final String releaseRepoKey;
+        private final String username;
+        private final String password;
+        private final boolean publishArtifacts;
+        private final boolean publishBuildInfo;
+        private final boolean addDeployableArtifacts;
+        private final boolean recordAllDependencies;
+        private final boolean evenUnstable;
+        private final int publishForkCount;
+        private final int minChecksumDeploySizeKb;
+        private final boolean filterExcludedArtifactsFromBuild;
+        private final String includePatterns;
+        private final String excludePatterns;
+        private final IncludeExcludePatternMatcher patternMatcher;
+        private final Map<String, String> matrixParams;
+
+        private Publisher(ArtifactoryClientConfiguration.PublisherHandler publisher) {
+            this.contextUrl = publisher.getContextUrl();
+            this.repoKey = publisher.getRepoKey();
+            this.snapshotRepoKey = publisher.getSnapshotRepoKey();
+            this.releaseRepoKey = publisher.getReleaseRepoKey();
+            this.username = publisher.getUsername();
+            this.password = publisher.getPassword();
+            this.publishArtifacts = publisher.isPublishArtifacts();
+            this.publishBuildInfo = publisher.isPublishBuildInfo();
+            this.addDeployableArtifacts = publisher.shouldAddDeployableArtifacts();
+            this.recordAllDependencies = publisher.isRecordAllDependencies();
+            this.evenUnstable = publisher.isEvenUnstable();
+            this.publishForkCount = publisher.getPublishForkCount();
+            this.minChecksumDeploySizeKb = publisher.getMinChecksumDeploySizeKb();
+            this.filterExcludedArtifactsFromBuild = publisher.isFilterExcludedArtifactsFromBuild();
+            this.includePatterns = publisher.getIncludePatterns();
+            this.excludePatterns = publisher.getExcludePatterns();
+            this.patternMatcher = new IncludeExcludePatternMatcher(new IncludeExcludePatterns(includePatterns, excludePatterns));
+            this.matrixParams = publisher.getMatrixParams();
+        }
+
+        public String getContextUrl() {
+            return contextUrl;
+        }
+
+        public String getRepoKey() {
+            return repoKey;
+        }
+
+        public String getSnapshotRepoKey() {
+            return snapshotRepoKey;
+        }
+
+        public String getReleaseRepoKey() {
+            return releaseRepoKey;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public boolean isPublishArtifacts() {
+            return publishArtifacts;
+        }
+
+        public boolean isPublishBuildInfo() {
+            return publishBuildInfo;
+        }
+
+        public boolean shouldAddDeployableArtifacts() {
+            return addDeployableArtifacts;
+        }
+
+        public boolean isRecordAllDependencies() {
+            return recordAllDependencies;
+        }
+
+        public boolean isEvenUnstable() {
+            return evenUnstable;
+        }
+
+        public int getPublishForkCount() {
+            return publishForkCount;
+        }
+
+        public int getMinChecksumDeploySizeKb() {
+            return minChecksumDeploySizeKb;
+        }
+
+        public boolean isFilterExcludedArtifactsFromBuild() {
+            return filterExcludedArtifactsFromBuild;
+        }
+
+        public String getIncludePatterns() {
+            return includePatterns;
+        }
+
+        public String getExcludePatterns() {
+            return excludePatterns;
+        }
+
+        /**
+         * @return the include and exclude patterns, compiled once.
+         */
+        public IncludeExcludePatternMatcher getPatternMatcher() {
+            return patternMatcher;
+        }
+
+        public Map<String, String> getMatrixParams() {
+            return matrixParams;
+        }
+    }
+
+    /**
+     * The resolved values of {@link ArtifactoryClientConfiguration.ProxyHandler}.
+     */
+    public static class Proxy {
+        private final String host;
+        private final Integer port;
+        private final String username;
+        private final String password;
+
+        private Proxy(ArtifactoryClientConfiguration.ProxyHandler proxy) {
+            this.host = proxy.getHost();
+            this.port = proxy.getPort();
+            this.username = proxy.getUsername();
+            this.password = proxy.getPassword();
+        }
+
+        public String getHost() {
+            return host;
+        }
+
+        public Integer getPort() {
+            return port;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package org.jfrog.build.extractor.clientConfiguration;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A precompiled form of {@link IncludeExcludePatterns}, for filtering many paths with the same patterns.<br>
+ * The include and exclude patterns are compiled once into a single prefix trie, keyed by the literal part of each
+ * pattern before its first wildcard. Matching a path walks the trie once and checks only the patterns whose literal
+ * prefix matches the path, without allocating.<br>
+ * Matching is case insensitive and gives the same results as {@link PatternMatcher#pathConflicts}.
+ */
+public class IncludeExcludePatternMatcher {
+
+    private final TrieNode root = new TrieNode();
+    private final boolean hasIncludePatterns;
+
+    public IncludeExcludePatternMatcher(IncludeExcludePatterns patterns) {
+        String[] includePatterns = patterns.getIncludePatterns();
+        for (String pattern : includePatterns) {
+            addPattern(pattern, false);
+        }
+        for (String pattern : patterns.getExcludePatterns()) {
+            addPattern(pattern, true);
+        }
+        this.hasIncludePatterns = includePatterns.length > 0;
+    }
+
+    /**
+     * Indicates whether the given path conflicts with the patterns.<br> A path will conflict if: The
+     * include patterns list is not empty, and the path does not match any contained pattern. -Or-
+     * The exclude patterns list is not empty, and the path does matches at-least one contained pattern.
+     *
+     * @param path Path to check
+     * @return True if the path conflicts
+     */
+    public boolean pathConflicts(String path) {
+        boolean included = !hasIncludePatterns;
+        TrieNode node = root;
+        int pathLength = path.length();
+        for (int i = 0; ; i++) {
+            for (int j = 0; j < node.wildcardPatterns.size(); j++) {
+                CompiledPattern pattern = node.wildcardPatterns.get(j);
+                if ((pattern.exclude || !included) && pattern.matches(path, i)) {
+                    if (pattern.exclude) {
+                        return true;
+                    }
+                    included = true;
+                }
+            }
+            if (i == pathLength) {
+                break;
+            }
+            node = node.getChild(Character.toUpperCase(path.charAt(i)));
+            if (node == null) {
+                return !included;
+            }
+        }
+        // The whole path was consumed, so literal patterns ending at this node match it exactly.
+        if (node.excludeLiteral) {
+            return true;
+        }
+        return !included && !node.includeLiteral;
+    }
+
+    /**
+     * Add the pattern to the trie. Blank patterns are ignored.
+     */
+    private void addPattern(String pattern, boolean exclude) {
+        if (StringUtils.isBlank(pattern)) {
+            return;
+        }
+        char[] chars = new char[pattern.length()];
+        int prefixLength = -1;
+        for (int i = 0; i < chars.length; i++) {
+            char ch = pattern.charAt(i);
+            chars[i] = ch == '*' || ch == '?' ? ch : Character.toUpperCase(ch);
+            if (prefixLength < 0 && (ch == '*' || ch == '?')) {
+                prefixLength = i;
+            }
+        }
+        TrieNode node = root;
+        int literalLength = prefixLength < 0 ? chars.length : prefixLength;
+        for (int i = 0; i < literalLength; i++) {
+            node = node.getOrCreateChild(chars[i]);
+        }
+        if (prefixLength >= 0) {
+            node.wildcardPatterns.add(new CompiledPattern(chars, prefixLength, exclude));
+        } else if (exclude) {
+            node.excludeLiteral = true;
+        } else {
+            node.includeLiteral = true;
+        }
+    }
+
+    /**
+     * A pattern containing wildcards, with its characters in upper case.
+     */
+    private static class CompiledPattern {
+        private final char[] chars;
+        // Index of the first wildcard. The characters before it are matched by the trie.
+        private final int offset;
+        private final boolean exclude;
+
+        CompiledPattern(char[] chars, int offset, boolean exclude) {
+            this.chars = chars;
+            this.offset = offset;
+            this.exclude = exclude;
+        }
+
+        /**
+         * Glob matching of the rest of the pattern against the rest of the path. '*' means zero or more characters and
+         * '?' means one and only one character. On a mismatch, backtrack to the last '*' and let it consume one more
+         * character.
+         */
+        boolean matches(String path, int pathIndex) {
+            int patternIndex = offset;
+            int starIndex = -1;
+            int starPathIndex = 0;
+            int pathLength = path.length();
+            while (pathIndex < pathLength) {
+                if (patternIndex < chars.length) {
+                    char ch = chars[patternIndex];
+                    if (ch == '*') {
+                        starIndex = patternIndex++;
+                        starPathIndex = pathIndex;
+                        continue;
+                    }
+                    if (ch == '?' || ch == Character.toUpperCase(path.charAt(pathIndex))) {
+                        patternIndex++;
+                        pathIndex++;
+                        continue;
+                    }
+                }
+                if (starIndex < 0) {
+                    return false;
+                }
+                patternIndex = starIndex + 1;
+                pathIndex = ++starPathIndex;
+            }
+            while (patternIndex < chars.length && chars[patternIndex] == '*') {
+                patternIndex++;
+            }
+            return patternIndex == chars.length;
+        }
+    }
+
+    private static class TrieNode {
+        private static final char[] NO_LABELS = new char[0];
+        private static final TrieNode[] NO_CHILDREN = new TrieNode[0];
+
+        private char[] labels = NO_LABELS;
+        private TrieNode[] children = NO_CHILDREN;
+        private final List<CompiledPattern> wildcardPatterns = new ArrayList<>(0);
+        private boolean includeLiteral;
+        private boolean excludeLiteral;
+
+        TrieNode getChild(char label) {
+            for (int i = 0; i < labels.length; i++) {
+                if (labels[i] == label) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        TrieNode getOrCreateChild(char label) {
+            TrieNode child = getChild(label);
+            if (child == null) {
+                child = new TrieNode();
+                int size = labels.length;
+                char[] newLabels = new char[size + 1];
+                TrieNode[] newChildren = new TrieNode[size + 1];
+                System.arraycopy(labels, 0, newLabels, 0, size);
+                System.arraycopy(children, 0, newChildren, 0, size);
+                newLabels[size] = label;
+                newChildren[size] = child;
+                labels = newLabels;
+                children = newChildren;
+            }
+            return child;
+        }
+    }
+}
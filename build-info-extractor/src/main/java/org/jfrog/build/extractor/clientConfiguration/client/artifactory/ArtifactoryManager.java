@@ -31,12 +31,16 @@ import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.jfrog.build.extractor.clientConfiguration.client.artifactory.services.ScanBuild.XRAY_SCAN_CONNECTION_TIMEOUT_SECS;
 
 public class ArtifactoryManager extends ManagerBase {
     public static final String LATEST = "LATEST";
     public static final String LAST_RELEASE = "LAST_RELEASE";
+    // Build numbers resolved by getLatestBuildNumber during this session, mapped by project, build name and requested number.
+    private final Map<String, String> resolvedBuildNumbers = new ConcurrentHashMap<>();
+    private volatile ArtifactoryVersion artifactoryVersion;
 
     public ArtifactoryManager(String artifactoryUrl, String username, String password, String accessToken, Log log) {
         super(artifactoryUrl, username, password, accessToken, log);
@@ -139,6 +143,8 @@ public class ArtifactoryManager extends ManagerBase {
     public void publishBuildInfo(BuildInfo buildInfo, String platformUrl) throws IOException {
         PublishBuildInfo publishBuildInfoService = new PublishBuildInfo(buildInfo, platformUrl, log);
         publishBuildInfoService.execute(jfrogHttpClient);
+        // A newly published build may be the new LATEST or LAST_RELEASE.
+        resolvedBuildNumbers.clear();
     }
 
     public void sendModuleInfo(BuildInfo buildInfo) throws IOException {
@@ -154,11 +160,13 @@ public class ArtifactoryManager extends ManagerBase {
     public void deleteBuilds(String buildName, String project, boolean deleteArtifacts) throws IOException {
         DeleteBuilds deleteBuildsService = new DeleteBuilds(buildName, project, deleteArtifacts, log);
         deleteBuildsService.execute(jfrogHttpClient);
+        resolvedBuildNumbers.clear();
     }
 
     public void deleteBuilds(String buildName, String project, boolean deleteArtifacts, String... buildNumbers) throws IOException {
         DeleteBuilds deleteBuildsService = new DeleteBuilds(buildName, project, buildNumbers, deleteArtifacts, log);
         deleteBuildsService.execute(jfrogHttpClient);
+        resolvedBuildNumbers.clear();
     }
 
     public BuildInfo getBuildInfo(String buildName, String buildNumber, String project) throws IOException {
@@ -172,6 +180,24 @@ public class ArtifactoryManager extends ManagerBase {
         return getBuildInfoService.execute(jfrogHttpClient);
     }
 
+    /**
+     * Get a build info containing only the requested top-level fields. Use it instead of {@link #getBuildInfo} when
+     * the modules aren't needed, to avoid downloading them into memory.
+     *
+     * @param fields - The top-level fields of the build info to read, for example "vcs".
+     * @return the build info with the requested fields, or null if the LATEST or LAST_RELEASE build was not found.
+     */
+    public BuildInfo getBuildInfoFields(String buildName, String buildNumber, String project, String... fields) throws IOException {
+        if (LATEST.equals(buildNumber.trim()) || LAST_RELEASE.equals(buildNumber.trim())) {
+            buildNumber = getLatestBuildNumber(buildName, buildNumber, project);
+            if (buildNumber == null) {
+                return null;
+            }
+        }
+        GetBuildInfoFields getBuildInfoFieldsService = new GetBuildInfoFields(buildName, buildNumber, project, log, fields);
+        return getBuildInfoFieldsService.execute(jfrogHttpClient);
+    }
+
 
     public List<String> getLocalRepositoriesKeys() throws IOException {
         GetRepositoriesKeys getLocalRepositoriesKeysService = new GetRepositoriesKeys(RepositoryType.LOCAL, log);
@@ -214,8 +240,17 @@ public class ArtifactoryManager extends ManagerBase {
     }
 
     public ArtifactoryXrayResponse scanBuild(String buildName, String buildNumber, String project, String context) throws IOException {
+        return scanBuild(buildName, buildNumber, project, context, null);
+    }
+
+    /**
+     * Scan a build with Xray, handing the alerts and licenses to the handler as they are read from the response.
+     * The returned response contains only the summary.
+     */
+    public ArtifactoryXrayResponse scanBuild(String buildName, String buildNumber, String project, String context,
+                                             ScanBuild.ScanResultHandler handler) throws IOException {
         setConnectionTimeout(XRAY_SCAN_CONNECTION_TIMEOUT_SECS);
-        ScanBuild scanBuildService = new ScanBuild(buildName, buildNumber, project, context, log);
+        ScanBuild scanBuildService = new ScanBuild(buildName, buildNumber, project, context, handler, log);
         return scanBuildService.execute(jfrogHttpClient);
     }
 
@@ -224,6 +259,12 @@ public class ArtifactoryManager extends ManagerBase {
         return searchArtifactsByAqlService.execute(jfrogHttpClient);
     }
 
+    public int searchArtifactsByAql(String aql, StreamArtifactsByAql.SearchEntryHandler handler) throws IOException {
+        StreamArtifactsByAql streamArtifactsByAqlService = new StreamArtifactsByAql(aql, handler, log);
+        Integer handled = streamArtifactsByAqlService.execute(jfrogHttpClient);
+        return handled == null ? 0 : handled;
+    }
+
     public PatternResultFileSet searchArtifactsByPattern(String pattern) throws IOException {
         SearchArtifactsByPattern searchArtifactsByPatternService = new SearchArtifactsByPattern(pattern, log);
         return searchArtifactsByPatternService.execute(jfrogHttpClient);
@@ -282,17 +323,35 @@ public class ArtifactoryManager extends ManagerBase {
             log.warn("GetLatestBuildNumber accepts only two latest types: LATEST or LAST_RELEASE");
             return null;
         }
-        Version versionService = new Version(log);
-        if (versionService.execute(jfrogHttpClient).isOSS()) {
+        String cacheKey = StringUtils.defaultString(project) + "/" + buildName + "/" + latestType.trim();
+        String buildNumber = resolvedBuildNumbers.get(cacheKey);
+        if (buildNumber != null) {
+            return buildNumber;
+        }
+        if (getCachedVersion().isOSS()) {
             throw new IllegalArgumentException(String.format("%s is not supported in Artifactory OSS.", latestType));
         }
         List<BuildPatternArtifactsRequest> artifactsRequest = Lists.newArrayList();
         artifactsRequest.add(new BuildPatternArtifactsRequest(buildName, latestType, project));
         List<BuildPatternArtifacts> artifactsResponses = retrievePatternArtifacts(artifactsRequest);
         // Artifactory returns null if no build was found
-        if (artifactsResponses.get(0) != null) {
-            return artifactsResponses.get(0).getBuildNumber();
+        if (artifactsResponses.get(0) == null) {
+            return null;
+        }
+        buildNumber = artifactsResponses.get(0).getBuildNumber();
+        if (buildNumber != null) {
+            resolvedBuildNumbers.put(cacheKey, buildNumber);
+        }
+        return buildNumber;
+    }
+
+    /**
+     * The Artifactory version doesn't change during the session, so it is fetched once for internal checks.
+     */
+    private ArtifactoryVersion getCachedVersion() throws IOException {
+        if (artifactoryVersion == null) {
+            artifactoryVersion = getVersion();
         }
-        return null;
+        return artifactoryVersion;
     }
 }
@@ -0,0 +1,78 @@
+package org.jfrog.build.extractor.clientConfiguration.client.artifactory.services;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.jfrog.build.api.util.Log;
+import org.jfrog.build.extractor.ci.BuildInfo;
+import org.jfrog.build.extractor.clientConfiguration.client.JFrogService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.jfrog.build.extractor.UrlUtils.encodeUrlPathPart;
+import static org.jfrog.build.extractor.UrlUtils.getProjectQueryParam;
+
+/**
+ * Get a build info with only the requested top-level fields, such as "vcs" or "started".
+ * The build JSON is streamed and all other fields, including the modules, are skipped without being deserialized.
+ */
+public class GetBuildInfoFields extends JFrogService<BuildInfo> {
+    private static final String BUILD_INFO_FIELD = "buildInfo";
+
+    private final String buildName;
+    private final String buildNumber;
+    private final String project;
+    private final Set<String> fields;
+
+    public GetBuildInfoFields(String buildName, String buildNumber, String project, Log logger, String... fields) {
+        super(logger);
+        this.buildName = buildName;
+        this.buildNumber = buildNumber;
+        this.project = project;
+        this.fields = new HashSet<>(Arrays.asList(fields));
+    }
+
+    @Override
+    public HttpRequestBase createRequest() {
+        String apiEndPoint = String.format("%s/%s/%s%s", "api/build", encodeUrlPathPart(buildName),
+                encodeUrlPathPart(buildNumber), getProjectQueryParam(project));
+        return new HttpGet(apiEndPoint);
+    }
+
+    @Override
+    protected void setResponse(InputStream stream) throws IOException {
+        try (JsonParser parser = getMapper().getFactory().createParser(stream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                if (parser.nextToken() == JsonToken.START_OBJECT && BUILD_INFO_FIELD.equals(fieldName)) {
+                    result = readRequestedFields(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    private BuildInfo readRequestedFields(JsonParser parser) throws IOException {
+        ObjectNode buildInfoNode = getMapper().createObjectNode();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            parser.nextToken();
+            if (fields.contains(fieldName)) {
+                buildInfoNode.set(fieldName, getMapper().readTree(parser));
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return getMapper().treeToValue(buildInfoNode, BuildInfo.class);
+    }
+}
@@ -1,22 +1,33 @@
 package org.jfrog.build.extractor.clientConfiguration.client.artifactory.services;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.entity.StringEntity;
 import org.jfrog.build.api.util.Log;
 import org.jfrog.build.client.JFrogHttpClient;
+import org.jfrog.build.client.artifactoryXrayResponse.Alert;
 import org.jfrog.build.client.artifactoryXrayResponse.ArtifactoryXrayResponse;
+import org.jfrog.build.client.artifactoryXrayResponse.License;
+import org.jfrog.build.client.artifactoryXrayResponse.Summary;
 import org.jfrog.build.extractor.clientConfiguration.client.JFrogService;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 
+/**
+ * Scans a build with Xray.
+ * The response is parsed as it is streamed, skipping the new-lines Xray sends to keep the connection open. The alerts
+ * and licenses are handed to a {@link ScanResultHandler} as soon as they are read. Without a handler, they are
+ * collected into the {@link ArtifactoryXrayResponse}.
+ */
 public class ScanBuild extends JFrogService<ArtifactoryXrayResponse> {
     /**
      * Expecting \r\n every 30 seconds
@@ -31,10 +42,12 @@ public class ScanBuild extends JFrogService<ArtifactoryXrayResponse> {
      */
     private static final int XRAY_SCAN_RETRY_CONSECUTIVE_RETRIES = 5;
     /**
-     * 30 seconds sleep between retry
+     * Sleep 2 seconds before the first retry, doubling up to 30 seconds
      */
-    private static final int XRAY_SCAN_SLEEP_BETWEEN_RETRIES_MILLIS = 30000;
+    private static final int XRAY_SCAN_INITIAL_SLEEP_BETWEEN_RETRIES_MILLIS = 2000;
+    private static final int XRAY_SCAN_MAX_SLEEP_BETWEEN_RETRIES_MILLIS = 30000;
     private static final String SCAN_BUILD_URL = "api/xray/scanBuild";
+    private final ScanResultHandler handler;
     private final String buildName;
     private final String buildNumber;
     private final String project;
@@ -42,11 +55,20 @@ public class ScanBuild extends JFrogService<ArtifactoryXrayResponse> {
     private HttpPost request;
 
     public ScanBuild(String buildName, String buildNumber, String project, String context, Log log) {
+        this(buildName, buildNumber, project, context, null, log);
+    }
+
+    /**
+     * @param handler receives the alerts and licenses as they are read. If the connection is lost and the scan is
+     *                resumed, it may receive the alerts and licenses again. May be null
+     */
+    public ScanBuild(String buildName, String buildNumber, String project, String context, ScanResultHandler handler, Log log) {
         super(log);
         this.buildName = buildName;
         this.buildNumber = buildNumber;
         this.project = project;
         this.context = context;
+        this.handler = handler;
     }
 
     @Override
@@ -70,31 +92,82 @@ public class ScanBuild extends JFrogService<ArtifactoryXrayResponse> {
 
     @Override
     protected void setResponse(InputStream stream) throws IOException {
-        ObjectMapper mapper = new ObjectMapper();
-        String content = IOUtils.toString(stream, StandardCharsets.UTF_8.name());
-        JsonNode result;
-        try {
-            result = mapper.readTree(content);
-            if (result == null) {
-                throw new NullPointerException("Received empty content from Artifactory");
+        ArtifactoryXrayResponse response = new ArtifactoryXrayResponse();
+        ObjectMapper mapper = getMapper();
+        try (JsonParser parser = mapper.getFactory().createParser(stream)) {
+            // The new-lines sent while the scan is in progress are skipped as whitespace
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                throw new XrayErrorException("Failed processing scan response: Received empty content from Artifactory");
             }
-        } catch (Exception ex) {
+            if (token != JsonToken.START_OBJECT) {
+                throw new XrayErrorException("Failed processing scan response: Expected a JSON object, received " + token);
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken valueToken = parser.nextToken();
+                switch (fieldName) {
+                    case "errors":
+                        handleErrors(mapper.readTree(parser));
+                        break;
+                    case "summary":
+                        response.setSummary(mapper.readValue(parser, Summary.class));
+                        if (handler != null) {
+                            handler.onSummary(response.getSummary());
+                        }
+                        break;
+                    case "alerts":
+                        response.setAlerts(readArray(parser, valueToken, Alert.class, handler == null ? null : handler::onAlert));
+                        break;
+                    case "licenses":
+                        response.setLicenses(readArray(parser, valueToken, License.class, handler == null ? null : handler::onLicense));
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+        } catch (JsonProcessingException e) {
             // Throwing XrayErrorException since the retry-mechanism should not reset the retries-count in such error.
-            throw new XrayErrorException(String.format("Failed processing scan response: %s\n%s", ex, content));
+            throw new XrayErrorException(String.format("Failed processing scan response: %s", e));
         }
-        if (result.get("errors") != null) {
-            String resultStr = result.get("errors").toString();
-            for (JsonNode error : result.get("errors")) {
-                if (error.get("status").toString().equals(XRAY_FATAL_FAIL_STATUS)) {
-                    throw new RuntimeException("Artifactory response: " + resultStr);
-                }
+        this.result = response;
+    }
+
+    /**
+     * Reads the elements of a JSON array one by one. If a consumer is provided, the elements are handed to it instead
+     * of being collected.
+     *
+     * @return the elements, or null if they were handed to the consumer
+     */
+    private <T> List<T> readArray(JsonParser parser, JsonToken valueToken, Class<T> elementType, ElementConsumer<T> consumer) throws IOException {
+        if (valueToken != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        List<T> elements = consumer == null ? new ArrayList<>() : null;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            T element = getMapper().readValue(parser, elementType);
+            if (consumer != null) {
+                consumer.accept(element);
+            } else {
+                elements.add(element);
             }
-            throw new XrayErrorException("Artifactory response: " + resultStr);
         }
-        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-        this.result = mapper.treeToValue(result, ArtifactoryXrayResponse.class);
+        return elements;
     }
 
+    private void handleErrors(JsonNode errors) throws IOException {
+        if (errors == null || errors.isNull()) {
+            return;
+        }
+        String resultStr = errors.toString();
+        for (JsonNode error : errors) {
+            if (error.get("status").toString().equals(XRAY_FATAL_FAIL_STATUS)) {
+                throw new RuntimeException("Artifactory response: " + resultStr);
+            }
+        }
+        throw new XrayErrorException("Artifactory response: " + resultStr);
+    }
 
     @Override
     public ArtifactoryXrayResponse execute(JFrogHttpClient client) throws IOException {
@@ -139,12 +212,40 @@ public class ScanBuild extends JFrogService<ArtifactoryXrayResponse> {
         log.warn("Xray scan connection lost: " + e.getMessage() + ", attempting to reconnect...");
         // Sleeping before trying to reconnect.
         try {
-            Thread.sleep(XRAY_SCAN_SLEEP_BETWEEN_RETRIES_MILLIS);
+            Thread.sleep(getSleepBetweenRetriesMillis(retryNum));
         } catch (InterruptedException interruptedException) {
             throw new IOException(interruptedException.getMessage());
         }
     }
 
+    /**
+     * Exponential backoff between consecutive retries, bounded by {@link #XRAY_SCAN_MAX_SLEEP_BETWEEN_RETRIES_MILLIS}.
+     *
+     * @param retryNum the number of the failed attempt, starting from 1
+     */
+    static long getSleepBetweenRetriesMillis(int retryNum) {
+        int doublings = Math.min(Math.max(retryNum - 1, 0), 30);
+        return Math.min((long) XRAY_SCAN_INITIAL_SLEEP_BETWEEN_RETRIES_MILLIS << doublings, XRAY_SCAN_MAX_SLEEP_BETWEEN_RETRIES_MILLIS);
+    }
+
+    /**
+     * Receives the results of the scan as they are read from the response.
+     */
+    public interface ScanResultHandler {
+        default void onSummary(Summary summary) throws IOException {
+        }
+
+        default void onAlert(Alert alert) throws IOException {
+        }
+
+        default void onLicense(License license) throws IOException {
+        }
+    }
+
+    private interface ElementConsumer<T> {
+        void accept(T element) throws IOException;
+    }
+
     /**
      * Private exception class, signals that Xray-response returned from Artifactory contained an error.
      */
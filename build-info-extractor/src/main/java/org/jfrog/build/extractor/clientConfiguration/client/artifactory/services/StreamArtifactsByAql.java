@@ -0,0 +1,83 @@
+package org.jfrog.build.extractor.clientConfiguration.client.artifactory.services;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.entity.StringEntity;
+import org.jfrog.build.api.search.AqlSearchResult;
+import org.jfrog.build.api.util.Log;
+import org.jfrog.build.extractor.clientConfiguration.client.JFrogService;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Runs an AQL query and hands every entry of the "results" array to a {@link SearchEntryHandler} as soon as it is read
+ * from the response, instead of deserializing the whole response into an {@link AqlSearchResult}.
+ * The result of this service is the number of entries handled.
+ */
+public class StreamArtifactsByAql extends JFrogService<Integer> {
+    private static final String SEARCH_ARTIFACT_BY_AQL_ENDPOINT = "api/search/aql";
+    private static final String RESULTS_FIELD = "results";
+
+    private final String aql;
+    private final SearchEntryHandler handler;
+
+    public StreamArtifactsByAql(String aql, SearchEntryHandler handler, Log log) {
+        super(log);
+        this.aql = aql;
+        this.handler = handler;
+    }
+
+    @Override
+    public HttpRequestBase createRequest() throws IOException {
+        HttpPost request = new HttpPost(SEARCH_ARTIFACT_BY_AQL_ENDPOINT);
+        StringEntity entity = new StringEntity(aql);
+        request.setEntity(entity);
+        return request;
+    }
+
+    @Override
+    protected void handleUnsuccessfulResponse(HttpEntity entity) throws IOException {
+        log.error("Failed to search artifact by the aql '" + aql + "'");
+        throwException(entity, getStatusCode());
+    }
+
+    @Override
+    protected void handleEmptyEntity() {
+        result = 0;
+    }
+
+    @Override
+    protected void setResponse(InputStream stream) throws IOException {
+        int handled = 0;
+        try (JsonParser parser = getMapper().getFactory().createParser(stream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Unexpected AQL response for the aql '" + aql + "': expected a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken valueToken = parser.nextToken();
+                if (!RESULTS_FIELD.equals(fieldName) || valueToken != JsonToken.START_ARRAY) {
+                    // Skip "range" and any other field that isn't part of the results.
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    handler.handle(getMapper().readValue(parser, AqlSearchResult.SearchEntry.class));
+                    handled++;
+                }
+            }
+        }
+        result = handled;
+    }
+
+    /**
+     * Receives the AQL search entries one by one, in the order returned by Artifactory.
+     */
+    public interface SearchEntryHandler {
+        void handle(AqlSearchResult.SearchEntry entry) throws IOException;
+    }
+}
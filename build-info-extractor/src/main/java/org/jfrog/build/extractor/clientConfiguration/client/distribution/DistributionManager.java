@@ -13,12 +13,15 @@ import org.jfrog.build.extractor.clientConfiguration.client.distribution.respons
 import org.jfrog.build.extractor.clientConfiguration.client.distribution.services.*;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author yahavi
  */
 @SuppressWarnings("unused")
 public class DistributionManager extends ManagerBase {
+    private DistributionStatusTracker statusTracker;
+
     public DistributionManager(String url, String username, String password, String accessToken, Log logger) {
         super(url, username, password, accessToken, logger);
     }
@@ -139,6 +142,43 @@ public class DistributionManager extends ManagerBase {
         return new DistributeReleaseBundle(name, version, sync, request, log).execute(jfrogHttpClient);
     }
 
+    /**
+     * Distribute a release bundle, and track the distribution without blocking the calling thread.
+     *
+     * @param name     - Release bundle name
+     * @param version  - Release bundle version
+     * @param request  - The distribution details
+     * @param listener - Notified about each change in the status of a site. May be null
+     * @return a future completed with the distribution status once the distribution completed
+     * @throws IOException in case of any error in the distribution request
+     */
+    public CompletableFuture<DistributionStatusResponse> distributeReleaseBundleAsync(String name, String version, DistributeReleaseBundleRequest request,
+                                                                                      DistributionStatusTracker.SiteStatusListener listener) throws IOException {
+        DistributeReleaseBundleResponse response = distributeReleaseBundle(name, version, false, request);
+        if (request.isDryRun()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return trackDistribution(name, version, response.getTrackerId(), listener);
+    }
+
+    /**
+     * Track a distribution without blocking the calling thread.
+     * All the distributions tracked by this manager are polled by one scheduler.
+     *
+     * @param name      - Release bundle name
+     * @param version   - Release bundle version
+     * @param trackerId - The tracker ID received from distributeReleaseBundle command
+     * @param listener  - Notified about each change in the status of a site. May be null
+     * @return a future completed with the distribution status once the distribution completed
+     */
+    public synchronized CompletableFuture<DistributionStatusResponse> trackDistribution(String name, String version, String trackerId,
+                                                                                       DistributionStatusTracker.SiteStatusListener listener) {
+        if (statusTracker == null) {
+            statusTracker = new DistributionStatusTracker(this::getDistributionStatus, log);
+        }
+        return statusTracker.track(name, version, trackerId, listener);
+    }
+
     /**
      * Get status of a distributed release bundle
      *
@@ -188,4 +228,12 @@ public class DistributionManager extends ManagerBase {
     public DistributeReleaseBundleResponse deleteReleaseBundle(String name, String version, boolean sync, DeleteReleaseBundleRequest request) throws IOException {
         return new DeleteReleaseBundle(name, version, sync, request, log).execute(jfrogHttpClient);
     }
+
+    @Override
+    public synchronized void close() {
+        if (statusTracker != null) {
+            statusTracker.close();
+        }
+        super.close();
+    }
 }
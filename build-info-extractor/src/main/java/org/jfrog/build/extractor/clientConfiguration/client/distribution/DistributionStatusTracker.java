@@ -0,0 +1,219 @@
+package org.jfrog.build.extractor.clientConfiguration.client.distribution;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jfrog.build.api.util.Log;
+import org.jfrog.build.extractor.clientConfiguration.client.distribution.response.DistributionStatusResponse;
+import org.jfrog.build.extractor.clientConfiguration.client.distribution.response.DistributionStatusResponse.DistributionSiteStatus;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.jfrog.build.extractor.clientConfiguration.util.JsonUtils.toJsonString;
+
+/**
+ * Tracks the status of release bundle distributions without blocking the calling thread.
+ * All the tracked distributions are polled by one scheduler, so a single tracker can watch many tracker IDs at once.
+ * <p>
+ * The polling interval starts at the initial interval and grows exponentially up to the max interval. Once the sites
+ * distributed most of their files, the interval goes back to the initial interval, to notice the completion early.
+ */
+public class DistributionStatusTracker implements AutoCloseable {
+    public static final long DEFAULT_INITIAL_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(1);
+    public static final long DEFAULT_MAX_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(10);
+    public static final long DEFAULT_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(60);
+    public static final double DEFAULT_MULTIPLIER = 2;
+    // The part of the files which should be distributed to poll at the initial interval again
+    private static final double NEAR_COMPLETION_RATIO = 0.9;
+    private static final int SCHEDULER_THREADS = 2;
+
+    private final Set<CompletableFuture<DistributionStatusResponse>> trackedFutures = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler;
+    private final StatusProvider statusProvider;
+    private final long initialIntervalMillis;
+    private final long maxIntervalMillis;
+    private final long timeoutMillis;
+    private final double multiplier;
+    private final Log log;
+
+    public DistributionStatusTracker(StatusProvider statusProvider, Log log) {
+        this(statusProvider, DEFAULT_INITIAL_INTERVAL_MILLIS, DEFAULT_MAX_INTERVAL_MILLIS, DEFAULT_MULTIPLIER, DEFAULT_TIMEOUT_MILLIS, log);
+    }
+
+    /**
+     * @param statusProvider        - Fetches the status of a distribution
+     * @param initialIntervalMillis - The interval before the first status check, and near the completion
+     * @param maxIntervalMillis     - The max interval between status checks
+     * @param multiplier            - The factor to grow the interval by after each status check
+     * @param timeoutMillis         - The max time to wait for each distribution
+     * @param log                   - The logger
+     */
+    public DistributionStatusTracker(StatusProvider statusProvider, long initialIntervalMillis, long maxIntervalMillis,
+                                     double multiplier, long timeoutMillis, Log log) {
+        this.statusProvider = statusProvider;
+        this.initialIntervalMillis = initialIntervalMillis;
+        this.maxIntervalMillis = Math.max(initialIntervalMillis, maxIntervalMillis);
+        this.multiplier = Math.max(1, multiplier);
+        this.timeoutMillis = timeoutMillis;
+        this.log = log;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.scheduler = Executors.newScheduledThreadPool(SCHEDULER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "distribution-status-tracker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Track the status of a distribution.
+     *
+     * @param name      - Release bundle name
+     * @param version   - Release bundle version
+     * @param trackerId - The tracker ID received from the distribution
+     * @param listener  - Notified about each change in the status of a site. May be null
+     * @return a future completed with the status of the distribution once it completed, or completed exceptionally
+     * if the distribution failed, timed out or the status couldn't be fetched
+     */
+    public CompletableFuture<DistributionStatusResponse> track(String name, String version, String trackerId, SiteStatusListener listener) {
+        Tracking tracking = new Tracking(name, version, trackerId, listener);
+        trackedFutures.add(tracking.future);
+        tracking.future.whenComplete((status, throwable) -> trackedFutures.remove(tracking.future));
+        tracking.schedule(initialIntervalMillis);
+        return tracking.future;
+    }
+
+    /**
+     * Stop tracking. The futures of the distributions still tracked are completed exceptionally.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        for (CompletableFuture<DistributionStatusResponse> future : trackedFutures) {
+            future.completeExceptionally(new IOException("Distribution status tracker is closed"));
+        }
+    }
+
+    /**
+     * Calculate the interval before the next status check.
+     *
+     * @param lastIntervalMillis - The interval before the last status check
+     * @param status             - The last status, or null if it is not available yet
+     * @return the interval before the next status check
+     */
+    long nextInterval(long lastIntervalMillis, DistributionStatusResponse status) {
+        if (status != null && getDistributedRatio(status.getSites()) >= NEAR_COMPLETION_RATIO) {
+            return initialIntervalMillis;
+        }
+        return Math.min(maxIntervalMillis, (long) (lastIntervalMillis * multiplier));
+    }
+
+    private static double getDistributedRatio(List<DistributionSiteStatus> sites) {
+        if (sites == null) {
+            return 0;
+        }
+        long totalFiles = 0;
+        long distributedFiles = 0;
+        for (DistributionSiteStatus site : sites) {
+            totalFiles += site.getTotalFiles();
+            distributedFiles += site.getDistributedFiles();
+        }
+        return totalFiles == 0 ? 0 : (double) distributedFiles / totalFiles;
+    }
+
+    private class Tracking {
+        private final CompletableFuture<DistributionStatusResponse> future = new CompletableFuture<>();
+        // The last reported status and distributed files count of each site
+        private final Map<String, String> siteProgress = new HashMap<>();
+        private final long deadline = System.currentTimeMillis() + timeoutMillis;
+        private final SiteStatusListener listener;
+        private final String trackerId;
+        private final String version;
+        private final String name;
+        private long intervalMillis;
+
+        private Tracking(String name, String version, String trackerId, SiteStatusListener listener) {
+            this.name = name;
+            this.version = version;
+            this.trackerId = trackerId;
+            this.listener = listener;
+        }
+
+        private void schedule(long delayMillis) {
+            intervalMillis = delayMillis;
+            try {
+                scheduler.schedule(this::poll, delayMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                future.completeExceptionally(new IOException("Distribution status tracker is closed", e));
+            }
+        }
+
+        private void poll() {
+            try {
+                DistributionStatusResponse status = statusProvider.getDistributionStatus(name, version, trackerId);
+                if (status != null) {
+                    notifySiteChanges(status.getSites());
+                    if (StringUtils.equalsIgnoreCase(status.getStatus(), "Failed")) {
+                        future.completeExceptionally(new IOException("Distribution of " + name + "/" + version + " failed: " + toJsonString(status)));
+                        return;
+                    }
+                    if (StringUtils.equalsIgnoreCase(status.getStatus(), "Completed")) {
+                        future.complete(status);
+                        return;
+                    }
+                }
+                long nextInterval = nextInterval(intervalMillis, status);
+                if (System.currentTimeMillis() + nextInterval > deadline) {
+                    future.completeExceptionally(new IOException("Timeout for sync distribution"));
+                    return;
+                }
+                schedule(nextInterval);
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        }
+
+        private void notifySiteChanges(List<DistributionSiteStatus> sites) {
+            if (listener == null || sites == null) {
+                return;
+            }
+            for (DistributionSiteStatus site : sites) {
+                String siteName = site.getTargetArtifactory() != null ? site.getTargetArtifactory().getName() : "";
+                String progress = site.getStatus() + ":" + site.getDistributedFiles();
+                if (progress.equals(siteProgress.put(siteName, progress))) {
+                    continue;
+                }
+                try {
+                    listener.onSiteStatus(name, version, site);
+                } catch (RuntimeException e) {
+                    log.debug("Distribution site status listener failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Fetches the status of a distribution, as {@link DistributionManager#getDistributionStatus(String, String, String)}.
+     */
+    public interface StatusProvider {
+        /**
+         * @return the status of the distribution, or null if it is not available yet
+         */
+        DistributionStatusResponse getDistributionStatus(String name, String version, String trackerId) throws IOException;
+    }
+
+    public interface SiteStatusListener {
+        /**
+         * Called on the scheduler thread when the status or the distributed files count of a site changed.
+         */
+        void onSiteStatus(String name, String version, DistributionSiteStatus site);
+    }
+}
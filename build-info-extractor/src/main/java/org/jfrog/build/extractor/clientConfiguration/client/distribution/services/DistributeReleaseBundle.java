@@ -7,12 +7,14 @@ import org.apache.http.entity.StringEntity;
 import org.jfrog.build.api.util.Log;
 import org.jfrog.build.client.JFrogHttpClient;
 import org.jfrog.build.extractor.clientConfiguration.client.JFrogService;
+import org.jfrog.build.extractor.clientConfiguration.client.distribution.DistributionStatusTracker;
 import org.jfrog.build.extractor.clientConfiguration.client.distribution.request.DistributeReleaseBundleRequest;
 import org.jfrog.build.extractor.clientConfiguration.client.distribution.response.DistributeReleaseBundleResponse;
 import org.jfrog.build.extractor.clientConfiguration.client.distribution.response.DistributionStatusResponse;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import static org.jfrog.build.extractor.clientConfiguration.util.JsonUtils.toJsonString;
@@ -79,26 +81,23 @@ public class DistributeReleaseBundle extends JFrogService<DistributeReleaseBundl
     }
 
     private void waitForDistribution(JFrogHttpClient client) throws IOException {
-        String trackerId = result.getTrackerId();
-        GetDistributionStatus getDistributionStatusService = new GetDistributionStatus(name, version, trackerId, log);
-        for (int timeElapsed = 0; timeElapsed < DEFAULT_MAX_WAIT_MINUTES * 60; timeElapsed += DEFAULT_SYNC_SLEEP_INTERVAL) {
-            if (timeElapsed % 60 == 0) {
-                log.info(String.format("Sync: Distributing %s/%s...", name, version));
-            }
-            DistributionStatusResponse statusResponse = getDistributionStatusService.execute(client);
-            if (statusResponse.getStatus().equalsIgnoreCase("Failed")) {
-                throw new IOException("JFrog service failed. Received " + statusCode + ": " + toJsonString(statusResponse));
-            }
-            if (statusResponse.getStatus().equalsIgnoreCase("Completed")) {
-                log.info("Distribution Completed!");
-                return;
-            }
-            try {
-                TimeUnit.SECONDS.sleep(DEFAULT_SYNC_SLEEP_INTERVAL);
-            } catch (InterruptedException e) {
-                throw new IOException("Fail to wait for Distribution sync", e);
+        log.info(String.format("Sync: Distributing %s/%s...", name, version));
+        try (DistributionStatusTracker tracker = new DistributionStatusTracker(
+                (name, version, trackerId) -> new GetDistributionStatus(name, version, trackerId, log).execute(client),
+                DistributionStatusTracker.DEFAULT_INITIAL_INTERVAL_MILLIS, TimeUnit.SECONDS.toMillis(DEFAULT_SYNC_SLEEP_INTERVAL),
+                DistributionStatusTracker.DEFAULT_MULTIPLIER, TimeUnit.MINUTES.toMillis(DEFAULT_MAX_WAIT_MINUTES), log)) {
+            tracker.track(name, version, result.getTrackerId(), (name, version, site) ->
+                    log.debug(String.format("Sync: Distributing %s/%s to %s: %s, %d/%d files", name, version,
+                            site.getTargetArtifactory() != null ? site.getTargetArtifactory().getName() : "", site.getStatus(),
+                            site.getDistributedFiles(), site.getTotalFiles()))).get();
+            log.info("Distribution Completed!");
+        } catch (InterruptedException e) {
+            throw new IOException("Fail to wait for Distribution sync", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
             }
+            throw new IOException(e.getCause());
         }
-        throw new IOException("Timeout for sync distribution");
     }
 }
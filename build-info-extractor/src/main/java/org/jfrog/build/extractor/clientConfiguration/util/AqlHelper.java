@@ -1,9 +1,11 @@
 package org.jfrog.build.extractor.clientConfiguration.util;
 
+import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.jfrog.build.api.search.AqlSearchResult;
 import org.jfrog.build.api.util.Log;
 import org.jfrog.build.extractor.clientConfiguration.client.artifactory.ArtifactoryManager;
+import org.jfrog.build.extractor.clientConfiguration.client.artifactory.services.StreamArtifactsByAql;
 import org.jfrog.filespecs.aql.AqlConverter;
 import org.jfrog.filespecs.entities.Aql;
 import org.jfrog.filespecs.entities.FilesGroup;
@@ -17,12 +19,16 @@ public class AqlHelper {
     protected static final String LAST_RELEASE = "LAST_RELEASE";
     protected static final String DELIMITER = "/";
     protected static final String ESCAPE_CHAR = "\\";
+    // Number of AQL results to request in a single query when paging through the search results.
+    protected static final int DEFAULT_PAGE_SIZE = 10000;
+    private static final String[] PAGING_SORT_FIELDS = {"repo", "path", "name"};
 
     protected Log log;
     protected ArtifactoryManager artifactoryManager;
     protected String buildName;
     protected String buildNumber;
     protected final FilesGroup filesGroup;
+    protected int pageSize = DEFAULT_PAGE_SIZE;
 
     AqlHelper(ArtifactoryManager artifactoryManager, Log log, FilesGroup file) throws IOException {
         this.artifactoryManager = artifactoryManager;
@@ -38,64 +44,120 @@ public class AqlHelper {
     }
 
     public List<AqlSearchResult.SearchEntry> run() throws IOException {
-        String aql;
+        List<AqlSearchResult.SearchEntry> results = new ArrayList<>();
+        run(results::add);
+        return results;
+    }
 
+    /**
+     * Search Artifactory by the files group and hand the results to the handler page by page.
+     * If the files group doesn't define its own sort, offset or limit, the query is sorted by repo, path and name and
+     * sent with .offset()/.limit() in pages of {@link #pageSize} items, so only a single page is held in memory at any
+     * time.
+     * If a build is specified, the results are searched in a single query, filtered by the build and handed over once
+     * the search is complete.
+     *
+     * @param handler - Receives the search results.
+     * @return the number of results handed to the handler.
+     */
+    public int run(StreamArtifactsByAql.SearchEntryHandler handler) throws IOException {
+        if (StringUtils.isBlank(this.buildName)) {
+            return search(handler);
+        }
+        BuildResultsFilter buildFilter;
         if (this.filesGroup.getSpecType() == FilesGroup.SpecType.BUILD) {
-            // The file-specs-java library doesn't support files groups of type BUILD.
-            // To handle that, we create the AQL query body separately here, put it in the files group, use the files group
-            // to create a full, valid AQL query and finally revert the files group by removing the AQL from it.
-            String queryBody = createAqlBodyForBuild(buildName, buildNumber);
-            Aql query = new Aql();
-            query.setFind(queryBody);
-            this.filesGroup.setAql(query);
-            aql = AqlConverter.convertFilesGroupToAql(this.filesGroup);
-            this.filesGroup.setAql(null);
+            // The query results are the build's artifacts, so every result's checksum belongs to the build.
+            buildFilter = new BuildResultsFilter(buildName, buildNumber, null);
+        } else if (StringUtils.isNotBlank(this.buildNumber)) {
+            buildFilter = new BuildResultsFilter(buildName, buildNumber, fetchBuildArtifactsSha1());
         } else {
-            aql = AqlConverter.convertFilesGroupToAql(this.filesGroup);
+            // The build could not be found, so no artifact can match it.
+            return 0;
         }
+        // The filter needs the build properties of the results, which AQL doesn't return for sorted or paged queries
+        searchPage(buildFilter::add);
+        return buildFilter.flush(handler);
+    }
 
-        log.debug("Searching Artifactory using AQL query:\n" + aql);
-        AqlSearchResult aqlSearchResult = artifactoryManager.searchArtifactsByAql(aql);
-        List<AqlSearchResult.SearchEntry> queryResults = aqlSearchResult.getResults();
-
-        List<AqlSearchResult.SearchEntry> artifactsSha1SearchResults;
-        if (this.filesGroup.getSpecType() == FilesGroup.SpecType.BUILD) {
-            artifactsSha1SearchResults = queryResults;
-        } else {
-            if (!StringUtils.isBlank(this.buildName) && !StringUtils.isBlank(this.buildNumber)) {
-                artifactsSha1SearchResults = fetchBuildArtifactsSha1();
-            } else {
-                artifactsSha1SearchResults = new ArrayList<>();
+    /**
+     * Run the search, page by page if possible, and hand each page to the handler once it was fully read.
+     */
+    private int search(StreamArtifactsByAql.SearchEntryHandler handler) throws IOException {
+        if (pageSize <= 0 || isPagedBySpec()) {
+            return searchPage(handler);
+        }
+        int total = 0;
+        for (int offset = 0; ; offset += pageSize) {
+            int pageResults;
+            // Sort the results, since the order of the pages is not guaranteed to be stable otherwise
+            this.filesGroup.setSortBy(PAGING_SORT_FIELDS).setSortOrder("asc")
+                    .setOffset(String.valueOf(offset)).setLimit(String.valueOf(pageSize));
+            try {
+                pageResults = searchPage(handler);
+            } finally {
+                this.filesGroup.setSortBy(null).setSortOrder(null).setOffset(null).setLimit(null);
+            }
+            total += pageResults;
+            if (pageResults < pageSize) {
+                return total;
             }
         }
-
-        List<AqlSearchResult.SearchEntry> results = filterResult(queryResults, artifactsSha1SearchResults);
-        return (results == null ? new ArrayList<>() : results);
     }
 
     /**
-     * If buildName specified, filter the results to keep only artifacts matching the requested build
+     * Send a single AQL query. The page is read completely before it is handed over, to avoid holding the HTTP
+     * connection while the handler works on the results.
      */
-    private List<AqlSearchResult.SearchEntry> filterResult(List<AqlSearchResult.SearchEntry> queryResults, List<AqlSearchResult.SearchEntry> artifactsSha1SerachResults) throws IOException {
-        if (StringUtils.isNotBlank(buildName) && queryResults.size() > 0) {
-            Map<String, Boolean> buildArtifactsSha1 = extractSha1FromAqlResponse(artifactsSha1SerachResults);
-            queryResults = filterAqlSearchResultsByBuild(queryResults, buildArtifactsSha1, buildName, buildNumber);
+    private int searchPage(StreamArtifactsByAql.SearchEntryHandler handler) throws IOException {
+        String aql = createAql();
+        log.debug("Searching Artifactory using AQL query:\n" + aql);
+        List<AqlSearchResult.SearchEntry> page = new ArrayList<>();
+        artifactoryManager.searchArtifactsByAql(aql, page::add);
+        for (AqlSearchResult.SearchEntry entry : page) {
+            handler.handle(entry);
+        }
+        return page.size();
+    }
+
+    private String createAql() throws IOException {
+        if (this.filesGroup.getSpecType() != FilesGroup.SpecType.BUILD) {
+            return AqlConverter.convertFilesGroupToAql(this.filesGroup);
+        }
+        // The file-specs-java library doesn't support files groups of type BUILD.
+        // To handle that, we create the AQL query body separately here, put it in the files group, use the files group
+        // to create a full, valid AQL query and finally revert the files group by removing the AQL from it.
+        String queryBody = createAqlBodyForBuild(buildName, buildNumber);
+        Aql query = new Aql();
+        query.setFind(queryBody);
+        this.filesGroup.setAql(query);
+        try {
+            return AqlConverter.convertFilesGroupToAql(this.filesGroup);
+        } finally {
+            this.filesGroup.setAql(null);
         }
+    }
+
+    private boolean isPagedBySpec() {
+        return ArrayUtils.isNotEmpty(this.filesGroup.getSortBy()) || StringUtils.isNotBlank(this.filesGroup.getOffset())
+                || StringUtils.isNotBlank(this.filesGroup.getLimit());
+    }
 
-        return queryResults;
+    void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
     }
 
     /**
-     * Sends an aql query to get all Sha1 value of the requested build, then returns the search results.
+     * Sends an aql query to get all Sha1 value of the requested build.
      */
-    private List<AqlSearchResult.SearchEntry> fetchBuildArtifactsSha1() throws IOException {
+    private Set<String> fetchBuildArtifactsSha1() throws IOException {
         // If a user without admin privileges tries to send AQL query that includes 'actual_sha1' only, a bad request will be return.
         // In order to fix this, we include name, repo & path.
         String includeSha1Field = ".include(\"name\",\"repo\",\"path\",\"actual_sha1\")";
         String buildAql = String.format("items.find(%s)%s", createAqlBodyForBuild(buildName, buildNumber), includeSha1Field);
         log.debug("Searching Artifactory for build's checksums using AQL query:\n" + buildAql);
-        AqlSearchResult aqlSearchResult = artifactoryManager.searchArtifactsByAql(buildAql);
-        return aqlSearchResult.getResults();
+        Set<String> buildArtifactsSha1 = new LinkedHashSet<>();
+        artifactoryManager.searchArtifactsByAql(buildAql, entry -> buildArtifactsSha1.add(entry.getActualSha1()));
+        return buildArtifactsSha1;
     }
 
     private static String createAqlBodyForBuild(String buildName, String buildNumber) {
@@ -159,61 +221,69 @@ public class AqlHelper {
      * 1st priority: Match {Sha1, build name, build number}
      * 2nd priority: Match {Sha1, build name}
      * 3rd priority: Match {Sha1}
+     * Only results whose checksum belongs to the build are kept while searching.
      */
-    private static List<AqlSearchResult.SearchEntry> filterAqlSearchResultsByBuild(List<AqlSearchResult.SearchEntry> itemsToFilter, Map<String, Boolean> buildArtifactsSha1, String buildName, String buildNumber) {
+    private static class BuildResultsFilter {
+        private final String buildName;
+        private final String buildNumber;
+        // Checksums of the build's artifacts. If not provided, collected from the search results.
+        private final Set<String> buildArtifactsSha1;
+        private final boolean collectSha1;
         // Maps that contain the search results, mapped by the priority they match.
-        Map<String, List<AqlSearchResult.SearchEntry>> firstPriority = new HashMap<>();
-        Map<String, List<AqlSearchResult.SearchEntry>> secondPriority = new HashMap<>();
-        Map<String, List<AqlSearchResult.SearchEntry>> thirdPriority = new HashMap<>();
-        // List that contains the filtered results, after step 2.
-        List<AqlSearchResult.SearchEntry> filteredResults = new ArrayList<>();
-
-        // Step 1 - Populate 3 priorities mappings.
-        for (AqlSearchResult.SearchEntry item : itemsToFilter) {
-            if (!buildArtifactsSha1.containsKey(item.getActualSha1())) {
-                continue;
-            }
+        private final Map<String, List<AqlSearchResult.SearchEntry>> firstPriority = new HashMap<>();
+        private final Map<String, List<AqlSearchResult.SearchEntry>> secondPriority = new HashMap<>();
+        private final Map<String, List<AqlSearchResult.SearchEntry>> thirdPriority = new HashMap<>();
 
+        BuildResultsFilter(String buildName, String buildNumber, Set<String> buildArtifactsSha1) {
+            this.buildName = buildName;
+            this.buildNumber = buildNumber;
+            this.collectSha1 = buildArtifactsSha1 == null;
+            this.buildArtifactsSha1 = collectSha1 ? new LinkedHashSet<>() : buildArtifactsSha1;
+        }
+
+        void add(AqlSearchResult.SearchEntry item) {
+            if (collectSha1) {
+                buildArtifactsSha1.add(item.getActualSha1());
+            } else if (!buildArtifactsSha1.contains(item.getActualSha1())) {
+                return;
+            }
             boolean isBuildNameMatch = buildName.equals(item.getBuildName());
-            boolean isBuildNumberMatch = buildNumber.equals(item.getBuildNumber());
+            boolean isBuildNumberMatch = StringUtils.equals(buildNumber, item.getBuildNumber());
             if (isBuildNameMatch) {
-                if (isBuildNumberMatch) {
-                    addToListInMap(firstPriority, item);
-                    continue;
-                }
-                addToListInMap(secondPriority, item);
-                continue;
+                addToListInMap(isBuildNumberMatch ? firstPriority : secondPriority, item);
+                return;
             }
             addToListInMap(thirdPriority, item);
         }
 
-        // Step 2 - Append mappings to the final results, respectively.
-        for (Map.Entry<String, Boolean> entry : buildArtifactsSha1.entrySet()) {
-            String shaToMatch = entry.getKey();
-            if (firstPriority.containsKey(shaToMatch)) {
-                filteredResults.addAll(firstPriority.get(shaToMatch));
-            } else if (secondPriority.containsKey(shaToMatch)) {
-                filteredResults.addAll(secondPriority.get(shaToMatch));
-            } else if (thirdPriority.containsKey(shaToMatch)) {
-                filteredResults.addAll(thirdPriority.get(shaToMatch));
+        /**
+         * Hand the filtered results to the handler, respectively to their priorities.
+         *
+         * @return the number of results handed to the handler.
+         */
+        int flush(StreamArtifactsByAql.SearchEntryHandler handler) throws IOException {
+            int handled = 0;
+            for (String shaToMatch : buildArtifactsSha1) {
+                List<AqlSearchResult.SearchEntry> matches = firstPriority.get(shaToMatch);
+                if (matches == null) {
+                    matches = secondPriority.get(shaToMatch);
+                }
+                if (matches == null) {
+                    matches = thirdPriority.get(shaToMatch);
+                }
+                if (matches == null) {
+                    continue;
+                }
+                for (AqlSearchResult.SearchEntry item : matches) {
+                    handler.handle(item);
+                    handled++;
+                }
             }
+            return handled;
         }
-        return filteredResults;
-    }
 
-    private static void addToListInMap(Map<String, List<AqlSearchResult.SearchEntry>> map, AqlSearchResult.SearchEntry item) {
-        List<AqlSearchResult.SearchEntry> curList = map.get(item.getActualSha1());
-        if (curList == null) curList = new ArrayList<>();
-        curList.add(item);
-        map.put(item.getActualSha1(), curList);
-    }
-
-    /**
-     * Maps all Sha1 values that exist in the results found
-     */
-    private static Map<String, Boolean> extractSha1FromAqlResponse(List<AqlSearchResult.SearchEntry> searchResults) {
-        Map<String, Boolean> resultsMap = new HashMap<>();
-        searchResults.forEach((result) -> resultsMap.put(result.getActualSha1(), true));
-        return resultsMap;
+        private static void addToListInMap(Map<String, List<AqlSearchResult.SearchEntry>> map, AqlSearchResult.SearchEntry item) {
+            map.computeIfAbsent(item.getActualSha1(), sha1 -> new ArrayList<>()).add(item);
+        }
     }
 }
@@ -3,6 +3,7 @@ package org.jfrog.build.extractor.clientConfiguration.util;
 import org.jfrog.build.api.search.AqlSearchResult;
 import org.jfrog.build.api.util.Log;
 import org.jfrog.build.extractor.clientConfiguration.client.artifactory.ArtifactoryManager;
+import org.jfrog.build.extractor.clientConfiguration.client.artifactory.services.StreamArtifactsByAql;
 import org.jfrog.filespecs.entities.FilesGroup;
 
 import java.io.IOException;
@@ -25,4 +26,17 @@ class ArtifactorySearcher {
         log.info(String.format("Found %s artifacts.", results.size()));
         return results;
     }
+
+    /**
+     * Search by the files group and hand the results to the handler as they arrive, instead of collecting them first.
+     *
+     * @return the number of results found.
+     */
+    int SearchByFileSpec(FilesGroup file, StreamArtifactsByAql.SearchEntryHandler handler) throws IOException {
+        AqlHelper aqlHelper = new AqlHelper(artifactoryManager, log, file);
+        log.info("Searching for artifacts...");
+        int found = aqlHelper.run(handler);
+        log.info(String.format("Found %s artifacts.", found));
+        return found;
+    }
 }
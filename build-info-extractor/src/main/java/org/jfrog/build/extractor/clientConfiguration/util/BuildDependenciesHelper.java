@@ -35,13 +35,24 @@ import java.util.*;
  * @author Evgeny Goldin
  */
 public class BuildDependenciesHelper {
+    public static final int DEFAULT_DOWNLOAD_THREADS = 3;
 
     private DependenciesDownloader downloader;
     private Log log;
+    private int downloadThreads;
 
     public BuildDependenciesHelper(DependenciesDownloader downloader, Log log) {
+        this(downloader, log, DEFAULT_DOWNLOAD_THREADS);
+    }
+
+    /**
+     * @param downloadThreads the max number of artifacts to download at once. The downloads share the connection pool
+     *                        of the Artifactory manager, so there's no point in using more threads than the pool size
+     */
+    public BuildDependenciesHelper(DependenciesDownloader downloader, Log log, int downloadThreads) {
         this.downloader = downloader;
         this.log = log;
+        this.downloadThreads = downloadThreads;
     }
 
     public List<BuildDependency> retrieveBuildDependencies(String resolvePattern) throws IOException, InterruptedException {
@@ -57,80 +68,72 @@ public class BuildDependenciesHelper {
         }
 
         log.info("Beginning to resolve Build Info build dependencies.");
-        Map<String, Map<String, List<BuildDependencyPattern>>> buildDependencies = getBuildDependencies(patternLines);
-        List<BuildPatternArtifactsRequest> artifactsRequests = toArtifactsRequests(buildDependencies);
+        // The patterns of each request, in the order of the requests
+        List<List<BuildDependencyPattern>> requestsPatterns = getBuildDependencies(patternLines);
+        List<BuildPatternArtifactsRequest> artifactsRequests = toArtifactsRequests(requestsPatterns);
         List<BuildPatternArtifacts> artifactsResponses = downloader.getArtifactoryManager().retrievePatternArtifacts(
                 artifactsRequests);
         Set<BuildDependency> result = new HashSet<>();
-        downloader.download(collectArtifactsToDownload(buildDependencies, artifactsRequests, artifactsResponses, result));
+        // Each artifact starts downloading as soon as it is matched to its pattern
+        try (DependenciesDownloaderHelper.ConcurrentDownload download =
+                     new DependenciesDownloaderHelper(downloader, log).startConcurrentDownload(downloadThreads)) {
+            collectArtifactsToDownload(requestsPatterns, artifactsResponses, result, download);
+            download.await();
+        }
         log.info("Finished resolving Build Info build dependencies.");
 
         return new ArrayList<>(result);
     }
 
-    private Map<String, Map<String, List<BuildDependencyPattern>>> getBuildDependencies(List<String> patternLines) {
-        Map<String, Map<String, List<BuildDependencyPattern>>> buildsMap = new HashMap<>();
+    /**
+     * Group the build dependency patterns by build name and number, each group is sent in a single request.
+     */
+    private List<List<BuildDependencyPattern>> getBuildDependencies(List<String> patternLines) {
+        Map<String, List<BuildDependencyPattern>> patternsByBuild = new LinkedHashMap<>();
         for (String patternLine : patternLines) {
             DependencyPattern dependencyPattern = PatternFactory.create(patternLine);
             if (dependencyPattern instanceof BuildDependencyPattern) {
                 BuildDependencyPattern buildDependencyPattern = (BuildDependencyPattern) dependencyPattern;
-                String buildName = buildDependencyPattern.getBuildName();
-                Map<String, List<BuildDependencyPattern>> numbersMap = buildsMap.get(buildName);
-                if (numbersMap == null) {
-                    buildsMap.put(buildName, new HashMap<>());
-                    numbersMap = buildsMap.get(buildName);
-                }
-
-                String buildNumber = buildDependencyPattern.getBuildNumber();
-                List<BuildDependencyPattern> dependencyPatternList = numbersMap.get(buildNumber);
-                if (dependencyPatternList == null) {
-                    numbersMap.put(buildNumber, new LinkedList<>());
-                    dependencyPatternList = numbersMap.get(buildNumber);
-                }
-                dependencyPatternList.add(buildDependencyPattern);
+                String buildKey = buildDependencyPattern.getBuildName() + '#' + buildDependencyPattern.getBuildNumber();
+                patternsByBuild.computeIfAbsent(buildKey, key -> new ArrayList<>()).add(buildDependencyPattern);
             }
         }
-
-
-        return buildsMap;
+        return new ArrayList<>(patternsByBuild.values());
     }
 
-    private List<BuildPatternArtifactsRequest> toArtifactsRequests(
-            Map<String, Map<String, List<BuildDependencyPattern>>> dependencyPatterns) {
-        List<BuildPatternArtifactsRequest> artifactsRequests = new LinkedList<>();
-        for (String buildName : dependencyPatterns.keySet()) {
-            Map<String, List<BuildDependencyPattern>> buildNumbers = dependencyPatterns.get(buildName);
-            for (String buildNumber : buildNumbers.keySet()) {
-                List<BuildDependencyPattern> buildDependencyPatterns = buildNumbers.get(buildNumber);
-                BuildPatternArtifactsRequestBuilder builder = new BuildPatternArtifactsRequestBuilder()
-                        .buildName(buildName).buildNumber(buildNumber);
-                for (BuildDependencyPattern buildDependencyPattern : buildDependencyPatterns) {
-                    builder.pattern(buildDependencyPattern.getPattern());
-                }
-                artifactsRequests.add(builder.build());
+    private List<BuildPatternArtifactsRequest> toArtifactsRequests(List<List<BuildDependencyPattern>> requestsPatterns) {
+        List<BuildPatternArtifactsRequest> artifactsRequests = new ArrayList<>(requestsPatterns.size());
+        for (List<BuildDependencyPattern> buildDependencyPatterns : requestsPatterns) {
+            BuildDependencyPattern firstPattern = buildDependencyPatterns.get(0);
+            BuildPatternArtifactsRequestBuilder builder = new BuildPatternArtifactsRequestBuilder()
+                    .buildName(firstPattern.getBuildName()).buildNumber(firstPattern.getBuildNumber());
+            for (BuildDependencyPattern buildDependencyPattern : buildDependencyPatterns) {
+                builder.pattern(buildDependencyPattern.getPattern());
             }
+            artifactsRequests.add(builder.build());
         }
 
         return artifactsRequests;
     }
 
-    private Set<DownloadableArtifact> collectArtifactsToDownload(
-            Map<String, Map<String, List<BuildDependencyPattern>>> dependencyPatterns,
-            List<BuildPatternArtifactsRequest> artifactsRequests, List<BuildPatternArtifacts> artifactsResponses,
-            Set<BuildDependency> buildDependencies) {
-        Set<DownloadableArtifact> downloadableArtifacts = new HashSet<>();
-        verifySameSize(artifactsRequests, artifactsResponses);
+    /**
+     * Match each response to the patterns of its request, by their index, and submit the matched artifacts to the
+     * download.
+     */
+    private void collectArtifactsToDownload(List<List<BuildDependencyPattern>> requestsPatterns,
+                                            List<BuildPatternArtifacts> artifactsResponses,
+                                            Set<BuildDependency> buildDependencies,
+                                            DependenciesDownloaderHelper.ConcurrentDownload download) {
+        verifySameSize(requestsPatterns, artifactsResponses);
 
-        for (int i = 0; i < artifactsRequests.size(); i++) {
+        for (int i = 0; i < requestsPatterns.size(); i++) {
             BuildPatternArtifacts artifacts = artifactsResponses.get(i);
             if (artifacts == null) {
                 // Pattern didn't match any results: wrong build name or build number.
                 continue;
             }
 
-
-            List<BuildDependencyPattern> buildDependencyPatterns = dependencyPatterns.get(artifacts.getBuildName()).get(
-                    artifactsRequests.get(i).getBuildNumber());
+            List<BuildDependencyPattern> buildDependencyPatterns = requestsPatterns.get(i);
             for (int j = 0; j < buildDependencyPatterns.size(); j++) {
                 BuildDependencyPattern buildDependencyPattern = buildDependencyPatterns.get(j);
                 if (!buildDependencyPattern.getBuildName().equals(artifacts.getBuildName())) {
@@ -163,7 +166,7 @@ public class BuildDependenciesHelper {
                         final String repoUrl = patternArtifact.getArtifactoryUrl() + '/' + uri.substring(0,
                                 indexOfFirstSlash);
                         final String filePath = uri.substring(indexOfFirstSlash + 1);
-                        downloadableArtifacts.add(
+                        download.submit(
                                 new DownloadableArtifact(repoUrl, buildDependencyPattern.getTargetDirectory(), filePath,
                                         buildDependencyPattern.getMatrixParams(), buildDependencyPattern.getPattern(),
                                         buildDependencyPattern.getPatternType()));
@@ -181,8 +184,6 @@ public class BuildDependenciesHelper {
                 }
             }
         }
-
-        return downloadableArtifacts;
     }
 
     /**
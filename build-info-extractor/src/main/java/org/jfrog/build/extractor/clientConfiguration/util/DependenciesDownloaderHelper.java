@@ -24,6 +24,12 @@ import org.jfrog.filespecs.entities.FilesGroup;
 import java.io.*;
 import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Pattern;
 
 import static org.jfrog.build.api.util.FileChecksumCalculator.*;
@@ -68,51 +74,62 @@ public class DependenciesDownloaderHelper {
      */
     public List<Dependency> downloadDependencies(FileSpec downloadSpec) throws IOException {
         ArtifactorySearcher searcher = new ArtifactorySearcher(downloader.getArtifactoryManager(), log);
-        Set<DownloadableArtifact> downloadableArtifacts;
-        List<AqlSearchResult.SearchEntry> searchResults;
         HashSet<Dependency> resolvedDependencies = new HashSet<>();
 
         for (FilesGroup file : downloadSpec.getFiles()) {
             log.debug("Downloading dependencies using spec: \n" + file.toString());
             this.downloader.setFlatDownload(BooleanUtils.toBoolean(file.getFlat()));
-            searchResults = searcher.SearchByFileSpec(file);
-            downloadableArtifacts = fetchDownloadableArtifactsFromResult(searchResults, Boolean.valueOf(file.getExplode()), file.getTarget());
-            if (file.getSpecType() == FilesGroup.SpecType.PATTERN) {
-                replaceTargetPlaceholders(file.getPattern(), downloadableArtifacts, file.getTarget());
-            }
-            resolvedDependencies.addAll(downloadDependencies(downloadableArtifacts));
+            boolean explode = Boolean.valueOf(file.getExplode());
+            String target = file.getTarget();
+            Pattern targetPlaceholdersPattern = file.getSpecType() == FilesGroup.SpecType.PATTERN ?
+                    createTargetPlaceholdersPattern(file.getPattern()) : null;
+            Set<DownloadableArtifact> downloadedArtifacts = new HashSet<>();
+
+            log.info("Beginning to resolve Build Info published dependencies.");
+            // Download each search result as soon as it is found, rather than waiting for the whole search to complete.
+            searcher.SearchByFileSpec(file, searchEntry -> {
+                DownloadableArtifact downloadableArtifact = createDownloadableArtifact(searchEntry, explode, target);
+                if (targetPlaceholdersPattern != null) {
+                    replaceTargetPlaceholders(targetPlaceholdersPattern, downloadableArtifact, target);
+                }
+                Dependency dependency = downloadArtifact(downloadableArtifact);
+                if (dependency != null) {
+                    resolvedDependencies.add(dependency);
+                    downloadedArtifacts.add(downloadableArtifact);
+                    explodeDependenciesIfNeeded(downloadableArtifact);
+                }
+            });
+            removeUnusedArtifactsFromLocal(downloadedArtifacts);
+            log.info("Finished resolving Build Info published dependencies.");
         }
         return new ArrayList<>(resolvedDependencies);
     }
 
-    private void replaceTargetPlaceholders(String searchPattern, Set<DownloadableArtifact> downloadableArtifacts, String target) {
+    private Pattern createTargetPlaceholdersPattern(String searchPattern) {
         searchPattern = StringUtils.substringAfter(searchPattern, "/");
-        Pattern pattern = Pattern.compile(PathsUtils.pathToRegExp(searchPattern));
+        return Pattern.compile(PathsUtils.pathToRegExp(searchPattern));
+    }
+
+    private void replaceTargetPlaceholders(Pattern pattern, DownloadableArtifact artifact, String target) {
         target = StringUtils.defaultIfEmpty(target, "");
-        for (DownloadableArtifact artifact : downloadableArtifacts) {
-            if (StringUtils.isEmpty(target) || target.endsWith("/")) {
-                artifact.setTargetDirPath(PathsUtils.reformatRegexp(artifact.getFilePath(), target, pattern));
-            } else {
-                String targetAfterReplacement = PathsUtils.reformatRegexp(artifact.getFilePath(), target, pattern);
-                Map<String, String> targetFileName = PathsUtils.replaceFilesName(targetAfterReplacement, artifact.getRelativeDirPath());
-                artifact.setRelativeDirPath(targetFileName.get("srcPath"));
-                artifact.setTargetDirPath(targetFileName.get("targetPath"));
-            }
+        if (StringUtils.isEmpty(target) || target.endsWith("/")) {
+            artifact.setTargetDirPath(PathsUtils.reformatRegexp(artifact.getFilePath(), target, pattern));
+        } else {
+            String targetAfterReplacement = PathsUtils.reformatRegexp(artifact.getFilePath(), target, pattern);
+            Map<String, String> targetFileName = PathsUtils.replaceFilesName(targetAfterReplacement, artifact.getRelativeDirPath());
+            artifact.setRelativeDirPath(targetFileName.get("srcPath"));
+            artifact.setTargetDirPath(targetFileName.get("targetPath"));
         }
     }
 
     /**
-     * Converts the found results to DownloadableArtifact types before downloading.
+     * Converts a found result to a DownloadableArtifact type before downloading.
      */
-    private Set<DownloadableArtifact> fetchDownloadableArtifactsFromResult(List<AqlSearchResult.SearchEntry> searchResults, boolean explode, String target) {
-        Set<DownloadableArtifact> downloadableArtifacts = new HashSet<>();
-        for (AqlSearchResult.SearchEntry searchEntry : searchResults) {
-            String path = searchEntry.getPath().equals(".") ? "" : searchEntry.getPath() + "/";
-            DownloadableArtifact downloadableArtifact = new DownloadableArtifact(searchEntry.getRepo(), target, path + searchEntry.getName(), "", "", PatternType.NORMAL);
-            downloadableArtifact.setExplode(explode);
-            downloadableArtifacts.add(downloadableArtifact);
-        }
-        return downloadableArtifacts;
+    private DownloadableArtifact createDownloadableArtifact(AqlSearchResult.SearchEntry searchEntry, boolean explode, String target) {
+        String path = searchEntry.getPath().equals(".") ? "" : searchEntry.getPath() + "/";
+        DownloadableArtifact downloadableArtifact = new DownloadableArtifact(searchEntry.getRepo(), target, path + searchEntry.getName(), "", "", PatternType.NORMAL);
+        downloadableArtifact.setExplode(explode);
+        return downloadableArtifact;
     }
 
     public List<Dependency> downloadDependencies(Set<DownloadableArtifact> downloadableArtifacts) throws IOException {
@@ -120,11 +137,10 @@ public class DependenciesDownloaderHelper {
         List<Dependency> dependencies = new ArrayList<>();
         Set<DownloadableArtifact> downloadedArtifacts = new HashSet<>();
         for (DownloadableArtifact downloadableArtifact : downloadableArtifacts) {
-            Dependency dependency = downloadArtifact(downloadableArtifact);
+            Dependency dependency = downloadDependency(downloadableArtifact);
             if (dependency != null) {
                 dependencies.add(dependency);
                 downloadedArtifacts.add(downloadableArtifact);
-                explodeDependenciesIfNeeded(downloadableArtifact);
             }
         }
 
@@ -133,6 +149,33 @@ public class DependenciesDownloaderHelper {
         return dependencies;
     }
 
+    /**
+     * Start downloading dependencies concurrently. Each artifact submitted to the returned download starts downloading
+     * as soon as one of the download threads is free, so the artifacts can be submitted while they are still being
+     * collected. All the threads share the connection pool of the Artifactory manager.
+     *
+     * @param threads the max number of artifacts to download at once
+     * @return the concurrent download. Must be closed
+     */
+    public ConcurrentDownload startConcurrentDownload(int threads) {
+        log.info("Beginning to resolve Build Info published dependencies.");
+        return new ConcurrentDownload(threads);
+    }
+
+    /**
+     * Download an artifact and extract it if needed.
+     *
+     * @param downloadableArtifact download recipe
+     * @return artifact dependency, or null if the artifact is a folder
+     */
+    private Dependency downloadDependency(DownloadableArtifact downloadableArtifact) throws IOException {
+        Dependency dependency = downloadArtifact(downloadableArtifact);
+        if (dependency != null) {
+            explodeDependenciesIfNeeded(downloadableArtifact);
+        }
+        return dependency;
+    }
+
     private void explodeDependenciesIfNeeded(DownloadableArtifact downloadableArtifact) throws IOException {
         if (!downloadableArtifact.isExplode()) {
             return;
@@ -430,6 +473,90 @@ public class DependenciesDownloaderHelper {
         log.error(String.format("[Thread %s] downloading %s as part of file %s threw an exception: %s", Thread.currentThread().getName(), downloadPath, uriWithParams, sw.toString()));
     }
 
+    /**
+     * Downloads the submitted artifacts on a bounded number of threads.<br>
+     * Artifacts with the same local destination are downloaded one after the other, so that two patterns resolving to
+     * the same file don't write it at the same time. After a failure, artifacts which didn't start downloading are
+     * skipped, and the failures are reported by {@link #await()}.
+     */
+    public class ConcurrentDownload implements AutoCloseable {
+        private final ExecutorService executor;
+        private final Map<DownloadableArtifact, Future<Dependency>> downloads = new LinkedHashMap<>();
+        private final Map<String, Object> destinationLocks = new ConcurrentHashMap<>();
+        private final AtomicBoolean failed = new AtomicBoolean();
+
+        private ConcurrentDownload(int threads) {
+            this.executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        }
+
+        /**
+         * Start downloading an artifact once a download thread is free.
+         *
+         * @param downloadableArtifact download recipe
+         */
+        public synchronized void submit(DownloadableArtifact downloadableArtifact) {
+            downloads.put(downloadableArtifact, executor.submit(() -> {
+                if (failed.get()) {
+                    return null;
+                }
+                String fileDestination = downloader.getTargetDir(downloadableArtifact.getTargetDirPath(),
+                        downloadableArtifact.getRelativeDirPath());
+                try {
+                    synchronized (destinationLocks.computeIfAbsent(fileDestination, destination -> new Object())) {
+                        return downloadDependency(downloadableArtifact);
+                    }
+                } catch (Exception e) {
+                    failed.set(true);
+                    throw e;
+                }
+            }));
+        }
+
+        /**
+         * Wait for all the submitted artifacts and remove the unused artifacts from the local file system.
+         *
+         * @return the downloaded dependencies, in the order their artifacts were submitted
+         * @throws IOException if any of the downloads failed. The exception is the failure of the first artifact, and
+         *                     the failures of the other artifacts are added as suppressed exceptions.
+         */
+        public synchronized List<Dependency> await() throws IOException {
+            List<Dependency> dependencies = new ArrayList<>();
+            Set<DownloadableArtifact> downloadedArtifacts = new HashSet<>();
+            IOException failure = null;
+            for (Map.Entry<DownloadableArtifact, Future<Dependency>> download : downloads.entrySet()) {
+                try {
+                    Dependency dependency = download.getValue().get();
+                    if (dependency != null) {
+                        dependencies.add(dependency);
+                        downloadedArtifacts.add(download.getKey());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while downloading dependencies", e);
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (failure == null) {
+                        failure = cause instanceof IOException ? (IOException) cause : new IOException(cause);
+                    } else {
+                        failure.addSuppressed(cause);
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+
+            removeUnusedArtifactsFromLocal(downloadedArtifacts);
+            log.info("Finished resolving Build Info published dependencies.");
+            return dependencies;
+        }
+
+        @Override
+        public void close() {
+            executor.shutdownNow();
+        }
+    }
+
     protected static class ArtifactMetaData {
         private String sha256;
         private String sha1;
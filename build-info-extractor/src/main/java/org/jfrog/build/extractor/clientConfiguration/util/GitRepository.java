@@ -0,0 +1,946 @@
+package org.jfrog.build.extractor.clientConfiguration.util;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jfrog.build.extractor.ci.Vcs;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Reads the metadata of a git repository in-process, without running the git executable.<br>
+ * HEAD is resolved through loose refs and packed-refs. Worktrees and submodules, whose .git is a file pointing to the
+ * actual git directory, are supported. Commits are read from loose objects and from pack files, including delta
+ * compressed objects.<br>
+ * Repositories are cached by their git directory, so all the modules of a build share the same instance.
+ */
+class GitRepository {
+    static final int OBJ_COMMIT = 1;
+    private static final int OBJ_OFS_DELTA = 6;
+    private static final int OBJ_REF_DELTA = 7;
+    private static final int OBJECT_ID_LENGTH = 20;
+    private static final int MAX_SYMBOLIC_REF_DEPTH = 5;
+    private static final int PACK_INDEX_V2_MAGIC = 0xff744f63;
+    // A full SHA-1 object name. Abbreviated revisions and SHA-256 object names aren't supported.
+    private static final Pattern OBJECT_ID_PATTERN = Pattern.compile("[0-9a-fA-F]{40}");
+    private static final Map<File, GitRepository> repositories = new ConcurrentHashMap<>();
+
+    // The directory of HEAD. For worktrees and submodules, this is not the .git directory of the working tree.
+    private final File gitDir;
+    // The directory of the refs, the objects and the config. Differs from the git directory only for worktrees.
+    private final File commonDir;
+    private volatile List<File> objectDirs;
+    // The pack indexes of each objects directory, loaded once and reloaded when the pack directory changes
+    private final Map<File, PackDirectory> packDirectories = new ConcurrentHashMap<>();
+    // The VCS details of the latest HEAD that was read, with the state they were read from
+    private volatile CachedVcs cachedVcs;
+
+    private GitRepository(File gitDir, File commonDir) {
+        this.gitDir = gitDir;
+        this.commonDir = commonDir;
+    }
+
+    /**
+     * Open the repository of a .git directory, or of a .git file of a worktree or a submodule.
+     *
+     * @param dotGit The .git directory or file
+     * @return the cached repository of the git directory
+     * @throws IOException If the git directory referenced by the .git file doesn't exist
+     */
+    static GitRepository open(File dotGit) throws IOException {
+        File gitDir = dotGit.isFile() ? resolvePath(dotGit.getParentFile(), readGitDirFile(dotGit)) : dotGit;
+        if (!gitDir.isDirectory()) {
+            throw new IOException("Could not find the git directory: " + gitDir);
+        }
+        gitDir = gitDir.getCanonicalFile();
+        File commonDirFile = new File(gitDir, "commondir");
+        File commonDir = commonDirFile.isFile() ?
+                resolvePath(gitDir, readFirstLine(commonDirFile)).getCanonicalFile() : gitDir;
+        return repositories.computeIfAbsent(gitDir, dir -> new GitRepository(dir, commonDir));
+    }
+
+    static void clearCache() {
+        repositories.clear();
+    }
+
+    File getGitDir() {
+        return gitDir;
+    }
+
+    /**
+     * @return the VCS details cached for the given HEAD state, or null if HEAD or the config changed since.
+     */
+    Vcs getCachedVcs(Head head) {
+        CachedVcs cached = cachedVcs;
+        if (cached == null || !cached.head.equals(head) || cached.configLastModified != getConfigFile().lastModified()) {
+            return null;
+        }
+        return copy(cached.vcs);
+    }
+
+    void setCachedVcs(Head head, Vcs vcs) {
+        cachedVcs = new CachedVcs(head, getConfigFile().lastModified(), copy(vcs));
+    }
+
+    /**
+     * Read HEAD and resolve it to a revision.
+     *
+     * @return the ref HEAD points to, or null if HEAD is detached, and the revision or an empty string if the ref
+     * couldn't be resolved.
+     */
+    Head readHead() throws IOException {
+        String head = readFirstLine(new File(gitDir, "HEAD"));
+        if (!head.startsWith("ref:")) {
+            return new Head(null, head.trim());
+        }
+        String ref = head.substring("ref:".length()).trim();
+        return new Head(ref, StringUtils.defaultString(resolveRef(ref)));
+    }
+
+    /**
+     * Resolve a ref to a revision, following symbolic refs.
+     *
+     * @param ref The full name of the ref, such as refs/heads/master
+     * @return the revision, or null if the ref doesn't exist
+     */
+    String resolveRef(String ref) throws IOException {
+        for (int depth = 0; depth < MAX_SYMBOLIC_REF_DEPTH; depth++) {
+            String value = readLooseRef(ref);
+            if (value == null) {
+                return readPackedRef(ref);
+            }
+            if (!value.startsWith("ref:")) {
+                return value;
+            }
+            ref = value.substring("ref:".length()).trim();
+        }
+        throw new IOException("Too many levels of symbolic refs: " + ref);
+    }
+
+    private String readLooseRef(String ref) throws IOException {
+        for (File dir : new File[]{gitDir, commonDir}) {
+            File refFile = new File(dir, ref);
+            if (refFile.isFile()) {
+                return readFirstLine(refFile).trim();
+            }
+        }
+        return null;
+    }
+
+    private String readPackedRef(String ref) throws IOException {
+        File packedRefs = new File(commonDir, "packed-refs");
+        if (!packedRefs.isFile()) {
+            return null;
+        }
+        for (String line : Files.readAllLines(packedRefs.toPath(), StandardCharsets.UTF_8)) {
+            // Skip comments and peeled tags
+            if (line.startsWith("#") || line.startsWith("^")) {
+                continue;
+            }
+            int separator = line.indexOf(' ');
+            if (separator > 0 && line.substring(separator + 1).trim().equals(ref)) {
+                return line.substring(0, separator);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the URL of the remote from the repository config, or an empty string if the remote has no URL.
+     */
+    String getRemoteUrl(String remote) throws IOException {
+        String remoteSection = "[remote \"" + remote + "\"]";
+        boolean inRemoteSection = false;
+        for (String line : Files.readAllLines(getConfigFile().toPath(), StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if (line.startsWith("[")) {
+                inRemoteSection = line.equals(remoteSection);
+                continue;
+            }
+            if (inRemoteSection && line.startsWith("url")) {
+                String[] split = line.split("=", 2);
+                if (split.length < 2) {
+                    throw new IOException("Failed to parse .git config");
+                }
+                return split[1].trim();
+            }
+        }
+        return "";
+    }
+
+    private File getConfigFile() {
+        return new File(commonDir, "config");
+    }
+
+    /**
+     * Read a commit.
+     *
+     * @param revision The full revision of the commit
+     * @return the parsed commit
+     * @throws MissingObjectException If the commit doesn't exist in the repository
+     */
+    Commit readCommit(String revision) throws IOException {
+        return readCommit(revision, readShallowCommits());
+    }
+
+    /**
+     * @param shallowCommits The commits whose parents are missing in a shallow clone, which are read as root commits
+     */
+    private Commit readCommit(String revision, Set<String> shallowCommits) throws IOException {
+        revision = revision.toLowerCase();
+        GitObject object = readObject(revision);
+        if (object.type != OBJ_COMMIT) {
+            throw new IOException("Object " + revision + " is not a commit");
+        }
+        Commit commit = Commit.parse(revision, object.data);
+        if (shallowCommits.contains(revision)) {
+            return new Commit(revision, Collections.emptyList(), commit.commitTime, commit.message);
+        }
+        return commit;
+    }
+
+    private Set<String> readShallowCommits() throws IOException {
+        File shallow = new File(commonDir, "shallow");
+        return shallow.isFile() ? new HashSet<>(Files.readAllLines(shallow.toPath(), StandardCharsets.UTF_8)) : Collections.emptySet();
+    }
+
+    /**
+     * Walk the commits reachable from a revision, the same as 'git log [excludeRevision..]revision'.
+     * The commits are returned from the latest to the earliest commit time. Commits with the same commit time are
+     * returned in the order they were reached.<br>
+     * When a revision is excluded, the walk is limited the same as git's: commits reached from the excluded revision are
+     * marked as uninteresting together with their already walked ancestors, and the walk continues a few commits after
+     * only uninteresting commits are left, in case of commits with skewed commit times.
+     *
+     * @param revision        The revision to start from
+     * @param excludeRevision Commits reachable from this revision are excluded. May be empty
+     * @param limit           The max number of commits to return
+     * @return the commits
+     * @throws GitUtils.RevisionNotFoundException If the excluded revision doesn't exist in the repository
+     * @throws MissingObjectException              If the revision or any of the ancestors doesn't exist in the repository
+     * @throws IOException                         If the excluded revision isn't a full SHA-1 object name, so the
+     *                                             repository can't tell whether it exists
+     */
+    List<Commit> log(String revision, String excludeRevision, int limit) throws IOException {
+        RevisionWalk walk = new RevisionWalk(readShallowCommits());
+        if (StringUtils.isEmpty(excludeRevision)) {
+            walk.add(revision);
+            List<Commit> result = new ArrayList<>();
+            while (!walk.isEmpty() && result.size() < limit) {
+                Commit commit = walk.next();
+                walk.addParents(commit);
+                result.add(commit);
+            }
+            return result;
+        }
+
+        if (!OBJECT_ID_PATTERN.matcher(excludeRevision).matches()) {
+            throw new IOException("Unsupported revision format: " + excludeRevision);
+        }
+        try {
+            walk.exclude(excludeRevision);
+        } catch (MissingObjectException e) {
+            throw new GitUtils.RevisionNotFoundException(excludeRevision);
+        }
+        walk.add(revision);
+        List<Commit> result = walk.limit();
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    private GitObject readObject(String revision) throws IOException {
+        byte[] objectId = parseObjectId(revision);
+        for (File objectDir : getObjectDirs()) {
+            File looseObject = new File(objectDir, revision.substring(0, 2) + File.separator + revision.substring(2));
+            if (looseObject.isFile()) {
+                return readLooseObject(looseObject);
+            }
+            GitObject packedObject = readPackedObject(objectDir, objectId, false);
+            if (packedObject != null) {
+                return packedObject;
+            }
+        }
+        // The packs may have been repacked since they were loaded, within the modification time resolution
+        for (File objectDir : getObjectDirs()) {
+            GitObject packedObject = readPackedObject(objectDir, objectId, true);
+            if (packedObject != null) {
+                return packedObject;
+            }
+        }
+        throw new MissingObjectException(revision);
+    }
+
+    /**
+     * @param reload True to reload the pack indexes of the objects directory even if the pack directory didn't change
+     * @return the object, or null if it is not in any of the packs of the objects directory
+     */
+    private GitObject readPackedObject(File objectDir, byte[] objectId, boolean reload) throws IOException {
+        for (PackIndex packIndex : getPackIndexes(objectDir, reload)) {
+            try {
+                long offset = packIndex.findOffset(objectId);
+                if (offset >= 0) {
+                    try (RandomAccessFile packFile = new RandomAccessFile(packIndex.pack, "r")) {
+                        return readPackedObject(packFile, offset);
+                    }
+                }
+            } catch (FileNotFoundException e) {
+                if (reload) {
+                    throw e;
+                }
+                // The pack was removed by a repack, so the pack indexes are reloaded
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private List<PackIndex> getPackIndexes(File objectDir, boolean reload) throws IOException {
+        File packDir = new File(objectDir, "pack");
+        long lastModified = packDir.lastModified();
+        PackDirectory packDirectory = packDirectories.get(objectDir);
+        if (packDirectory != null && !reload && packDirectory.lastModified == lastModified) {
+            return packDirectory.packIndexes;
+        }
+        File[] indexFiles = packDir.listFiles((dir, name) -> name.endsWith(".idx"));
+        List<PackIndex> packIndexes = new ArrayList<>();
+        if (indexFiles != null) {
+            for (File indexFile : indexFiles) {
+                // Pack files are never modified, so the indexes of the packs which weren't removed are kept
+                PackIndex packIndex = packDirectory == null ? null : packDirectory.find(indexFile);
+                packIndexes.add(packIndex != null ? packIndex : PackIndex.load(indexFile));
+            }
+        }
+        packDirectories.put(objectDir, new PackDirectory(lastModified, Collections.unmodifiableList(packIndexes)));
+        return packIndexes;
+    }
+
+    /**
+     * @return the objects directory of the repository, followed by its alternates.
+     */
+    private List<File> getObjectDirs() throws IOException {
+        if (objectDirs == null) {
+            List<File> dirs = new ArrayList<>();
+            File objectsDir = new File(commonDir, "objects");
+            dirs.add(objectsDir);
+            File alternates = new File(objectsDir, "info" + File.separator + "alternates");
+            if (alternates.isFile()) {
+                for (String line : Files.readAllLines(alternates.toPath(), StandardCharsets.UTF_8)) {
+                    if (StringUtils.isNotBlank(line) && !line.startsWith("#")) {
+                        dirs.add(resolvePath(objectsDir, line.trim()));
+                    }
+                }
+            }
+            objectDirs = Collections.unmodifiableList(dirs);
+        }
+        return objectDirs;
+    }
+
+    private static GitObject readLooseObject(File looseObject) throws IOException {
+        byte[] content;
+        try (InputStream inputStream = new InflaterInputStream(Files.newInputStream(looseObject.toPath()))) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            content = out.toByteArray();
+        }
+        // The header is "<type> <size>\0"
+        int headerEnd = indexOf(content, (byte) 0, 0);
+        int typeEnd = indexOf(content, (byte) ' ', 0);
+        if (headerEnd < 0 || typeEnd < 0 || typeEnd > headerEnd) {
+            throw new IOException("Corrupted git object: " + looseObject);
+        }
+        String type = new String(content, 0, typeEnd, StandardCharsets.US_ASCII);
+        return new GitObject("commit".equals(type) ? OBJ_COMMIT : 0, Arrays.copyOfRange(content, headerEnd + 1, content.length));
+    }
+
+    private GitObject readPackedObject(RandomAccessFile pack, long offset) throws IOException {
+        pack.seek(offset);
+        // The header is the type and the size of the data, in a variable length encoding
+        int b = pack.readUnsignedByte();
+        int type = (b >> 4) & 0x7;
+        long size = b & 0xf;
+        for (int shift = 4; (b & 0x80) != 0; shift += 7) {
+            b = pack.readUnsignedByte();
+            size |= (long) (b & 0x7f) << shift;
+        }
+
+        switch (type) {
+            case OBJ_OFS_DELTA: {
+                b = pack.readUnsignedByte();
+                long baseOffset = b & 0x7f;
+                while ((b & 0x80) != 0) {
+                    b = pack.readUnsignedByte();
+                    baseOffset = ((baseOffset + 1) << 7) | (b & 0x7f);
+                }
+                byte[] delta = inflate(pack, size);
+                GitObject base = readPackedObject(pack, offset - baseOffset);
+                return new GitObject(base.type, applyDelta(base.data, delta));
+            }
+            case OBJ_REF_DELTA: {
+                byte[] baseId = new byte[OBJECT_ID_LENGTH];
+                pack.readFully(baseId);
+                byte[] delta = inflate(pack, size);
+                GitObject base = readObject(toHex(baseId));
+                return new GitObject(base.type, applyDelta(base.data, delta));
+            }
+            default:
+                return new GitObject(type, inflate(pack, size));
+        }
+    }
+
+    /**
+     * Inflate the data at the current position of the pack.
+     */
+    private static byte[] inflate(RandomAccessFile pack, long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Git object too large: " + size);
+        }
+        byte[] data = new byte[(int) size];
+        byte[] buffer = new byte[8192];
+        Inflater inflater = new Inflater();
+        try {
+            int inflated = 0;
+            while (!inflater.finished()) {
+                if (inflater.needsInput()) {
+                    int read = pack.read(buffer);
+                    if (read == -1) {
+                        throw new EOFException("Unexpected end of pack file");
+                    }
+                    inflater.setInput(buffer, 0, read);
+                }
+                int count = inflater.inflate(data, inflated, data.length - inflated);
+                inflated += count;
+                if (count == 0 && inflated == data.length && !inflater.needsInput()) {
+                    // Let the inflater consume the end of the stream
+                    if (inflater.inflate(new byte[1]) > 0) {
+                        throw new IOException("Git object larger than its declared size");
+                    }
+                    break;
+                }
+            }
+            if (inflated != data.length) {
+                throw new IOException("Git object smaller than its declared size");
+            }
+            return data;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupted pack file", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Apply a git delta to its base object. The delta starts with the sizes of the base and the result, followed by
+     * instructions to either copy a range of the base or insert new data.
+     */
+    static byte[] applyDelta(byte[] base, byte[] delta) throws IOException {
+        int[] position = {0};
+        long baseSize = readDeltaSize(delta, position);
+        if (baseSize != base.length) {
+            throw new IOException("Corrupted git delta: base size mismatch");
+        }
+        byte[] result = new byte[(int) readDeltaSize(delta, position)];
+        int resultPosition = 0;
+        int i = position[0];
+        try {
+            while (i < delta.length) {
+                int instruction = delta[i++] & 0xff;
+                if ((instruction & 0x80) != 0) {
+                    // Copy from the base. The bits of the instruction mark which bytes of the offset and size follow.
+                    long copyOffset = 0;
+                    int copySize = 0;
+                    for (int bit = 0; bit < 4; bit++) {
+                        if ((instruction & (1 << bit)) != 0) {
+                            copyOffset |= (long) (delta[i++] & 0xff) << (bit * 8);
+                        }
+                    }
+                    for (int bit = 0; bit < 3; bit++) {
+                        if ((instruction & (0x10 << bit)) != 0) {
+                            copySize |= (delta[i++] & 0xff) << (bit * 8);
+                        }
+                    }
+                    if (copySize == 0) {
+                        copySize = 0x10000;
+                    }
+                    System.arraycopy(base, (int) copyOffset, result, resultPosition, copySize);
+                    resultPosition += copySize;
+                } else if (instruction != 0) {
+                    // Insert the next bytes of the delta
+                    System.arraycopy(delta, i, result, resultPosition, instruction);
+                    i += instruction;
+                    resultPosition += instruction;
+                } else {
+                    throw new IOException("Corrupted git delta: unexpected instruction");
+                }
+            }
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("Corrupted git delta", e);
+        }
+        if (resultPosition != result.length) {
+            throw new IOException("Corrupted git delta: result size mismatch");
+        }
+        return result;
+    }
+
+    private static long readDeltaSize(byte[] delta, int[] position) throws IOException {
+        long size = 0;
+        int shift = 0;
+        int b;
+        do {
+            if (position[0] >= delta.length) {
+                throw new IOException("Corrupted git delta: truncated header");
+            }
+            b = delta[position[0]++] & 0xff;
+            size |= (long) (b & 0x7f) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return size;
+    }
+
+    private static byte[] parseObjectId(String revision) throws IOException {
+        if (revision.length() != OBJECT_ID_LENGTH * 2) {
+            throw new MissingObjectException(revision);
+        }
+        byte[] objectId = new byte[OBJECT_ID_LENGTH];
+        for (int i = 0; i < OBJECT_ID_LENGTH; i++) {
+            int high = Character.digit(revision.charAt(i * 2), 16);
+            int low = Character.digit(revision.charAt(i * 2 + 1), 16);
+            if (high < 0 || low < 0) {
+                throw new MissingObjectException(revision);
+            }
+            objectId[i] = (byte) ((high << 4) | low);
+        }
+        return objectId;
+    }
+
+    private static String toHex(byte[] objectId) {
+        StringBuilder hex = new StringBuilder(objectId.length * 2);
+        for (byte b : objectId) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return hex.toString();
+    }
+
+    private static int compareUnsigned(byte[] a, byte[] b) {
+        for (int i = 0; i < a.length; i++) {
+            int compare = Integer.compare(a[i] & 0xff, b[i] & 0xff);
+            if (compare != 0) {
+                return compare;
+            }
+        }
+        return 0;
+    }
+
+    private static int indexOf(byte[] bytes, byte value, int from) {
+        for (int i = from; i < bytes.length; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String readGitDirFile(File dotGit) throws IOException {
+        // The first line of a .git file is the path to the actual git directory
+        String line = readFirstLine(dotGit);
+        if (!line.startsWith("gitdir:")) {
+            throw new IOException("Failed to parse .git path for submodule.");
+        }
+        return line.substring("gitdir:".length()).trim();
+    }
+
+    private static String readFirstLine(File file) throws IOException {
+        if (!file.isFile()) {
+            throw new FileNotFoundException(file.getPath());
+        }
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        return lines.isEmpty() ? "" : lines.get(0);
+    }
+
+    private static File resolvePath(File base, String path) {
+        File file = new File(path);
+        return file.isAbsolute() ? file : new File(base, path);
+    }
+
+    private static Vcs copy(Vcs vcs) {
+        return new Vcs(vcs.getUrl(), vcs.getRevision(), vcs.getBranch(), vcs.getMessage());
+    }
+
+    /**
+     * Thrown when an object doesn't exist in the repository.
+     */
+    static class MissingObjectException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        MissingObjectException(String revision) {
+            super("Could not find git object: " + revision);
+        }
+    }
+
+    /**
+     * The ref HEAD points to, or null if HEAD is detached, and the revision HEAD resolves to.
+     */
+    static class Head {
+        final String ref;
+        final String revision;
+
+        private Head(String ref, String revision) {
+            this.ref = ref;
+            this.revision = revision;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Head head = (Head) o;
+            return StringUtils.equals(ref, head.ref) && StringUtils.equals(revision, head.revision);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * StringUtils.defaultString(ref).hashCode() + revision.hashCode();
+        }
+    }
+
+    static class Commit {
+        final String revision;
+        final List<String> parents;
+        final long commitTime;
+        final String message;
+
+        private Commit(String revision, List<String> parents, long commitTime, String message) {
+            this.revision = revision;
+            this.parents = parents;
+            this.commitTime = commitTime;
+            this.message = message;
+        }
+
+        static Commit parse(String revision, byte[] data) {
+            String content = new String(data, StandardCharsets.UTF_8);
+            int headersEnd = content.indexOf("\n\n");
+            String headers = headersEnd < 0 ? content : content.substring(0, headersEnd);
+            List<String> parents = new ArrayList<>();
+            long commitTime = 0;
+            for (String header : headers.split("\n")) {
+                if (header.startsWith("parent ")) {
+                    parents.add(header.substring("parent ".length()).trim());
+                } else if (header.startsWith("committer ")) {
+                    // "committer <name> <<email>> <seconds since epoch> <timezone>"
+                    String[] split = header.split(" ");
+                    if (split.length >= 3) {
+                        commitTime = Long.parseLong(split[split.length - 2]);
+                    }
+                }
+            }
+            String message = headersEnd < 0 ? "" : content.substring(headersEnd + 2);
+            return new Commit(revision, parents, commitTime, message);
+        }
+
+        /**
+         * @return the subject of the commit message, the same as the '%s' format of 'git log'. The subject is the
+         * first paragraph of the message, joined to a single line.
+         */
+        String getSubject() {
+            StringBuilder subject = new StringBuilder();
+            for (String line : message.split("\n")) {
+                if (StringUtils.isBlank(line)) {
+                    if (subject.length() > 0) {
+                        break;
+                    }
+                    continue;
+                }
+                if (subject.length() > 0) {
+                    subject.append(' ');
+                }
+                subject.append(line.trim());
+            }
+            return subject.toString();
+        }
+    }
+
+    /**
+     * A commit walk, ordered the same as git's date ordered commit list.
+     */
+    private class RevisionWalk {
+        // The number of uninteresting commits to walk after only uninteresting commits are left, the same as git's
+        private static final int SLOP = 5;
+        private final Set<String> shallowCommits;
+        private final Map<String, Commit> seen = new HashMap<>();
+        private final Set<String> uninteresting = new HashSet<>();
+        private final PriorityQueue<QueuedCommit> queue = new PriorityQueue<>();
+        private long queuedCount;
+
+        RevisionWalk(Set<String> shallowCommits) {
+            this.shallowCommits = shallowCommits;
+        }
+
+        void add(String revision) throws IOException {
+            if (!seen.containsKey(revision)) {
+                enqueue(readCommit(revision, shallowCommits));
+            }
+        }
+
+        void exclude(String revision) throws IOException {
+            Commit commit = readCommit(revision, shallowCommits);
+            uninteresting.add(commit.revision);
+            markParentsUninteresting(commit);
+            if (!seen.containsKey(commit.revision)) {
+                enqueue(commit);
+            }
+        }
+
+        boolean isEmpty() {
+            return queue.isEmpty();
+        }
+
+        Commit next() {
+            return queue.poll().commit;
+        }
+
+        /**
+         * Queue the parents which were not reached yet. The parents of an uninteresting commit are uninteresting.
+         */
+        void addParents(Commit commit) throws IOException {
+            boolean isUninteresting = uninteresting.contains(commit.revision);
+            for (String parent : commit.parents) {
+                Commit parentCommit = seen.get(parent);
+                if (parentCommit == null) {
+                    parentCommit = readCommit(parent, shallowCommits);
+                    enqueue(parentCommit);
+                }
+                if (isUninteresting) {
+                    uninteresting.add(parent);
+                    markParentsUninteresting(parentCommit);
+                }
+            }
+        }
+
+        /**
+         * Walk until only uninteresting commits are left, the same as git's limit_list().
+         *
+         * @return the interesting commits
+         */
+        List<Commit> limit() throws IOException {
+            List<Commit> result = new ArrayList<>();
+            long lastInterestingTime = Long.MAX_VALUE;
+            int slop = SLOP;
+            while (!queue.isEmpty()) {
+                Commit commit = next();
+                addParents(commit);
+                if (uninteresting.contains(commit.revision)) {
+                    markParentsUninteresting(commit);
+                    slop = stillInteresting(lastInterestingTime, slop);
+                    if (slop > 0) {
+                        continue;
+                    }
+                    break;
+                }
+                lastInterestingTime = commit.commitTime;
+                result.add(commit);
+            }
+            // Commits may be reached from the excluded revision only after they were walked
+            result.removeIf(commit -> uninteresting.contains(commit.revision));
+            return result;
+        }
+
+        private int stillInteresting(long lastInterestingTime, int slop) {
+            QueuedCommit latest = queue.peek();
+            if (latest == null) {
+                return 0;
+            }
+            if (lastInterestingTime <= latest.commit.commitTime) {
+                return SLOP;
+            }
+            for (QueuedCommit queued : queue) {
+                if (!uninteresting.contains(queued.commit.revision)) {
+                    return SLOP;
+                }
+            }
+            return slop - 1;
+        }
+
+        /**
+         * Mark the ancestors of a commit as uninteresting. Ancestors which were not read yet are marked once they're
+         * walked.
+         */
+        private void markParentsUninteresting(Commit commit) {
+            Deque<String> pending = new ArrayDeque<>(commit.parents);
+            while (!pending.isEmpty()) {
+                String revision = pending.pop();
+                Commit parent = seen.get(revision);
+                if (uninteresting.add(revision) && parent != null) {
+                    pending.addAll(parent.parents);
+                }
+            }
+        }
+
+        private void enqueue(Commit commit) {
+            seen.put(commit.revision, commit);
+            queue.add(new QueuedCommit(commit, queuedCount++));
+        }
+    }
+
+    /**
+     * Orders commits from the latest to the earliest commit time, and by the queuing order for the same commit time.
+     */
+    private static class QueuedCommit implements Comparable<QueuedCommit> {
+        private final Commit commit;
+        private final long order;
+
+        QueuedCommit(Commit commit, long order) {
+            this.commit = commit;
+            this.order = order;
+        }
+
+        @Override
+        public int compareTo(QueuedCommit other) {
+            int result = Long.compare(other.commit.commitTime, commit.commitTime);
+            return result != 0 ? result : Long.compare(order, other.order);
+        }
+    }
+
+    private static class GitObject {
+        private final int type;
+        private final byte[] data;
+
+        private GitObject(int type, byte[] data) {
+            this.type = type;
+            this.data = data;
+        }
+    }
+
+    /**
+     * The pack indexes of an objects directory, and the modification time of the pack directory they were listed at.
+     */
+    private static class PackDirectory {
+        private final long lastModified;
+        private final List<PackIndex> packIndexes;
+
+        private PackDirectory(long lastModified, List<PackIndex> packIndexes) {
+            this.lastModified = lastModified;
+            this.packIndexes = packIndexes;
+        }
+
+        private PackIndex find(File indexFile) {
+            for (PackIndex packIndex : packIndexes) {
+                if (packIndex.index.equals(indexFile)) {
+                    return packIndex;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A version 2 pack index, with its fanout table loaded. The fanout table holds the number of objects whose first
+     * byte is less than or equal to each value, so it limits the search to the objects with the same first byte, and
+     * an index which has no such objects isn't opened at all.
+     */
+    private static class PackIndex {
+        private static final long OBJECT_IDS_START = 8 + 256 * 4L;
+
+        private final File index;
+        private final File pack;
+        private final int[] fanout;
+
+        private PackIndex(File index, int[] fanout) {
+            this.index = index;
+            this.pack = new File(index.getParentFile(), StringUtils.removeEnd(index.getName(), ".idx") + ".pack");
+            this.fanout = fanout;
+        }
+
+        private static PackIndex load(File index) throws IOException {
+            try (RandomAccessFile indexFile = new RandomAccessFile(index, "r")) {
+                if (indexFile.readInt() != PACK_INDEX_V2_MAGIC || indexFile.readInt() != 2) {
+                    throw new IOException("Unsupported pack index version: " + index);
+                }
+                int[] fanout = new int[256];
+                for (int i = 0; i < fanout.length; i++) {
+                    fanout[i] = indexFile.readInt();
+                }
+                return new PackIndex(index, fanout);
+            }
+        }
+
+        /**
+         * @return the offset of the object in the pack, or -1 if the object is not in the pack
+         */
+        private long findOffset(byte[] objectId) throws IOException {
+            int firstByte = objectId[0] & 0xff;
+            int low = firstByte > 0 ? fanout[firstByte - 1] : 0;
+            int high = fanout[firstByte];
+            if (low >= high) {
+                return -1;
+            }
+            int objectsCount = fanout[255];
+            try (RandomAccessFile indexFile = new RandomAccessFile(index, "r")) {
+                byte[] candidate = new byte[OBJECT_ID_LENGTH];
+                while (low < high) {
+                    int middle = (low + high) >>> 1;
+                    indexFile.seek(OBJECT_IDS_START + (long) middle * OBJECT_ID_LENGTH);
+                    indexFile.readFully(candidate);
+                    int compare = compareUnsigned(candidate, objectId);
+                    if (compare == 0) {
+                        // Skip the object IDs and the CRC32 table to the offsets table
+                        long offsetsStart = OBJECT_IDS_START + (long) objectsCount * (OBJECT_ID_LENGTH + 4);
+                        indexFile.seek(offsetsStart + middle * 4L);
+                        int offset = indexFile.readInt();
+                        if (offset >= 0) {
+                            return offset;
+                        }
+                        // The most significant bit marks an index into the 8 bytes offsets table
+                        indexFile.seek(offsetsStart + objectsCount * 4L + (offset & 0x7fffffff) * 8L);
+                        return indexFile.readLong();
+                    }
+                    if (compare < 0) {
+                        low = middle + 1;
+                    } else {
+                        high = middle;
+                    }
+                }
+                return -1;
+            }
+        }
+    }
+
+    private static class CachedVcs {
+        private final Head head;
+        private final long configLastModified;
+        private final Vcs vcs;
+
+        private CachedVcs(Head head, long configLastModified, Vcs vcs) {
+            this.head = head;
+            this.configLastModified = configLastModified;
+            this.vcs = vcs;
+        }
+    }
+}
@@ -7,9 +7,7 @@ import org.jfrog.build.extractor.ci.Vcs;
 import org.jfrog.build.extractor.executor.CommandExecutor;
 import org.jfrog.build.extractor.executor.CommandResults;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
@@ -30,6 +28,8 @@ public class GitUtils {
 
     /**
      * Extract Vcs details from .git configuration.
+     * The details are cached per repository, so modules of the same repository read them only once, as long as HEAD
+     * and the config don't change.
      *
      * @return Vcs with the details found, empty Vcs if failed to find .git directory
      */
@@ -41,73 +41,26 @@ public class GitUtils {
             return new Vcs();
         }
 
-        if (dotGit.isFile()) {
-            // dotGit is a file and not a directory, assume submodule.
-            dotGit = getSubmoduleDotGit(dotGit);
+        // For submodules and worktrees, dotGit is a file referencing the actual git directory
+        GitRepository repository = GitRepository.open(dotGit);
+        GitRepository.Head head = repository.readHead();
+        Vcs vcs = repository.getCachedVcs(head);
+        if (vcs != null) {
+            log.debug("Fetched Vcs details of " + repository.getGitDir() + " from cache.");
+            return vcs;
         }
 
-        Vcs vcs = new Vcs();
-        vcs.setRevision(extractVcsRevision(dotGit, log));
-        vcs.setUrl(extractVcsUrl(dotGit, log));
-        vcs.setMessage(extractVcsMessage(dotGit, log));
-        vcs.setBranch(extractVcsBranch(dotGit, log));
+        vcs = new Vcs();
+        vcs.setRevision(extractVcsRevision(head, log));
+        vcs.setUrl(extractVcsUrl(repository, log));
+        vcs.setMessage(extractVcsMessage(repository, head, log));
+        vcs.setBranch(extractVcsBranch(repository, head, log));
+        repository.setCachedVcs(head, vcs);
         return vcs;
     }
 
-    /**
-     * A submodule's .git is a file, referencing the actual path of the .git directory of the submodule.
-     * The actual .git directory is under the parent project's .git/modules directory.
-     *
-     * @param dotGit The .git file of the submodule
-     * @return File representing the actual .git directory of the submodule
-     * @throws IOException If fails to find the submodule's .gir directory
-     */
-    private static File getSubmoduleDotGit(File dotGit) throws IOException {
-        String dotGitRelativePathString = extractSubmoduleDotGitPath(dotGit);
-        String dotGitAbsolutePathString = dotGit.getParent() + File.separator + dotGitRelativePathString;
-        File dotGitFile = new File(dotGitAbsolutePathString);
-        if (!dotGitFile.exists()) {
-            throw new IOException("Could not find the .git directory of a submodule.");
-        }
-        return dotGitFile;
-    }
-
-    private static String extractSubmoduleDotGitPath(File dotGit) throws IOException {
-        // Read .git file - the first row is the path to the actual submodule's .git.
-        try (BufferedReader br = new BufferedReader(new FileReader(dotGit))) {
-            String line = br.readLine();
-            if (line != null && line.startsWith("gitdir: ")) {
-                return line.substring(line.indexOf(":") + 1).trim();
-            }
-        }
-        throw new IOException("Failed to parse .git path for submodule.");
-    }
-
-    private static String extractVcsUrl(File dotGit, Log log) throws IOException {
-        File pathToConfig = new File(dotGit, "config");
-
-        String originalUrl = "";
-        // Fetch url from config file
-        try (BufferedReader br = new BufferedReader(new FileReader(pathToConfig))) {
-            String line;
-            boolean isNextLineUrl = false;
-            while ((line = br.readLine()) != null) {
-                if (isNextLineUrl) {
-                    line = line.trim();
-                    if (line.startsWith("url")) {
-                        String[] split = line.split("=");
-                        if (split.length < 2) {
-                            throw new IOException("Failed to parse .git config");
-                        }
-                        originalUrl = split[1].trim();
-                        break;
-                    }
-                }
-                if (line.equals("[remote \"origin\"]")) {
-                    isNextLineUrl = true;
-                }
-            }
-        }
+    private static String extractVcsUrl(GitRepository repository, Log log) throws IOException {
+        String originalUrl = repository.getRemoteUrl("origin");
         if (!originalUrl.endsWith(".git")) {
             originalUrl += ".git";
         }
@@ -117,81 +70,38 @@ public class GitUtils {
         return maskedUrl;
     }
 
-    private static String extractVcsRevision(File dotGit, Log log) throws IOException {
-        RevisionOrRef revisionOrRef = getRevisionOrBranchPath(dotGit);
-
-        // If found revision, done
-        if (StringUtils.isNotEmpty(revisionOrRef.revision)) {
-            log.debug("Fetched revision from git config: " + revisionOrRef.revision);
-            return revisionOrRef.revision;
+    private static String extractVcsRevision(GitRepository.Head head, Log log) {
+        if (StringUtils.isNotEmpty(head.revision)) {
+            log.debug("Fetched revision from git config: " + head.revision);
+            return head.revision;
         }
-
-        // Else, if found ref try getting revision using it
-        File pathToRef = new File(dotGit, revisionOrRef.ref);
-        if (pathToRef.exists()) {
-            // Read HEAD file for ref or revision
-            try (BufferedReader br = new BufferedReader(new FileReader(pathToRef))) {
-                String line;
-                while ((line = br.readLine()) != null) {
-                    log.debug("Fetched revision from git config: " + line.trim());
-                    return line.trim();
-                }
-            }
-        } else {
-            // Try to find .git/packed-refs and look for the HEAD there
-            File pathToPackedRefs = new File(dotGit, "packed-refs");
-            if (pathToPackedRefs.exists()) {
-                try (BufferedReader br = new BufferedReader(new FileReader(pathToPackedRefs))) {
-                    String line;
-                    while ((line = br.readLine()) != null) {
-                        if (line.endsWith(revisionOrRef.ref)) {
-                            String[] split = line.split("\\s+");
-                            return split[0];
-                        }
-                    }
-                }
-            }
-        }
-
         // Could not find revision in ref
-        log.warn("Failed fetching revision from git config, from ref: " + revisionOrRef.ref);
+        log.warn("Failed fetching revision from git config, from ref: " + head.ref);
         return "";
     }
 
-    private static RevisionOrRef getRevisionOrBranchPath(File dotGit) throws IOException {
-        File pathToHead = new File(dotGit, "HEAD");
-        RevisionOrRef result = new RevisionOrRef();
-
-        // Read HEAD file for ref or revision
-        try (BufferedReader br = new BufferedReader(new FileReader(pathToHead))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (line.startsWith("ref")) {
-                    String[] split = line.split(":");
-                    if (split.length < 2) {
-                        throw new IOException("Failed to parse .git config");
-                    }
-                    result.ref = split[1].trim();
-                    return result;
-                }
-                result.revision = line;
-            }
-        }
-
-        return result;
-    }
-
-    private static String extractVcsBranch(File dotGit, Log log) throws IOException {
-        RevisionOrRef revisionOrRef = getRevisionOrBranchPath(dotGit);
+    private static String extractVcsBranch(GitRepository repository, GitRepository.Head head, Log log) {
         // If found ref, returns the name after the last "/" as the git branch name.
-        if (StringUtils.isNotBlank(revisionOrRef.ref)) {
-            String[] splitArr = revisionOrRef.ref.split("/");
+        if (StringUtils.isNotBlank(head.ref)) {
+            String[] splitArr = head.ref.split("/");
             return splitArr[splitArr.length - 1];
         }
-        log.debug("Failed fetching git branch from git directory: " + dotGit + ". Might be in detached head.");
+        log.debug("Failed fetching git branch from git directory: " + repository.getGitDir() + ". Might be in detached head.");
         return "";
     }
 
+    private static String extractVcsMessage(GitRepository repository, GitRepository.Head head, Log log) {
+        if (StringUtils.isNotEmpty(head.revision)) {
+            try {
+                return repository.readCommit(head.revision).getSubject();
+            } catch (IOException e) {
+                log.debug("Failed reading commit " + head.revision + " from git directory: " + repository.getGitDir() +
+                        ", falling back to git log: " + e.getMessage());
+            }
+        }
+        return extractVcsMessage(repository.getGitDir(), log);
+    }
+
     private static String extractVcsMessage(File dotGit, Log log) {
         String warnMessage = "Failed fetching commit message from git directory: " + dotGit + "\nWith the following error: ";
         try {
@@ -207,11 +117,43 @@ public class GitUtils {
     }
 
     /**
-     * This class is used in the process of extracting Vcs revision from the .git configuration
+     * Read the subjects of the commits reachable from HEAD, the same as 'git log --pretty=format:%s', without running
+     * the git executable.
+     *
+     * @param execDir             A directory in the git working tree
+     * @param previousVcsRevision If not empty, only commits which aren't reachable from this revision are read
+     * @param limit               The max number of commits, or 0 for the default limit
+     * @return the subjects, from the latest commit to the earliest
+     * @throws RevisionNotFoundException If the previous revision doesn't exist in the repository
+     * @throws IOException               If the repository can't be read
      */
-    private static class RevisionOrRef {
-        private String revision;
-        private String ref;
+    public static List<String> readCommitSubjects(File execDir, Log logger, String previousVcsRevision, int limit) throws IOException {
+        File dotGit = getDotGit(execDir);
+        if (dotGit == null) {
+            throw new IOException("Could not find the .git directory of " + execDir);
+        }
+        GitRepository repository = GitRepository.open(dotGit);
+        GitRepository.Head head = repository.readHead();
+        if (StringUtils.isEmpty(head.revision)) {
+            throw new IOException("Failed resolving HEAD of git directory: " + repository.getGitDir());
+        }
+        logger.debug("Reading git log of " + repository.getGitDir() + " from revision " + head.revision);
+        List<String> subjects = new ArrayList<>();
+        for (GitRepository.Commit commit : repository.log(head.revision, previousVcsRevision, limit == 0 ? Integer.parseInt(GIT_LOG_LIMIT) : limit)) {
+            subjects.add(commit.getSubject());
+        }
+        return subjects;
+    }
+
+    /**
+     * Thrown when a revision to read the git log from doesn't exist in the repository.
+     */
+    public static class RevisionNotFoundException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public RevisionNotFoundException(String revision) {
+            super("Revision " + revision + " does not exist in the git repository.");
+        }
     }
 
     public static CommandResults getGitLog(File execDir, Log logger, String previousVcsRevision) throws InterruptedException, IOException {
@@ -24,8 +24,20 @@ import org.jfrog.build.extractor.clientConfiguration.util.spec.UploadSpecHelper;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 /**
@@ -150,56 +162,129 @@ public class PublishedItemsHelper {
     @Deprecated
     public static Multimap<String, File> buildPublishingData(File checkoutDir, String pattern, String targetPath)
             throws IOException {
+        Multimap<String, String> patternPairs = HashMultimap.create();
+        patternPairs.put(pattern, targetPath);
+        return buildPublishingData(checkoutDir, patternPairs);
+    }
+
+    /**
+     * Building a multi map of target paths mapped to their files, for all the given pattern pairs.
+     * The file system is walked once for all the pairs, skipping directories which no pattern can match.
+     *
+     * @param checkoutDir  the base directory of which to calculate the source ant patterns
+     * @param patternPairs the Ant patterns to calculate the files from, mapped to the target paths for deployment
+     * @return a Multimap containing the targets as keys and the files as values
+     * @throws IOException in case of any file system exception
+     */
+    public static Multimap<String, File> buildPublishingData(File checkoutDir, Multimap<String, String> patternPairs)
+            throws IOException {
         final Multimap<String, File> filePathsMap = HashMultimap.create();
+        List<PublishingPattern> publishingPatterns = new ArrayList<>();
+        for (Map.Entry<String, String> patternPair : patternPairs.entries()) {
+            PublishingPattern publishingPattern = createPublishingPattern(checkoutDir, patternPair.getKey(),
+                    patternPair.getValue(), filePathsMap);
+            if (publishingPattern != null) {
+                publishingPatterns.add(publishingPattern);
+            }
+        }
+
+        // Collect all our artifacts according to the regular expressions, in one walk for each top directory
+        for (Path walkRoot : getWalkRoots(publishingPatterns)) {
+            if (Files.isDirectory(walkRoot)) {
+                Files.walkFileTree(walkRoot, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE,
+                        new PublishedItemsVisitor(publishingPatterns, filePathsMap));
+            }
+        }
+        return filePathsMap;
+    }
+
+    /**
+     * Analyzes a source Ant pattern to the directory to search in and the regular expression to match its files with.
+     * If the pattern is an absolute path of just one file, the file is added to the result map.
+     *
+     * @return the pattern to search files with, or null if there are no files to search.
+     */
+    private static PublishingPattern createPublishingPattern(File checkoutDir, String pattern, String targetPath,
+                                                             Multimap<String, File> filePathsMap) throws IOException {
         File patternAbsolutePath = getAbsolutePath(checkoutDir, pattern);
         if (patternAbsolutePath.isFile()) {
             // The given pattern is an absolute path of just one file, let's add it to our result map
             filePathsMap.put(targetPath, patternAbsolutePath);
-        } else {
-            Pattern filePattern = null;
-            File patternDir = null;
-            if (patternAbsolutePath.isDirectory()) {
-                // The given pattern is a path to a directory, we need to return all it's content
-                filePattern = Pattern.compile(".*");
-                patternDir = patternAbsolutePath;
-            } else if (pattern.indexOf('*') >= 0 || pattern.indexOf('?') >= 0) {
-                // We are dealing with complex Ant pattern, need to analyze it
-                File baseTruncationDir = getBaseTruncationDir(patternAbsolutePath);
-                patternDir = baseTruncationDir != null ? baseTruncationDir : checkoutDir;
-
-                // If the checkout dir is an ancestor of the pattern path then
-                // we cut the checkout dir from the pattern
-                boolean isCheckoutDirAncestor = isAncestor(checkoutDir, patternAbsolutePath);
-                if (isCheckoutDirAncestor) {
-                    pattern = pattern.substring(
-                            patternDir.getAbsolutePath().length() - checkoutDir.getAbsolutePath().length());
-                }
+            return null;
+        }
+        if (patternAbsolutePath.isDirectory()) {
+            // The given pattern is a path to a directory, we need to return all it's content
+            return new PublishingPattern(patternAbsolutePath, Pattern.compile(".*"), -1, targetPath);
+        }
+        if (pattern.indexOf('*') < 0 && pattern.indexOf('?') < 0) {
+            return null;
+        }
 
-                // If the pattern absolute path starts with the pattern directory path
-                // then we need to cut the pattern to be only the relative path
-                String patternAbsolutePathUrl = patternAbsolutePath.getAbsolutePath();
-                if (!StringUtils.isBlank(patternAbsolutePathUrl) && patternAbsolutePathUrl.startsWith(
-                        patternDir.getAbsolutePath())) {
-                    pattern = UploadSpecHelper.getRelativePath(patternDir, patternAbsolutePath);
-                }
+        // We are dealing with complex Ant pattern, need to analyze it
+        File baseTruncationDir = getBaseTruncationDir(patternAbsolutePath);
+        File patternDir = baseTruncationDir != null ? baseTruncationDir : checkoutDir;
+
+        // If the checkout dir is an ancestor of the pattern path then
+        // we cut the checkout dir from the pattern
+        boolean isCheckoutDirAncestor = isAncestor(checkoutDir, patternAbsolutePath);
+        if (isCheckoutDirAncestor) {
+            pattern = pattern.substring(
+                    patternDir.getAbsolutePath().length() - checkoutDir.getAbsolutePath().length());
+        }
+
+        // If the pattern absolute path starts with the pattern directory path
+        // then we need to cut the pattern to be only the relative path
+        String patternAbsolutePathUrl = patternAbsolutePath.getAbsolutePath();
+        if (!StringUtils.isBlank(patternAbsolutePathUrl) && patternAbsolutePathUrl.startsWith(
+                patternDir.getAbsolutePath())) {
+            pattern = UploadSpecHelper.getRelativePath(patternDir, patternAbsolutePath);
+        }
+
+        // All done, we can now convert and compile from Ant pattern to regular expression
+        return new PublishingPattern(patternDir, Pattern.compile(convertAntToRegexp(pattern)),
+                getMaxDirDepth(pattern), targetPath);
+    }
 
-                // All done, we can now convert and compile from Ant pattern to regular expression
-                filePattern = Pattern.compile(convertAntToRegexp(pattern));
+    /**
+     * Calculates the deepest directory, relatively to the pattern directory, which may contain files matching the
+     * given Ant pattern.
+     *
+     * @param antPattern the relative Ant pattern
+     * @return the max directory depth, or -1 if files at any depth may match
+     */
+    private static int getMaxDirDepth(String antPattern) {
+        if (antPattern.contains("**") || antPattern.endsWith("/") || antPattern.endsWith("\\")) {
+            return -1;
+        }
+        int start = !antPattern.startsWith("/") && !antPattern.startsWith("\\") ? 0 : 1;
+        int depth = 0;
+        for (int idx = start; idx < antPattern.length(); idx++) {
+            char ch = antPattern.charAt(idx);
+            if (ch == '/' || ch == '\\') {
+                depth++;
             }
+        }
+        return depth;
+    }
 
-            // If we successfully converted from Ant pattern to a regular expression
-            // then it's time to collect all our artifacts according to this regular expression
-            if (filePattern != null) {
-                List<File> files = new ArrayList<File>();
-                collectMatchedFiles(patternDir, patternDir, filePattern, files);
-                for (File file : files) {
-                    String fileTargetPath = UploadSpecHelper.calculateFileTargetPath(patternDir, file, targetPath);
-                    filePathsMap.put(fileTargetPath, file);
+    /**
+     * @return the directories of the patterns which aren't contained in the directory of another pattern.
+     */
+    private static Set<Path> getWalkRoots(List<PublishingPattern> publishingPatterns) {
+        Set<Path> walkRoots = new LinkedHashSet<>();
+        for (PublishingPattern publishingPattern : publishingPatterns) {
+            boolean nested = false;
+            for (PublishingPattern other : publishingPatterns) {
+                if (!publishingPattern.dir.equals(other.dir) && publishingPattern.dir.startsWith(other.dir)) {
+                    nested = true;
+                    break;
                 }
             }
+            if (!nested) {
+                walkRoots.add(publishingPattern.dir);
+            }
         }
-
-        return filePathsMap;
+        return walkRoots;
     }
 
     /**
@@ -381,27 +466,6 @@ public class PublishedItemsHelper {
         return builder.toString();
     }
 
-    private static void collectMatchedFiles(File absoluteRoot, File root, Pattern pattern, List files) {
-        File dirs[] = root.listFiles();
-        if (dirs == null) {
-            return;
-        }
-        File arr[] = dirs;
-        int len = arr.length;
-        for (int i = 0; i < len; i++) {
-            File dir = arr[i];
-            if (dir.isFile()) {
-                String path = UploadSpecHelper.getRelativePath(absoluteRoot, dir).replace("\\", "/");
-                //String path = absoluteRoot.getAbsolutePath();
-                if (pattern.matcher(path).matches()) {
-                    files.add(dir);
-                }
-            } else {
-                collectMatchedFiles(absoluteRoot, dir, pattern, files);
-            }
-        }
-    }
-
     // We need also take into account if we are doing a recursive search
     private static void collectMatchedFiles(File absoluteRoot, File root, Pattern pattern, List files, boolean recursive) {
         File dirs[] = root.listFiles();
@@ -516,4 +580,103 @@ public class PublishedItemsHelper {
         }
         return itemPathBuilder.toString();
     }
+
+    /**
+     * A source Ant pattern, analyzed to the directory to search in and the regular expression to match its files with.
+     */
+    private static class PublishingPattern {
+        private final Path dir;
+        private final File dirFile;
+        private final int dirPrefixLength;
+        private final Pattern filePattern;
+        private final int maxDirDepth;
+        private final String targetPath;
+
+        private PublishingPattern(File dir, Pattern filePattern, int maxDirDepth, String targetPath) {
+            this.dir = dir.toPath().toAbsolutePath().normalize();
+            this.dirFile = this.dir.toFile();
+            String dirPath = this.dir.toString();
+            this.dirPrefixLength = dirPath.endsWith(File.separator) ? dirPath.length() : dirPath.length() + 1;
+            this.filePattern = filePattern;
+            this.maxDirDepth = maxDirDepth;
+            this.targetPath = targetPath;
+        }
+
+        /**
+         * @param dir a directory contained in the pattern directory
+         * @return true if the files of the directory may match the pattern.
+         */
+        private boolean isDirWithinDepth(Path dir) {
+            return maxDirDepth < 0 || dir.getNameCount() - this.dir.getNameCount() <= maxDirDepth;
+        }
+
+        private String getRelativePath(Path file) {
+            String relativePath = file.toString().substring(dirPrefixLength);
+            return File.separatorChar == '/' ? relativePath : relativePath.replace(File.separatorChar, '/');
+        }
+    }
+
+    /**
+     * Matches the visited files against all the patterns whose directory contains them, and adds the matched files
+     * to the result map.
+     */
+    private static class PublishedItemsVisitor extends SimpleFileVisitor<Path> {
+        private final List<PublishingPattern> publishingPatterns;
+        private final Multimap<String, File> filePathsMap;
+        // The patterns which may match the files of each directory being visited
+        private final Deque<List<PublishingPattern>> matchingPatterns = new ArrayDeque<>();
+
+        private PublishedItemsVisitor(List<PublishingPattern> publishingPatterns, Multimap<String, File> filePathsMap) {
+            this.publishingPatterns = publishingPatterns;
+            this.filePathsMap = filePathsMap;
+        }
+
+        @Override
+        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+            List<PublishingPattern> dirPatterns = new ArrayList<>();
+            boolean containsPatternDir = false;
+            for (PublishingPattern publishingPattern : publishingPatterns) {
+                if (dir.startsWith(publishingPattern.dir)) {
+                    if (publishingPattern.isDirWithinDepth(dir)) {
+                        dirPatterns.add(publishingPattern);
+                    }
+                } else if (publishingPattern.dir.startsWith(dir)) {
+                    containsPatternDir = true;
+                }
+            }
+            if (dirPatterns.isEmpty() && !containsPatternDir) {
+                return FileVisitResult.SKIP_SUBTREE;
+            }
+            matchingPatterns.push(dirPatterns);
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+            if (!attrs.isRegularFile()) {
+                return FileVisitResult.CONTINUE;
+            }
+            for (PublishingPattern publishingPattern : matchingPatterns.peek()) {
+                if (publishingPattern.filePattern.matcher(publishingPattern.getRelativePath(file)).matches()) {
+                    File artifactFile = file.toFile();
+                    String fileTargetPath = UploadSpecHelper.calculateFileTargetPath(publishingPattern.dirFile,
+                            artifactFile, publishingPattern.targetPath);
+                    filePathsMap.put(fileTargetPath, artifactFile);
+                }
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(Path file, IOException exc) {
+            // Unreadable files and directories, and symbolic link cycles, are skipped
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult postVisitDirectory(Path dir, IOException exc) {
+            matchingPatterns.pop();
+            return FileVisitResult.CONTINUE;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,126 @@
+package org.jfrog.build.extractor.clientConfiguration.util.spec;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jfrog.build.api.util.Log;
+import org.jfrog.build.extractor.clientConfiguration.client.artifactory.ArtifactoryManager;
+import org.jfrog.build.extractor.clientConfiguration.deploy.DeployDetails;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Deploys artifacts by their content, so that each unique content is uploaded only once.
+ * The first deployment of each sha1 uploads the file. Other deployments of the same sha1 wait for it to finish, and then
+ * use checksum deploy, regardless of the file size. If the upload failed, they fall back to a regular deployment.
+ * <p>
+ * Contents which already exist in Artifactory can be found in advance by {@link #checkExistingContents(Collection)},
+ * so that all their deployments use checksum deploy.
+ * This class is thread safe and is shared by all the deployment consumers of an upload.
+ */
+public class ContentAddressedDeployer {
+    // The number of sha1 checksums to search for in each AQL query
+    private static final int SHA1_SEARCH_BATCH_SIZE = 500;
+
+    private final ConcurrentMap<String, CompletableFuture<Boolean>> contents = new ConcurrentHashMap<>();
+    private final ArtifactoryManager artifactoryManager;
+    private final Log log;
+
+    public ContentAddressedDeployer(ArtifactoryManager artifactoryManager, Log log) {
+        this.artifactoryManager = artifactoryManager;
+        this.log = log;
+    }
+
+    /**
+     * Searches for the given sha1 checksums in Artifactory, using one AQL query per {@value #SHA1_SEARCH_BATCH_SIZE}
+     * checksums. Deployments of the contents found will use checksum deploy.
+     *
+     * @param sha1s the sha1 checksums of the files to deploy
+     * @return the number of contents found in Artifactory
+     */
+    public int checkExistingContents(Collection<String> sha1s) throws IOException {
+        List<String> batch = new ArrayList<>(SHA1_SEARCH_BATCH_SIZE);
+        int found = 0;
+        for (String sha1 : sha1s) {
+            if (StringUtils.isBlank(sha1) || contents.containsKey(sha1)) {
+                continue;
+            }
+            batch.add(sha1);
+            if (batch.size() == SHA1_SEARCH_BATCH_SIZE) {
+                found += searchExistingContents(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            found += searchExistingContents(batch);
+        }
+        log.debug(String.format("Found %d of the deployed contents in Artifactory.", found));
+        return found;
+    }
+
+    private int searchExistingContents(List<String> sha1s) throws IOException {
+        StringBuilder aql = new StringBuilder("items.find({\"$or\":[");
+        for (int i = 0; i < sha1s.size(); i++) {
+            if (i > 0) {
+                aql.append(",");
+            }
+            aql.append("{\"actual_sha1\":\"").append(sha1s.get(i)).append("\"}");
+        }
+        // Users without admin privileges get a bad request for AQL queries which include 'actual_sha1' only
+        aql.append("]}).include(\"name\",\"repo\",\"path\",\"actual_sha1\")");
+        AtomicInteger found = new AtomicInteger();
+        artifactoryManager.searchArtifactsByAql(aql.toString(), entry -> {
+            if (contents.putIfAbsent(entry.getActualSha1(), CompletableFuture.completedFuture(true)) == null) {
+                found.incrementAndGet();
+            }
+        });
+        return found.get();
+    }
+
+    /**
+     * Deploys the artifact, uploading its content only if it wasn't uploaded before.
+     *
+     * @param details   the artifact to deploy
+     * @param logPrefix prefix for the deployment log messages
+     */
+    public void deploy(DeployDetails details, String logPrefix) throws IOException, InterruptedException {
+        String sha1 = details.getSha1();
+        if (StringUtils.isBlank(sha1) || details.isExplode()) {
+            // Exploded archives aren't stored by their checksum
+            artifactoryManager.upload(details, logPrefix);
+            return;
+        }
+        CompletableFuture<Boolean> upload = new CompletableFuture<>();
+        CompletableFuture<Boolean> existingUpload = contents.putIfAbsent(sha1, upload);
+        if (existingUpload == null) {
+            boolean succeeded = false;
+            try {
+                artifactoryManager.upload(details, logPrefix);
+                succeeded = true;
+            } finally {
+                upload.complete(succeeded);
+            }
+            return;
+        }
+        if (isUploaded(existingUpload)) {
+            // The content is already in Artifactory, so a checksum deploy is enough for any file size
+            artifactoryManager.upload(details, logPrefix, 0);
+        } else {
+            artifactoryManager.upload(details, logPrefix);
+        }
+    }
+
+    private static boolean isUploaded(CompletableFuture<Boolean> upload) throws InterruptedException {
+        try {
+            return upload.get();
+        } catch (ExecutionException e) {
+            return false;
+        }
+    }
+}
@@ -12,7 +12,6 @@ import org.jfrog.filespecs.entities.FilesGroup;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.security.NoSuchAlgorithmException;
 import java.util.*;
 import java.util.regex.Pattern;
@@ -41,7 +40,7 @@ public class SingleSpecDeploymentProducer {
     private boolean isRegexp;
     private boolean isAbsolutePath;
     private int separatorsCount;
-    private Set<String> symlinkSet = new HashSet<>();
+    private String patternLiteralPrefix;
 
     SingleSpecDeploymentProducer(FilesGroup spec, File workspace, Multimap<String, String> buildProperties) {
         this.spec = spec;
@@ -53,35 +52,34 @@ public class SingleSpecDeploymentProducer {
      * Executes a single FileSpec.
      * Find all files matching the spec, create and publish its DeployDetails.
      * @param deploymentSet Set containing the DeployDetails to deploy
+     * @param executor the executor to publish the DeployDetails to, or null to only add them to the deploymentSet
      */
     public void executeSpec(Set<DeployDetails> deploymentSet, ProducerConsumerExecutor executor)
             throws IOException, NoSuchAlgorithmException, InterruptedException {
         init();
-        File[] filesToScan = new File(baseDir).listFiles();
-        if (filesToScan == null) {
+        if (!baseDirFile.isDirectory()) {
             return;
         }
+        SpecFilesWalker walker = new SpecFilesWalker(baseDirFile, getWalkDepth(), isRegexp ? "" : patternLiteralPrefix,
+                file -> isFileMatchPattern(file.getAbsolutePath().replace("\\", "/"), regexpPattern, regexpExcludePattern, workspace, baseDirFile));
+        walker.walk(file -> processDeployCandidate(file, deploymentSet, executor));
+    }
 
-        for (File file : filesToScan) {
-            if (Thread.interrupted()) {
-                Thread.currentThread().interrupt();
-                break;
-            }
-
-            if (file.isFile()) {
-                processDeployCandidate(file, deploymentSet, executor);
-                continue;
-            }
-            if (isRecursive) {
-                collectFiles(file.getAbsolutePath(), -1, deploymentSet, executor);
-                continue;
-            }
-            if (!isRegexp) {
-                // In case of not recursive wildcard pattern we can stop scanning in certain depth.
-                // This depth is when the number of slashes in the path and base directory with pattern are equal.
-                collectFiles(file.getAbsolutePath(), separatorsCount, deploymentSet, executor);
-            }
+    /**
+     * Returns the depth of the files to collect, where the files in the base directory are in depth 1, or -1 to collect
+     * files from all sub-directories.
+     */
+    private int getWalkDepth() {
+        if (isRecursive) {
+            return -1;
+        }
+        if (isRegexp) {
+            return 0;
         }
+        // In case of not recursive wildcard pattern we can stop scanning in certain depth.
+        // This depth is when the number of slashes in the path and base directory with pattern are equal.
+        int baseDirSeparatorsCount = StringUtils.countMatches(new File(baseDirFile.getAbsoluteFile(), "x").getPath(), File.separator) - 1;
+        return Math.max(0, separatorsCount - baseDirSeparatorsCount);
     }
 
     /**
@@ -116,6 +114,7 @@ public class SingleSpecDeploymentProducer {
             regexpPattern = Pattern.compile(PathsUtils.pathToRegExp(newPattern));
             // Convert wildcard to regexp before getUploadPathsMap
             patternForPath = PathsUtils.pathToRegExp(pattern);
+            patternLiteralPrefix = getLiteralPrefix(newPattern);
         }
 
         // Calculate number of separators
@@ -135,78 +134,13 @@ public class SingleSpecDeploymentProducer {
     }
 
     /**
-     * Check all file candidates for upload in the provided directory, to specified depth.
-     * @param dir base directory to start search for files
-     * @param depth level of folders to search in
-     * @param deploymentSet Set containing the DeployDetails to deploy
-     */
-    private void collectFiles(String dir, int depth, Set<DeployDetails> deploymentSet, ProducerConsumerExecutor executor)
-            throws IOException, NoSuchAlgorithmException, InterruptedException {
-        List<String> foldersToScan = new LinkedList<>();
-        foldersToScan.add(dir);
-
-        for (int i = 0; i < foldersToScan.size(); i++) {
-            if (Thread.interrupted()) {
-                Thread.currentThread().interrupt();
-                break;
-            }
-
-            String folderString = foldersToScan.get(i);
-
-            if (depth != -1 && !(StringUtils.countMatches(folderString, File.separator) <= depth)) {
-                continue;
-            }
-
-            File file = new File(folderString);
-            List<File> folderContent = new ArrayList<>();
-            File[] fileList = file.listFiles();
-            if (fileList != null) {
-                folderContent.addAll(Arrays.asList(fileList));
-            }
-            if (folderContent.isEmpty()) {
-                continue;
-            }
-
-            for (File entry : folderContent) {
-                if (Thread.interrupted()) {
-                    Thread.currentThread().interrupt();
-                    break;
-                }
-
-                if (entry.isDirectory()) {
-                    if (Files.isSymbolicLink(entry.toPath())) {
-                        // If symlink already exists, don't add it to foldersToScan
-                        if (!symlinkSet.add(entry.getCanonicalPath())) {
-                            continue;
-                        }
-                    }
-                    foldersToScan.add(entry.getAbsolutePath());
-                    continue;
-                }
-                // File can be candidate only if it in the correct depth or if the spec is recursive (depth == -1)
-                if (depth == -1 || StringUtils.countMatches(entry.getPath(), File.separator) == depth) {
-                    // Send this path for further process
-                    processDeployCandidate(entry, deploymentSet, executor);
-                }
-            }
-        }
-    }
-
-    /**
-     * Receives a candidate file to upload, creates DeployDetails for the file in case should upload it.
-     * Adds the DeployDetails to the BlockingQueue.
+     * Receives a file matching the spec, creates DeployDetails for the file in case should upload it.
+     * Adds the DeployDetails to the BlockingQueue, if an executor is provided.
      * @param file upload candidate
      * @param deploymentSet Set containing the DeployDetails to deploy
      */
     private void processDeployCandidate(File file, Set<DeployDetails> deploymentSet, ProducerConsumerExecutor executor)
             throws IOException, NoSuchAlgorithmException, InterruptedException {
-        String filePath = file.getAbsolutePath().replace("\\", "/");
-
-        // Check if matches pattern
-        if (!isFileMatchPattern(filePath, regexpPattern, regexpExcludePattern, workspace, baseDirFile)) {
-            return;
-        }
-
         // Get the upload path
         String uploadPath = UploadSpecHelper.getUploadPath(file, pathPattern, targetPath, isFlat, isAbsolutePath, workspace, isTargetDirectory);
 
@@ -217,10 +151,21 @@ public class SingleSpecDeploymentProducer {
         // Add the created DeploymentDetails if artifact hasn't been added for deployment yet
         if (deploymentSet.add(deployDetails)) {
             validateUploadLimit(deploymentSet.size());
-            executor.put(deployDetails);
+            if (executor != null) {
+                executor.put(deployDetails);
+            }
         }
     }
 
+    /**
+     * Returns the part of the wildcard pattern before its first wildcard or capture group.
+     * Only directories on the way to this prefix, or under it, may contain matching files.
+     */
+    private static String getLiteralPrefix(String wildcardPattern) {
+        int index = StringUtils.indexOfAny(wildcardPattern, '*', '?', '(', ')');
+        return index < 0 ? wildcardPattern : wildcardPattern.substring(0, index);
+    }
+
     /**
      * Checks if the provided file path matches spec's patterns
      * @param filePath to candidate file
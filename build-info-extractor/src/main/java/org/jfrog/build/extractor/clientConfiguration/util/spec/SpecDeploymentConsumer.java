@@ -19,9 +19,19 @@ public class SpecDeploymentConsumer extends ConsumerRunnableBase {
     private ProducerConsumerExecutor executor;
     private Log log;
     private final ArtifactoryManager ArtifactoryManager;
+    private final ContentAddressedDeployer deployer;
 
     public SpecDeploymentConsumer(ArtifactoryManager ArtifactoryManager) {
         this.ArtifactoryManager = ArtifactoryManager;
+        this.deployer = null;
+    }
+
+    /**
+     * @param deployer deploys each unique content once, shared by all the consumers of the upload
+     */
+    public SpecDeploymentConsumer(ContentAddressedDeployer deployer) {
+        this.ArtifactoryManager = null;
+        this.deployer = deployer;
     }
 
     @Override
@@ -36,7 +46,12 @@ public class SpecDeploymentConsumer extends ConsumerRunnableBase {
                     break;
                 }
                 // Perform artifact deploy
-                ArtifactoryManager.upload((DeployDetails) item, "[" + Thread.currentThread().getName() + "]");
+                String logPrefix = "[" + Thread.currentThread().getName() + "]";
+                if (deployer != null) {
+                    deployer.deploy((DeployDetails) item, logPrefix);
+                } else {
+                    ArtifactoryManager.upload((DeployDetails) item, logPrefix);
+                }
             } catch (InterruptedException e) {
                 return;
             } catch (IOException e) {
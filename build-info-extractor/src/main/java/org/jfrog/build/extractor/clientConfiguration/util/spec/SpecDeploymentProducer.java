@@ -9,6 +9,7 @@ import org.jfrog.filespecs.entities.FilesGroup;
 import java.io.File;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Producer object to use with the ProducerConsumerExecutor during artifact deployment by filespec operation.
@@ -25,11 +26,21 @@ public class SpecDeploymentProducer extends ProducerRunnableBase {
     private FileSpec spec;
     private File workspace;
     private Multimap<String, String> buildProperties;
+    /**
+     * If set, used to find the contents that already exist in Artifactory before the deployment starts
+     */
+    private ContentAddressedDeployer existingContentsChecker;
 
     SpecDeploymentProducer(FileSpec spec, File workspace, Multimap<String, String> buildProperties) {
+        this(spec, workspace, buildProperties, null);
+    }
+
+    SpecDeploymentProducer(FileSpec spec, File workspace, Multimap<String, String> buildProperties,
+                           ContentAddressedDeployer existingContentsChecker) {
         this.spec = spec;
         this.workspace = workspace;
         this.buildProperties = buildProperties;
+        this.existingContentsChecker = existingContentsChecker;
     }
 
     @Override
@@ -46,7 +57,15 @@ public class SpecDeploymentProducer extends ProducerRunnableBase {
 
                 // Execute FileSpec
                 SingleSpecDeploymentProducer fileSpecProducer = new SingleSpecDeploymentProducer(uploadFile, workspace, buildProperties);
-                fileSpecProducer.executeSpec(deployDetailsSet, executor);
+                // When checking for existing contents, the DeployDetails are published only after all of them are collected
+                fileSpecProducer.executeSpec(deployDetailsSet, existingContentsChecker == null ? executor : null);
+            }
+            if (existingContentsChecker != null && !Thread.currentThread().isInterrupted()) {
+                existingContentsChecker.checkExistingContents(deployDetailsSet.stream()
+                        .map(DeployDetails::getSha1).collect(Collectors.toSet()));
+                for (DeployDetails deployDetails : deployDetailsSet) {
+                    executor.put(deployDetails);
+                }
             }
         } catch (InterruptedException e) {
             throw e;
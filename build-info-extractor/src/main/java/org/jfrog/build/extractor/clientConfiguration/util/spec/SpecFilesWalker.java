@@ -0,0 +1,152 @@
+package org.jfrog.build.extractor.clientConfiguration.util.spec;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Walks the directory tree of an upload spec and hands the matching files to a {@link MatchedFileHandler}.
+ * Sub-directories are listed in parallel by a fork-join pool using {@link DirectoryStream}s, and the files are matched
+ * on the pool's threads. The matched files are handed to the handler on the calling thread, while the walk continues.
+ * <p>
+ * The depth of each directory is tracked by a counter, starting with 1 for the entries of the base directory.
+ * Symbolic links to directories are followed once per target, identified by its file key (inode), to avoid loops.
+ * Directories which can't contain a path starting with the literal prefix of the pattern are not listed.
+ */
+class SpecFilesWalker {
+    private static final int POLL_INTERVAL_MS = 100;
+
+    private final Path baseDir;
+    private final int depth;
+    private final String literalPrefix;
+    private final Predicate<File> fileFilter;
+    private final BlockingQueue<File> matchedFiles = new LinkedBlockingQueue<>();
+    private final Set<Object> visitedLinkTargets = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled;
+
+    /**
+     * @param baseDir       the directory to start the walk from
+     * @param depth         -1 to walk all sub-directories, or the depth of the files to match. Files in the base directory
+     *                      are always matched, and directories deeper than this depth are not listed
+     * @param literalPrefix the part of the pattern before its first wildcard, relative to the base directory and
+     *                      separated by '/'. Empty if directories should not be pruned
+     * @param fileFilter    accepts the files to hand to the handler
+     */
+    SpecFilesWalker(File baseDir, int depth, String literalPrefix, Predicate<File> fileFilter) {
+        this.baseDir = baseDir.getAbsoluteFile().toPath();
+        this.depth = depth;
+        this.literalPrefix = literalPrefix;
+        this.fileFilter = fileFilter;
+    }
+
+    /**
+     * Walks the tree and hands each matched file to the handler.
+     * Directories which can't be listed are skipped.
+     *
+     * @param handler receives the matched files, on the calling thread
+     */
+    void walk(MatchedFileHandler handler) throws IOException, NoSuchAlgorithmException, InterruptedException {
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try {
+            ForkJoinTask<Void> walkTask = pool.submit(new ListDirectoryAction(baseDir, 0, ""));
+            while (true) {
+                File file = matchedFiles.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (file != null) {
+                    handler.handle(file);
+                } else if (walkTask.isDone() && matchedFiles.isEmpty()) {
+                    break;
+                }
+            }
+            // Rethrow unchecked exceptions thrown by the file filter
+            walkTask.join();
+        } finally {
+            cancelled = true;
+            pool.shutdownNow();
+        }
+    }
+
+    private boolean isFileCandidate(int fileDepth) {
+        return fileDepth == 1 || depth == -1 || fileDepth == depth;
+    }
+
+    private boolean shouldListDirectory(int dirDepth, String relativePath) {
+        if (depth != -1 && dirDepth > depth) {
+            return false;
+        }
+        return relativePath.startsWith(literalPrefix) || literalPrefix.startsWith(relativePath);
+    }
+
+    /**
+     * Returns false if the directory is a symbolic link to a directory which was already reached by a symbolic link.
+     */
+    private boolean markVisited(Path dir) throws IOException {
+        if (!Files.isSymbolicLink(dir)) {
+            return true;
+        }
+        Object fileKey = Files.readAttributes(dir, BasicFileAttributes.class).fileKey();
+        // File keys aren't available on all platforms
+        return visitedLinkTargets.add(fileKey != null ? fileKey : dir.toRealPath());
+    }
+
+    private class ListDirectoryAction extends RecursiveAction {
+        private final Path dir;
+        private final int dirDepth;
+        private final String relativePath;
+
+        ListDirectoryAction(Path dir, int dirDepth, String relativePath) {
+            this.dir = dir;
+            this.dirDepth = dirDepth;
+            this.relativePath = relativePath;
+        }
+
+        @Override
+        protected void compute() {
+            List<ListDirectoryAction> subDirActions = new ArrayList<>();
+            int entryDepth = dirDepth + 1;
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+                for (Path entry : entries) {
+                    if (cancelled) {
+                        return;
+                    }
+                    if (!Files.isDirectory(entry)) {
+                        if (isFileCandidate(entryDepth) && fileFilter.test(entry.toFile())) {
+                            matchedFiles.add(entry.toFile());
+                        }
+                        continue;
+                    }
+                    String entryRelativePath = relativePath + entry.getFileName() + "/";
+                    try {
+                        if (shouldListDirectory(entryDepth, entryRelativePath) && markVisited(entry)) {
+                            subDirActions.add(new ListDirectoryAction(entry, entryDepth, entryRelativePath));
+                        }
+                    } catch (IOException e) {
+                        // Skip only the symbolic link which can't be resolved
+                    }
+                }
+            } catch (IOException | DirectoryIteratorException e) {
+                // Skip directories which can't be read, as File.listFiles() does
+            }
+            invokeAll(subDirActions);
+        }
+    }
+
+    interface MatchedFileHandler {
+        void handle(File file) throws IOException, NoSuchAlgorithmException, InterruptedException;
+    }
+}
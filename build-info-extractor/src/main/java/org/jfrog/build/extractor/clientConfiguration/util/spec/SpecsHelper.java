@@ -84,16 +84,40 @@ public class SpecsHelper {
     public List<Artifact> uploadArtifactsBySpec(String uploadSpec, int numberOfThreads, File workspace,
                                                 Multimap<String, String> buildProperties,
                                                 ArtifactoryManagerBuilder artifactoryManagerBuilder) throws Exception {
+        return uploadArtifactsBySpec(uploadSpec, numberOfThreads, workspace, buildProperties, artifactoryManagerBuilder, false);
+    }
+
+    /**
+     * Upload artifacts according to a given spec, return a list describing the deployed items.
+     * Each unique content is uploaded once, and the other artifacts with the same content are deployed by checksum.
+     *
+     * @param uploadSpec                The required spec represented as String
+     * @param numberOfThreads           Number of concurrent threads to use for handling uploads
+     * @param workspace                 File object that represents the workspace
+     * @param buildProperties           Upload properties
+     * @param artifactoryManagerBuilder ArtifactoryManagerBuilder which will build the ArtifactoryManager per the number of passed threads number to perform the actual upload
+     * @param checkExistingContents     If true, collect all the artifacts before deploying them, and search Artifactory
+     *                                  for their checksums, so that contents which already exist are deployed by checksum
+     * @return Set of DeployDetails that was calculated from the given params
+     * @throws IOException Thrown if any error occurs while reading the file, calculating the
+     *                     checksums or in case of any file system exception
+     */
+    public List<Artifact> uploadArtifactsBySpec(String uploadSpec, int numberOfThreads, File workspace,
+                                                Multimap<String, String> buildProperties,
+                                                ArtifactoryManagerBuilder artifactoryManagerBuilder,
+                                                boolean checkExistingContents) throws Exception {
         FileSpec fileSpec = FileSpec.fromString(uploadSpec);
         FileSpecsValidation.validateUploadFileSpec(fileSpec, this.log);
 
         try (ArtifactoryManager artifactoryManager = artifactoryManagerBuilder.build()) {
+            ContentAddressedDeployer deployer = new ContentAddressedDeployer(artifactoryManager, log);
             // Create producer Runnable
-            ProducerRunnableBase[] producerRunnable = new ProducerRunnableBase[]{new SpecDeploymentProducer(fileSpec, workspace, buildProperties)};
+            ProducerRunnableBase[] producerRunnable = new ProducerRunnableBase[]{new SpecDeploymentProducer(fileSpec,
+                    workspace, buildProperties, checkExistingContents ? deployer : null)};
             // Create consumer Runnables
             ConsumerRunnableBase[] consumerRunnables = new ConsumerRunnableBase[numberOfThreads];
             for (int i = 0; i < numberOfThreads; i++) {
-                consumerRunnables[i] = new SpecDeploymentConsumer(artifactoryManager);
+                consumerRunnables[i] = new SpecDeploymentConsumer(deployer);
             }
             // Create the deployment executor
             ProducerConsumerExecutor deploymentExecutor = new ProducerConsumerExecutor(log, producerRunnable, consumerRunnables, CONNECTION_POOL_SIZE);
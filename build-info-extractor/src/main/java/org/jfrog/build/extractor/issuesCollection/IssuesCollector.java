@@ -35,6 +35,7 @@ public class IssuesCollector implements Serializable {
     private static final long serialVersionUID = 1L;
 
     private static final String LATEST = "LATEST";
+    private static final String VCS_FIELD = "vcs";
 
     public static Pattern REVISION_NOT_EXIST;
 
@@ -79,8 +80,8 @@ public class IssuesCollector implements Serializable {
      */
     private String getPreviousVcsRevision(ArtifactoryManagerBuilder artifactoryManagerBuilder, String prevBuildName, Vcs prevVcs, String project) throws IOException {
         try (ArtifactoryManager artifactoryManager = artifactoryManagerBuilder.build()) {
-            // Get LATEST build info from Artifactory
-            BuildInfo previousBuildInfo = artifactoryManager.getBuildInfo(prevBuildName, LATEST, project);
+            // Get the VCS details of the LATEST build info from Artifactory
+            BuildInfo previousBuildInfo = artifactoryManager.getBuildInfoFields(prevBuildName, LATEST, project, VCS_FIELD);
             if (previousBuildInfo == null) {
                 return "";
             }
@@ -144,6 +145,15 @@ public class IssuesCollector implements Serializable {
     }
 
     private String getGitLog(File execDir, Log logger, String previousVcsRevision) throws InterruptedException, IOException {
+        // Read the git log in-process, and fall back to the git executable if the repository can't be read
+        try {
+            return String.join("\n", GitUtils.readCommitSubjects(execDir, logger, previousVcsRevision, 0));
+        } catch (GitUtils.RevisionNotFoundException e) {
+            logger.info("Revision: " + previousVcsRevision + " that was fetched from latest build info does not exist in the git revision range. No new issues are added.");
+            return "";
+        } catch (IOException e) {
+            logger.debug("Failed reading the git log in-process, running git log instead: " + e.getMessage());
+        }
         CommandResults res = GitUtils.getGitLog(execDir, logger, previousVcsRevision);
         if (!res.isOk()) {
             if (getRevisionNotExistPattern().matcher(res.getErr()).find()) {
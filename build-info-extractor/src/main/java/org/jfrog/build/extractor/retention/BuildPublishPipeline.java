@@ -0,0 +1,209 @@
+package org.jfrog.build.extractor.retention;
+
+import org.jfrog.build.client.ArtifactoryVersion;
+import org.jfrog.build.extractor.ci.BuildInfo;
+import org.jfrog.build.extractor.ci.BuildRetention;
+import org.jfrog.build.extractor.clientConfiguration.ArtifactoryClientConfiguration;
+import org.jfrog.build.extractor.clientConfiguration.client.artifactory.ArtifactoryManager;
+import org.jfrog.build.extractor.usageReport.UsageReporter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publishes build info to Artifactory without blocking the caller.<br>
+ * The build info publication, the build retention, the usage report and the module info publication run in the
+ * background. Only the required ordering is kept - the Artifactory version is fetched before the build info is
+ * published, and the build retention is sent after the build info was published, so that the new build is counted by
+ * the retention. All other submitted tasks overlap.<br>
+ * The tasks overlap only the work the caller does before calling {@link #awaitCompletion()}. The Gradle and Maven
+ * extractors submit either the build info or the module info publication, and wait for it in the same method, so only
+ * writing the deployable artifacts file overlaps it. The usage report isn't submitted by any extractor yet.<br>
+ * A failure of a task doesn't cancel the other tasks. The failures are collected and reported together by
+ * {@link #awaitCompletion()}.
+ */
+public class BuildPublishPipeline implements AutoCloseable {
+    public static final int DEFAULT_PIPELINE_THREADS = 3;
+
+    private final ArtifactoryManager artifactoryManager;
+    private final ExecutorService executor;
+    private final List<CompletableFuture<?>> tasks = new CopyOnWriteArrayList<>();
+    // The failure of each task, by the task description, in the order the tasks failed
+    private final Map<String, Throwable> failedTasks = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    public BuildPublishPipeline(ArtifactoryManager artifactoryManager) {
+        this(artifactoryManager, DEFAULT_PIPELINE_THREADS);
+    }
+
+    public BuildPublishPipeline(ArtifactoryManager artifactoryManager, int threads) {
+        this.artifactoryManager = artifactoryManager;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "build-publish-pipeline-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Publish build info and send the build retention configured in the client configuration.
+     *
+     * @param buildInfo   - The build info to publish
+     * @param clientConf  - The client configuration to read the build retention from
+     * @param platformUrl - The JFrog platform URL, used to log the build info link. May be null
+     * @return a future completed once the build info was published. The build retention may still be in progress.
+     */
+    public CompletableFuture<Void> publishBuildInfo(BuildInfo buildInfo, ArtifactoryClientConfiguration clientConf, String platformUrl) {
+        return publishBuildInfo(buildInfo, Utils.getBuildRetention(clientConf), clientConf.info.isAsyncBuildRetention(), platformUrl);
+    }
+
+    /**
+     * Publish build info and send the build retention.
+     *
+     * @param buildInfo           - The build info to publish
+     * @param retention           - The build retention. May be null
+     * @param asyncBuildRetention - True to let Artifactory discard the old builds asynchronously
+     * @param platformUrl         - The JFrog platform URL, used to log the build info link. May be null
+     * @return a future completed once the build info was published. The build retention may still be in progress.
+     */
+    public CompletableFuture<Void> publishBuildInfo(BuildInfo buildInfo, BuildRetention retention, boolean asyncBuildRetention, String platformUrl) {
+        if (retention == null || retention.isEmpty()) {
+            return submit("Publish build info", () -> {
+                artifactoryManager.publishBuildInfo(buildInfo, platformUrl);
+                return null;
+            });
+        }
+        CompletableFuture<ArtifactoryVersion> version = submit("Get Artifactory version", artifactoryManager::getVersion);
+        CompletableFuture<Void> publication = then(version, "Publish build info", artifactoryVersion -> {
+            Utils.addRetentionIfNeeded(buildInfo, retention, artifactoryVersion);
+            artifactoryManager.publishBuildInfo(buildInfo, platformUrl);
+            return null;
+        });
+        then(publication, "Send build retention", published -> {
+            Utils.sendRetentionIfNeeded(artifactoryManager, retention, buildInfo.getName(), buildInfo.getProject(), version.join(), asyncBuildRetention);
+            return null;
+        });
+        return publication;
+    }
+
+    /**
+     * Publish the modules of the build info, without publishing the build info itself.
+     *
+     * @param buildInfo - The build info to publish its modules
+     * @return a future completed once the modules were published.
+     */
+    public CompletableFuture<Void> sendModuleInfo(BuildInfo buildInfo) {
+        return submit("Publish module info", () -> {
+            artifactoryManager.sendModuleInfo(buildInfo);
+            return null;
+        });
+    }
+
+    /**
+     * Report the usage of the features of the usage reporter.
+     *
+     * @param usageReporter - The usage to report
+     * @return a future completed once the usage was reported.
+     */
+    public CompletableFuture<Void> reportUsage(UsageReporter usageReporter) {
+        return submit("Report usage", () -> {
+            artifactoryManager.reportUsage(usageReporter);
+            return null;
+        });
+    }
+
+    /**
+     * Wait for all the tasks of the pipeline, including the tasks that follow the returned futures, such as the build
+     * retention.
+     *
+     * @throws IOException if any of the tasks failed. The exception is caused by the first failure, and the failures
+     *                     of the other tasks are added as suppressed exceptions.
+     */
+    public void awaitCompletion() throws IOException {
+        waitForTasks();
+        synchronized (failedTasks) {
+            if (failedTasks.isEmpty()) {
+                return;
+            }
+            Iterator<Throwable> failures = failedTasks.values().iterator();
+            IOException publicationFailure = new IOException(failedTasks.size() + " build info publication task(s) failed: " +
+                    String.join(", ", failedTasks.keySet()), failures.next());
+            failures.forEachRemaining(publicationFailure::addSuppressed);
+            throw publicationFailure;
+        }
+    }
+
+    /**
+     * Wait for the tasks of the pipeline without reporting their failures, and release the pipeline threads.
+     * The tasks use the Artifactory manager, so the pipeline must be closed before the Artifactory manager.
+     */
+    @Override
+    public void close() {
+        try {
+            waitForTasks();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void waitForTasks() {
+        // Tasks may be added by other threads while waiting
+        for (int i = 0; i < tasks.size(); i++) {
+            try {
+                tasks.get(i).join();
+            } catch (CompletionException | CancellationException ignored) {
+                // The failure was collected by the task
+            }
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(String description, PipelineSupplier<T> task) {
+        return track(CompletableFuture.supplyAsync(() -> run(description, input -> task.get(), null), executor));
+    }
+
+    /**
+     * Run a task after a previous task completed successfully. If the previous task failed, the task is skipped, and
+     * only the failure of the previous task is reported.
+     */
+    private <T, R> CompletableFuture<R> then(CompletableFuture<T> previous, String description, PipelineTask<T, R> task) {
+        return track(previous.thenApplyAsync(result -> run(description, task, result), executor));
+    }
+
+    private <T> CompletableFuture<T> track(CompletableFuture<T> future) {
+        tasks.add(future);
+        return future;
+    }
+
+    private <T, R> R run(String description, PipelineTask<T, R> task, T input) {
+        try {
+            return task.run(input);
+        } catch (Exception e) {
+            failedTasks.merge(description, e, (first, next) -> {
+                first.addSuppressed(next);
+                return first;
+            });
+            throw new CompletionException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface PipelineSupplier<T> {
+        T get() throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface PipelineTask<T, R> {
+        R run(T input) throws IOException;
+    }
+}
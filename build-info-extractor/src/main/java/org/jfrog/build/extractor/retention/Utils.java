@@ -17,7 +17,7 @@ import java.util.Calendar;
  */
 public class Utils {
 
-    private static BuildRetention getBuildRetention(ArtifactoryClientConfiguration clientConf) {
+    static BuildRetention getBuildRetention(ArtifactoryClientConfiguration clientConf) {
         BuildRetention buildRetention = new BuildRetention(clientConf.info.isDeleteBuildArtifacts());
         if (clientConf.info.getBuildRetentionCount() != null) {
             buildRetention.setCount(clientConf.info.getBuildRetentionCount());
@@ -39,13 +39,13 @@ public class Utils {
         return buildRetention;
     }
 
-    private static void addRetentionIfNeeded(BuildInfo buildInfo, BuildRetention retention, ArtifactoryVersion version) {
+    static void addRetentionIfNeeded(BuildInfo buildInfo, BuildRetention retention, ArtifactoryVersion version) {
         if (!version.isAtLeast(JFrogHttpClient.STANDALONE_BUILD_RETENTION_SUPPORTED_ARTIFACTORY_VERSION)) {
             buildInfo.setBuildRetention(retention);
         }
     }
 
-    private static void sendRetentionIfNeeded(ArtifactoryManager artifactoryManager, BuildRetention retention, String buildName, String project, ArtifactoryVersion version, boolean async) throws IOException {
+    static void sendRetentionIfNeeded(ArtifactoryManager artifactoryManager, BuildRetention retention, String buildName, String project, ArtifactoryVersion version, boolean async) throws IOException {
         if (version.isAtLeast(JFrogHttpClient.STANDALONE_BUILD_RETENTION_SUPPORTED_ARTIFACTORY_VERSION)) {
             artifactoryManager.sendBuildRetention(retention, buildName, project, async);
         }
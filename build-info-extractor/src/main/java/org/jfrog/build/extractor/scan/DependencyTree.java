@@ -7,6 +7,7 @@ import org.jfrog.build.api.util.Log;
 
 import javax.swing.tree.DefaultMutableTreeNode;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -16,6 +17,8 @@ import java.util.stream.Collectors;
  */
 @JsonFilter("xray-graph-filter")
 public class DependencyTree extends DefaultMutableTreeNode {
+    // The number of independent subtrees to process in parallel
+    private static final int PARALLEL_SUBTREES = Runtime.getRuntime().availableProcessors() * 4;
 
     private Set<License> violatedLicenses = new HashSet<>();
     private Set<License> licenses = new HashSet<>();
@@ -24,6 +27,7 @@ public class DependencyTree extends DefaultMutableTreeNode {
     private Issue topIssue = new Issue();
     private GeneralInfo generalInfo;
     private String packagePrefix = "";
+    private transient Map<String, DependencyTree> componentIndex;
 
     /**
      * metadata should be true if one of the following statement is true:
@@ -109,8 +113,8 @@ public class DependencyTree extends DefaultMutableTreeNode {
     }
 
     public void setPrefix(String prefix) {
-        packagePrefix = prefix.toLowerCase() + "://";
-        getChildren().forEach(node -> node.setPrefix(prefix));
+        String packagePrefix = prefix.toLowerCase() + "://";
+        getSubtreeNodes().forEach(node -> node.packagePrefix = packagePrefix);
     }
 
     /**
@@ -145,10 +149,25 @@ public class DependencyTree extends DefaultMutableTreeNode {
      */
     @SuppressWarnings({"WeakerAccess", "unused"})
     public Set<Issue> processTreeIssues() {
-        setIssuesComponent();
-        getChildren().forEach(child -> issues.addAll(child.processTreeIssues()));
-        setTopIssue();
-        sortChildren();
+        return processTreeIssues(false);
+    }
+
+    /**
+     * Same as {@link #processTreeIssues()}. If parallel is true, the issues of independent subtrees are aggregated in
+     * parallel.
+     *
+     * @param parallel - True to aggregate the subtrees in parallel
+     * @return all issues of the current node and its ancestors
+     */
+    @SuppressWarnings("WeakerAccess")
+    public Set<Issue> processTreeIssues(boolean parallel) {
+        // Components are populated top-down, so that each issue gets the component of the deepest node containing it
+        getSubtreeNodes().forEach(DependencyTree::setIssuesComponent);
+        aggregateSubtrees(parallel, node -> {
+            node.getChildren().forEach(child -> node.issues.addAll(child.issues));
+            node.setTopIssue();
+            node.sortChildren();
+        });
         return issues;
     }
 
@@ -186,9 +205,23 @@ public class DependencyTree extends DefaultMutableTreeNode {
      * @return all violated licenses of the current node and its ancestors
      */
     public Set<License> processTreeViolatedLicenses() {
-        setViolatedLicensesComponent();
-        violatedLicenses.addAll(licenses.stream().filter(License::isViolate).collect(Collectors.toSet()));
-        getChildren().forEach(child -> violatedLicenses.addAll(child.processTreeViolatedLicenses()));
+        return processTreeViolatedLicenses(false);
+    }
+
+    /**
+     * Same as {@link #processTreeViolatedLicenses()}. If parallel is true, the violated licenses of independent
+     * subtrees are aggregated in parallel.
+     *
+     * @param parallel - True to aggregate the subtrees in parallel
+     * @return all violated licenses of the current node and its ancestors
+     */
+    @SuppressWarnings("WeakerAccess")
+    public Set<License> processTreeViolatedLicenses(boolean parallel) {
+        getSubtreeNodes().forEach(DependencyTree::setViolatedLicensesComponent);
+        aggregateSubtrees(parallel, node -> {
+            node.violatedLicenses.addAll(node.licenses.stream().filter(License::isViolate).collect(Collectors.toSet()));
+            node.getChildren().forEach(child -> node.violatedLicenses.addAll(child.violatedLicenses));
+        });
         return violatedLicenses;
     }
 
@@ -200,7 +233,58 @@ public class DependencyTree extends DefaultMutableTreeNode {
     }
 
     /**
-     * Recursively, collect all scopes and licenses.
+     * Run the aggregator on each node of the subtree after running it on all of the node's children.
+     * In parallel mode, the tree is split to independent subtrees, which are aggregated in parallel. Then the nodes
+     * above them are aggregated bottom-up.
+     *
+     * @param parallel   - True to aggregate the subtrees in parallel
+     * @param aggregator - Aggregates the results of the node's children into the node
+     */
+    private void aggregateSubtrees(boolean parallel, Consumer<DependencyTree> aggregator) {
+        List<DependencyTree> upperNodes = new ArrayList<>();
+        List<DependencyTree> subtrees = Collections.singletonList(this);
+        if (parallel) {
+            while (!subtrees.isEmpty() && subtrees.size() < PARALLEL_SUBTREES) {
+                List<DependencyTree> nextLevel = new ArrayList<>();
+                for (DependencyTree node : subtrees) {
+                    upperNodes.add(node);
+                    nextLevel.addAll(node.getChildren());
+                }
+                subtrees = nextLevel;
+            }
+        }
+        subtrees.parallelStream().forEach(subtree -> {
+            List<DependencyTree> nodes = subtree.getSubtreeNodes();
+            for (int i = nodes.size() - 1; i >= 0; i--) {
+                aggregator.accept(nodes.get(i));
+            }
+        });
+        // The upper nodes are in breadth-first order, so the children come after their parents
+        for (int i = upperNodes.size() - 1; i >= 0; i--) {
+            aggregator.accept(upperNodes.get(i));
+        }
+    }
+
+    /**
+     * @return the nodes of the subtree rooted by this node, in pre-order
+     */
+    private List<DependencyTree> getSubtreeNodes() {
+        List<DependencyTree> nodes = new ArrayList<>();
+        Deque<DependencyTree> stack = new ArrayDeque<>();
+        stack.push(this);
+        while (!stack.isEmpty()) {
+            DependencyTree node = stack.pop();
+            nodes.add(node);
+            Vector<DependencyTree> children = node.getChildren();
+            for (int i = children.size() - 1; i >= 0; i--) {
+                stack.push(children.get(i));
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * Collect all scopes and licenses.
      *
      * @param allScopes   - Out - All dependency tree scopes
      * @param allLicenses - Out - All dependency tree licenses
@@ -216,20 +300,37 @@ public class DependencyTree extends DefaultMutableTreeNode {
     }
 
     /**
-     * Recursively find a node contains the input component ID.
+     * Index the nodes of the subtree by their component IDs, so that {@link #find(String)} doesn't traverse the tree.
+     * The index isn't updated when the tree changes - call this method again after modifying the tree.
+     */
+    @SuppressWarnings("unused")
+    public void indexComponents() {
+        Map<String, DependencyTree> index = new HashMap<>();
+        for (DependencyTree node : getSubtreeNodes()) {
+            index.putIfAbsent(node.toString(), node);
+        }
+        componentIndex = index;
+    }
+
+    /**
+     * Find a node contains the input component ID.
+     * If the components were indexed by {@link #indexComponents()}, the index is used.
      *
      * @param componentId - The component ID to search
      * @return a node contains the input component ID or null.
      */
     public DependencyTree find(String componentId) {
-        if (StringUtils.equals(toString(), componentId)) {
-            return this;
+        if (componentIndex != null) {
+            return componentIndex.get(componentId);
+        }
+        Enumeration<?> enumeration = preorderEnumeration();
+        while (enumeration.hasMoreElements()) {
+            DependencyTree node = (DependencyTree) enumeration.nextElement();
+            if (StringUtils.equals(node.toString(), componentId)) {
+                return node;
+            }
         }
-        return getChildren().stream()
-                .map(child -> child.find(componentId))
-                .filter(Objects::nonNull)
-                .findAny()
-                .orElse(null);
+        return null;
     }
 
     /**
@@ -247,4 +348,20 @@ public class DependencyTree extends DefaultMutableTreeNode {
         }
         return false;
     }
+
+    /**
+     * Return true if the node contains a loop, using the user objects of its ancestors instead of walking up the tree.
+     * Used when building a tree depth-first, while maintaining the user objects of the current path.
+     *
+     * @param ancestors - The user objects of the node's ancestors
+     * @param logger    - The logger
+     * @return true if the node contains a loop
+     */
+    public boolean hasLoop(Set<?> ancestors, Log logger) {
+        if (ancestors.contains(getUserObject())) {
+            logger.debug("Loop detected in " + getUserObject());
+            return true;
+        }
+        return false;
+    }
 }
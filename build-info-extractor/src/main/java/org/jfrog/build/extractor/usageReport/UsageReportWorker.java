@@ -0,0 +1,210 @@
+package org.jfrog.build.extractor.usageReport;
+
+import org.jfrog.build.api.util.Log;
+import org.jfrog.build.client.ProxyConfiguration;
+import org.jfrog.build.extractor.clientConfiguration.client.artifactory.ArtifactoryManager;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Sends usage reports in the background, with a single worker thread shared by the whole process, so that reporting
+ * never delays the build.<br>
+ * Each feature is reported at most once per process and Artifactory server. Reports submitted while the worker is busy
+ * are batched, so the features of all reports to the same server are sent in a single request. The reports to
+ * different servers are sent concurrently, and a report which isn't sent within the time budget since it was submitted,
+ * because the server is slow or unreachable, is cancelled and dropped.
+ */
+class UsageReportWorker {
+    static final long DEFAULT_TIME_BUDGET_MILLIS = TimeUnit.SECONDS.toMillis(5);
+    private static final UsageReportWorker INSTANCE = new UsageReportWorker(DEFAULT_TIME_BUDGET_MILLIS, UsageReportWorker::send);
+
+    private final long timeBudgetMillis;
+    private final ReportSender sender;
+    private final ExecutorService worker;
+    // Sends the reports of the worker, so the worker can stop waiting for a send which exceeds the time budget
+    private final ExecutorService senders;
+    // The features already reported in this process, by server and product
+    private final Set<String> reportedFeatures = ConcurrentHashMap.newKeySet();
+    // The reports waiting for the worker, guarded by this
+    private Map<ReportTarget, PendingReport> pendingReports = new LinkedHashMap<>();
+
+    UsageReportWorker(long timeBudgetMillis, ReportSender sender) {
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.sender = sender;
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "usage-report-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.senders = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "usage-report-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    static UsageReportWorker getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Queue the features of the usage reporter, which weren't reported to the server yet, and return immediately.
+     */
+    void submit(UsageReporter usageReporter, String artifactoryUrl, String username, String password, String accessToken,
+                ProxyConfiguration proxyConfiguration, Log log) {
+        ReportTarget target = new ReportTarget(artifactoryUrl, username, usageReporter.getProductId());
+        List<String> features = new ArrayList<>();
+        for (UsageReporter.FeatureId feature : usageReporter.getFeatures()) {
+            if (reportedFeatures.add(target + "|" + feature.getFeatureId())) {
+                features.add(feature.getFeatureId());
+            }
+        }
+        if (features.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            boolean drainScheduled = !pendingReports.isEmpty();
+            pendingReports.computeIfAbsent(target, key -> new PendingReport(password, accessToken, proxyConfiguration, log))
+                    .features.addAll(features);
+            if (drainScheduled) {
+                return;
+            }
+        }
+        worker.execute(this::drain);
+    }
+
+    /**
+     * Wait for the reports submitted so far to be sent or dropped. Used by tests.
+     */
+    void awaitReports(long timeoutMillis) throws InterruptedException, ExecutionException, TimeoutException {
+        // The worker is a single thread, so the reports were drained once a later task ran
+        worker.submit(() -> {
+        }).get(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void drain() {
+        Map<ReportTarget, PendingReport> reports;
+        synchronized (this) {
+            reports = pendingReports;
+            pendingReports = new LinkedHashMap<>();
+        }
+        Map<ReportTarget, Future<?>> sends = new LinkedHashMap<>();
+        reports.forEach((target, report) -> {
+            long remainingMillis = report.getRemainingMillis(timeBudgetMillis);
+            if (remainingMillis <= 0) {
+                report.log.debug("Usage report to " + target.artifactoryUrl + " was dropped, the time budget was exceeded.");
+                return;
+            }
+            UsageReporter usageReporter = new UsageReporter(target.productId, report.features.toArray(new String[0]));
+            sends.put(target, senders.submit(() -> {
+                sender.send(usageReporter, target.artifactoryUrl, target.username, report, remainingMillis);
+                return null;
+            }));
+        });
+        for (Map.Entry<ReportTarget, Future<?>> send : sends.entrySet()) {
+            String artifactoryUrl = send.getKey().artifactoryUrl;
+            PendingReport report = reports.get(send.getKey());
+            try {
+                send.getValue().get(Math.max(0, report.getRemainingMillis(timeBudgetMillis)), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                send.getValue().cancel(true);
+                report.log.debug("Usage report to " + artifactoryUrl + " was cancelled, the time budget was exceeded.");
+            } catch (ExecutionException e) {
+                report.log.debug("Failed sending usage report to " + artifactoryUrl + ": " + e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                sends.values().forEach(future -> future.cancel(true));
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static void send(UsageReporter usageReporter, String artifactoryUrl, String username, PendingReport report,
+                             long timeoutMillis) throws IOException {
+        try (ArtifactoryManager artifactoryManager = new ArtifactoryManager(artifactoryUrl, username, report.password,
+                report.accessToken, report.log)) {
+            if (report.proxyConfiguration != null) {
+                artifactoryManager.setProxyConfiguration(report.proxyConfiguration);
+            }
+            // The timeout applies to each of the version check and the report requests
+            artifactoryManager.setConnectionTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMillis / 2)));
+            artifactoryManager.setConnectionRetries(0);
+            artifactoryManager.reportUsage(usageReporter);
+        }
+    }
+
+    @FunctionalInterface
+    interface ReportSender {
+        void send(UsageReporter usageReporter, String artifactoryUrl, String username, PendingReport report,
+                  long timeoutMillis) throws IOException;
+    }
+
+    static class PendingReport {
+        private final String password;
+        private final String accessToken;
+        private final ProxyConfiguration proxyConfiguration;
+        private final Log log;
+        private final Set<String> features = new LinkedHashSet<>();
+        private final long submittedNanos = System.nanoTime();
+
+        private PendingReport(String password, String accessToken, ProxyConfiguration proxyConfiguration, Log log) {
+            this.password = password;
+            this.accessToken = accessToken;
+            this.proxyConfiguration = proxyConfiguration;
+            this.log = log;
+        }
+
+        private long getRemainingMillis(long timeBudgetMillis) {
+            return timeBudgetMillis - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - submittedNanos);
+        }
+    }
+
+    private static class ReportTarget {
+        private final String artifactoryUrl;
+        private final String username;
+        private final String productId;
+
+        private ReportTarget(String artifactoryUrl, String username, String productId) {
+            this.artifactoryUrl = artifactoryUrl;
+            this.username = username;
+            this.productId = productId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ReportTarget that = (ReportTarget) o;
+            return Objects.equals(artifactoryUrl, that.artifactoryUrl) && Objects.equals(username, that.username) &&
+                    Objects.equals(productId, that.productId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(artifactoryUrl, username, productId);
+        }
+
+        @Override
+        public String toString() {
+            return artifactoryUrl + "|" + username + "|" + productId;
+        }
+    }
+}
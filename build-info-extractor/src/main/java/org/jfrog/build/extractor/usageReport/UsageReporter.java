@@ -26,6 +26,15 @@ public class UsageReporter {
         artifactoryManager.reportUsage(this);
     }
 
+    /**
+     * Report the usage in the background and return immediately. Features already reported to the same Artifactory
+     * server in this process are skipped, and a report which can't be sent within a few seconds is dropped.
+     * Failures are only logged in debug level.
+     */
+    public void reportUsageAsync(String artifactoryUrl, String username, String password, String accessToken, ProxyConfiguration proxyConfiguration, Log log) {
+        UsageReportWorker.getInstance().submit(this, artifactoryUrl, username, password, accessToken, proxyConfiguration, log);
+    }
+
     public String getProductId() {
         return productId;
     }
@@ -14,6 +14,8 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Properties;
 
 import static org.jfrog.build.extractor.BuildInfoExtractorUtils.*;
@@ -190,6 +192,22 @@ public class BuildExtractorUtilsTest {
         System.clearProperty(kokoKey);
     }
 
+    public void testFilteredEnvVars() {
+        Map<String, String> envVars = getFilteredEnvVars("PATH", null);
+        assertEquals(envVars, Collections.singletonMap("PATH", System.getenv("PATH")));
+        // The filtered environment is cached
+        assertSame(getFilteredEnvVars("PATH", null), envVars);
+
+        Map<String, String> allEnvVars = getFilteredEnvVars(null, "PATH");
+        assertFalse(allEnvVars.containsKey("PATH"));
+        assertEquals(allEnvVars.size(), System.getenv().size() - 1);
+
+        Properties startProps = new Properties();
+        startProps.put(BuildInfoConfigProperties.PROP_ENV_VARS_INCLUDE_PATTERNS, "PATH");
+        Properties buildInfoProperties = getEnvProperties(startProps, null);
+        assertEquals(buildInfoProperties.getProperty(BuildInfoProperties.BUILD_INFO_ENVIRONMENT_PREFIX + "PATH"), System.getenv("PATH"));
+    }
+
     public void testBuildToJson() throws IOException {
         String[] requestedByA = new String[]{"parentA", "b", "moduleId"};
         String[] requestedByB = new String[]{"parentB", "d", "moduleId"};
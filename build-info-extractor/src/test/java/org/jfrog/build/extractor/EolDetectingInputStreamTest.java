@@ -1,8 +1,10 @@
 package org.jfrog.build.extractor;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.testng.annotations.Test;
 
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
@@ -67,4 +69,32 @@ public class EolDetectingInputStreamTest {
         assertTrue(stream.isCr(), "Expected a CR EOL.");
         assertTrue(stream.isLf(), "Expected a LF EOL.");
     }
+
+    @Test
+    public void testEolInLastByteOfRange() throws Exception {
+        EolDetectingInputStream stream = new EolDetectingInputStream(IOUtils.toInputStream("abc\n"));
+        byte[] buffer = new byte[10];
+        assertEquals(stream.read(buffer, 3, 4), 4);
+        assertTrue(stream.isLf(), "Expected a LF EOL.");
+        assertFalse(stream.isCr(), "Unexpected CR EOL.");
+    }
+
+    @Test
+    public void testOnlyReadBytesScanned() throws Exception {
+        EolDetectingInputStream stream = new EolDetectingInputStream(IOUtils.toInputStream("abc"));
+        byte[] buffer = "\r\r\r\r\n\n".getBytes();
+        assertEquals(stream.read(buffer), 3);
+        assertFalse(stream.isCr(), "Unexpected CR EOL.");
+        assertFalse(stream.isLf(), "Unexpected LF EOL.");
+    }
+
+    @Test
+    public void testEolAfterFirstChunk() throws Exception {
+        String content = StringUtils.repeat('a', 1000) + "\r\n" + StringUtils.repeat('b', 100);
+        EolDetectingInputStream stream = new EolDetectingInputStream(IOUtils.toInputStream(content));
+        IOUtils.toByteArray(stream);
+        assertTrue(stream.isCr(), "Expected a CR EOL.");
+        assertTrue(stream.isLf(), "Expected a LF EOL.");
+        assertEquals(stream.getEol(), "\r\n");
+    }
 }
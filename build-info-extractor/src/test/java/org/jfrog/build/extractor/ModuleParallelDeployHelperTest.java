@@ -0,0 +1,81 @@
+package org.jfrog.build.extractor;
+
+import org.jfrog.build.api.util.Log;
+import org.jfrog.build.client.ArtifactoryUploadResponse;
+import org.jfrog.build.extractor.clientConfiguration.deploy.DeployDetails;
+import org.jfrog.build.extractor.util.FakeArtifactoryManager;
+import org.jfrog.build.extractor.util.TestingLog;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests the failure accounting of the parallel deployment in {@link ModuleParallelDeployHelper}.
+ */
+@Test
+public class ModuleParallelDeployHelperTest {
+    private File file;
+
+    @BeforeClass
+    public void setUp() throws IOException {
+        file = File.createTempFile("module-parallel-deploy", ".jar");
+    }
+
+    @AfterClass
+    public void tearDown() {
+        assertTrue(file.delete());
+    }
+
+    public void testFailedModules() {
+        Map<String, Set<DeployDetails>> deployableArtifactsByModule = new LinkedHashMap<>();
+        DeployDetails succeeding = createDeployDetails("b/b.jar");
+        deployableArtifactsByModule.put("module-c", Collections.singleton(createDeployDetails("c/fail.jar")));
+        deployableArtifactsByModule.put("module-b", Collections.singleton(succeeding));
+        deployableArtifactsByModule.put("module-a", Collections.singleton(createDeployDetails("a/fail.jar")));
+        try {
+            new ModuleParallelDeployHelper().deployArtifacts(new FailingArtifactoryManager(new TestingLog()), deployableArtifactsByModule, 3);
+            fail("Expected the deployment to fail");
+        } catch (RuntimeException e) {
+            assertEquals(e.getMessage(), "Failed to deploy the artifacts of 2 module(s): module-a, module-c");
+            assertEquals(e.getSuppressed().length, 1);
+        }
+        assertTrue(succeeding.getDeploySucceeded());
+        assertFalse(deployableArtifactsByModule.get("module-a").iterator().next().getDeploySucceeded());
+    }
+
+    private DeployDetails createDeployDetails(String artifactPath) {
+        return new DeployDetails.Builder().file(file).targetRepository("repo").artifactPath(artifactPath).build();
+    }
+
+    /**
+     * Fails the deployment of artifacts named "fail.jar".
+     */
+    private static class FailingArtifactoryManager extends FakeArtifactoryManager {
+        FailingArtifactoryManager(Log log) {
+            super(log);
+        }
+
+        @Override
+        public ArtifactoryUploadResponse upload(DeployDetails details, String logPrefix) throws IOException {
+            if (details.getArtifactPath().endsWith("fail.jar")) {
+                throw new IOException("Deployment of " + details.getArtifactPath() + " failed");
+            }
+            ArtifactoryUploadResponse response = new ArtifactoryUploadResponse();
+            response.setPath(details.getArtifactPath());
+            response.setChecksums(new ArtifactoryUploadResponse.Checksums());
+            return response;
+        }
+    }
+}
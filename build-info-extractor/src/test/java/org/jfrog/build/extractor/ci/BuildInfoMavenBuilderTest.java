@@ -223,4 +223,49 @@ public class BuildInfoMavenBuilderTest {
         assertTrue(dependencies.get(1).getScopes().contains("compile"), "Expected to find compile scope");
         assertTrue(dependencies.get(1).getScopes().contains("test"), "Expected to find test scope");
     }
+
+    /**
+     * Validates that re-added modules are merged into the existing module, keeping the order and the checksums
+     */
+    public void testMergeModules() {
+        ModuleBuilder module1 = new ModuleBuilder().type(ModuleType.MAVEN).id("id");
+        module1.addArtifact(new ArtifactBuilder("artifact1").build());
+        module1.addArtifact(new ArtifactBuilder("artifact2").md5(MD5).sha1(SHA1).build());
+        module1.addDependency(new DependencyBuilder().id("dep1").scopes(CommonUtils.newHashSet("compile")).build());
+
+        ModuleBuilder module2 = new ModuleBuilder().type(ModuleType.MAVEN).id("id");
+        module2.addArtifact(new ArtifactBuilder("artifact3").build());
+        module2.addArtifact(new ArtifactBuilder("artifact2").md5("other").sha1("other").build());
+        module2.addArtifact(new ArtifactBuilder("artifact1").md5(MD5).sha1(SHA1).build());
+        module2.addDependency(new DependencyBuilder().id("dep2").scopes(CommonUtils.newHashSet("test")).build());
+        module2.addDependency(new DependencyBuilder().id("dep1").scopes(CommonUtils.newHashSet("test")).build());
+
+        ModuleBuilder module3 = new ModuleBuilder().type(ModuleType.MAVEN).id("id");
+        for (int i = 0; i < 1000; i++) {
+            module3.addDependency(new DependencyBuilder().id("dep" + (i % 500)).scopes(CommonUtils.newHashSet("runtime")).build());
+        }
+
+        BuildInfoMavenBuilder builder = new BuildInfoMavenBuilder("test").number("4").started("test");
+        builder.addModule(module1.build());
+        builder.addModule(module2.build());
+        builder.addModule(module3.build());
+        List<Module> modules = builder.build().getModules();
+        assertEquals(modules.size(), 1, "Expected to find only 1 module.");
+
+        List<Artifact> artifacts = modules.get(0).getArtifacts();
+        assertEquals(artifacts.size(), 3, "Expected to find only 3 artifacts.");
+        assertEquals(artifacts.get(0).getName(), "artifact1", "Unexpected artifact name.");
+        assertEquals(artifacts.get(0).getMd5(), MD5, "Expected the missing checksums to be merged.");
+        assertEquals(artifacts.get(1).getName(), "artifact2", "Unexpected artifact name.");
+        assertEquals(artifacts.get(1).getMd5(), MD5, "Expected the existing checksums to be kept.");
+        assertEquals(artifacts.get(2).getName(), "artifact3", "Unexpected artifact name.");
+
+        List<Dependency> dependencies = modules.get(0).getDependencies();
+        assertEquals(dependencies.size(), 500, "Expected to find only 500 dependencies.");
+        assertEquals(dependencies.get(0).getId(), "dep1", "Unexpected dependency id.");
+        assertEquals(dependencies.get(0).getScopes(), CommonUtils.newHashSet("compile", "test", "runtime"));
+        assertEquals(dependencies.get(1).getId(), "dep2", "Unexpected dependency id.");
+        assertEquals(dependencies.get(1).getScopes(), CommonUtils.newHashSet("test", "runtime"));
+        assertEquals(dependencies.get(2).getId(), "dep0", "Unexpected dependency id.");
+    }
 }
@@ -0,0 +1,108 @@
+package org.jfrog.build.extractor.clientConfiguration;
+
+import org.jfrog.build.extractor.util.TestingLog;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Properties;
+import java.util.SortedMap;
+
+import static org.jfrog.build.extractor.ModuleParallelDeployHelper.DEFAULT_DEPLOYMENT_THREADS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests the immutable snapshot and the compact form of {@link ArtifactoryClientConfiguration}.
+ */
+@Test
+public class ClientConfigurationSnapshotTest {
+
+    public void testSnapshot() {
+        ArtifactoryClientConfiguration configuration = createConfiguration();
+        ClientConfigurationSnapshot snapshot = configuration.snapshot();
+
+        ClientConfigurationSnapshot.Publisher publisher = snapshot.getPublisher();
+        assertEquals(publisher.getContextUrl(), "http://localhost:8081/artifactory");
+        assertEquals(publisher.getRepoKey(), "libs-release-local");
+        assertEquals(publisher.getSnapshotRepoKey(), "libs-snapshot-local");
+        assertFalse(publisher.isPublishArtifacts());
+        assertTrue(publisher.isPublishBuildInfo());
+        assertTrue(publisher.shouldAddDeployableArtifacts());
+        assertTrue(publisher.isEvenUnstable());
+        assertEquals(publisher.getPublishForkCount(), DEFAULT_DEPLOYMENT_THREADS);
+        assertEquals(publisher.getMatrixParams().get("key"), "value");
+        assertTrue(publisher.getPatternMatcher().pathConflicts("org/a/a.pom"));
+        assertFalse(publisher.getPatternMatcher().pathConflicts("org/a/a.jar"));
+
+        assertEquals(snapshot.getProxy().getHost(), "proxy.local");
+        assertEquals(snapshot.getProxy().getPort(), Integer.valueOf(8888));
+        assertNull(snapshot.getProxy().getUsername());
+        assertEquals(snapshot.getTimeout(), Integer.valueOf(120));
+        assertTrue(snapshot.isInsecureTls());
+
+        // Changes after the snapshot was taken are not reflected in it
+        configuration.publisher.setRepoKey("other-local");
+        assertEquals(snapshot.getPublisher().getRepoKey(), "libs-release-local");
+        assertFalse(snapshot.getProperties().containsValue("other-local"));
+    }
+
+    public void testCompactForm() throws IOException {
+        ArtifactoryClientConfiguration configuration = createConfiguration();
+        configuration.root.setStringValue("buildInfo.env.unicode", "שלום 😀");
+        configuration.root.setStringValue("buildInfo.env.😀", "a");
+        configuration.root.setStringValue("buildInfo.env.😁", "b");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        configuration.writeCompact(out);
+
+        ArtifactoryClientConfiguration read = new ArtifactoryClientConfiguration(new TestingLog());
+        read.fillFromCompact(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(read.getAllProperties(), configuration.getAllProperties());
+        assertEquals(read.publisher.getRepoKey(), "libs-release-local");
+        assertEquals(read.proxy.getPort(), Integer.valueOf(8888));
+    }
+
+    public void testCorruptedCompactForm() {
+        try {
+            ClientConfigurationSnapshot.readProperties(new ByteArrayInputStream(new byte[]{1, 1, 5, 0, 0}));
+            fail("Expected a corrupted configuration error");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("invalid key prefix length"), e.getMessage());
+        }
+        try {
+            ClientConfigurationSnapshot.readProperties(new ByteArrayInputStream(new byte[]{2, 0}));
+            fail("Expected an unsupported version error");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("Unsupported"), e.getMessage());
+        }
+    }
+
+    public void testReadEmpty() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ArtifactoryClientConfiguration(new TestingLog()).writeCompact(out);
+        SortedMap<String, String> properties = ClientConfigurationSnapshot.readProperties(new ByteArrayInputStream(out.toByteArray()));
+        assertTrue(properties.isEmpty());
+    }
+
+    private static ArtifactoryClientConfiguration createConfiguration() {
+        Properties props = new Properties();
+        props.setProperty("artifactory.publish.contextUrl", "http://localhost:8081/artifactory");
+        props.setProperty("artifactory.publish.repoKey", "libs-release-local");
+        props.setProperty("artifactory.publish.snapshot.repoKey", "libs-snapshot-local");
+        props.setProperty("artifactory.publish.artifacts", "false");
+        props.setProperty("artifactory.publish.unstable", "true");
+        props.setProperty("artifactory.publish.excludePatterns", "*.pom");
+        props.setProperty("artifactory.deploy.key", "value");
+        props.setProperty("artifactory.proxy.host", "proxy.local");
+        props.setProperty("artifactory.proxy.port", "8888");
+        props.setProperty("artifactory.timeout", "120");
+        props.setProperty("artifactory.insecureTls", "true");
+        ArtifactoryClientConfiguration configuration = new ArtifactoryClientConfiguration(new TestingLog());
+        configuration.fillFromProperties(props);
+        return configuration;
+    }
+}
@@ -0,0 +1,117 @@
+package org.jfrog.build.extractor.clientConfiguration;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests that {@link IncludeExcludePatternMatcher} gives the same results as {@link PatternMatcher#pathConflicts}.
+ */
+@Test
+public class IncludeExcludePatternMatcherTest {
+    private static final String[] SEGMENTS = {"org", "jfrog", "build", "com", "example", "lib", "core", "api", "1.0",
+            "2.3.1", "SNAPSHOT", "impl", "test", "a", "ab"};
+    private static final String[] EXTENSIONS = {".jar", ".pom", ".zip", ".tar.gz", ".xml", "-sources.jar", ""};
+
+    @DataProvider
+    private Object[][] pathConflictsProvider() {
+        return new Object[][]{
+                {"", "", "org/jfrog/a.jar", false},
+                {"*.jar", "", "org/jfrog/a.jar", false},
+                {"*.jar", "", "org/jfrog/a.pom", true},
+                {"*.JAR", "", "org/jfrog/a.jar", false},
+                {"", "org/*", "ORG/jfrog/a.jar", true},
+                {"org/jfrog/a.jar", "", "org/jfrog/a.jar", false},
+                {"org/jfrog/a.jar", "", "org/jfrog/a.jar2", true},
+                {"org/jfrog/a.ja?", "", "org/jfrog/a.jar", false},
+                {"org/jfrog/a.ja?", "", "org/jfrog/a.ja", true},
+                {"*.jar", "*-sources.jar", "org/jfrog/a-sources.jar", true},
+                {"org/**/a*b*.jar", "", "org/jfrog/xaab.jar", true},
+                {"org/**/a*b*.jar", "", "org/jfrog/aab.jar", false},
+                {" ", "", "org/jfrog/a.jar", false},
+                {"", " ", "org/jfrog/a.jar", false},
+                {"*", "", "", false},
+                {"a*", "", "", true},
+        };
+    }
+
+    @Test(dataProvider = "pathConflictsProvider")
+    public void testPathConflicts(String includePatterns, String excludePatterns, String path, boolean expected) {
+        IncludeExcludePatterns patterns = new IncludeExcludePatterns(includePatterns, excludePatterns);
+        assertEquals(PatternMatcher.pathConflicts(path, patterns), expected);
+        assertEquals(new IncludeExcludePatternMatcher(patterns).pathConflicts(path), expected);
+    }
+
+    public void testSharedPrefixes() {
+        IncludeExcludePatternMatcher matcher = new IncludeExcludePatternMatcher(
+                new IncludeExcludePatterns("org/jfrog/*.jar, org/jfrog/build/*.pom, org/*", "org/jfrog/build/*-tests.jar"));
+        assertFalse(matcher.pathConflicts("org/jfrog/build/a.jar"));
+        assertFalse(matcher.pathConflicts("org/other/a.zip"));
+        assertTrue(matcher.pathConflicts("org/jfrog/build/a-tests.jar"));
+        assertTrue(matcher.pathConflicts("com/jfrog/a.jar"));
+    }
+
+    /**
+     * Compares the matcher with {@link PatternMatcher} on 100,000 generated paths and 50 patterns.
+     */
+    public void testRandomPathsAndPatterns() {
+        Random random = new Random(42);
+        List<String> paths = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            paths.add(createPath(random) + EXTENSIONS[random.nextInt(EXTENSIONS.length)]);
+        }
+        List<String> includePatterns = new ArrayList<>();
+        List<String> excludePatterns = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            String pattern = createPattern(random);
+            (i % 5 == 0 ? excludePatterns : includePatterns).add(pattern);
+        }
+        IncludeExcludePatterns patterns = new IncludeExcludePatterns(String.join(",", includePatterns),
+                String.join(",", excludePatterns));
+
+        IncludeExcludePatternMatcher matcher = new IncludeExcludePatternMatcher(patterns);
+        int conflicts = 0;
+        for (String path : paths) {
+            boolean conflict = matcher.pathConflicts(path);
+            assertEquals(conflict, PatternMatcher.pathConflicts(path, patterns), path);
+            conflicts += conflict ? 1 : 0;
+        }
+        assertTrue(conflicts > 0 && conflicts < paths.size(), "Expected both matching and conflicting paths");
+    }
+
+    private static String createPath(Random random) {
+        StringBuilder path = new StringBuilder();
+        int depth = 1 + random.nextInt(5);
+        for (int i = 0; i < depth; i++) {
+            if (i > 0) {
+                path.append('/');
+            }
+            String segment = SEGMENTS[random.nextInt(SEGMENTS.length)];
+            path.append(random.nextInt(10) == 0 ? segment.toUpperCase() : segment);
+        }
+        return path.toString();
+    }
+
+    private static String createPattern(Random random) {
+        String path = createPath(random);
+        switch (random.nextInt(5)) {
+            case 0:
+                return path + "/*";
+            case 1:
+                return "*" + EXTENSIONS[random.nextInt(EXTENSIONS.length - 1)];
+            case 2:
+                return path.substring(0, random.nextInt(path.length() + 1)) + "*" + EXTENSIONS[random.nextInt(EXTENSIONS.length)];
+            case 3:
+                return path.replace('a', '?') + "*";
+            default:
+                return path + EXTENSIONS[random.nextInt(EXTENSIONS.length)];
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.jfrog.build.extractor.clientConfiguration.client.artifactory.services;
+
+import org.apache.commons.io.IOUtils;
+import org.jfrog.build.extractor.ci.BuildInfo;
+import org.jfrog.build.extractor.util.TestingLog;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Tests that {@link GetBuildInfoFields} reads only the requested top-level fields of the build info.
+ */
+@Test
+public class GetBuildInfoFieldsTest {
+    private static final String BUILD_INFO_RESPONSE = "{\"uri\":\"http://localhost/artifactory/api/build/name/1\"," +
+            "\"buildInfo\":{\"name\":\"name\",\"number\":\"1\",\"started\":\"2021-01-01T00:00:00.000+0000\"," +
+            "\"modules\":[{\"id\":\"module\",\"artifacts\":[{\"name\":\"a.jar\",\"sha1\":\"123\"}],\"dependencies\":[]}]," +
+            "\"vcs\":[{\"url\":\"https://github.com/jfrog/build-info.git\",\"revision\":\"abc\",\"branch\":\"master\"}]}}";
+
+    public void testReadRequestedFields() throws IOException {
+        BuildInfo buildInfo = parse("vcs", "number");
+        assertEquals(buildInfo.getNumber(), "1");
+        assertEquals(buildInfo.getVcs().size(), 1);
+        assertEquals(buildInfo.getVcs().get(0).getRevision(), "abc");
+        assertEquals(buildInfo.getVcs().get(0).getUrl(), "https://github.com/jfrog/build-info.git");
+        assertNull(buildInfo.getName());
+        assertNull(buildInfo.getModules());
+    }
+
+    public void testNoRequestedFields() throws IOException {
+        BuildInfo buildInfo = parse();
+        assertNull(buildInfo.getVcs());
+        assertNull(buildInfo.getModules());
+    }
+
+    private static BuildInfo parse(String... fields) throws IOException {
+        GetBuildInfoFields service = new GetBuildInfoFields("name", "1", null, new TestingLog(), fields);
+        service.setResponse(IOUtils.toInputStream(BUILD_INFO_RESPONSE, StandardCharsets.UTF_8));
+        return service.getResult();
+    }
+}
@@ -0,0 +1,97 @@
+package org.jfrog.build.extractor.clientConfiguration.client.artifactory.services;
+
+import org.apache.commons.io.IOUtils;
+import org.jfrog.build.client.artifactoryXrayResponse.Alert;
+import org.jfrog.build.client.artifactoryXrayResponse.ArtifactoryXrayResponse;
+import org.jfrog.build.client.artifactoryXrayResponse.License;
+import org.jfrog.build.extractor.util.TestingLog;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests the streaming parsing of the Xray scan response in {@link ScanBuild}.
+ */
+@Test
+public class ScanBuildTest {
+    // Xray sends new-lines while the scan is in progress
+    private static final String SCAN_RESPONSE = "\n\r\n\r\n{\"summary\":{\"total_alerts\":2,\"fail_build\":true,\"message\":\"Build scanned\",\"more_details_url\":\"url\"}," +
+            "\"alerts\":[{\"top_severity\":\"High\",\"watch_name\":\"watch1\",\"issues\":[]},{\"top_severity\":\"Low\",\"watch_name\":\"watch2\"}]," +
+            "\"unknown\":{\"a\":[1,2]},\"licenses\":[{\"name\":\"MIT\",\"full_name\":\"The MIT License\",\"components\":[\"a\"]}]}";
+
+    public void testCollectResults() throws IOException {
+        ArtifactoryXrayResponse response = parse(SCAN_RESPONSE, null);
+        assertTrue(response.getSummary().isFailBuild());
+        assertEquals(response.getAlerts().size(), 2);
+        assertEquals(response.getAlerts().get(0).getWatchName(), "watch1");
+        assertEquals(response.getAlerts().get(1).getTopSeverity(), "Low");
+        assertEquals(response.getLicenses().size(), 1);
+        assertEquals(response.getLicenses().get(0).getFullName(), "The MIT License");
+    }
+
+    public void testHandleResults() throws IOException {
+        List<String> handled = new ArrayList<>();
+        ArtifactoryXrayResponse response = parse(SCAN_RESPONSE, new ScanBuild.ScanResultHandler() {
+            @Override
+            public void onAlert(Alert alert) {
+                handled.add(alert.getWatchName());
+            }
+
+            @Override
+            public void onLicense(License license) {
+                handled.add(license.getName());
+            }
+        });
+        assertEquals(handled, Arrays.asList("watch1", "watch2", "MIT"));
+        assertEquals(response.getSummary().getMessage(), "Build scanned");
+        assertNull(response.getAlerts());
+        assertNull(response.getLicenses());
+    }
+
+    public void testErrors() {
+        try {
+            parse("\n\n{\"errors\":[{\"status\":500,\"message\":\"error\"}]}", null);
+            fail("Expected an Xray error");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().startsWith("Artifactory response: "));
+        }
+        try {
+            parse("{\"errors\":[{\"status\":-1,\"message\":\"fatal\"}]}", null);
+            fail("Expected a fatal Xray error");
+        } catch (RuntimeException | IOException e) {
+            assertTrue(e instanceof RuntimeException);
+        }
+    }
+
+    public void testEmptyContent() {
+        try {
+            parse("\n\r\n", null);
+            fail("Expected an Xray error");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("Received empty content"));
+        }
+    }
+
+    public void testSleepBetweenRetries() {
+        assertEquals(ScanBuild.getSleepBetweenRetriesMillis(1), 2000);
+        assertEquals(ScanBuild.getSleepBetweenRetriesMillis(2), 4000);
+        assertEquals(ScanBuild.getSleepBetweenRetriesMillis(4), 16000);
+        assertEquals(ScanBuild.getSleepBetweenRetriesMillis(5), 30000);
+        assertEquals(ScanBuild.getSleepBetweenRetriesMillis(100), 30000);
+    }
+
+    private static ArtifactoryXrayResponse parse(String content, ScanBuild.ScanResultHandler handler) throws IOException {
+        ScanBuild scanBuild = new ScanBuild("name", "1", "", "", handler, new TestingLog());
+        scanBuild.setResponse(IOUtils.toInputStream(content, StandardCharsets.UTF_8));
+        return scanBuild.getResult();
+    }
+}
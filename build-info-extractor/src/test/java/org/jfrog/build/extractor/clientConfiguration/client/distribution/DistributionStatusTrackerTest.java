@@ -0,0 +1,108 @@
+package org.jfrog.build.extractor.clientConfiguration.client.distribution;
+
+import org.jfrog.build.extractor.clientConfiguration.client.distribution.response.DistributionStatusResponse;
+import org.jfrog.build.extractor.clientConfiguration.client.distribution.response.DistributionStatusResponse.DistributionSiteStatus;
+import org.jfrog.build.extractor.util.TestingLog;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests the asynchronous polling of {@link DistributionStatusTracker}.
+ */
+@Test
+public class DistributionStatusTrackerTest {
+
+    public void testCompleted() throws Exception {
+        Iterator<DistributionStatusResponse> statuses = Arrays.asList(null,
+                createStatus("In progress", createSite("edge1", "In progress", 0, 10), createSite("edge2", "In progress", 0, 10)),
+                createStatus("In progress", createSite("edge1", "Completed", 10, 10), createSite("edge2", "In progress", 0, 10)),
+                createStatus("Completed", createSite("edge1", "Completed", 10, 10), createSite("edge2", "Completed", 10, 10))).iterator();
+        List<String> siteUpdates = Collections.synchronizedList(new ArrayList<>());
+        try (DistributionStatusTracker tracker = createTracker((name, version, trackerId) -> statuses.next(), 1000)) {
+            DistributionStatusResponse status = tracker.track("bundle", "1.0", "123", (name, version, site) ->
+                    siteUpdates.add(site.getTargetArtifactory().getName() + ":" + site.getStatus())).get(10, TimeUnit.SECONDS);
+            assertEquals(status.getStatus(), "Completed");
+        }
+        assertEquals(siteUpdates, Arrays.asList("edge1:In progress", "edge2:In progress", "edge1:Completed", "edge2:Completed"));
+    }
+
+    public void testFailed() throws Exception {
+        try (DistributionStatusTracker tracker = createTracker((name, version, trackerId) -> createStatus("Failed"), 1000)) {
+            tracker.track("bundle", "1.0", "123", null).get(10, TimeUnit.SECONDS);
+            fail("Expected the distribution to fail");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+            assertTrue(e.getCause().getMessage().startsWith("Distribution of bundle/1.0 failed"));
+        }
+    }
+
+    public void testTimeout() throws Exception {
+        try (DistributionStatusTracker tracker = createTracker((name, version, trackerId) -> createStatus("In progress"), 50)) {
+            tracker.track("bundle", "1.0", "123", null).get(10, TimeUnit.SECONDS);
+            fail("Expected the distribution to time out");
+        } catch (ExecutionException e) {
+            assertEquals(e.getCause().getMessage(), "Timeout for sync distribution");
+        }
+    }
+
+    public void testTrackManyDistributions() throws Exception {
+        try (DistributionStatusTracker tracker = createTracker((name, version, trackerId) -> createStatus("Completed"), 1000)) {
+            List<CompletableFuture<DistributionStatusResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                futures.add(tracker.track("bundle", String.valueOf(i), String.valueOf(i), null));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    public void testCloseCompletesTrackedDistributions() throws Exception {
+        DistributionStatusTracker tracker = createTracker((name, version, trackerId) -> null, 100000);
+        CompletableFuture<DistributionStatusResponse> future = tracker.track("bundle", "1.0", "123", null);
+        tracker.close();
+        assertTrue(future.isCompletedExceptionally());
+    }
+
+    public void testNextInterval() {
+        try (DistributionStatusTracker tracker = createTracker((name, version, trackerId) -> null, 1000)) {
+            assertEquals(tracker.nextInterval(1, null), 2);
+            assertEquals(tracker.nextInterval(4, createStatus("In progress", createSite("edge1", "In progress", 1, 10))), 5);
+            // Near the completion, the interval goes back to the initial interval
+            assertEquals(tracker.nextInterval(4, createStatus("In progress", createSite("edge1", "In progress", 9, 10))), 1);
+        }
+    }
+
+    private static DistributionStatusTracker createTracker(DistributionStatusTracker.StatusProvider statusProvider, long timeoutMillis) {
+        return new DistributionStatusTracker(statusProvider, 1, 5, 2, timeoutMillis, new TestingLog());
+    }
+
+    private static DistributionStatusResponse createStatus(String status, DistributionSiteStatus... sites) {
+        DistributionStatusResponse response = new DistributionStatusResponse();
+        response.setStatus(status);
+        response.setSites(Arrays.asList(sites));
+        return response;
+    }
+
+    private static DistributionSiteStatus createSite(String name, String status, int distributedFiles, int totalFiles) {
+        DistributionStatusResponse.TargetArtifactory targetArtifactory = new DistributionStatusResponse.TargetArtifactory();
+        targetArtifactory.setName(name);
+        DistributionSiteStatus site = new DistributionSiteStatus();
+        site.setTargetArtifactory(targetArtifactory);
+        site.setStatus(status);
+        site.setDistributedFiles(distributedFiles);
+        site.setTotalFiles(totalFiles);
+        return site;
+    }
+}
@@ -0,0 +1,144 @@
+package org.jfrog.build.extractor.clientConfiguration.util;
+
+import org.apache.commons.io.IOUtils;
+import org.jfrog.build.api.search.AqlSearchResult;
+import org.jfrog.build.api.util.Log;
+import org.jfrog.build.extractor.clientConfiguration.client.artifactory.services.StreamArtifactsByAql;
+import org.jfrog.build.extractor.util.FakeArtifactoryManager;
+import org.jfrog.build.extractor.util.TestingLog;
+import org.jfrog.filespecs.entities.FilesGroup;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests the paging and build filtering of {@link AqlHelper}, with AQL responses parsed by {@link StreamArtifactsByAql}.
+ */
+@Test
+public class AqlHelperTest {
+    private static final Pattern OFFSET_PATTERN = Pattern.compile("\\.offset\\((\\d+)\\)");
+    private static final Pattern LIMIT_PATTERN = Pattern.compile("\\.limit\\((\\d+)\\)");
+    private final Log log = new TestingLog();
+
+    public void testPaging() throws IOException {
+        PagingArtifactoryManager artifactoryManager = new PagingArtifactoryManager(log,
+                createEntries("a", "b", "c", "d", "e"), null);
+        AqlHelper aqlHelper = new AqlHelper(artifactoryManager, log, new FilesGroup().setPattern("repo/*"));
+        aqlHelper.setPageSize(2);
+
+        List<String> names = new ArrayList<>();
+        int found = aqlHelper.run(entry -> names.add(entry.getName()));
+
+        assertEquals(found, 5);
+        assertEquals(names, Arrays.asList("a", "b", "c", "d", "e"));
+        assertEquals(artifactoryManager.queries.size(), 3);
+        for (String query : artifactoryManager.queries) {
+            assertTrue(query.contains(".sort({\"$asc\":[\"repo\",\"path\",\"name\"]})"), query);
+        }
+        assertTrue(artifactoryManager.queries.get(2).contains(".offset(4).limit(2)"), artifactoryManager.queries.get(2));
+    }
+
+    public void testNoPagingWithSpecLimit() throws IOException {
+        PagingArtifactoryManager artifactoryManager = new PagingArtifactoryManager(log,
+                createEntries("a", "b", "c", "d", "e"), null);
+        FilesGroup filesGroup = new FilesGroup().setPattern("repo/*").setLimit("3");
+        AqlHelper aqlHelper = new AqlHelper(artifactoryManager, log, filesGroup);
+        aqlHelper.setPageSize(2);
+
+        List<AqlSearchResult.SearchEntry> results = aqlHelper.run();
+
+        assertEquals(results.size(), 3);
+        assertEquals(artifactoryManager.queries.size(), 1);
+        assertEquals(filesGroup.getLimit(), "3");
+        assertNull(filesGroup.getOffset());
+    }
+
+    public void testBuildFilterPriorities() throws IOException {
+        List<String> entries = Arrays.asList(
+                createEntry("other-sha1", "x", null, null),
+                createEntry("sha1", "third", "other-build", "1"),
+                createEntry("sha1", "second", "build", "2"),
+                createEntry("sha1", "first", "build", "1"),
+                createEntry("sha2", "only", "other-build", "1"));
+        List<String> buildEntries = Arrays.asList(createEntry("sha1", "a", null, null), createEntry("sha2", "b", null, null));
+        PagingArtifactoryManager artifactoryManager = new PagingArtifactoryManager(log, entries, buildEntries);
+        FilesGroup filesGroup = new FilesGroup().setPattern("repo/*");
+        filesGroup.setBuild("build/1");
+        AqlHelper aqlHelper = new AqlHelper(artifactoryManager, log, filesGroup);
+        aqlHelper.setPageSize(2);
+
+        List<String> names = aqlHelper.run().stream().map(AqlSearchResult.SearchEntry::getName).collect(Collectors.toList());
+
+        assertEquals(names, Arrays.asList("first", "only"));
+        // The build properties are only returned by queries which are not paged
+        String query = artifactoryManager.queries.get(artifactoryManager.queries.size() - 1);
+        assertTrue(query.contains("\"property\"") && !query.contains(".offset("), query);
+    }
+
+    private static List<String> createEntries(String... names) {
+        return Arrays.stream(names).map(name -> createEntry(name + "-sha1", name, null, null)).collect(Collectors.toList());
+    }
+
+    private static String createEntry(String sha1, String name, String buildName, String buildNumber) {
+        String properties = buildName == null ? "[]" : String.format("[{\"key\":\"build.name\",\"value\":\"%s\"},{\"key\":\"build.number\",\"value\":\"%s\"}]", buildName, buildNumber);
+        return String.format("{\"repo\":\"repo\",\"path\":\".\",\"name\":\"%s\",\"type\":\"file\",\"size\":1,\"actual_sha1\":\"%s\",\"properties\":%s}", name, sha1, properties);
+    }
+
+    /**
+     * Answers AQL queries from in-memory entries, honoring the query's offset and limit.
+     */
+    private static class PagingArtifactoryManager extends FakeArtifactoryManager {
+        private final List<String> entries;
+        private final List<String> buildEntries;
+        private final List<String> queries = new ArrayList<>();
+
+        PagingArtifactoryManager(Log log, List<String> entries, List<String> buildEntries) {
+            super(log);
+            this.entries = entries;
+            this.buildEntries = buildEntries;
+        }
+
+        @Override
+        public String getLatestBuildNumber(String buildName, String latestType, String project) {
+            return latestType;
+        }
+
+        @Override
+        public int searchArtifactsByAql(String aql, StreamArtifactsByAql.SearchEntryHandler handler) throws IOException {
+            queries.add(aql);
+            List<String> source = aql.startsWith("items.find({\"artifact.module.build.name\"") ? buildEntries : entries;
+            int offset = getNumber(OFFSET_PATTERN, aql, 0);
+            int limit = getNumber(LIMIT_PATTERN, aql, source.size());
+            List<String> page = source.subList(Math.min(offset, source.size()), Math.min(offset + limit, source.size()));
+            String response = "{\"results\":[" + String.join(",", page) + "],\"range\":{\"start_pos\":" + offset + ",\"end_pos\":" + (offset + page.size()) + "}}";
+            return new ResponseParser(aql, handler, log).parse(response);
+        }
+
+        private static int getNumber(Pattern pattern, String aql, int defaultValue) {
+            Matcher matcher = pattern.matcher(aql);
+            return matcher.find() ? Integer.parseInt(matcher.group(1)) : defaultValue;
+        }
+    }
+
+    private static class ResponseParser extends StreamArtifactsByAql {
+        ResponseParser(String aql, SearchEntryHandler handler, Log log) {
+            super(aql, handler, log);
+        }
+
+        int parse(String response) throws IOException {
+            setResponse(IOUtils.toInputStream(response, StandardCharsets.UTF_8));
+            return getResult();
+        }
+    }
+}
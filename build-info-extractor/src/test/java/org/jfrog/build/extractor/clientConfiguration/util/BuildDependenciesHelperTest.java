@@ -0,0 +1,173 @@
+package org.jfrog.build.extractor.clientConfiguration.util;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.http.Header;
+import org.apache.http.message.BasicHeader;
+import org.jfrog.build.api.dependency.BuildDependency;
+import org.jfrog.build.api.dependency.BuildPatternArtifacts;
+import org.jfrog.build.api.dependency.BuildPatternArtifactsRequest;
+import org.jfrog.build.api.dependency.PatternArtifact;
+import org.jfrog.build.api.dependency.PatternResult;
+import org.jfrog.build.api.util.FileChecksumCalculator;
+import org.jfrog.build.extractor.util.FakeArtifactoryManager;
+import org.jfrog.build.extractor.util.TestingLog;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.jfrog.build.api.util.FileChecksumCalculator.MD5_ALGORITHM;
+import static org.jfrog.build.api.util.FileChecksumCalculator.SHA1_ALGORITHM;
+import static org.jfrog.build.extractor.clientConfiguration.client.artifactory.services.Upload.MD5_HEADER_NAME;
+import static org.jfrog.build.extractor.util.FakeArtifactoryManager.ARTIFACTORY_URL;
+import static org.jfrog.build.extractor.clientConfiguration.client.artifactory.services.Upload.SHA1_HEADER_NAME;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests the matching and the concurrent download of legacy build dependencies in {@link BuildDependenciesHelper}.
+ */
+@Test
+public class BuildDependenciesHelperTest {
+    private static final String PATTERNS = "repo:*.jar@build-a#1=>a\n" +
+            "repo:*.txt@build-a#1=>b\n" +
+            "repo:*.jar@build-b#2=>c\n" +
+            "repo:*@missing#1=>d";
+
+    private File workspace;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        workspace = Files.createTempDirectory("build-dependencies").toFile();
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(workspace);
+    }
+
+    public void testRetrieveBuildDependencies() throws Exception {
+        // Each download waits for another download to start, so the downloads must run concurrently
+        DownloadingArtifactoryManager artifactoryManager = new DownloadingArtifactoryManager(new CountDownLatch(2), null);
+        BuildDependenciesHelper helper = new BuildDependenciesHelper(
+                new DependenciesDownloaderImpl(artifactoryManager, workspace.getPath(), new TestingLog()), new TestingLog());
+
+        List<BuildDependency> buildDependencies = helper.retrieveBuildDependencies(PATTERNS);
+
+        List<String> builds = buildDependencies.stream().map(dependency -> dependency.getName() + "#" + dependency.getNumber())
+                .sorted().collect(Collectors.toList());
+        assertEquals(builds, Arrays.asList("build-a#1", "build-b#2"));
+        assertEquals(artifactoryManager.requests, Arrays.asList("build-a#1:[*.jar, *.txt]", "build-b#2:[*.jar]", "missing#1:[*]"));
+        for (String path : Arrays.asList("a/a1.jar", "a/a2.jar", "b/readme.txt", "c/b.jar")) {
+            File file = new File(workspace, path);
+            assertTrue(file.isFile(), path);
+            assertEquals(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8), getContent(file.getName()));
+        }
+    }
+
+    public void testDownloadFailure() throws Exception {
+        DownloadingArtifactoryManager artifactoryManager = new DownloadingArtifactoryManager(null, "a2.jar");
+        BuildDependenciesHelper helper = new BuildDependenciesHelper(
+                new DependenciesDownloaderImpl(artifactoryManager, workspace.getPath(), new TestingLog()), new TestingLog());
+        try {
+            helper.retrieveBuildDependencies(PATTERNS);
+            fail("Expected the download to fail");
+        } catch (IOException e) {
+            assertTrue(String.valueOf(e.getCause()).contains("a2.jar"), String.valueOf(e.getCause()));
+        }
+    }
+
+    private static String getContent(String fileName) {
+        return "content of " + fileName;
+    }
+
+    private static PatternArtifact createPatternArtifact(String fileName) {
+        return new PatternArtifact(ARTIFACTORY_URL, "repo/" + fileName, 0, null, null);
+    }
+
+    private class DownloadingArtifactoryManager extends FakeArtifactoryManager {
+        private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch concurrentDownloads;
+        private final String failedFileName;
+
+        DownloadingArtifactoryManager(CountDownLatch concurrentDownloads, String failedFileName) {
+            this.concurrentDownloads = concurrentDownloads;
+            this.failedFileName = failedFileName;
+        }
+
+        @Override
+        public List<BuildPatternArtifacts> retrievePatternArtifacts(List<BuildPatternArtifactsRequest> artifactsRequests) {
+            List<BuildPatternArtifacts> responses = new ArrayList<>();
+            for (BuildPatternArtifactsRequest request : artifactsRequests) {
+                requests.add(request.getBuildName() + "#" + request.getBuildNumber() + ":" +
+                        request.getPatterns().stream().map(pattern -> pattern.getPattern().substring("repo:".length()))
+                                .collect(Collectors.toList()));
+                if ("missing".equals(request.getBuildName())) {
+                    responses.add(null);
+                    continue;
+                }
+                BuildPatternArtifacts response = new BuildPatternArtifacts(request.getBuildName(), request.getBuildNumber(),
+                        "2024-01-01T00:00:00.000+0000", ARTIFACTORY_URL);
+                if ("build-a".equals(request.getBuildName())) {
+                    response.addPatternResult(new PatternResult(Arrays.asList(createPatternArtifact("a1.jar"), createPatternArtifact("a2.jar"))));
+                    response.addPatternResult(new PatternResult(Collections.singletonList(createPatternArtifact("readme.txt"))));
+                } else {
+                    response.addPatternResult(new PatternResult(Collections.singletonList(createPatternArtifact("b.jar"))));
+                }
+                responses.add(response);
+            }
+            return responses;
+        }
+
+        @Override
+        public Header[] downloadHeaders(String downloadFrom) throws IOException {
+            File source = new File(workspace, "source-" + getFileName(downloadFrom));
+            Files.write(source.toPath(), getContent(getFileName(downloadFrom)).getBytes(StandardCharsets.UTF_8));
+            try {
+                Map<String, String> checksums = FileChecksumCalculator.calculateChecksums(source, MD5_ALGORITHM, SHA1_ALGORITHM);
+                return new Header[]{new BasicHeader(MD5_HEADER_NAME, checksums.get(MD5_ALGORITHM)),
+                        new BasicHeader(SHA1_HEADER_NAME, checksums.get(SHA1_ALGORITHM))};
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+        }
+
+        @Override
+        public File downloadToFile(String downloadFrom, String downloadTo) throws IOException {
+            String fileName = getFileName(downloadFrom);
+            if (fileName.equals(failedFileName)) {
+                throw new IOException("Failed downloading " + fileName);
+            }
+            if (concurrentDownloads != null) {
+                concurrentDownloads.countDown();
+                try {
+                    if (!concurrentDownloads.await(10, TimeUnit.SECONDS)) {
+                        throw new IOException("The dependencies were not downloaded concurrently");
+                    }
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+            File file = new File(downloadTo);
+            FileUtils.writeStringToFile(file, getContent(fileName), StandardCharsets.UTF_8);
+            return file;
+        }
+
+        private String getFileName(String url) {
+            return url.substring(url.lastIndexOf('/') + 1);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package org.jfrog.build.extractor.clientConfiguration.util.spec;
+
+import org.jfrog.build.api.search.AqlSearchResult;
+import org.jfrog.build.api.util.Log;
+import org.jfrog.build.client.ArtifactoryUploadResponse;
+import org.jfrog.build.extractor.clientConfiguration.client.artifactory.services.StreamArtifactsByAql;
+import org.jfrog.build.extractor.clientConfiguration.deploy.DeployDetails;
+import org.jfrog.build.extractor.util.FakeArtifactoryManager;
+import org.jfrog.build.extractor.util.TestingLog;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests that {@link ContentAddressedDeployer} uploads each content once and deploys the other copies by checksum.
+ */
+@Test
+public class ContentAddressedDeployerTest {
+    private static final String CHECKSUM_DEPLOY = "checksum";
+    private static final String UPLOAD = "upload";
+    private final Log log = new TestingLog();
+    private File file;
+
+    @BeforeClass
+    public void setUp() throws IOException {
+        file = File.createTempFile("content-addressed", ".jar");
+    }
+
+    @AfterClass
+    public void tearDown() {
+        assertTrue(file.delete());
+    }
+
+    public void testDuplicateContents() throws Exception {
+        ChecksumSearchArtifactoryManager artifactoryManager = new ChecksumSearchArtifactoryManager(log, Collections.emptyList());
+        ContentAddressedDeployer deployer = new ContentAddressedDeployer(artifactoryManager, log);
+
+        deployer.deploy(createDeployDetails("a/1.jar", "sha1"), null);
+        deployer.deploy(createDeployDetails("b/1.jar", "sha1"), null);
+        deployer.deploy(createDeployDetails("c/2.jar", "sha2"), null);
+        deployer.deploy(createDeployDetails("d/1.jar", "sha1"), null);
+
+        assertEquals(artifactoryManager.deployments, Arrays.asList("a/1.jar:" + UPLOAD, "b/1.jar:" + CHECKSUM_DEPLOY,
+                "c/2.jar:" + UPLOAD, "d/1.jar:" + CHECKSUM_DEPLOY));
+    }
+
+    public void testCheckExistingContents() throws Exception {
+        ChecksumSearchArtifactoryManager artifactoryManager = new ChecksumSearchArtifactoryManager(log, Arrays.asList("sha1", "sha1"));
+        ContentAddressedDeployer deployer = new ContentAddressedDeployer(artifactoryManager, log);
+
+        assertEquals(deployer.checkExistingContents(Arrays.asList("sha1", "sha2")), 1);
+        assertEquals(artifactoryManager.queries, Collections.singletonList(
+                "items.find({\"$or\":[{\"actual_sha1\":\"sha1\"},{\"actual_sha1\":\"sha2\"}]}).include(\"name\",\"repo\",\"path\",\"actual_sha1\")"));
+        deployer.deploy(createDeployDetails("a/1.jar", "sha1"), null);
+        deployer.deploy(createDeployDetails("b/2.jar", "sha2"), null);
+
+        assertEquals(artifactoryManager.deployments, Arrays.asList("a/1.jar:" + CHECKSUM_DEPLOY, "b/2.jar:" + UPLOAD));
+    }
+
+    private DeployDetails createDeployDetails(String artifactPath, String sha1) {
+        return new DeployDetails.Builder().file(file).targetRepository("repo").artifactPath(artifactPath).sha1(sha1).build();
+    }
+
+    /**
+     * Records the deployments instead of sending them, and answers AQL queries with the given sha1 checksums.
+     */
+    private static class ChecksumSearchArtifactoryManager extends FakeArtifactoryManager {
+        private final List<String> existingSha1s;
+        private final List<String> deployments = new ArrayList<>();
+        private final List<String> queries = new ArrayList<>();
+
+        ChecksumSearchArtifactoryManager(Log log, List<String> existingSha1s) {
+            super(log);
+            this.existingSha1s = existingSha1s;
+        }
+
+        @Override
+        public ArtifactoryUploadResponse upload(DeployDetails details, String logPrefix, Integer minChecksumDeploySizeKb) {
+            boolean checksumDeploy = minChecksumDeploySizeKb != null && minChecksumDeploySizeKb == 0;
+            deployments.add(details.getArtifactPath() + ":" + (checksumDeploy ? CHECKSUM_DEPLOY : UPLOAD));
+            return new ArtifactoryUploadResponse();
+        }
+
+        @Override
+        public int searchArtifactsByAql(String aql, StreamArtifactsByAql.SearchEntryHandler handler) throws IOException {
+            queries.add(aql);
+            for (String sha1 : existingSha1s) {
+                AqlSearchResult.SearchEntry entry = new AqlSearchResult.SearchEntry();
+                entry.setActualSha1(sha1);
+                handler.handle(entry);
+            }
+            return existingSha1s.size();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.jfrog.build.extractor.clientConfiguration.util.spec;
+
+import com.google.common.collect.ArrayListMultimap;
+import org.apache.commons.io.FileUtils;
+import org.jfrog.build.extractor.clientConfiguration.deploy.DeployDetails;
+import org.jfrog.build.extractor.producerConsumer.ConsumerRunnableBase;
+import org.jfrog.build.extractor.producerConsumer.ProducerConsumerExecutor;
+import org.jfrog.build.extractor.producerConsumer.ProducerRunnableBase;
+import org.jfrog.build.extractor.util.TestingLog;
+import org.jfrog.filespecs.entities.FilesGroup;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Tests the files collected by {@link SingleSpecDeploymentProducer} for upload specs.
+ */
+@Test
+public class SingleSpecDeploymentProducerTest {
+    private File workspace;
+
+    @BeforeClass
+    public void setUp() throws IOException {
+        workspace = Files.createTempDirectory("upload-spec-walk").toFile().getCanonicalFile();
+        for (String path : Arrays.asList("dir/a.jar", "dir/b.txt", "dir/sub/c.jar", "dir/sub/deeper/d.jar", "other/e.jar")) {
+            File file = new File(workspace, path);
+            FileUtils.writeStringToFile(file, path, "UTF-8");
+        }
+        // A symbolic link to its parent directory
+        Files.createSymbolicLink(workspace.toPath().resolve("dir/sub/loop"), workspace.toPath().resolve("dir"));
+    }
+
+    @AfterClass
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(workspace);
+    }
+
+    public void testRecursiveWildcard() throws Exception {
+        FilesGroup spec = new FilesGroup().setPattern("dir/*.jar").setTarget("repo/").setFlat("false");
+        assertEquals(collectArtifactPaths(spec), asSet("/dir/a.jar", "/dir/sub/c.jar", "/dir/sub/deeper/d.jar",
+                "/dir/sub/loop/a.jar", "/dir/sub/loop/sub/c.jar", "/dir/sub/loop/sub/deeper/d.jar"));
+    }
+
+    public void testNonRecursiveWildcard() throws Exception {
+        FilesGroup spec = new FilesGroup().setPattern("dir/*/*.jar").setTarget("repo/").setFlat("false").setRecursive("false");
+        assertEquals(collectArtifactPaths(spec), asSet("/dir/sub/c.jar"));
+    }
+
+    public void testLiteralPrefix() throws Exception {
+        FilesGroup spec = new FilesGroup().setPattern("dir/sub/de*").setTarget("repo/").setFlat("false");
+        assertEquals(collectArtifactPaths(spec), asSet("/dir/sub/deeper/d.jar"));
+    }
+
+    public void testNonRecursiveRegexp() throws Exception {
+        FilesGroup spec = new FilesGroup().setPattern("dir/.*\\.jar").setTarget("repo/").setRegexp("true").setRecursive("false");
+        assertEquals(collectArtifactPaths(spec), asSet("a.jar"));
+    }
+
+    public void testExclusions() throws Exception {
+        FilesGroup spec = new FilesGroup().setPattern("*").setTarget("repo/").setExclusions(new String[]{"*.txt", "*loop*", "dir/sub/*"});
+        assertEquals(collectArtifactPaths(spec), asSet("a.jar", "e.jar"));
+    }
+
+    private Set<String> collectArtifactPaths(FilesGroup spec) throws Exception {
+        ProducerConsumerExecutor executor = new ProducerConsumerExecutor(new TestingLog(), new ProducerRunnableBase[0],
+                new ConsumerRunnableBase[0], 100);
+        Set<DeployDetails> deploymentSet = new HashSet<>();
+        new SingleSpecDeploymentProducer(spec, workspace, ArrayListMultimap.create()).executeSpec(deploymentSet, executor);
+        return deploymentSet.stream().map(DeployDetails::getArtifactPath).collect(Collectors.toSet());
+    }
+
+    private static Set<String> asSet(String... paths) {
+        return new HashSet<>(Arrays.asList(paths));
+    }
+}
@@ -0,0 +1,175 @@
+package org.jfrog.build.extractor.retention;
+
+import org.jfrog.build.client.ArtifactoryVersion;
+import org.jfrog.build.extractor.ci.BuildInfo;
+import org.jfrog.build.extractor.ci.BuildRetention;
+import org.jfrog.build.extractor.util.FakeArtifactoryManager;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests the ordering and the failure reporting of {@link BuildPublishPipeline}.
+ */
+@Test
+public class BuildPublishPipelineTest {
+
+    public void testRetentionAfterPublication() throws IOException {
+        RecordingArtifactoryManager artifactoryManager = new RecordingArtifactoryManager("7.0.0");
+        BuildInfo buildInfo = createBuildInfo();
+        try (BuildPublishPipeline publishPipeline = new BuildPublishPipeline(artifactoryManager)) {
+            publishPipeline.publishBuildInfo(buildInfo, createRetention(), false, null);
+            publishPipeline.awaitCompletion();
+        }
+        assertEquals(artifactoryManager.events, Arrays.asList("version", "publish", "retention"));
+        assertNull(buildInfo.getBuildRetention());
+    }
+
+    public void testRetentionInBuildInfo() throws IOException {
+        RecordingArtifactoryManager artifactoryManager = new RecordingArtifactoryManager("5.0.0");
+        BuildInfo buildInfo = createBuildInfo();
+        try (BuildPublishPipeline publishPipeline = new BuildPublishPipeline(artifactoryManager)) {
+            publishPipeline.publishBuildInfo(buildInfo, createRetention(), false, null);
+            publishPipeline.awaitCompletion();
+        }
+        // Old Artifactory versions receive the retention as part of the build info
+        assertEquals(artifactoryManager.events, Arrays.asList("version", "publish"));
+        assertNotNull(buildInfo.getBuildRetention());
+    }
+
+    public void testNoRetention() throws IOException {
+        RecordingArtifactoryManager artifactoryManager = new RecordingArtifactoryManager("7.0.0");
+        try (BuildPublishPipeline publishPipeline = new BuildPublishPipeline(artifactoryManager)) {
+            publishPipeline.publishBuildInfo(createBuildInfo(), new BuildRetention(false), false, null);
+            publishPipeline.awaitCompletion();
+        }
+        assertEquals(artifactoryManager.events, Collections.singletonList("publish"));
+    }
+
+    public void testOverlappingTasks() throws Exception {
+        RecordingArtifactoryManager artifactoryManager = new RecordingArtifactoryManager("7.0.0");
+        // The module info publication completes only after the build info was published
+        artifactoryManager.moduleInfoLatch = new CountDownLatch(1);
+        try (BuildPublishPipeline publishPipeline = new BuildPublishPipeline(artifactoryManager)) {
+            CompletableFuture<Void> moduleInfo = publishPipeline.sendModuleInfo(createBuildInfo());
+            publishPipeline.publishBuildInfo(createBuildInfo(), null, false, null).get(10, TimeUnit.SECONDS);
+            moduleInfo.get(10, TimeUnit.SECONDS);
+            publishPipeline.awaitCompletion();
+        }
+        assertEquals(artifactoryManager.events, Arrays.asList("publish", "module"));
+    }
+
+    public void testAggregatedFailures() {
+        RecordingArtifactoryManager artifactoryManager = new RecordingArtifactoryManager("7.0.0");
+        artifactoryManager.failPublication = true;
+        artifactoryManager.failModuleInfo = true;
+        try (BuildPublishPipeline publishPipeline = new BuildPublishPipeline(artifactoryManager)) {
+            publishPipeline.publishBuildInfo(createBuildInfo(), createRetention(), false, null);
+            publishPipeline.sendModuleInfo(createBuildInfo());
+            publishPipeline.awaitCompletion();
+            fail("Expected the publication to fail");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().startsWith("2 build info publication task(s) failed"), e.getMessage());
+            assertTrue(e.getMessage().contains("Publish build info"), e.getMessage());
+            assertTrue(e.getMessage().contains("Publish module info"), e.getMessage());
+            assertEquals(e.getSuppressed().length, 1);
+        }
+        // The retention is not sent after a failed publication
+        assertFalse(artifactoryManager.events.contains("retention"), artifactoryManager.events.toString());
+    }
+
+    public void testFirstFailureIsTheCause() {
+        RecordingArtifactoryManager artifactoryManager = new RecordingArtifactoryManager("7.0.0");
+        artifactoryManager.failPublication = true;
+        artifactoryManager.failModuleInfo = true;
+        // A single thread runs the tasks in the order they were submitted
+        try (BuildPublishPipeline publishPipeline = new BuildPublishPipeline(artifactoryManager, 1)) {
+            publishPipeline.sendModuleInfo(createBuildInfo());
+            publishPipeline.publishBuildInfo(createBuildInfo(), createRetention(), false, null);
+            publishPipeline.awaitCompletion();
+            fail("Expected the publication to fail");
+        } catch (IOException e) {
+            assertEquals(e.getMessage(), "2 build info publication task(s) failed: Publish module info, Publish build info");
+            assertEquals(e.getCause().getMessage(), "Module info publication failed");
+            assertEquals(e.getSuppressed()[0].getMessage(), "Publication failed");
+        }
+    }
+
+    private static BuildInfo createBuildInfo() {
+        BuildInfo buildInfo = new BuildInfo();
+        buildInfo.setName("build");
+        buildInfo.setNumber("1");
+        return buildInfo;
+    }
+
+    private static BuildRetention createRetention() {
+        BuildRetention retention = new BuildRetention(false);
+        retention.setCount(10);
+        return retention;
+    }
+
+    private static class RecordingArtifactoryManager extends FakeArtifactoryManager {
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private final ArtifactoryVersion version;
+        private volatile CountDownLatch moduleInfoLatch;
+        private volatile boolean failPublication;
+        private volatile boolean failModuleInfo;
+
+        RecordingArtifactoryManager(String version) {
+            this.version = new ArtifactoryVersion(version);
+        }
+
+        @Override
+        public ArtifactoryVersion getVersion() {
+            events.add("version");
+            return version;
+        }
+
+        @Override
+        public void publishBuildInfo(BuildInfo buildInfo, String platformUrl) throws IOException {
+            if (failPublication) {
+                throw new IOException("Publication failed");
+            }
+            events.add("publish");
+            if (moduleInfoLatch != null) {
+                moduleInfoLatch.countDown();
+            }
+        }
+
+        @Override
+        public void sendBuildRetention(BuildRetention buildRetention, String buildName, String project, boolean async) {
+            events.add("retention");
+        }
+
+        @Override
+        public void sendModuleInfo(BuildInfo buildInfo) throws IOException {
+            if (failModuleInfo) {
+                throw new IOException("Module info publication failed");
+            }
+            if (moduleInfoLatch != null) {
+                try {
+                    if (!moduleInfoLatch.await(10, TimeUnit.SECONDS)) {
+                        throw new IOException("The build info was not published concurrently");
+                    }
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+            events.add("module");
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.jfrog.build.api.util.NullLog;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -221,6 +222,85 @@ public class DependencyTreeTest {
 
         // Make sure the dependency tree has a loop
         assertTrue(anotherOne.hasLoop(new NullLog()));
+        assertTrue(anotherOne.hasLoop(Sets.newHashSet("1", "2", "3"), new NullLog()));
+        assertFalse(anotherOne.hasLoop(Sets.newHashSet("2", "3"), new NullLog()));
+    }
+
+    @Test
+    public void testIndexComponents() {
+        DependencyTree root = createWideTree();
+        DependencyTree expected = root.find("5-3");
+        assertNotNull(expected);
+        root.indexComponents();
+        assertSame(expected, root.find("5-3"));
+        assertSame(root, root.find("root"));
+        assertNull(root.find("non-existent"));
+    }
+
+    @Test
+    public void testDeepTree() {
+        // Recursive traversals would overflow the stack
+        DependencyTree root = new DependencyTree("0");
+        DependencyTree node = root;
+        for (int i = 1; i < 20000; i++) {
+            DependencyTree child = new DependencyTree(String.valueOf(i));
+            node.add(child);
+            node = child;
+        }
+        Issue issue = createIssue(Severity.High);
+        node.setIssues(Sets.newHashSet(issue));
+        node.setLicenses(Sets.newHashSet(createLicense(true)));
+        root.setPrefix("npm");
+
+        assertEquals(Sets.newHashSet(issue), root.processTreeIssues());
+        assertEquals(issue, root.getTopIssue());
+        assertEquals("19999", issue.getComponent());
+        assertEquals(1, root.processTreeViolatedLicenses(true).size());
+        assertSame(node, root.find("19999"));
+        assertEquals("npm://19999", node.getComponentId());
+    }
+
+    @Test
+    public void testParallelProcessing() {
+        DependencyTree sequentialRoot = createWideTree();
+        DependencyTree parallelRoot = createWideTree();
+        Set<Issue> sequentialIssues = sequentialRoot.processTreeIssues(false);
+        Set<Issue> parallelIssues = parallelRoot.processTreeIssues(true);
+        assertEquals(sequentialIssues, parallelIssues);
+        assertEquals(sequentialRoot.processTreeViolatedLicenses(false), parallelRoot.processTreeViolatedLicenses(true));
+
+        // The children are sorted the same way, and each node aggregated its subtree
+        Enumeration<?> sequentialNodes = sequentialRoot.preorderEnumeration();
+        Enumeration<?> parallelNodes = parallelRoot.preorderEnumeration();
+        while (sequentialNodes.hasMoreElements()) {
+            DependencyTree sequentialNode = (DependencyTree) sequentialNodes.nextElement();
+            DependencyTree parallelNode = (DependencyTree) parallelNodes.nextElement();
+            assertEquals(sequentialNode.toString(), parallelNode.toString());
+            assertEquals(sequentialNode.getIssues(), parallelNode.getIssues());
+            assertEquals(sequentialNode.getViolatedLicenses(), parallelNode.getViolatedLicenses());
+        }
+    }
+
+    /**
+     * Create a tree with 20 modules, each with 10 dependencies with one issue and one violated license.
+     * The issues and licenses of both trees are equal.
+     */
+    private DependencyTree createWideTree() {
+        DependencyTree root = new DependencyTree("root");
+        Severity[] severities = Severity.values();
+        for (int i = 0; i < 20; i++) {
+            DependencyTree module = new DependencyTree(String.valueOf(i));
+            root.add(module);
+            for (int j = 0; j < 10; j++) {
+                DependencyTree dependency = new DependencyTree(i + "-" + j);
+                Issue issue = new Issue("issue-" + i + "-" + j, severities[(i + j) % severities.length], "", Lists.newArrayList(),
+                        Lists.newArrayList(), Lists.newArrayList(), "");
+                dependency.setIssues(Sets.newHashSet(issue));
+                dependency.setLicenses(Sets.newHashSet(new License("license-" + j, "license-" + j, Lists.newArrayList(), true)));
+                module.add(dependency);
+            }
+        }
+        return root;
     }
 
     /**
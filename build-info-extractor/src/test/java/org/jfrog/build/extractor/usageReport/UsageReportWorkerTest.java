@@ -0,0 +1,110 @@
+package org.jfrog.build.extractor.usageReport;
+
+import org.jfrog.build.extractor.util.TestingLog;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests the batching, the once per process guard and the time budget of {@link UsageReportWorker}.
+ */
+@Test
+public class UsageReportWorkerTest {
+    private static final String URL = "http://localhost/artifactory";
+
+    public void testBatchingAndOncePerProcess() throws Exception {
+        List<List<String>> sentReports = new CopyOnWriteArrayList<>();
+        CountDownLatch firstReportStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstReport = new CountDownLatch(1);
+        UsageReportWorker worker = new UsageReportWorker(TimeUnit.SECONDS.toMillis(10), (usageReporter, url, username, report, timeoutMillis) -> {
+            sentReports.add(getFeatures(usageReporter));
+            firstReportStarted.countDown();
+            try {
+                releaseFirstReport.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+        });
+
+        submit(worker, "f1", "f2");
+        assertTrue(firstReportStarted.await(10, TimeUnit.SECONDS));
+        // Reports submitted while the worker is busy are sent together, without the features already reported
+        submit(worker, "f2", "f3");
+        submit(worker, "f4");
+        submit(worker, "f1");
+        releaseFirstReport.countDown();
+        worker.awaitReports(TimeUnit.SECONDS.toMillis(10));
+
+        assertEquals(sentReports, Arrays.asList(Arrays.asList("f1", "f2"), Arrays.asList("f3", "f4")));
+    }
+
+    public void testTimeBudget() throws Exception {
+        List<List<String>> sentReports = new CopyOnWriteArrayList<>();
+        CountDownLatch slowReportCancelled = new CountDownLatch(1);
+        UsageReportWorker worker = new UsageReportWorker(200, (usageReporter, url, username, report, timeoutMillis) -> {
+            assertTrue(timeoutMillis <= 200, String.valueOf(timeoutMillis));
+            if (url.equals(URL)) {
+                try {
+                    // A slow server
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+                } catch (InterruptedException e) {
+                    slowReportCancelled.countDown();
+                    throw new IOException(e);
+                }
+            }
+            sentReports.add(getFeatures(usageReporter));
+        });
+
+        long start = System.nanoTime();
+        submit(worker, "slow");
+        submit(new UsageReporter("product", new String[]{"other"}), worker, "http://other/artifactory");
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 200, "Submitting a report must not block");
+        worker.awaitReports(TimeUnit.SECONDS.toMillis(10));
+
+        // The slow report was cancelled once the time budget was exceeded, without delaying the report to the other server
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < TimeUnit.SECONDS.toMillis(5));
+        assertTrue(slowReportCancelled.await(10, TimeUnit.SECONDS));
+        assertEquals(sentReports, Collections.singletonList(Collections.singletonList("other")));
+    }
+
+    public void testFailureNotPropagated() throws Exception {
+        List<List<String>> sentReports = new CopyOnWriteArrayList<>();
+        UsageReportWorker worker = new UsageReportWorker(TimeUnit.SECONDS.toMillis(10), (usageReporter, url, username, report, timeoutMillis) -> {
+            sentReports.add(getFeatures(usageReporter));
+            throw new IOException("Server unreachable");
+        });
+
+        submit(worker, "f1");
+        worker.awaitReports(TimeUnit.SECONDS.toMillis(10));
+        submit(worker, "f1", "f2");
+        worker.awaitReports(TimeUnit.SECONDS.toMillis(10));
+
+        assertEquals(sentReports, Arrays.asList(Collections.singletonList("f1"), Collections.singletonList("f2")));
+    }
+
+    private static void submit(UsageReportWorker worker, String... features) {
+        submit(new UsageReporter("product", features), worker, URL);
+    }
+
+    private static void submit(UsageReporter usageReporter, UsageReportWorker worker, String url) {
+        worker.submit(usageReporter, url, "user", "password", null, null, new TestingLog());
+    }
+
+    private static List<String> getFeatures(UsageReporter usageReporter) {
+        List<String> features = new ArrayList<>();
+        for (UsageReporter.FeatureId feature : usageReporter.getFeatures()) {
+            features.add(feature.getFeatureId());
+        }
+        return features;
+    }
+}
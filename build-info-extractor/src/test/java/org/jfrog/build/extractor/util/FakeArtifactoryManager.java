@@ -0,0 +1,20 @@
+package org.jfrog.build.extractor.util;
+
+import org.jfrog.build.api.util.Log;
+import org.jfrog.build.extractor.clientConfiguration.client.artifactory.ArtifactoryManager;
+
+/**
+ * An {@link ArtifactoryManager} of an Artifactory URL which is never reached.
+ * Tests extend it and override the requests they expect instead of sending them.
+ */
+public class FakeArtifactoryManager extends ArtifactoryManager {
+    public static final String ARTIFACTORY_URL = "http://localhost/artifactory";
+
+    public FakeArtifactoryManager() {
+        this(new TestingLog());
+    }
+
+    public FakeArtifactoryManager(Log log) {
+        super(ARTIFACTORY_URL, log);
+    }
+}
@@ -118,6 +118,27 @@ public class PublishedItemsHelperTest {
         }
     }
 
+    public void testMultiplePatternPairs() throws IOException {
+        Multimap<String, String> pairs = getPublishedItemsPatternPairs(
+                "**/*.blabla=>blabla, inner/*.gradle=>gradle, ../../saas/**/*.xml=>target/xml, *.properties");
+        Multimap<String, File> buildPublishingData = PublishedItemsHelper.buildPublishingData(checkoutDir, pairs);
+        assertEquals(buildPublishingData.size(), 7, "Expected to find 7 files");
+        assertEquals(buildPublishingData.get("blabla/inner/glgl/").size(), 1);
+        assertEquals(buildPublishingData.get("blabla/inner2/").size(), 1);
+        assertEquals(buildPublishingData.get("gradle").size(), 1);
+        assertEquals(buildPublishingData.get("target/xml/hello/").size(), 2);
+        // Files in sub directories don't match a pattern without directories
+        assertEquals(buildPublishingData.get("").size(), 2);
+
+        // The same results as building the publishing data of each pair separately
+        for (Map.Entry<String, String> entry : pairs.entries()) {
+            for (Map.Entry<String, File> fileEntry : getBuildPublishingData(entry).entries()) {
+                assertTrue(buildPublishingData.containsEntry(fileEntry.getKey(), fileEntry.getValue()),
+                        "Expected to find " + fileEntry.getValue());
+            }
+        }
+    }
+
     private Multimap<String, String> getPublishedItemsPatternPairs(String pattern) {
         return PublishedItemsHelper.getPublishedItemsPatternPairs(pattern);
     }
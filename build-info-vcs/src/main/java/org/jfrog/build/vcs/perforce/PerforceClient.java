@@ -12,6 +12,7 @@ import com.perforce.p4java.impl.generic.core.Changelist;
 import com.perforce.p4java.impl.generic.core.ChangelistSummary;
 import com.perforce.p4java.impl.generic.core.Label;
 import com.perforce.p4java.option.changelist.SubmitOptions;
+import com.perforce.p4java.option.server.TagFilesOptions;
 import com.perforce.p4java.option.server.TrustOptions;
 import com.perforce.p4java.server.IOptionsServer;
 import com.perforce.p4java.server.PerforceCharsets;
@@ -22,6 +23,9 @@ import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Properties;
@@ -30,6 +34,8 @@ import static com.perforce.p4java.server.IServerAddress.Protocol;
 
 /**
  * Client to communicate with perforce.
+ * The server session is kept open between calls, so one client can be used for all the stages of a release.
+ * Operations on multiple files send all the file specs in a single request.
  *
  * @author Shay Yaakov
  */
@@ -51,7 +57,9 @@ public class PerforceClient {
     public void initConnection() throws Exception {
         if (server != null) {
             this.server.setCurrentClient(this.client);
-            this.server.connect();
+            if (!server.isConnected()) {
+                this.server.connect();
+            }
         }
     }
 
@@ -129,21 +137,99 @@ public class PerforceClient {
     }
 
     public void editFile(int changeListId, File file) throws IOException {
+        editFiles(changeListId, Collections.singletonList(file));
+    }
+
+    /**
+     * Opens the files for editing in the given changelist, in a single request.
+     *
+     * @param changeListId The changelist to open the files in
+     * @param files        The files to open for editing
+     * @throws IOException In case of errors communicating with perforce server, or if any of the files could not be
+     *                     opened. The message contains the error of each file.
+     */
+    public void editFiles(int changeListId, Collection<File> files) throws IOException {
+        if (files.isEmpty()) {
+            return;
+        }
         try {
-            List<IFileSpec> fileSpecs = FileSpecBuilder.makeFileSpecList(file.getAbsolutePath());
-            List<IFileSpec> fileSpecsResult = client.editFiles(fileSpecs, false, false, changeListId, null);
-            for (IFileSpec fileSpec : fileSpecsResult) {
-                FileSpecOpStatus status = fileSpec.getOpStatus();
-                if (!FileSpecOpStatus.VALID.equals(status) && !FileSpecOpStatus.INFO.equals(status)) {
-                    String statusMessage = fileSpec.getStatusMessage();
-                    throw new IOException("Failed opening file for editing: : '" + statusMessage + "'");
-                }
-            }
+            List<IFileSpec> fileSpecsResult = client.editFiles(createFileSpecs(files), false, false, changeListId, null);
+            validateFileSpecs(fileSpecsResult, "Failed opening file for editing");
+        } catch (P4JavaException e) {
+            throw new IOException("Perforce execution failed: '" + e.getMessage() + "'", e);
+        }
+    }
+
+    /**
+     * Reverts the files in the given changelist, in a single request.
+     *
+     * @param changeListId The changelist the files are opened in
+     * @param files        The files to revert
+     * @throws IOException In case of errors communicating with perforce server, or if any of the files could not be
+     *                     reverted. The message contains the error of each file.
+     */
+    public void revertFiles(int changeListId, Collection<File> files) throws IOException {
+        if (files.isEmpty()) {
+            return;
+        }
+        try {
+            List<IFileSpec> fileSpecsResult = client.revertFiles(createFileSpecs(files), false, changeListId, false, false);
+            validateFileSpecs(fileSpecsResult, "Failed reverting file");
+        } catch (P4JavaException e) {
+            throw new IOException("Perforce execution failed: '" + e.getMessage() + "'", e);
+        }
+    }
+
+    /**
+     * Adds the current revisions of the files to an existing label, in a single request.
+     *
+     * @param labelName The label to tag the files with
+     * @param files     The files to tag
+     * @throws IOException In case of errors communicating with perforce server, or if any of the files could not be
+     *                     tagged. The message contains the error of each file.
+     */
+    public void labelFiles(String labelName, Collection<File> files) throws IOException {
+        if (files.isEmpty()) {
+            return;
+        }
+        try {
+            List<IFileSpec> fileSpecsResult = server.tagFiles(createFileSpecs(files), labelName, new TagFilesOptions());
+            validateFileSpecs(fileSpecsResult, "Failed labeling file");
         } catch (P4JavaException e) {
             throw new IOException("Perforce execution failed: '" + e.getMessage() + "'", e);
         }
     }
 
+    private List<IFileSpec> createFileSpecs(Collection<File> files) {
+        List<String> paths = new ArrayList<>(files.size());
+        for (File file : files) {
+            paths.add(file.getAbsolutePath());
+        }
+        return FileSpecBuilder.makeFileSpecList(paths);
+    }
+
+    /**
+     * Throws an exception with the status message of each file spec that failed.
+     */
+    private void validateFileSpecs(List<IFileSpec> fileSpecs, String errorMessage) throws IOException {
+        if (fileSpecs == null) {
+            return;
+        }
+        List<String> statusMessages = new ArrayList<>();
+        for (IFileSpec fileSpec : fileSpecs) {
+            FileSpecOpStatus status = fileSpec.getOpStatus();
+            if (!FileSpecOpStatus.VALID.equals(status) && !FileSpecOpStatus.INFO.equals(status)) {
+                statusMessages.add(fileSpec.getStatusMessage());
+            }
+        }
+        if (statusMessages.size() == 1) {
+            throw new IOException(errorMessage + ": '" + statusMessages.get(0) + "'");
+        }
+        if (!statusMessages.isEmpty()) {
+            throw new IOException(errorMessage + "s:\n'" + StringUtils.join(statusMessages, "'\n'") + "'");
+        }
+    }
+
     public void commitWorkingCopy(int changeListId, String commitMessage) throws IOException {
         try {
             IChangelist changelist = server.getChangelist(changeListId);
@@ -225,7 +311,9 @@ public class PerforceClient {
 
     public void closeConnection() throws IOException {
         try {
-            server.disconnect();
+            if (server.isConnected()) {
+                server.disconnect();
+            }
         } catch (P4JavaException e) {
             throw new IOException("Perforce execution failed: '" + e.getMessage() + "'", e);
         }
@@ -0,0 +1,127 @@
+package org.jfrog.build.vcs.perforce;
+
+import com.perforce.p4java.client.IClient;
+import com.perforce.p4java.core.file.FileSpecOpStatus;
+import com.perforce.p4java.core.file.IFileSpec;
+import com.perforce.p4java.impl.generic.core.file.FileSpec;
+import com.perforce.p4java.server.IOptionsServer;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests that the batch operations of {@link PerforceClient} send all the files in a single request, and map the status
+ * of the returned file specs to errors.
+ */
+@Test
+public class PerforceClientTest {
+    private final File fileA = new File("workspace", "a.txt");
+    private final File fileB = new File("workspace", "b.txt");
+
+    public void testEditFiles() throws Exception {
+        StubPerforce perforce = new StubPerforce(Arrays.asList(new FileSpec(FileSpecOpStatus.VALID, null),
+                new FileSpec(FileSpecOpStatus.INFO, "already opened for edit")));
+        perforce.createClient().editFiles(5, Arrays.asList(fileA, fileB));
+
+        assertEquals(perforce.requests, Collections.singletonList("editFiles:5:" + getPaths(fileA, fileB)));
+    }
+
+    public void testEditFileDelegatesToBatch() throws Exception {
+        StubPerforce perforce = new StubPerforce(Collections.singletonList(new FileSpec(FileSpecOpStatus.VALID, null)));
+        perforce.createClient().editFile(5, fileA);
+
+        assertEquals(perforce.requests, Collections.singletonList("editFiles:5:" + getPaths(fileA)));
+    }
+
+    public void testRevertFiles() throws Exception {
+        StubPerforce perforce = new StubPerforce(Collections.singletonList(new FileSpec(FileSpecOpStatus.ERROR, "not opened")));
+        IOException e = expectThrows(IOException.class, () -> perforce.createClient().revertFiles(7, Arrays.asList(fileA, fileB)));
+
+        assertEquals(e.getMessage(), "Failed reverting file: 'not opened'");
+        assertEquals(perforce.requests, Collections.singletonList("revertFiles:7:" + getPaths(fileA, fileB)));
+    }
+
+    public void testLabelFiles() throws Exception {
+        StubPerforce perforce = new StubPerforce(Arrays.asList(new FileSpec(FileSpecOpStatus.ERROR, "no such file a"),
+                new FileSpec(FileSpecOpStatus.VALID, null), new FileSpec(FileSpecOpStatus.ERROR, "no such file b")));
+        IOException e = expectThrows(IOException.class, () -> perforce.createClient().labelFiles("release", Arrays.asList(fileA, fileB)));
+
+        assertEquals(e.getMessage(), "Failed labeling files:\n'no such file a'\n'no such file b'");
+        assertEquals(perforce.requests, Collections.singletonList("tagFiles:release:" + getPaths(fileA, fileB)));
+    }
+
+    public void testNoRequestForNoFiles() throws Exception {
+        StubPerforce perforce = new StubPerforce(Collections.emptyList());
+        PerforceClient client = perforce.createClient();
+        client.editFiles(1, Collections.emptyList());
+        client.revertFiles(1, Collections.emptyList());
+        client.labelFiles("release", Collections.emptyList());
+
+        assertTrue(perforce.requests.isEmpty(), perforce.requests.toString());
+    }
+
+    private static List<String> getPaths(File... files) {
+        List<String> paths = new ArrayList<>();
+        for (File file : files) {
+            paths.add(file.getAbsolutePath());
+        }
+        return paths;
+    }
+
+    /**
+     * Stubs the p4java client and server, recording the batch requests and answering them with the given file specs.
+     */
+    private static class StubPerforce {
+        private final List<IFileSpec> results;
+        private final List<String> requests = new ArrayList<>();
+
+        StubPerforce(List<IFileSpec> results) {
+            this.results = results;
+        }
+
+        PerforceClient createClient() throws Exception {
+            IClient client = (IClient) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{IClient.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "editFiles":
+                            case "revertFiles":
+                                int changeListId = (int) args[method.getName().equals("editFiles") ? 3 : 2];
+                                return record(method.getName() + ":" + changeListId, args[0]);
+                            default:
+                                fail("Unexpected client call: " + method.getName());
+                                return null;
+                        }
+                    });
+            IOptionsServer server = (IOptionsServer) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{IOptionsServer.class}, (proxy, method, args) -> {
+                        if (method.getName().equals("tagFiles")) {
+                            return record("tagFiles:" + args[1], args[0]);
+                        }
+                        fail("Unexpected server call: " + method.getName());
+                        return null;
+                    });
+            return new PerforceClient(server, client);
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<IFileSpec> record(String request, Object fileSpecs) {
+            List<String> paths = new ArrayList<>();
+            for (IFileSpec fileSpec : (List<IFileSpec>) fileSpecs) {
+                paths.add(fileSpec.getOriginalPathString());
+            }
+            requests.add(request + ":" + paths);
+            return results;
+        }
+    }
+}